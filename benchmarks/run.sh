@@ -0,0 +1,18 @@
+#!/bin/sh
+# Builds the application and the benchmarks, runs them and writes JMH's JSON results to
+# benchmarks/results/<commit>.json. Arguments go to JMH, e.g.
+#   benchmarks/run.sh 'Ingest|Json' -wi 2 -i 3
+# Two runs are compared with
+#   java -cp benchmarks/target/benchmarks.jar com.miniSIEM.benchmark.CompareResults \
+#       benchmarks/results/<base>.json benchmarks/results/<head>.json
+set -e
+cd "$(dirname "$0")/.."
+
+commit=$(git rev-parse --short HEAD)
+git diff --quiet HEAD -- src benchmarks/src || commit="$commit-dirty"
+
+sh ./mvnw -B -q -DskipTests install
+sh ./mvnw -B -q -f benchmarks/pom.xml package
+mkdir -p benchmarks/results
+java -jar benchmarks/target/benchmarks.jar -rf json -rff "benchmarks/results/$commit.json" "$@"
+echo "Results written to benchmarks/results/$commit.json"
@@ -0,0 +1,73 @@
+package com.miniSIEM.benchmark;
+
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.model.LogTag;
+import com.miniSIEM.service.BruteForceDetector;
+import com.miniSIEM.service.IpWhitelistService;
+import com.miniSIEM.service.ReplayDetector;
+import com.miniSIEM.util.IpKeys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Events per second through {@link BruteForceDetector}'s per-IP grouping: the failed-login check,
+ * the allowlist lookup, the per-IP window and the timing wheel that expires idle IPs, with the
+ * windows spread over up to a million distinct IPs. It runs as a replay detector so time is the
+ * event time, advancing a millisecond per event, and the wheel is driven once per batch.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class BruteForceDetectorBenchmark {
+
+    private static final int BATCH = 4096;
+    private static final int EVENTS = 1 << 20;
+
+    @Param({"1000", "100000", "1000000"})
+    public int distinctIps;
+
+    private ReplayDetector detector;
+    private LogEntry[] events;
+    private int next;
+    private long now;
+    private long alerts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Empty allowlist, nothing is loaded from disk
+        IpWhitelistService allowlist = new IpWhitelistService("benchmark-allowlist.txt");
+        now = System.currentTimeMillis();
+        detector = new BruteForceDetector(null, allowlist, 5, 5)
+                .replay(alert -> alerts++, now, null, null);
+
+        Random random = new Random(42);
+        events = new LogEntry[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            String ip = IpKeys.ipv4ToString(0x0A000000L + random.nextInt(distinctIps));
+            // Mostly failures, the rest do not count toward a window
+            int roll = random.nextInt(100);
+            List<String> tags = roll < 70 ? List.of(LogTag.LOGIN.name(), LogTag.AUTH_FAILURE.name())
+                    : roll < 85 ? List.of(LogTag.LOGIN.name(), LogTag.AUTH_SUCCESS.name())
+                    : List.of();
+            events[i] = new LogEntry("log-" + i, null, "sshd", "WARN", "event " + i, ip, tags, null, null, null);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void process(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            detector.process(events[next], now++);
+            next = (next + 1) & (EVENTS - 1);
+        }
+        detector.advanceTo(now);
+        blackhole.consume(alerts);
+    }
+}
@@ -0,0 +1,92 @@
+package com.miniSIEM.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files (written with {@code -rf json}), typically from two commits:
+ * prints each benchmark and parameter set found in both with its change, and exits with status 1
+ * if any got worse by more than the threshold and by more than the two runs' combined error.
+ * Throughput scores are better higher, all other modes lower.
+ * <pre>
+ *   java -cp benchmarks/target/benchmarks.jar com.miniSIEM.benchmark.CompareResults base.json head.json [threshold%]
+ * </pre>
+ */
+public final class CompareResults {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    private record Score(String mode, double score, double error, String unit) {
+    }
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: CompareResults <base.json> <head.json> [threshold%]");
+            System.exit(2);
+        }
+        double threshold = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Score> base = read(new File(args[0]));
+        Map<String, Score> head = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : head.entrySet()) {
+            Score before = base.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null || !before.mode().equals(after.mode()) || !before.unit().equals(after.unit())) {
+                System.out.printf("%-90s %14s %14.3f %-12s (new)%n", entry.getKey(), "", after.score(), after.unit());
+                continue;
+            }
+            double change = (after.score() - before.score()) / before.score() * 100.0;
+            double worse = "thrpt".equals(after.mode()) ? -change : change;
+            boolean regressed = worse > threshold
+                    && Math.abs(after.score() - before.score()) > errorOf(before) + errorOf(after);
+            if (regressed) regressions++;
+            System.out.printf("%-90s %14.3f %14.3f %-12s %+8.1f%%%s%n", entry.getKey(), before.score(), after.score(),
+                    after.unit(), change, regressed ? "  REGRESSION" : "");
+        }
+        for (String key : base.keySet()) {
+            if (!head.containsKey(key)) {
+                System.out.printf("%-90s (missing from %s)%n", key, args[1]);
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    // Keyed by benchmark name and parameters, e.g. "...IpAllowlistBenchmark.trieIpv4String cidrCount=5000"
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Map<String, String> params = new TreeMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = result.path("params").fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = it.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+
+            JsonNode metric = result.path("primaryMetric");
+            scores.put(key.toString(), new Score(result.path("mode").asText(), metric.path("score").asDouble(),
+                    metric.path("scoreError").asDouble(Double.NaN), metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    // JMH reports NaN when there were too few iterations to estimate it
+    private static double errorOf(Score score) {
+        return Double.isNaN(score.error()) ? 0 : score.error();
+    }
+}
@@ -0,0 +1,114 @@
+package com.miniSIEM.benchmark;
+
+import com.miniSIEM.detection.CompiledRule;
+import com.miniSIEM.detection.ConditionDefinition;
+import com.miniSIEM.detection.RuleCompiler;
+import com.miniSIEM.detection.RuleDefinition;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.model.LogTag;
+import com.miniSIEM.util.IpKeys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Events per second through a two-step sequence rule ("5 failed logins, then a success, within
+ * 10 minutes per IP") with the partial-match state spread over up to a million distinct IPs,
+ * next to a plain threshold rule on the same condition. Time advances one millisecond per event
+ * and the timing wheel is driven once per batch, so expiry cost is included.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class CorrelationBenchmark {
+
+    private static final int BATCH = 4096;
+    private static final int EVENTS = 1 << 20;
+
+    @Param({"10000", "1000000"})
+    public int distinctIps;
+
+    private CompiledRule sequenceRule;
+    private CompiledRule thresholdRule;
+    private LogEntry[] events;
+    private int next;
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RuleCompiler compiler = new RuleCompiler();
+        sequenceRule = compiler.compile(sequenceDefinition());
+        thresholdRule = compiler.compile(thresholdDefinition());
+
+        Random random = new Random(42);
+        events = new LogEntry[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            String ip = IpKeys.ipv4ToString(0x0A000000L + random.nextInt(distinctIps));
+            // Mostly failures, some successes and unrelated noise that matches no step
+            int roll = random.nextInt(100);
+            LogTag tag = roll < 70 ? LogTag.AUTH_FAILURE : roll < 85 ? LogTag.AUTH_SUCCESS : LogTag.CONFIG_CHANGE;
+            events[i] = new LogEntry("log-" + i, null, "sshd", "INFO", "event " + i, ip, List.of(tag.name()), null, null, null);
+        }
+        now = System.currentTimeMillis();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void sequence(Blackhole blackhole) {
+        run(sequenceRule, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void threshold(Blackhole blackhole) {
+        run(thresholdRule, blackhole);
+    }
+
+    private void run(CompiledRule rule, Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(rule.evaluate(events[next], now++));
+            next = (next + 1) & (EVENTS - 1);
+        }
+        rule.expireIdleGroups(now);
+    }
+
+    private static RuleDefinition sequenceDefinition() {
+        RuleDefinition.StepDefinition failures = new RuleDefinition.StepDefinition();
+        failures.setName("failed logins");
+        failures.setCount(5);
+        failures.setCondition(tag(LogTag.AUTH_FAILURE));
+        RuleDefinition.StepDefinition success = new RuleDefinition.StepDefinition();
+        success.setName("successful login");
+        success.setCondition(tag(LogTag.AUTH_SUCCESS));
+
+        RuleDefinition.SequenceDefinition sequence = new RuleDefinition.SequenceDefinition();
+        sequence.setWithin("10m");
+        sequence.setSteps(List.of(failures, success));
+
+        RuleDefinition definition = new RuleDefinition();
+        definition.setId("bench-sequence");
+        definition.setSequence(sequence);
+        return definition;
+    }
+
+    private static RuleDefinition thresholdDefinition() {
+        RuleDefinition definition = new RuleDefinition();
+        definition.setId("bench-threshold");
+        definition.setCondition(tag(LogTag.AUTH_FAILURE));
+        definition.getThreshold().setCount(5);
+        definition.getThreshold().setWindow("10m");
+        return definition;
+    }
+
+    private static ConditionDefinition tag(LogTag tag) {
+        ConditionDefinition condition = new ConditionDefinition();
+        condition.setTag(tag.name());
+        return condition;
+    }
+}
@@ -0,0 +1,74 @@
+package com.miniSIEM.benchmark;
+
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.service.GeoIpService;
+import com.miniSIEM.service.LogService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entries per second through the per-entry ingest work in {@code LogService}: validation,
+ * classification, pattern parsing and sanitization ({@code validateLogEntry}), and the
+ * sanitizing regexes alone ({@code sanitizeInput}) over the same messages. Both are private and
+ * are called through method handles; GeoIP is disabled, and nothing is saved or published.
+ * Each entry is copied before validation since it is modified in place; the copy is included.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class IngestValidationBenchmark {
+
+    private static final int BATCH = 1024;
+    private static final int ENTRIES = 1 << 14;
+
+    // Share of entries carrying script or SQL payloads
+    @Param({"0", "20"})
+    public int payloadPercent;
+
+    private LogService logService;
+    private MethodHandle validateLogEntry;
+    private MethodHandle sanitizeInput;
+    private LogEntry[] entries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        logService = new LogService(null, null, SampleLogs.classifier(), SampleLogs.parser(),
+                new GeoIpService(false, "", 1));
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(LogService.class, MethodHandles.lookup());
+        validateLogEntry = lookup.findVirtual(LogService.class, "validateLogEntry",
+                MethodType.methodType(void.class, LogEntry.class));
+        sanitizeInput = lookup.findVirtual(LogService.class, "sanitizeInput",
+                MethodType.methodType(String.class, String.class));
+        entries = SampleLogs.generate(new Random(42), ENTRIES, 10_000, payloadPercent, 3600);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void validateLogEntry(Blackhole blackhole) throws Throwable {
+        for (int i = 0; i < BATCH; i++) {
+            LogEntry entry = SampleLogs.copy(entries[next]);
+            validateLogEntry.invokeExact(logService, entry);
+            blackhole.consume(entry);
+            next = (next + 1) & (ENTRIES - 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void sanitizeInput(Blackhole blackhole) throws Throwable {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume((String) sanitizeInput.invokeExact(logService, entries[next].getMessage()));
+            next = (next + 1) & (ENTRIES - 1);
+        }
+    }
+}
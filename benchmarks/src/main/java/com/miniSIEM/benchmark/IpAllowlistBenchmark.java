@@ -0,0 +1,103 @@
+package com.miniSIEM.benchmark;
+
+import com.miniSIEM.util.CidrTrie;
+import com.miniSIEM.util.IpKeys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allowlist lookups per second against {@link CidrTrie} loaded with a realistic number of CIDRs:
+ * pre-parsed primitive keys, the String path used by IpWhitelistService (parse + lookup), IPv6,
+ * and the old exact-match {@code Set<String>} as a baseline. Each invocation looks up a batch of
+ * random addresses, roughly a tenth of which fall inside a loaded range.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class IpAllowlistBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"100", "5000", "50000"})
+    public int cidrCount;
+
+    private CidrTrie ipv4Trie;
+    private CidrTrie ipv6Trie;
+    private Set<String> exactSet;
+
+    private long[] ipv4Keys;
+    private String[] ipv4Strings;
+    private long[] ipv6High;
+    private long[] ipv6Low;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        CidrTrie.Builder v4 = CidrTrie.builder();
+        CidrTrie.Builder v6 = CidrTrie.builder();
+        exactSet = new HashSet<>();
+        long[] loaded = new long[cidrCount];
+
+        for (int i = 0; i < cidrCount; i++) {
+            long address = random.nextInt() & 0xFFFFFFFFL;
+            loaded[i] = address;
+            v4.addIpv4(address, 16 + random.nextInt(17));
+            v6.addIpv6(random.nextLong(), random.nextLong(), 32 + random.nextInt(97));
+            exactSet.add(IpKeys.ipv4ToString(address));
+        }
+        ipv4Trie = v4.build();
+        ipv6Trie = v6.build();
+
+        ipv4Keys = new long[BATCH];
+        ipv4Strings = new String[BATCH];
+        ipv6High = new long[BATCH];
+        ipv6Low = new long[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            long address = i % 10 == 0 ? loaded[random.nextInt(cidrCount)] : random.nextInt() & 0xFFFFFFFFL;
+            ipv4Keys[i] = address;
+            ipv4Strings[i] = IpKeys.ipv4ToString(address);
+            ipv6High[i] = random.nextLong();
+            ipv6Low[i] = random.nextLong();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void trieIpv4Primitive(Blackhole blackhole) {
+        for (long key : ipv4Keys) {
+            blackhole.consume(ipv4Trie.containsIpv4(key));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void trieIpv4String(Blackhole blackhole) {
+        for (String ip : ipv4Strings) {
+            blackhole.consume(ipv4Trie.containsIpv4(IpKeys.parseIpv4(ip)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void trieIpv6Primitive(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(ipv6Trie.containsIpv6(ipv6High[i], ipv6Low[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void exactStringSet(Blackhole blackhole) {
+        for (String ip : ipv4Strings) {
+            blackhole.consume(exactSet.contains(ip));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.miniSIEM.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.service.LogClassifier;
+import com.miniSIEM.service.LogParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entries per second through Jackson for {@link LogEntry}, configured as the application's
+ * mapper: a single entry as posted to /api/logs and returned from it, and bulk arrays as posted
+ * to /api/logs/bulk and returned by searches. Entries are classified and parsed first, so tags
+ * and parsed fields are part of the documents.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class LogEntryJsonBenchmark {
+
+    private static final int BATCH = 256;
+    private static final int ENTRIES = 1 << 12;
+
+    @Param({"1000"})
+    public int bulkSize;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private ObjectWriter bulkWriter;
+    private ObjectReader bulkReader;
+
+    private LogEntry[] entries;
+    private byte[][] documents;
+    private List<LogEntry> bulk;
+    private byte[] bulkDocument;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = SampleLogs.objectMapper();
+        writer = objectMapper.writerFor(LogEntry.class);
+        reader = objectMapper.readerFor(LogEntry.class);
+        bulkWriter = objectMapper.writerFor(new TypeReference<List<LogEntry>>() {});
+        bulkReader = objectMapper.readerFor(new TypeReference<List<LogEntry>>() {});
+
+        LogClassifier classifier = SampleLogs.classifier();
+        LogParser parser = SampleLogs.parser();
+        entries = SampleLogs.generate(new Random(42), ENTRIES, 10_000, 5, 3600);
+        documents = new byte[ENTRIES][];
+        for (int i = 0; i < ENTRIES; i++) {
+            entries[i].setId(Integer.toHexString(0x10000000 + i) + "0123456789abcdef");
+            classifier.classify(entries[i]);
+            parser.parse(entries[i]);
+            documents[i] = writer.writeValueAsBytes(entries[i]);
+        }
+        bulk = Arrays.asList(Arrays.copyOf(entries, bulkSize));
+        bulkDocument = bulkWriter.writeValueAsBytes(bulk);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void serialize(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(writer.writeValueAsBytes(entries[next]));
+            next = (next + 1) & (ENTRIES - 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void deserialize(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(reader.<LogEntry>readValue(documents[next]));
+            next = (next + 1) & (ENTRIES - 1);
+        }
+    }
+
+    // One invocation is one bulk array; scores are per array, not per entry
+    @Benchmark
+    public byte[] serializeBulk() throws IOException {
+        return bulkWriter.writeValueAsBytes(bulk);
+    }
+
+    @Benchmark
+    public List<LogEntry> deserializeBulk() throws IOException {
+        return bulkReader.readValue(bulkDocument);
+    }
+}
@@ -0,0 +1,108 @@
+package com.miniSIEM.benchmark;
+
+import com.miniSIEM.model.LogEntry;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking (MongoTemplate, as behind LogRepository) vs reactive (ReactiveMongoTemplate, as behind
+ * ReactiveLogRepository) for N concurrent large reads. The blocking side is capped at a fixed
+ * pool the size of a typical servlet thread budget; the reactive side runs every read at once
+ * on the driver's event loop. Requires a MongoDB at -Dmongo.uri (default localhost); data is
+ * seeded into a separate benchmark database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LogReadPathBenchmark {
+
+    private static final String DATABASE = "mini_siem_bench";
+
+    @Param({"1", "16", "64"})
+    public int concurrentReads;
+
+    @Param({"5000"})
+    public int docsPerRead;
+
+    @Param({"8"})
+    public int blockingThreads;
+
+    private MongoClient syncClient;
+    private com.mongodb.reactivestreams.client.MongoClient reactiveClient;
+    private MongoTemplate mongoTemplate;
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+    private ExecutorService blockingPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String uri = System.getProperty("mongo.uri", "mongodb://localhost:27017");
+        syncClient = MongoClients.create(uri);
+        reactiveClient = com.mongodb.reactivestreams.client.MongoClients.create(uri);
+        mongoTemplate = new MongoTemplate(syncClient, DATABASE);
+        reactiveMongoTemplate = new ReactiveMongoTemplate(reactiveClient, DATABASE);
+        blockingPool = Executors.newFixedThreadPool(blockingThreads);
+
+        mongoTemplate.dropCollection(LogEntry.class);
+        List<LogEntry> batch = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < docsPerRead; i++) {
+            batch.add(new LogEntry(null, now.minusSeconds(i), "bench-source", i % 10 == 0 ? "ERROR" : "INFO",
+                    "Benchmark log message number " + i + " with some padding to resemble a real log line",
+                    "10.0." + (i % 256) + "." + (i % 200), null, null, null, null));
+        }
+        mongoTemplate.insertAll(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongoTemplate.dropCollection(LogEntry.class);
+        blockingPool.shutdownNow();
+        syncClient.close();
+        reactiveClient.close();
+    }
+
+    @Benchmark
+    public void blocking(Blackhole blackhole) throws Exception {
+        List<Future<?>> reads = new ArrayList<>(concurrentReads);
+        for (int i = 0; i < concurrentReads; i++) {
+            reads.add(blockingPool.submit(() ->
+                    mongoTemplate.find(query(), LogEntry.class).forEach(blackhole::consume)));
+        }
+        for (Future<?> read : reads) {
+            read.get();
+        }
+    }
+
+    @Benchmark
+    public void reactive(Blackhole blackhole) {
+        Flux.range(0, concurrentReads)
+                .flatMap(i -> reactiveMongoTemplate.find(query(), LogEntry.class), concurrentReads)
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    private Query query() {
+        return new Query(Criteria.where("source").is("bench-source"))
+                .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+                .limit(docsPerRead);
+    }
+}
@@ -0,0 +1,54 @@
+package com.miniSIEM.benchmark;
+
+import com.miniSIEM.dto.LogActivity;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.repository.LogRepository;
+import com.miniSIEM.service.DashboardService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to build the dashboard's activity chart ({@code DashboardService.getRecentActivity}) from
+ * a day of logs: grouping by hour and level, then sorting the buckets. The repository is an
+ * in-memory stand-in returning a prepared list, so only the grouping in the service is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class RecentActivityBenchmark {
+
+    private static final int HOURS = 24;
+
+    @Param({"10000", "100000", "1000000"})
+    public int logCount;
+
+    private DashboardService dashboardService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<LogEntry> logs = Arrays.asList(SampleLogs.generate(new Random(42), logCount, 10_000, 0, HOURS * 3600L));
+        LogRepository logRepository = (LogRepository) Proxy.newProxyInstance(LogRepository.class.getClassLoader(),
+                new Class<?>[]{LogRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findByTimestampAfter") && args.length == 1
+                            && args[0] instanceof Instant) {
+                        return logs;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        dashboardService = new DashboardService(logRepository, null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<LogActivity> getRecentActivity() {
+        return dashboardService.getRecentActivity(HOURS);
+    }
+}
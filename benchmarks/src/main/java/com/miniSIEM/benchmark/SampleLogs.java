@@ -0,0 +1,107 @@
+package com.miniSIEM.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.service.LogClassifier;
+import com.miniSIEM.service.LogParser;
+import com.miniSIEM.util.IpKeys;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Random;
+
+/**
+ * Log traffic shared by the benchmarks: a mix of sshd, sudo, nginx and application lines as
+ * shippers send them (untagged, unparsed), with an optional share of requests carrying script or
+ * SQL payloads, plus the application's own classifier, parser and JSON settings.
+ */
+public final class SampleLogs {
+
+    private static final String[] USERS = {"root", "admin", "deploy", "alice", "bob", "oracle", "test"};
+    private static final String[] PATHS = {"/", "/login", "/api/orders", "/static/app.js", "/wp-login.php"};
+    private static final String[] PAYLOADS = {
+            "<script>alert(document.cookie)</script>",
+            "1' UNION SELECT username, password FROM users--",
+            "javascript:alert(1)",
+            "'; DROP TABLE logs; --"
+    };
+
+    private SampleLogs() {
+    }
+
+    /**
+     * {@code count} entries from {@code distinctIps} IPv4 addresses, timestamps spread over the
+     * last {@code spanSeconds}; {@code payloadPercent} of them carry an injection payload.
+     */
+    public static LogEntry[] generate(Random random, int count, int distinctIps, int payloadPercent, long spanSeconds) {
+        Instant now = Instant.now();
+        LogEntry[] entries = new LogEntry[count];
+        for (int i = 0; i < count; i++) {
+            String ip = IpKeys.ipv4ToString(0xC0A80000L + random.nextInt(distinctIps));
+            Instant timestamp = now.minusSeconds(spanSeconds > 0 ? random.nextInt((int) spanSeconds) : 0);
+            String user = USERS[random.nextInt(USERS.length)];
+            int port = 1024 + random.nextInt(60000);
+            String payload = random.nextInt(100) < payloadPercent ? PAYLOADS[random.nextInt(PAYLOADS.length)] : null;
+
+            int kind = random.nextInt(10);
+            if (payload != null) {
+                entries[i] = entry(timestamp, "nginx", "WARN", ip, ip + " - - [10/Oct/2025:13:55:36 +0000] \"GET /search?q="
+                        + payload + " HTTP/1.1\" 200 512 \"-\" \"Mozilla/5.0\"");
+            } else if (kind < 4) {
+                entries[i] = entry(timestamp, "sshd", "WARN", ip,
+                        "Failed password for " + user + " from " + ip + " port " + port + " ssh2");
+            } else if (kind < 5) {
+                entries[i] = entry(timestamp, "sshd", "INFO", ip,
+                        "Accepted publickey for " + user + " from " + ip + " port " + port + " ssh2");
+            } else if (kind < 6) {
+                entries[i] = entry(timestamp, "sudo", "INFO", ip,
+                        user + " : TTY=pts/0 ; PWD=/home/" + user + " ; USER=root ; COMMAND=/usr/bin/systemctl restart nginx");
+            } else if (kind < 9) {
+                entries[i] = entry(timestamp, "nginx", "INFO", ip, ip + " - - [10/Oct/2025:13:55:36 +0000] \"GET "
+                        + PATHS[random.nextInt(PATHS.length)] + " HTTP/1.1\" 200 " + random.nextInt(20000)
+                        + " \"-\" \"Mozilla/5.0\"");
+            } else {
+                entries[i] = entry(timestamp, "orders-service", "ERROR", ip,
+                        "Payment gateway timeout after 30000 ms for order " + random.nextInt(1_000_000));
+            }
+        }
+        return entries;
+    }
+
+    // A fresh copy of what a shipper sent, for code paths that modify the entry
+    public static LogEntry copy(LogEntry entry) {
+        return entry(entry.getTimestamp(), entry.getSource(), entry.getLogLevel(), entry.getIp(), entry.getMessage());
+    }
+
+    public static LogClassifier classifier() {
+        try {
+            return new LogClassifier(new DefaultResourceLoader(), "classpath:classification/keywords.yml");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static LogParser parser() {
+        try {
+            return new LogParser(new DefaultResourceLoader(), "classpath:parsing/patterns.yml", 10_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Configured like the application's auto-configured mapper
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .build();
+    }
+
+    private static LogEntry entry(Instant timestamp, String source, String level, String ip, String message) {
+        return new LogEntry(null, timestamp, source, level, message, ip, null, null, null, null);
+    }
+}
@@ -0,0 +1,103 @@
+package com.miniSIEM.realtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniSIEM.benchmark.SampleLogs;
+import com.miniSIEM.model.LogEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frames per second for the live feed's {@code newLogs} events: building the summaries and
+ * serializing them into an SSE frame, and the same followed by fan-out through
+ * {@link RealtimeHub} to every viewer's queue and output stream. Viewers write to streams that
+ * discard the bytes and are always ready, on the calling thread, so socket time is excluded.
+ * Lives in the realtime package to reach the hub's package-private send path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class RealtimeFanoutBenchmark {
+
+    private static final int ENTRIES = 1 << 12;
+
+    @Param({"1", "50"})
+    public int eventsPerFrame;
+
+    @Param({"1", "100", "1000"})
+    public int viewers;
+
+    private ObjectMapper objectMapper;
+    private RealtimeHub hub;
+    private List<RealtimeClient> clients;
+    private LogEntry[] entries;
+    private int next;
+    private long seq;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = SampleLogs.objectMapper();
+        hub = new RealtimeHub(objectMapper, new SimpleMeterRegistry(), 1024,
+                RealtimeHub.SlowConsumerPolicy.DROP_OLDEST, 1, 0);
+        clients = new ArrayList<>(viewers);
+        for (int i = 0; i < viewers; i++) {
+            clients.add(new RealtimeClient(hub, "viewer-" + i, null, new DiscardingOutputStream(), Runnable::run,
+                    1024, RealtimeHub.SlowConsumerPolicy.DROP_OLDEST, client -> {}));
+        }
+        entries = SampleLogs.generate(new Random(42), ENTRIES, 10_000, 0, 60);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hub.shutdown();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return RealtimeHub.frame("newLogs", "bench-" + seq++, objectMapper.writeValueAsBytes(nextFrame()));
+    }
+
+    @Benchmark
+    public void fanOut() {
+        hub.send(clients, "newLogs", "bench-" + seq++, nextFrame());
+    }
+
+    private Map<String, Object> nextFrame() {
+        List<Map<String, Object>> events = new ArrayList<>(eventsPerFrame);
+        for (int i = 0; i < eventsPerFrame; i++) {
+            events.add(LiveLogFeed.summary(entries[next]));
+            next = (next + 1) & (ENTRIES - 1);
+        }
+        return LiveLogFeed.newLogsFrame(events, 0);
+    }
+
+    private static final class DiscardingOutputStream extends ServletOutputStream {
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.miniSIEM.config;
 
+import com.miniSIEM.security.IngestKeyAuthenticationFilter;
 import com.miniSIEM.security.JwtAuthenticationFilter;
 import com.miniSIEM.security.JwtAuthenticationEntryPoint;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -50,11 +52,15 @@ public class SecurityConfig {
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http,
                                            JwtAuthenticationFilter jwtAuthenticationFilter,
+                                           IngestKeyAuthenticationFilter ingestKeyAuthenticationFilter,
                                            AuthenticationProvider authenticationProvider,
                                            JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authz -> authz
+                        // Async dispatches of streaming responses were already authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/health").permitAll()
@@ -64,7 +70,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/users/**").hasRole("ADMIN")
 
-                        .requestMatchers(HttpMethod.POST, "/api/logs").hasAnyRole("ADMIN", "ANALYST")
+                        // Log shippers' ingest keys grant ROLE_INGEST, valid on these two endpoints only
+                        .requestMatchers(HttpMethod.POST, "/api/logs", "/api/logs/bulk").hasAnyRole("ADMIN", "ANALYST", "INGEST")
                         .requestMatchers(HttpMethod.GET, "/api/logs/**").hasAnyRole("ADMIN", "ANALYST", "VIEWER")
 
 
@@ -76,6 +83,7 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(ingestKeyAuthenticationFilter, JwtAuthenticationFilter.class)
                 .exceptionHandling(exceptions -> exceptions
                         .authenticationEntryPoint(jwtAuthenticationEntryPoint)
                 );
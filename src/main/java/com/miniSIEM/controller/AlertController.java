@@ -1,30 +1,101 @@
 package com.miniSIEM.controller;
 
 import com.miniSIEM.model.Alert;
-import com.miniSIEM.repository.AlertRepository;
+import com.miniSIEM.model.NotificationDeadLetter;
+import com.miniSIEM.notification.NotificationDispatcher;
+import com.miniSIEM.service.AlertService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/alerts")
 @RequiredArgsConstructor
 public class AlertController {
-    private final AlertRepository alertRepository;
+    private static final int MAX_PAGE_SIZE = 500;
 
+    private final AlertService alertService;
+    private final NotificationDispatcher notificationDispatcher;
+
+    /**
+     * Unresolved alerts, newest first, unless {@code resolved} says otherwise. {@code severity} takes
+     * a comma-separated list; {@code from}/{@code to} are ISO-8601 instants on the first occurrence.
+     */
     @GetMapping
-    public List<Alert> getActiveAlerts() {
-        return alertRepository.findByResolvedFalse();
+    public ResponseEntity<?> getAlerts(@RequestParam(defaultValue = "false") Boolean resolved,
+                                       @RequestParam(required = false) String severity,
+                                       @RequestParam(required = false) String type,
+                                       @RequestParam(required = false) Instant from,
+                                       @RequestParam(required = false) Instant to,
+                                       @RequestParam(defaultValue = "0") int page,
+                                       @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE));
+        }
+        List<String> severities = severity == null ? null : Arrays.stream(severity.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(String::toUpperCase)
+                .toList();
+
+        Page<Alert> alerts = alertService.findAlerts(resolved, severities, type, from, to, page, size);
+        return ResponseEntity.ok(Map.of(
+                "content", alerts.getContent(),
+                "page", page,
+                "size", size,
+                "totalElements", alerts.getTotalElements(),
+                "totalPages", alerts.getTotalPages()
+        ));
     }
 
     @PostMapping("/{id}/resolve")
     public Alert resolveAlert(@PathVariable String id) {
-        return alertRepository.findById(id)
-                .map(alert -> {
-                    alert.setResolved(true);
-                    return alertRepository.save(alert);
-                })
-                .orElseThrow();
+        return alertService.resolve(id).orElseThrow();
+    }
+
+    @GetMapping("/notifications")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getNotificationStatus() {
+        return ResponseEntity.ok(notificationDispatcher.getStatus());
+    }
+
+    @GetMapping("/notifications/dead-letters")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getDeadLetters(@RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE));
+        }
+        Page<NotificationDeadLetter> deadLetters = notificationDispatcher.findDeadLetters(page, size);
+        return ResponseEntity.ok(Map.of(
+                "content", deadLetters.getContent(),
+                "page", page,
+                "size", size,
+                "totalElements", deadLetters.getTotalElements(),
+                "totalPages", deadLetters.getTotalPages()
+        ));
+    }
+
+    @PostMapping("/notifications/dead-letters/{id}/redeliver")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> redeliver(@PathVariable String id) {
+        try {
+            int requeued = notificationDispatcher.redeliver(id);
+            return ResponseEntity.ok(Map.of("requeued", requeued));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.miniSIEM.controller;
+
+import com.miniSIEM.service.IpWhitelistService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/allowlist")
+@RequiredArgsConstructor
+@Slf4j
+public class AllowlistController {
+
+    private final IpWhitelistService ipWhitelist;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getAllowlist() {
+        return ResponseEntity.ok(Map.of(
+                "entries", ipWhitelist.getEntries(),
+                "status", ipWhitelist.getStatus()
+        ));
+    }
+
+    @GetMapping("/check")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST')")
+    public ResponseEntity<?> checkIp(@RequestParam String ip) {
+        return ResponseEntity.ok(Map.of("ip", ip, "allowlisted", ipWhitelist.isWhitelisted(ip)));
+    }
+
+    @PutMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> replaceEntries(@RequestBody List<String> entries, Authentication authentication) {
+        log.info("Allowlist replaced by user: {} ({} entries)", authentication.getName(), entries.size());
+        try {
+            return ResponseEntity.ok(ipWhitelist.replaceEntries(entries));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> addEntries(@RequestBody List<String> entries, Authentication authentication) {
+        log.info("Allowlist entries added by user: {} - {}", authentication.getName(), entries);
+        try {
+            return ResponseEntity.ok(ipWhitelist.addEntries(entries));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> removeEntry(@RequestParam String entry, Authentication authentication) {
+        log.info("Allowlist entry removed by user: {} - {}", authentication.getName(), entry);
+        try {
+            return ResponseEntity.ok(ipWhitelist.removeEntry(entry));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reload(Authentication authentication) {
+        log.info("Allowlist reload requested by user: {}", authentication.getName());
+        return ResponseEntity.ok(ipWhitelist.reload());
+    }
+}
@@ -5,11 +5,14 @@ import com.miniSIEM.dto.AuthResponse;
 import com.miniSIEM.dto.RegisterRequest;
 import com.miniSIEM.model.User;
 import com.miniSIEM.security.JwtUtil;
+import com.miniSIEM.service.LoginThrottle;
 import com.miniSIEM.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -31,13 +34,23 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final LoginThrottle loginThrottle;
 
 
 
     private long expiration;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody AuthRequest authRequest) {
+    public ResponseEntity<?> login(@Valid @RequestBody AuthRequest authRequest, HttpServletRequest request) {
+        String clientIp = request.getRemoteAddr();
+
+        // Checked before the password, which is where an attack's cost would be
+        if (loginThrottle.rejects(clientIp, authRequest.getUsername())) {
+            log.warn("Login attempt for user: {} from {} rejected, too many failures", authRequest.getUsername(), clientIp);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("error", "Too many failed login attempts, try again later"));
+        }
+
         try {
             log.info("Login attempt for user: {}", authRequest.getUsername());
 
@@ -52,8 +65,9 @@ public class AuthController {
             String jwtToken = jwtUtil.generateToken(userDetails.getUsername());
 
 
-            // Update last login time
+            // Update last login time, written behind
             userService.updateLastLogin(userDetails.getUsername());
+            loginThrottle.recordSuccess(userDetails.getUsername());
 
             AuthResponse response = AuthResponse.builder()
                     .token(jwtToken)
@@ -69,6 +83,7 @@ public class AuthController {
 
         } catch (BadCredentialsException e) {
             log.warn("Failed login attempt for user: {}", authRequest.getUsername());
+            loginThrottle.recordFailure(clientIp, authRequest.getUsername());
             Map<String, String> error = new HashMap<>();
             error.put("error", "Invalid username or password");
             return ResponseEntity.badRequest().body(error);
@@ -0,0 +1,83 @@
+package com.miniSIEM.controller;
+
+import com.miniSIEM.dto.BacktestRequest;
+import com.miniSIEM.dto.BacktestStatus;
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.service.BacktestService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/backtests")
+@RequiredArgsConstructor
+@Slf4j
+public class BacktestController {
+
+    private final BacktestService backtestService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST')")
+    public ResponseEntity<?> submitBacktest(@Valid @RequestBody BacktestRequest request,
+                                            Authentication authentication) {
+        log.info("Backtest request from user: {} - from:{}, to:{}, detectors:{}, candidate rules:{}",
+                authentication.getName(), request.getFrom(), request.getTo(), request.getDetectors(),
+                request.getRules() == null ? 0 : request.getRules().size());
+        try {
+            BacktestStatus status = backtestService.submit(request, authentication.getName());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST')")
+    public ResponseEntity<?> getBacktest(@PathVariable String id, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(backtestService.getStatus(id, authentication.getName(), isAdmin(authentication)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/alerts")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST')")
+    public ResponseEntity<?> getBacktestAlerts(@PathVariable String id,
+                                               @RequestParam(defaultValue = "0") int offset,
+                                               @RequestParam(defaultValue = "100") int limit,
+                                               Authentication authentication) {
+        try {
+            List<Alert> alerts = backtestService.getAlerts(id, authentication.getName(),
+                    isAdmin(authentication), offset, limit);
+            return ResponseEntity.ok(alerts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST')")
+    public ResponseEntity<?> cancelBacktest(@PathVariable String id, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(backtestService.cancel(id, authentication.getName(), isAdmin(authentication)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
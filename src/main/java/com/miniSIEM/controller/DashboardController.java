@@ -3,6 +3,12 @@ package com.miniSIEM.controller;
 import com.miniSIEM.service.DashboardService;
 import com.miniSIEM.dto.DashboardStats;
 import com.miniSIEM.dto.LogActivity;
+import com.miniSIEM.dto.TopTalker;
+import com.miniSIEM.realtime.LiveLogFeed;
+import com.miniSIEM.realtime.LiveLogFilter;
+import com.miniSIEM.realtime.RealtimeHub;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
@@ -10,8 +16,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +29,8 @@ import java.util.Map;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final RealtimeHub realtimeHub;
+    private final LiveLogFeed liveLogFeed;
 
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
@@ -54,6 +62,50 @@ public class DashboardController {
         return ResponseEntity.ok(threats);
     }
 
+    @GetMapping("/anomalies")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
+    public ResponseEntity<?> getAnomalies(Authentication authentication) {
+        log.debug("Anomalies request from user: {}", authentication.getName());
+        return ResponseEntity.ok(Map.of(
+                "systemStatus", dashboardService.getSystemStatus(),
+                "anomalies", dashboardService.getActiveAnomalies()
+        ));
+    }
+
+    @GetMapping("/baselines")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST')")
+    public ResponseEntity<?> getBaselines(Authentication authentication) {
+        log.debug("Baselines request from user: {}", authentication.getName());
+        return ResponseEntity.ok(dashboardService.getBaselines());
+    }
+
+    @GetMapping("/top-ips")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
+    public ResponseEntity<?> getTopIps(@RequestParam(defaultValue = "ALL") String category,
+                                       @RequestParam(defaultValue = "1h") String window,
+                                       @RequestParam(defaultValue = "10") int limit,
+                                       Authentication authentication) {
+        log.debug("Top IPs request from user: {} - category:{}, window:{}",
+                authentication.getName(), category, window);
+
+        try {
+            List<TopTalker> topIps = dashboardService.getTopIps(category, window, limit);
+            return ResponseEntity.ok(topIps);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/tags")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
+    public ResponseEntity<?> getTagCounts(@RequestParam(defaultValue = "24") int hours,
+                                          Authentication authentication) {
+        log.debug("Tag counts request from user: {}", authentication.getName());
+
+        List<Map<String, Object>> tags = dashboardService.getTagCounts(hours);
+        return ResponseEntity.ok(tags);
+    }
+
     @GetMapping("/top-sources")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
     public ResponseEntity<?> getTopSources(@RequestParam(defaultValue = "10") int limit,
@@ -64,6 +116,34 @@ public class DashboardController {
         return ResponseEntity.ok(topSources);
     }
 
+    @GetMapping("/top-countries")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
+    public ResponseEntity<?> getTopCountries(@RequestParam(defaultValue = "24") int hours,
+                                             @RequestParam(defaultValue = "10") int limit,
+                                             Authentication authentication) {
+        log.debug("Top countries request from user: {}", authentication.getName());
+
+        return ResponseEntity.ok(dashboardService.getTopGeo("country", null, hours, limit));
+    }
+
+    @GetMapping("/top-asns")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
+    public ResponseEntity<?> getTopAsns(@RequestParam(required = false) String country,
+                                        @RequestParam(defaultValue = "24") int hours,
+                                        @RequestParam(defaultValue = "10") int limit,
+                                        Authentication authentication) {
+        log.debug("Top ASNs request from user: {} - country:{}", authentication.getName(), country);
+
+        return ResponseEntity.ok(dashboardService.getTopGeo("asn", country, hours, limit));
+    }
+
+    @GetMapping("/geoip")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getGeoIpStatus(Authentication authentication) {
+        log.debug("GeoIP status request from user: {}", authentication.getName());
+        return ResponseEntity.ok(dashboardService.getGeoIpStatus());
+    }
+
     @GetMapping("/log-trends")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
     public ResponseEntity<?> getLogTrends(@RequestParam(defaultValue = "24") int hours,
@@ -76,13 +156,35 @@ public class DashboardController {
 
     @GetMapping(value = "/realtime", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
-    public SseEmitter getRealTimeLogs(Authentication authentication) {
-        log.info("Real-time stream connection from user: {}", authentication.getName());
-
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-        dashboardService.addRealTimeClient(emitter, authentication.getName());
+    public void getRealTimeLogs(@RequestParam(required = false) List<String> levels,
+                                @RequestParam(required = false) List<String> sources,
+                                @RequestParam(required = false) List<String> ips,
+                                @RequestParam(required = false) String keyword,
+                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                @RequestParam(value = "lastEventId", required = false) String resumeFrom,
+                                HttpServletRequest request, HttpServletResponse response,
+                                Authentication authentication) throws IOException {
+        LiveLogFilter filter;
+        try {
+            filter = LiveLogFilter.of(levels, sources, ips, keyword);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        log.info("Real-time stream connection from user: {} - filter: {}", authentication.getName(), filter);
+
+        // The browser sends the header when it reconnects by itself; a page opening a new stream passes the parameter
+        liveLogFeed.subscribe(request, response, authentication.getName(), filter,
+                lastEventId != null ? lastEventId : resumeFrom);
+    }
 
-        return emitter;
+    @GetMapping("/realtime/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getRealTimeStatus(Authentication authentication) {
+        log.debug("Real-time stream status request from user: {}", authentication.getName());
+        return ResponseEntity.ok(Map.of(
+                "connections", realtimeHub.getStatus(),
+                "feed", liveLogFeed.getStatus()));
     }
 
     @PostMapping("/export")
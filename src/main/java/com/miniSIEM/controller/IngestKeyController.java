@@ -0,0 +1,54 @@
+package com.miniSIEM.controller;
+
+import com.miniSIEM.service.IngestKeyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/ingest-keys")
+@RequiredArgsConstructor
+@Slf4j
+public class IngestKeyController {
+
+    private final IngestKeyService ingestKeyService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getKeys() {
+        return ResponseEntity.ok(ingestKeyService.getKeys());
+    }
+
+    // The response holds the key's secret; it cannot be retrieved again
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createKey(@RequestBody Map<String, Object> keyRequest, Authentication authentication) {
+        try {
+            Object quota = keyRequest.get("eventsPerMinute");
+            IngestKeyService.CreatedKey created = ingestKeyService.create((String) keyRequest.get("name"),
+                    quota instanceof Number number ? number.longValue() : null, authentication.getName());
+            return ResponseEntity.ok(Map.of(
+                    "id", created.key().getId(),
+                    "name", created.key().getName(),
+                    "eventsPerMinute", created.key().getEventsPerMinute(),
+                    "apiKey", created.credential()
+            ));
+        } catch (IllegalArgumentException | ClassCastException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> revokeKey(@PathVariable String id, Authentication authentication) {
+        if (!ingestKeyService.revoke(id, authentication.getName())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("message", "Ingest key revoked", "id", id));
+    }
+}
@@ -1,15 +1,20 @@
 package com.miniSIEM.controller;
 
+import com.miniSIEM.dto.LogSummary;
 import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.security.IngestKeyPrincipal;
+import com.miniSIEM.service.IngestKeyService;
 import com.miniSIEM.service.LogService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -18,24 +23,35 @@ import java.util.Map;
 @RequiredArgsConstructor
 @Slf4j
 public class LogController {
+    private static final String FIELD_PARAM_PREFIX = "field.";
+
     private final LogService logService;
+    private final IngestKeyService ingestKeyService;
 
     @PostMapping
-    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST')")
-    public ResponseEntity<LogEntry> ingestLog(@Valid @RequestBody LogEntry logEntry,
-                                              Authentication authentication) {
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('INGEST')")
+    public ResponseEntity<?> ingestLog(@Valid @RequestBody LogEntry logEntry,
+                                       Authentication authentication) {
         log.info("Log ingestion request from user: {}", authentication.getName());
+        if (overQuota(authentication, 1)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("error", "Ingest key quota exceeded"));
+        }
         LogEntry savedLog = logService.saveLog(logEntry);
         log.debug("Log saved with ID: {}", savedLog.getId());
         return ResponseEntity.ok(savedLog);
     }
 
     @PostMapping("/bulk")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST')")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('INGEST')")
     public ResponseEntity<?> ingestBulkLogs(@Valid @RequestBody List<LogEntry> logEntries,
                                             Authentication authentication) {
         log.info("Bulk log ingestion request from user: {} - {} logs",
                 authentication.getName(), logEntries.size());
+        if (overQuota(authentication, logEntries.size())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("error", "Ingest key quota exceeded"));
+        }
 
         List<LogEntry> savedLogs = logService.saveBulkLogs(logEntries);
 
@@ -48,19 +64,43 @@ public class LogController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
-    public ResponseEntity<List<LogEntry>> getLogs(
+    public ResponseEntity<?> getLogs(
             @RequestParam(required = false) String ip,
             @RequestParam(required = false) String logLevel,
             @RequestParam(required = false) String source,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) Long asn,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "100") int size,
+            @RequestParam Map<String, String> params,
             Authentication authentication) {
 
-        log.debug("Log query request from user: {} - ip:{}, level:{}, source:{}",
-                authentication.getName(), ip, logLevel, source);
-
-        List<LogEntry> logs = logService.findLogs(ip, logLevel, source, page, size);
-        return ResponseEntity.ok(logs);
+        log.debug("Log query request from user: {} - ip:{}, level:{}, source:{}, country:{}, asn:{}, view:{}",
+                authentication.getName(), ip, logLevel, source, country, asn, view);
+
+        // Parsed message fields are filtered with field.<name>=<value>
+        Map<String, String> parsedFields = new HashMap<>();
+        params.forEach((name, value) -> {
+            if (name.startsWith(FIELD_PARAM_PREFIX)) {
+                parsedFields.put(name.substring(FIELD_PARAM_PREFIX.length()), value);
+            }
+        });
+
+        try {
+            // Summary view: projected fields and truncated messages, full document via /{id}
+            if ("summary".equals(view) || fields != null) {
+                List<LogSummary> summaries = logService.findLogSummaries(ip, logLevel, source, country, asn,
+                        parsedFields, fields, page, size);
+                return ResponseEntity.ok(summaries);
+            }
+
+            List<LogEntry> logs = logService.findLogs(ip, logLevel, source, country, asn, parsedFields, page, size);
+            return ResponseEntity.ok(logs);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -86,6 +126,13 @@ public class LogController {
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/parsers")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST')")
+    public ResponseEntity<?> getParserStatistics(Authentication authentication) {
+        log.debug("Parser statistics request from user: {}", authentication.getName());
+        return ResponseEntity.ok(logService.getParserStats());
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteLog(@PathVariable String id,
@@ -99,4 +146,10 @@ public class LogController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    // Only requests made with an ingest key have a quota
+    private boolean overQuota(Authentication authentication, int events) {
+        return authentication.getPrincipal() instanceof IngestKeyPrincipal key
+                && !ingestKeyService.tryAcquire(key.keyId(), events);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.miniSIEM.controller;
+
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.service.LogStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+@Slf4j
+public class LogStreamController {
+
+    private final LogStreamService logStreamService;
+
+    @GetMapping(value = "/logs", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
+    public Flux<LogEntry> streamLogs(
+            @RequestParam(required = false) String ip,
+            @RequestParam(required = false) String logLevel,
+            @RequestParam(required = false) String source,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "1000") int size,
+            Authentication authentication) {
+
+        log.debug("Streaming log query from user: {} - ip:{}, level:{}, source:{}",
+                authentication.getName(), ip, logLevel, source);
+
+        return logStreamService.streamLogs(ip, logLevel, source, page, size);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST')")
+    public Flux<LogEntry> streamExport(@RequestParam(defaultValue = "24h") String dateRange,
+                                       Authentication authentication) {
+        log.info("Streaming export request from user: {} - range:{}", authentication.getName(), dateRange);
+        return logStreamService.streamExport(dateRange);
+    }
+
+    @GetMapping(value = "/log-trends", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
+    public Flux<Map<String, Object>> streamTrends(@RequestParam(defaultValue = "24") int hours,
+                                                  Authentication authentication) {
+        log.debug("Streaming log trends request from user: {}", authentication.getName());
+        return logStreamService.streamTrends(hours);
+    }
+}
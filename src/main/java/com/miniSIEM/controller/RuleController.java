@@ -0,0 +1,39 @@
+package com.miniSIEM.controller;
+
+import com.miniSIEM.detection.RuleEngine;
+import com.miniSIEM.dto.RuleStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/rules")
+@RequiredArgsConstructor
+@Slf4j
+public class RuleController {
+
+    private final RuleEngine ruleEngine;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getRules() {
+        List<RuleStats> stats = ruleEngine.getRuleStats();
+        return ResponseEntity.ok(Map.of(
+                "rules", stats,
+                "loadErrors", ruleEngine.getLastLoadErrors()
+        ));
+    }
+
+    @PostMapping("/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reloadRules(Authentication authentication) {
+        log.info("Rule reload requested by user: {}", authentication.getName());
+        return ResponseEntity.ok(ruleEngine.reload());
+    }
+}
@@ -0,0 +1,82 @@
+package com.miniSIEM.controller;
+
+import com.miniSIEM.dto.SearchJobRequest;
+import com.miniSIEM.dto.SearchJobStatus;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.service.SearchJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search-jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class SearchJobController {
+
+    private final SearchJobService searchJobService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
+    public ResponseEntity<?> submitJob(@Valid @RequestBody SearchJobRequest request,
+                                       Authentication authentication) {
+        log.info("Search job request from user: {} - from:{}, to:{}",
+                authentication.getName(), request.getFrom(), request.getTo());
+        try {
+            SearchJobStatus status = searchJobService.submit(request, authentication.getName());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
+    public ResponseEntity<?> getJobStatus(@PathVariable String id, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(searchJobService.getStatus(id, authentication.getName(), isAdmin(authentication)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/results")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
+    public ResponseEntity<?> getJobResults(@PathVariable String id,
+                                           @RequestParam(defaultValue = "0") int offset,
+                                           @RequestParam(defaultValue = "100") int limit,
+                                           Authentication authentication) {
+        try {
+            List<LogEntry> results = searchJobService.getResults(id, authentication.getName(),
+                    isAdmin(authentication), offset, limit);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYST') or hasRole('VIEWER')")
+    public ResponseEntity<?> cancelJob(@PathVariable String id, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(searchJobService.cancel(id, authentication.getName(), isAdmin(authentication)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.miniSIEM.controller;
+
+import com.miniSIEM.service.ThreatIntelService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/ioc")
+@RequiredArgsConstructor
+@Slf4j
+public class ThreatIntelController {
+
+    private final ThreatIntelService threatIntelService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getFeeds() {
+        return ResponseEntity.ok(threatIntelService.getStatus());
+    }
+
+    @PostMapping("/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reloadFeeds(Authentication authentication) {
+        log.info("IOC feed reload requested by user: {}", authentication.getName());
+        return ResponseEntity.ok(threatIntelService.reload());
+    }
+}
@@ -0,0 +1,90 @@
+package com.miniSIEM.detection;
+
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Executable form of a rule plus its runtime state and evaluation counters. Subclasses hold the
+ * per-group state of one rule kind: {@link ThresholdRule} sliding windows and {@link SequenceRule}
+ * partial matches. Thread-safe; many ingest workers evaluate the same rule concurrently.
+ */
+public abstract class CompiledRule {
+
+    @Getter
+    private final RuleDefinition definition;
+    private final List<Function<LogEntry, String>> groupBy;
+
+    @Getter
+    private final LongAdder evaluations = new LongAdder();
+    @Getter
+    private final LongAdder evaluationNanos = new LongAdder();
+    @Getter
+    private final LongAdder matches = new LongAdder();
+    @Getter
+    private final LongAdder alerts = new LongAdder();
+    @Getter
+    private final LongAdder droppedGroups = new LongAdder();
+
+    protected CompiledRule(RuleDefinition definition, List<Function<LogEntry, String>> groupBy) {
+        this.definition = definition;
+        this.groupBy = groupBy;
+    }
+
+    public String getId() {
+        return definition.getId();
+    }
+
+    /**
+     * @return an alert if this event completed the rule for its group, otherwise null
+     */
+    public Alert evaluate(LogEntry logEntry, long now) {
+        long start = System.nanoTime();
+        try {
+            return doEvaluate(logEntry, now);
+        } finally {
+            evaluations.increment();
+            evaluationNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    public abstract void expireIdleGroups(long now);
+
+    public abstract int getActiveGroupCount();
+
+    protected abstract Alert doEvaluate(LogEntry logEntry, long now);
+
+    protected String alertType() {
+        return definition.getAlertType() != null
+                ? definition.getAlertType()
+                : definition.getId().toUpperCase().replace('-', '_');
+    }
+
+    protected String title() {
+        return definition.getTitle() != null ? definition.getTitle() : definition.getId();
+    }
+
+    /**
+     * @param requireAll return null instead of a "-" placeholder when a group-by field is missing
+     */
+    protected String groupKey(LogEntry logEntry, boolean requireAll) {
+        if (groupBy.isEmpty()) return "*";
+        if (groupBy.size() == 1) {
+            String value = groupBy.get(0).apply(logEntry);
+            if (value != null) return value;
+            return requireAll ? null : "-";
+        }
+        StringBuilder key = new StringBuilder();
+        for (Function<LogEntry, String> field : groupBy) {
+            if (key.length() > 0) key.append('|');
+            String value = field.apply(logEntry);
+            if (value == null && requireAll) return null;
+            key.append(value != null ? value : "-");
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package com.miniSIEM.detection;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One node of a rule's condition tree: either a boolean combinator ({@code all}, {@code any},
+ * {@code not}), a {@code tag} assigned by the classifier, or a predicate on a single {@code field}.
+ * String comparisons ignore case unless {@code caseSensitive} is set.
+ */
+@Data
+public class ConditionDefinition {
+    private List<ConditionDefinition> all;
+    private List<ConditionDefinition> any;
+    private ConditionDefinition not;
+
+    private String tag;
+
+    private String field;
+    private String equals;
+    private List<String> in;
+    private String contains;
+    private List<String> containsAny;
+    private String startsWith;
+    private String endsWith;
+    private String regex;
+    private Boolean exists;
+    private boolean caseSensitive;
+}
@@ -0,0 +1,35 @@
+package com.miniSIEM.detection;
+
+import com.miniSIEM.model.LogEntry;
+
+import java.util.function.Function;
+
+/**
+ * Resolves rule field names to accessors once, at compile time, so evaluation never does a
+ * by-name lookup per event.
+ */
+final class LogFields {
+
+    // Fields extracted by the log parser, e.g. "fields.user"
+    private static final String PARSED_PREFIX = "fields.";
+
+    private LogFields() {
+    }
+
+    static Function<LogEntry, String> accessor(String field) {
+        if (field == null) {
+            throw new IllegalArgumentException("Missing field name");
+        }
+        if (field.startsWith(PARSED_PREFIX) && field.length() > PARSED_PREFIX.length()) {
+            String name = field.substring(PARSED_PREFIX.length());
+            return logEntry -> logEntry.getFields() != null ? logEntry.getFields().get(name) : null;
+        }
+        return switch (field) {
+            case "ip" -> LogEntry::getIp;
+            case "source" -> LogEntry::getSource;
+            case "logLevel", "level" -> LogEntry::getLogLevel;
+            case "message" -> LogEntry::getMessage;
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        };
+    }
+}
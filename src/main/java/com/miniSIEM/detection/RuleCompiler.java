@@ -0,0 +1,284 @@
+package com.miniSIEM.detection;
+
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.model.LogTag;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Turns {@link RuleDefinition}s into {@link CompiledRule}s: the condition tree becomes nested
+ * predicates with field accessors, regexes and lookup sets prepared up front. Rules with a
+ * {@code sequence} compile to a {@link SequenceRule}, all others to a {@link ThresholdRule}.
+ */
+public class RuleCompiler {
+
+    static final int MAX_THRESHOLD = 10_000;
+
+    public CompiledRule compile(RuleDefinition definition) {
+        return compile(definition, System.currentTimeMillis());
+    }
+
+    /**
+     * @param startMillis time the rule starts evaluating at, on the clock later passed to
+     *                    {@link CompiledRule#evaluate}; event time when replaying stored logs
+     */
+    public CompiledRule compile(RuleDefinition definition, long startMillis) {
+        if (definition.getId() == null || definition.getId().isBlank()) {
+            throw new IllegalArgumentException("Rule is missing an id");
+        }
+        try {
+            if (definition.getSequence() != null) {
+                if (definition.getCondition() != null) {
+                    throw new IllegalArgumentException("A rule has either a condition or a sequence, not both");
+                }
+                return compileSequence(definition, startMillis);
+            }
+            if (definition.getCondition() == null) {
+                throw new IllegalArgumentException("Missing condition");
+            }
+            Predicate<LogEntry> condition = compileCondition(definition.getCondition());
+
+            RuleDefinition.ThresholdDefinition threshold = definition.getThreshold();
+            if (threshold == null) {
+                throw new IllegalArgumentException("Missing threshold");
+            }
+            if (threshold.getCount() < 1 || threshold.getCount() > MAX_THRESHOLD) {
+                throw new IllegalArgumentException("Threshold count must be between 1 and " + MAX_THRESHOLD);
+            }
+            Duration window = parseDuration(threshold.getWindow());
+
+            return new ThresholdRule(definition, condition, threshold.getCount(), window,
+                    compileGroupBy(threshold.getGroupBy()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid rule '" + definition.getId() + "': " + e.getMessage(), e);
+        }
+    }
+
+    private SequenceRule compileSequence(RuleDefinition definition, long startMillis) {
+        RuleDefinition.SequenceDefinition sequence = definition.getSequence();
+        List<RuleDefinition.StepDefinition> stepDefinitions = sequence.getSteps();
+        if (stepDefinitions == null || stepDefinitions.size() < 2 || stepDefinitions.size() > SequenceRule.MAX_STEPS) {
+            throw new IllegalArgumentException("A sequence needs between 2 and " + SequenceRule.MAX_STEPS + " steps");
+        }
+        if (sequence.getMaxKeys() < 1) {
+            throw new IllegalArgumentException("Sequence maxKeys must be positive");
+        }
+        Duration within = parseDuration(sequence.getWithin());
+
+        List<SequenceRule.Step> steps = new ArrayList<>();
+        for (int i = 0; i < stepDefinitions.size(); i++) {
+            RuleDefinition.StepDefinition step = stepDefinitions.get(i);
+            if (step == null) {
+                throw new IllegalArgumentException("Empty step " + (i + 1));
+            }
+            String name = step.getName() != null ? step.getName() : "step " + (i + 1);
+            if (step.getCondition() == null) {
+                throw new IllegalArgumentException("Missing condition in " + name);
+            }
+            if (step.getCount() < 1 || step.getCount() > MAX_THRESHOLD) {
+                throw new IllegalArgumentException("Count of " + name + " must be between 1 and " + MAX_THRESHOLD);
+            }
+            SequenceRule.SeenFilter seen = step.isFirstSeen()
+                    ? new SequenceRule.SeenFilter(sequence.getMaxKeys(), parseDuration(step.getLearningPeriod()),
+                            parseDuration(step.getRememberFor()), startMillis)
+                    : null;
+            steps.add(new SequenceRule.Step(name, compileCondition(step.getCondition()), step.getCount(), seen));
+        }
+
+        return new SequenceRule(definition, steps, within, sequence.getMaxKeys(),
+                compileGroupBy(sequence.getGroupBy()), startMillis);
+    }
+
+    private static List<Function<LogEntry, String>> compileGroupBy(List<String> fields) {
+        if (fields == null) {
+            throw new IllegalArgumentException("groupBy must be a list of fields");
+        }
+        List<Function<LogEntry, String>> groupBy = new ArrayList<>();
+        for (String field : fields) {
+            if (field == null) {
+                throw new IllegalArgumentException("Empty groupBy field");
+            }
+            groupBy.add(LogFields.accessor(field));
+        }
+        return groupBy;
+    }
+
+    public static Duration parseDuration(String value) {
+        if (value == null || value.length() < 2) {
+            throw new IllegalArgumentException("Invalid duration: " + value);
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(value.substring(0, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration: " + value);
+        }
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            case 'd' -> Duration.ofDays(amount);
+            default -> throw new IllegalArgumentException("Invalid duration unit: " + value);
+        };
+    }
+
+    private Predicate<LogEntry> compileCondition(ConditionDefinition node) {
+        if (node == null) {
+            throw new IllegalArgumentException("Empty condition");
+        }
+        if (node.getAll() != null) {
+            return allOf(compileChildren(node.getAll()));
+        }
+        if (node.getAny() != null) {
+            return anyOf(compileChildren(node.getAny()));
+        }
+        if (node.getNot() != null) {
+            return compileCondition(node.getNot()).negate();
+        }
+        if (node.getTag() != null) {
+            if (node.getField() != null) {
+                throw new IllegalArgumentException("'tag' cannot be combined with a field condition");
+            }
+            LogTag tag = parseTag(node.getTag());
+            return entry -> entry.hasTag(tag);
+        }
+        return compileLeaf(node);
+    }
+
+    private static LogTag parseTag(String value) {
+        try {
+            return LogTag.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown tag: " + value);
+        }
+    }
+
+    private List<Predicate<LogEntry>> compileChildren(List<ConditionDefinition> children) {
+        if (children.isEmpty()) {
+            throw new IllegalArgumentException("Empty all/any list");
+        }
+        List<Predicate<LogEntry>> compiled = new ArrayList<>(children.size());
+        for (ConditionDefinition child : children) {
+            compiled.add(compileCondition(child));
+        }
+        return compiled;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<LogEntry> allOf(List<Predicate<LogEntry>> predicates) {
+        if (predicates.size() == 1) return predicates.get(0);
+        Predicate<LogEntry>[] array = (Predicate<LogEntry>[]) predicates.toArray(new Predicate<?>[0]);
+        return entry -> {
+            for (Predicate<LogEntry> predicate : array) {
+                if (!predicate.test(entry)) return false;
+            }
+            return true;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<LogEntry> anyOf(List<Predicate<LogEntry>> predicates) {
+        if (predicates.size() == 1) return predicates.get(0);
+        Predicate<LogEntry>[] array = (Predicate<LogEntry>[]) predicates.toArray(new Predicate<?>[0]);
+        return entry -> {
+            for (Predicate<LogEntry> predicate : array) {
+                if (predicate.test(entry)) return true;
+            }
+            return false;
+        };
+    }
+
+    private Predicate<LogEntry> compileLeaf(ConditionDefinition node) {
+        Function<LogEntry, String> field = LogFields.accessor(node.getField());
+        boolean ignoreCase = !node.isCaseSensitive();
+        List<Predicate<String>> operators = new ArrayList<>();
+
+        if (node.getEquals() != null) {
+            String expected = node.getEquals();
+            operators.add(ignoreCase ? expected::equalsIgnoreCase : expected::equals);
+        }
+        if (node.getIn() != null) {
+            Set<String> values = ignoreCase ? new TreeSet<>(String.CASE_INSENSITIVE_ORDER) : new HashSet<>();
+            values.addAll(requireValues(node.getIn(), "in", node.getField()));
+            operators.add(values::contains);
+        }
+        if (node.getContains() != null) {
+            String needle = node.getContains();
+            operators.add(value -> contains(value, needle, ignoreCase));
+        }
+        if (node.getContainsAny() != null) {
+            String[] needles = requireValues(node.getContainsAny(), "containsAny", node.getField())
+                    .toArray(new String[0]);
+            operators.add(value -> {
+                for (String needle : needles) {
+                    if (contains(value, needle, ignoreCase)) return true;
+                }
+                return false;
+            });
+        }
+        if (node.getStartsWith() != null) {
+            String prefix = node.getStartsWith();
+            operators.add(value -> value.regionMatches(ignoreCase, 0, prefix, 0, prefix.length()));
+        }
+        if (node.getEndsWith() != null) {
+            String suffix = node.getEndsWith();
+            operators.add(value -> value.regionMatches(ignoreCase, value.length() - suffix.length(),
+                    suffix, 0, suffix.length()));
+        }
+        if (node.getRegex() != null) {
+            Pattern pattern = Pattern.compile(node.getRegex(), ignoreCase ? Pattern.CASE_INSENSITIVE : 0);
+            operators.add(value -> pattern.matcher(value).find());
+        }
+
+        if (node.getExists() != null) {
+            if (!operators.isEmpty()) {
+                throw new IllegalArgumentException("'exists' cannot be combined with other operators on " + node.getField());
+            }
+            boolean shouldExist = node.getExists();
+            return entry -> {
+                String value = field.apply(entry);
+                return (value != null && !value.isEmpty()) == shouldExist;
+            };
+        }
+        if (operators.size() != 1) {
+            throw new IllegalArgumentException("Field condition on '" + node.getField()
+                    + "' needs exactly one operator, found " + operators.size());
+        }
+
+        Predicate<String> operator = operators.get(0);
+        return entry -> {
+            String value = field.apply(entry);
+            return value != null && operator.test(value);
+        };
+    }
+
+    // A null would fail at match time on every event, and a blank needle matches everything
+    private static List<String> requireValues(List<String> values, String operator, String field) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("Empty '" + operator + "' list on " + field);
+        }
+        for (String value : values) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("Empty value in '" + operator + "' on " + field);
+            }
+        }
+        return values;
+    }
+
+    private static boolean contains(String value, String needle, boolean ignoreCase) {
+        if (!ignoreCase) return value.contains(needle);
+        int length = needle.length();
+        for (int i = 0, last = value.length() - length; i <= last; i++) {
+            if (value.regionMatches(true, i, needle, 0, length)) return true;
+        }
+        return false;
+    }
+}
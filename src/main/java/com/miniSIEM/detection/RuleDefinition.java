@@ -0,0 +1,66 @@
+package com.miniSIEM.detection;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Declarative detection rule as written in YAML or JSON, e.g.
+ * <pre>
+ * id: ssh-password-spray
+ * title: Password spraying against SSH
+ * severity: HIGH
+ * condition:
+ *   all:
+ *     - { field: source, equals: sshd }
+ *     - { field: message, contains: "failed password" }
+ * threshold: { count: 20, window: 10m, groupBy: [ip] }
+ * </pre>
+ * or, instead of condition and threshold, an ordered {@code sequence} of steps that must all
+ * happen for the same group-by key within a time limit:
+ * <pre>
+ * sequence:
+ *   within: 10m
+ *   groupBy: [ip]
+ *   steps:
+ *     - { name: failures, count: 5, condition: { tag: AUTH_FAILURE } }
+ *     - { name: success, condition: { tag: AUTH_SUCCESS } }
+ * </pre>
+ */
+@Data
+public class RuleDefinition {
+    private String id;
+    private String title;
+    private String description;
+    private String severity = "MEDIUM";
+    private String alertType;
+    private boolean enabled = true;
+    private ConditionDefinition condition;
+    private ThresholdDefinition threshold = new ThresholdDefinition();
+    private SequenceDefinition sequence;
+
+    @Data
+    public static class ThresholdDefinition {
+        private int count = 1;
+        private String window = "5m";  // also the re-alert suppression period per group
+        private List<String> groupBy = List.of("ip");
+    }
+
+    @Data
+    public static class SequenceDefinition {
+        private String within = "10m";  // measured from the first event of the sequence
+        private List<String> groupBy = List.of("ip");
+        private int maxKeys = 1_000_000;  // partial matches tracked at once, new ones are dropped beyond it
+        private List<StepDefinition> steps;
+    }
+
+    @Data
+    public static class StepDefinition {
+        private String name;
+        private ConditionDefinition condition;
+        private int count = 1;
+        private boolean firstSeen;  // only the first match per group-by key counts, e.g. a never-seen IP
+        private String learningPeriod = "1h";  // firstSeen steps stay silent while the seen set fills
+        private String rememberFor = "7d";
+    }
+}
@@ -0,0 +1,307 @@
+package com.miniSIEM.detection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.miniSIEM.dto.RuleStats;
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.service.AlertService;
+import com.miniSIEM.service.LogIngestListener;
+import com.miniSIEM.service.ReplayDetector;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Loads declarative detection rules, compiles them and evaluates every ingested log entry against
+ * the active set. Built-in rules come from the classpath ({@code rules/}); rules in the configured
+ * directory override them by id and are hot-reloaded when files change.
+ */
+@Service
+@Slf4j
+public class RuleEngine implements LogIngestListener {
+
+    private static final String CLASSPATH_RULES = "classpath*:rules/*.{yml,yaml,json}";
+
+    private final AlertService alertService;
+    private final MeterRegistry meterRegistry;
+    private final RuleCompiler compiler = new RuleCompiler();
+    private final ObjectMapper yamlMapper = new YAMLMapper();
+    private final Path rulesDirectory;
+    private final Map<String, List<Meter>> ruleMeters = new HashMap<>();
+
+    private volatile List<CompiledRule> rules = List.of();
+    private volatile List<String> lastLoadErrors = List.of();
+    private volatile String directoryFingerprint = "";
+
+    public RuleEngine(AlertService alertService,
+                      MeterRegistry meterRegistry,
+                      @Value("${app.rules.directory:rules}") String rulesDirectory) {
+        this.alertService = alertService;
+        this.meterRegistry = meterRegistry;
+        this.rulesDirectory = Paths.get(rulesDirectory);
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    @Override
+    public void onLogIngested(LogEntry logEntry) {
+        long now = System.currentTimeMillis();
+        for (CompiledRule rule : rules) {
+            Alert alert = rule.evaluate(logEntry, now);
+            if (alert != null) {
+                alertService.raise(alert);
+                log.warn("Rule {} fired: {}", rule.getId(), alert.getDescription());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rules.reload-interval-ms:10000}")
+    public void reloadIfChanged() {
+        String fingerprint = fingerprint();
+        if (!fingerprint.equals(directoryFingerprint)) {
+            log.info("Rule directory {} changed, reloading rules", rulesDirectory.toAbsolutePath());
+            reload();
+        }
+    }
+
+    @Scheduled(fixedRate = 10_000)
+    public void expireIdleGroups() {
+        long now = System.currentTimeMillis();
+        for (CompiledRule rule : rules) {
+            rule.expireIdleGroups(now);
+        }
+    }
+
+    public synchronized Map<String, Object> reload() {
+        // Taken before reading, so changes made meanwhile trigger another reload; stored only once
+        // the load has gone through, so a failed one is retried
+        String fingerprint = fingerprint();
+        List<String> errors = new ArrayList<>();
+        Map<String, RuleDefinition> definitions = new LinkedHashMap<>();
+
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(CLASSPATH_RULES);
+            for (Resource resource : resources) {
+                try (InputStream in = resource.getInputStream()) {
+                    readDefinitions(in, resource.getFilename(), definitions, errors);
+                }
+            }
+        } catch (IOException e) {
+            errors.add("classpath rules: " + e.getMessage());
+        }
+
+        if (Files.isDirectory(rulesDirectory)) {
+            try (Stream<Path> files = Files.list(rulesDirectory)) {
+                for (Path file : files.filter(RuleEngine::isRuleFile).sorted().toList()) {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        readDefinitions(in, file.toString(), definitions, errors);
+                    }
+                }
+            } catch (IOException e) {
+                errors.add(rulesDirectory + ": " + e.getMessage());
+            }
+        }
+
+        // Keep compiled instances (and their window state) for rules whose definition did not change
+        Map<String, CompiledRule> previous = new HashMap<>();
+        for (CompiledRule rule : rules) {
+            previous.put(rule.getId(), rule);
+        }
+
+        List<CompiledRule> compiled = new ArrayList<>();
+        for (RuleDefinition definition : definitions.values()) {
+            if (!definition.isEnabled()) continue;
+            CompiledRule existing = previous.get(definition.getId());
+            if (existing != null && existing.getDefinition().equals(definition)) {
+                compiled.add(existing);
+                continue;
+            }
+            try {
+                compiled.add(compiler.compile(definition));
+            } catch (IllegalArgumentException e) {
+                errors.add(e.getMessage());
+            }
+        }
+
+        rules = List.copyOf(compiled);
+        lastLoadErrors = List.copyOf(errors);
+        directoryFingerprint = fingerprint;
+        registerMeters(previous);
+
+        errors.forEach(error -> log.error("Rule load error: {}", error));
+        log.info("Loaded {} detection rules ({} errors)", compiled.size(), errors.size());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("loaded", compiled.size());
+        result.put("errors", errors);
+        return result;
+    }
+
+    public List<RuleStats> getRuleStats() {
+        return rules.stream()
+                .map(rule -> {
+                    long evaluations = rule.getEvaluations().sum();
+                    return RuleStats.builder()
+                            .id(rule.getId())
+                            .title(rule.getDefinition().getTitle())
+                            .severity(rule.getDefinition().getSeverity())
+                            .evaluations(evaluations)
+                            .matches(rule.getMatches().sum())
+                            .alerts(rule.getAlerts().sum())
+                            .avgEvaluationMicros(evaluations == 0 ? 0
+                                    : rule.getEvaluationNanos().sum() / 1000.0 / evaluations)
+                            .activeGroups(rule.getActiveGroupCount())
+                            .droppedGroups(rule.getDroppedGroups().sum())
+                            .build();
+                })
+                .toList();
+    }
+
+    /**
+     * Fresh, independent instances of the active rules plus {@code candidates} (which replace active
+     * rules with the same id), for replaying stored logs from {@code startMillis} on. Alerts only go
+     * to the sink.
+     *
+     * @throws IllegalArgumentException if a candidate does not compile
+     */
+    public ReplayDetector replay(List<RuleDefinition> candidates, Consumer<Alert> sink, long startMillis) {
+        Map<String, RuleDefinition> definitions = new LinkedHashMap<>();
+        for (CompiledRule rule : rules) {
+            definitions.put(rule.getId(), rule.getDefinition());
+        }
+        for (RuleDefinition candidate : candidates) {
+            definitions.put(candidate.getId(), candidate);
+        }
+
+        List<CompiledRule> compiled = new ArrayList<>();
+        for (RuleDefinition definition : definitions.values()) {
+            if (definition.isEnabled()) compiled.add(compiler.compile(definition, startMillis));
+        }
+        return new ReplayDetector() {
+            @Override
+            public void process(LogEntry logEntry, long eventTime) {
+                for (CompiledRule rule : compiled) {
+                    Alert alert = rule.evaluate(logEntry, eventTime);
+                    if (alert != null) sink.accept(alert);
+                }
+            }
+
+            @Override
+            public void advanceTo(long eventTime) {
+                for (CompiledRule rule : compiled) {
+                    rule.expireIdleGroups(eventTime);
+                }
+            }
+        };
+    }
+
+    public List<String> getLastLoadErrors() {
+        return lastLoadErrors;
+    }
+
+    private void readDefinitions(InputStream in, String origin, Map<String, RuleDefinition> definitions,
+                                 List<String> errors) {
+        try (MappingIterator<JsonNode> documents = yamlMapper.readerFor(JsonNode.class).readValues(in)) {
+            while (documents.hasNext()) {
+                JsonNode document = documents.next();
+                List<JsonNode> nodes = new ArrayList<>();
+                if (document.isArray()) {
+                    document.forEach(nodes::add);
+                } else if (!document.isNull() && !document.isMissingNode()) {
+                    nodes.add(document);
+                }
+                for (JsonNode node : nodes) {
+                    RuleDefinition definition = yamlMapper.treeToValue(node, RuleDefinition.class);
+                    if (definition.getId() == null) {
+                        errors.add(origin + ": rule without id");
+                        continue;
+                    }
+                    definitions.put(definition.getId(), definition);
+                }
+            }
+        } catch (IOException e) {
+            errors.add(origin + ": " + e.getMessage());
+        }
+    }
+
+    private void registerMeters(Map<String, CompiledRule> previous) {
+        for (CompiledRule rule : rules) {
+            if (previous.get(rule.getId()) == rule) continue;
+
+            List<Meter> stale = ruleMeters.remove(rule.getId());
+            if (stale != null) stale.forEach(meterRegistry::remove);
+
+            ruleMeters.put(rule.getId(), List.of(
+                    FunctionTimer.builder("siem.rule.evaluation", rule,
+                                    r -> r.getEvaluations().sum(),
+                                    r -> r.getEvaluationNanos().sum(),
+                                    TimeUnit.NANOSECONDS)
+                            .tag("rule", rule.getId())
+                            .register(meterRegistry),
+                    FunctionCounter.builder("siem.rule.matches", rule, r -> r.getMatches().sum())
+                            .tag("rule", rule.getId())
+                            .register(meterRegistry),
+                    FunctionCounter.builder("siem.rule.alerts", rule, r -> r.getAlerts().sum())
+                            .tag("rule", rule.getId())
+                            .register(meterRegistry)
+            ));
+        }
+
+        // Drop meters of rules that were removed or disabled
+        List<String> activeIds = rules.stream().map(CompiledRule::getId).toList();
+        ruleMeters.keySet().removeIf(id -> {
+            if (activeIds.contains(id)) return false;
+            ruleMeters.get(id).forEach(meterRegistry::remove);
+            return true;
+        });
+    }
+
+    private String fingerprint() {
+        if (!Files.isDirectory(rulesDirectory)) return "";
+        StringBuilder fingerprint = new StringBuilder();
+        try (Stream<Path> files = Files.list(rulesDirectory)) {
+            for (Path file : files.filter(RuleEngine::isRuleFile).sorted().toList()) {
+                fingerprint.append(file.getFileName())
+                        .append(':').append(Files.getLastModifiedTime(file).toMillis())
+                        .append(':').append(Files.size(file))
+                        .append(';');
+            }
+        } catch (IOException e) {
+            log.debug("Could not scan rule directory: {}", e.getMessage());
+        }
+        return fingerprint.toString();
+    }
+
+    private static boolean isRuleFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".yml") || name.endsWith(".yaml") || name.endsWith(".json");
+    }
+}
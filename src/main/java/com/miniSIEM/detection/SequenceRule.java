@@ -0,0 +1,246 @@
+package com.miniSIEM.detection;
+
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.util.ConcurrentLongObjectMap;
+import com.miniSIEM.util.HierarchicalTimingWheel;
+import com.miniSIEM.util.IpKeys;
+import com.miniSIEM.util.OffHeapBloomFilter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Ordered multi-event correlation: alerts when one group-by key goes through every step, in
+ * order, within the time limit. Each key in the middle of a sequence holds one small partial
+ * match (current step, count, ids of the contributing logs) in a primitive-keyed map; keys that
+ * never match the first step cost nothing. Deadlines sit in a timing wheel so expiring millions
+ * of abandoned sequences does not scan them, and the number of partial matches is capped.
+ */
+@Slf4j
+public class SequenceRule extends CompiledRule {
+
+    static final int MAX_STEPS = 16;
+    static final int MAX_LOG_IDS = 16;
+
+    private static final long WHEEL_TICK_MILLIS = 1000;
+
+    private final Step[] steps;
+    private final long withinMillis;
+    private final int maxKeys;
+    private final ConcurrentLongObjectMap<PartialMatch> partials = new ConcurrentLongObjectMap<>(64);
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final HierarchicalTimingWheel deadlines;
+
+    private volatile boolean limitLogged;
+
+    record Step(String name, Predicate<LogEntry> condition, int count, SeenFilter seen) {
+    }
+
+    private static final class PartialMatch {
+        String groupKey;
+        long startedAt;
+        int step;
+        int count;
+        String[] logIds = new String[4];
+        int logIdCount;  // total recorded, only the last MAX_LOG_IDS are kept
+        boolean removed;
+
+        void start(String key, long now) {
+            groupKey = key;
+            startedAt = now;
+            step = 0;
+            count = 0;
+            logIdCount = 0;
+        }
+
+        void addLogId(String id) {
+            if (logIdCount < logIds.length) {
+                logIds[logIdCount] = id;
+            } else {
+                if (logIds.length < MAX_LOG_IDS) {
+                    logIds = Arrays.copyOf(logIds, MAX_LOG_IDS);
+                }
+                logIds[logIdCount % logIds.length] = id;
+            }
+            logIdCount++;
+        }
+
+        List<String> logIds() {
+            List<String> ids = new ArrayList<>();
+            int kept = Math.min(logIdCount, logIds.length);
+            for (int i = logIdCount - kept; i < logIdCount; i++) {
+                String id = logIds[i % logIds.length];
+                if (id != null) ids.add(id);
+            }
+            return ids;
+        }
+    }
+
+    SequenceRule(RuleDefinition definition, List<Step> steps, Duration within, int maxKeys,
+                 List<Function<LogEntry, String>> groupBy, long startMillis) {
+        super(definition, groupBy);
+        this.steps = steps.toArray(new Step[0]);
+        this.withinMillis = within.toMillis();
+        this.maxKeys = maxKeys;
+        this.deadlines = new HierarchicalTimingWheel(WHEEL_TICK_MILLIS, startMillis);
+    }
+
+    @Override
+    protected Alert doEvaluate(LogEntry logEntry, long now) {
+        int matched = 0;
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i].condition().test(logEntry)) matched |= 1 << i;
+        }
+        if (matched == 0) return null;
+
+        String groupKey = groupKey(logEntry, true);
+        if (groupKey == null) return null;
+        getMatches().increment();
+
+        long key = IpKeys.toKey(groupKey);
+        for (int i = 0; i < steps.length; i++) {
+            SeenFilter seen = steps[i].seen();
+            if (seen != null && (matched & (1 << i)) != 0 && !seen.firstSeen(key, now)) {
+                matched &= ~(1 << i);
+            }
+        }
+        if (matched == 0) return null;
+        return advance(logEntry, groupKey, key, matched, now);
+    }
+
+    @Override
+    public void expireIdleGroups(long now) {
+        deadlines.advance(now, key -> expire(key, now));
+        for (Step step : steps) {
+            if (step.seen() != null) step.seen().rotateIfDue(now);
+        }
+    }
+
+    @Override
+    public int getActiveGroupCount() {
+        return activeCount.get();
+    }
+
+    private Alert advance(LogEntry logEntry, String groupKey, long key, int matched, long now) {
+        boolean startsSequence = (matched & 1) != 0;
+        while (true) {
+            PartialMatch partial = partials.get(key);
+            if (partial == null) {
+                if (!startsSequence) return null;
+                if (activeCount.get() >= maxKeys) {
+                    getDroppedGroups().increment();
+                    if (!limitLogged) {
+                        limitLogged = true;
+                        log.warn("Rule {} is tracking {} partial matches, new sequences are dropped", getId(), maxKeys);
+                    }
+                    return null;
+                }
+                partial = partials.computeIfAbsent(key, k -> {
+                    activeCount.incrementAndGet();
+                    return new PartialMatch();
+                });
+            }
+
+            List<String> logIds;
+            synchronized (partial) {
+                if (partial.removed) continue;
+                // Expired, or a different key hashing to the same slot: only a first step can reuse it
+                if (partial.groupKey == null || !partial.groupKey.equals(groupKey)
+                        || now - partial.startedAt >= withinMillis) {
+                    if (!startsSequence) return null;
+                    partial.start(groupKey, now);
+                    deadlines.schedule(key, now + withinMillis);
+                }
+
+                if ((matched & (1 << partial.step)) == 0) return null;
+                partial.addLogId(logEntry.getId());
+                if (++partial.count < steps[partial.step].count()) return null;
+                partial.step++;
+                partial.count = 0;
+                if (partial.step < steps.length) return null;
+
+                partial.removed = true;
+                logIds = partial.logIds();
+            }
+            if (partials.remove(key, partial)) activeCount.decrementAndGet();
+            getAlerts().increment();
+            return buildAlert(logEntry, groupKey, logIds, now);
+        }
+    }
+
+    // Wheel entries are never cancelled: a key that restarted since it was scheduled is still live
+    private void expire(long key, long now) {
+        PartialMatch partial = partials.get(key);
+        if (partial == null) return;
+        synchronized (partial) {
+            if (partial.removed || now - partial.startedAt < withinMillis) return;
+            partial.removed = true;
+        }
+        if (partials.remove(key, partial)) activeCount.decrementAndGet();
+    }
+
+    private Alert buildAlert(LogEntry logEntry, String groupKey, List<String> logIds, long now) {
+        StringBuilder chain = new StringBuilder();
+        for (Step step : steps) {
+            if (chain.length() > 0) chain.append(" -> ");
+            chain.append(step.name());
+            if (step.count() > 1) chain.append(" x").append(step.count());
+        }
+        return Alert.builder()
+                .alertType(alertType())
+                .ruleId(getId())
+                .description(title() + ": " + chain + " for " + groupKey
+                        + " within " + getDefinition().getSequence().getWithin())
+                .severity(getDefinition().getSeverity())
+                .sourceIp(logEntry.getIp())
+                .logIds(logIds)
+                .timestamp(Instant.ofEpochMilli(now))
+                .resolved(false)
+                .build();
+    }
+
+    /**
+     * Approximate set of group keys already seen by a first-seen step, in two off-heap bloom
+     * filters: keys are remembered for between one and two {@code rememberFor} periods after they
+     * were last seen. Nothing counts as new until the learning period has passed.
+     */
+    static final class SeenFilter {
+        private final long expectedKeys;
+        private final long rememberMillis;
+        private final long learningUntil;
+        private OffHeapBloomFilter current;
+        private OffHeapBloomFilter previous;
+        private long currentSince;
+
+        SeenFilter(long expectedKeys, Duration learningPeriod, Duration rememberFor, long now) {
+            this.expectedKeys = expectedKeys;
+            this.rememberMillis = rememberFor.toMillis();
+            this.learningUntil = now + learningPeriod.toMillis();
+            this.current = new OffHeapBloomFilter(expectedKeys, 0.001);
+            this.currentSince = now;
+        }
+
+        synchronized boolean firstSeen(long key, long now) {
+            if (current.mightContain(key)) return false;
+            current.put(key);
+            boolean seenBefore = previous != null && previous.mightContain(key);
+            return !seenBefore && now >= learningUntil;
+        }
+
+        synchronized void rotateIfDue(long now) {
+            if (now - currentSince >= rememberMillis) {
+                previous = current;
+                current = new OffHeapBloomFilter(expectedKeys, 0.001);
+                currentSince = now;
+            }
+        }
+    }
+}
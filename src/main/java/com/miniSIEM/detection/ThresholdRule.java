@@ -0,0 +1,110 @@
+package com.miniSIEM.detection;
+
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Condition plus threshold: alerts when one group-by key produces {@code count} matching events
+ * within the window. Keeps one sliding window of match timestamps per key.
+ */
+public class ThresholdRule extends CompiledRule {
+
+    private final Predicate<LogEntry> condition;
+    private final int thresholdCount;
+    private final long windowMillis;
+    private final Map<String, GroupWindow> groups = new ConcurrentHashMap<>();
+
+    // Timestamps of the last thresholdCount matches for one group key
+    private static final class GroupWindow {
+        final long[] recent;
+        int next;
+        int size;
+        long lastSeen;
+        boolean alerted;
+        boolean removed;
+
+        GroupWindow(int thresholdCount) {
+            this.recent = new long[thresholdCount];
+        }
+    }
+
+    ThresholdRule(RuleDefinition definition, Predicate<LogEntry> condition, int thresholdCount,
+                  Duration window, List<Function<LogEntry, String>> groupBy) {
+        super(definition, groupBy);
+        this.condition = condition;
+        this.thresholdCount = thresholdCount;
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    protected Alert doEvaluate(LogEntry logEntry, long now) {
+        if (!condition.test(logEntry)) return null;
+        getMatches().increment();
+        return recordMatch(logEntry, groupKey(logEntry, false), now);
+    }
+
+    @Override
+    public void expireIdleGroups(long now) {
+        Iterator<GroupWindow> iterator = groups.values().iterator();
+        while (iterator.hasNext()) {
+            GroupWindow window = iterator.next();
+            synchronized (window) {
+                if (now - window.lastSeen >= windowMillis) {
+                    window.removed = true;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getActiveGroupCount() {
+        return groups.size();
+    }
+
+    private Alert recordMatch(LogEntry logEntry, String groupKey, long now) {
+        while (true) {
+            GroupWindow window = groups.computeIfAbsent(groupKey, k -> new GroupWindow(thresholdCount));
+            int inWindow;
+            synchronized (window) {
+                if (window.removed) continue;
+                window.recent[window.next] = now;
+                window.next = (window.next + 1) % thresholdCount;
+                if (window.size < thresholdCount) window.size++;
+                window.lastSeen = now;
+
+                // Threshold is crossed when the oldest of the last N matches is still inside the window
+                if (window.size < thresholdCount || window.alerted
+                        || now - window.recent[window.next] >= windowMillis) {
+                    return null;
+                }
+                window.alerted = true;
+                inWindow = window.size;
+            }
+            getAlerts().increment();
+            return buildAlert(logEntry, groupKey, inWindow, now);
+        }
+    }
+
+    private Alert buildAlert(LogEntry logEntry, String groupKey, int count, long now) {
+        return Alert.builder()
+                .alertType(alertType())
+                .ruleId(getId())
+                .description(title() + ": " + count + " matching events for " + groupKey
+                        + " within " + getDefinition().getThreshold().getWindow())
+                .severity(getDefinition().getSeverity())
+                .sourceIp(logEntry.getIp())
+                .timestamp(Instant.ofEpochMilli(now))
+                .resolved(false)
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.miniSIEM.dto;
+
+import com.miniSIEM.detection.RuleDefinition;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class BacktestRequest {
+    @NotNull(message = "Start of time range is required")
+    private Instant from;
+
+    private Instant to; // defaults to now
+
+    private List<String> detectors = List.of("rules", "brute-force", "ioc");
+
+    // Candidate rules to try; a candidate replaces the active rule with the same id
+    private List<RuleDefinition> rules = List.of();
+
+    // Override the live brute-force settings for this run only
+    @Min(value = 1, message = "Brute force threshold must be between 1 and 1000")
+    @Max(value = 1000, message = "Brute force threshold must be between 1 and 1000")
+    private Integer bruteForceThreshold;
+
+    @Min(value = 1, message = "Brute force window must be between 1 and 1440 minutes")
+    @Max(value = 1440, message = "Brute force window must be between 1 and 1440 minutes")
+    private Integer bruteForceWindowMinutes;
+}
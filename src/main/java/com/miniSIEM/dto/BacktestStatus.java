@@ -0,0 +1,34 @@
+package com.miniSIEM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BacktestStatus {
+    private String id;
+    private String owner;
+    private String state; // QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED
+    private Instant from;
+    private Instant to;
+    private int chunksTotal;
+    private int chunksDone;
+    private long eventsReplayed;
+    private long alertCount;
+    private boolean truncated; // more alerts fired than are kept for paging
+    private Map<String, Long> alertsByType;
+    private Map<String, Long> alertsPerDay; // UTC date -> alerts
+    private long elapsedMillis;
+    private double eventsPerSecond;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -0,0 +1,21 @@
+package com.miniSIEM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BaselineInfo {
+    private String series;
+    private long lastCount;
+    private double expected;
+    private double stdDev;
+    private double lastZScore;
+    private long samples;
+    private boolean seasonal;  // false while this hour-of-week slot still uses the overall estimate
+    private String anomaly;    // null, SPIKE or SILENCE
+}
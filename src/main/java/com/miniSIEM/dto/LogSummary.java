@@ -0,0 +1,22 @@
+package com.miniSIEM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogSummary {
+    private String id;
+    private Instant timestamp;
+    private String source;
+    private String logLevel;
+    private String message;       // truncated, fetch /api/logs/{id} for the full text
+    private Integer messageLength; // full length in code points
+    private String ip;
+}
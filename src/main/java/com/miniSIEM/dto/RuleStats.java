@@ -0,0 +1,22 @@
+package com.miniSIEM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleStats {
+    private String id;
+    private String title;
+    private String severity;
+    private long evaluations;
+    private long matches;
+    private long alerts;
+    private double avgEvaluationMicros;
+    private int activeGroups;
+    private long droppedGroups;
+}
@@ -0,0 +1,19 @@
+package com.miniSIEM.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class SearchJobRequest {
+    private String ip;
+    private String logLevel;
+    private String source;
+    private String keyword;
+
+    @NotNull(message = "Start of time range is required")
+    private Instant from;
+
+    private Instant to; // defaults to now
+}
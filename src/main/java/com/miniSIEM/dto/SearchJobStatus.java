@@ -0,0 +1,26 @@
+package com.miniSIEM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchJobStatus {
+    private String id;
+    private String owner;
+    private String state; // QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED
+    private int partitionsTotal;
+    private int partitionsScanned;
+    private long hitsFound;
+    private boolean truncated;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
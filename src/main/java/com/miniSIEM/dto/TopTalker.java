@@ -0,0 +1,21 @@
+package com.miniSIEM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopTalker {
+    private String ip;
+    private String category; // ALL, ERROR, FAILED_LOGIN
+    private long count;      // estimated count, may overestimate by at most 'error'
+    private long error;
+    private double percentage;
+    private Instant firstSeen;
+}
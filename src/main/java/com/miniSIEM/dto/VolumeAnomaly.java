@@ -0,0 +1,22 @@
+package com.miniSIEM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VolumeAnomaly {
+    private String series;     // e.g. source:web-01, level:ERROR, all
+    private String type;       // SPIKE, SILENCE
+    private String severity;
+    private long observed;     // events in the last bucket
+    private double expected;   // baseline mean for this hour of the week
+    private double zScore;
+    private Instant since;
+}
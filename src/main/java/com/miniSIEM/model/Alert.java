@@ -2,31 +2,45 @@ package com.miniSIEM.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.Instant;
+import java.util.List;
 
 @Document(collection = "alerts")
+@CompoundIndex(name = "resolved_timestamp", def = "{'resolved': 1, 'timestamp': -1}")
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Alert {
+    private static final List<String> SEVERITY_ORDER = List.of("LOW", "MEDIUM", "HIGH", "CRITICAL");
+
     @Id private String id;
     private String alertType;
+    private String ruleId;
     private String description;
     private String severity;
     private String sourceIp;
-    private Instant timestamp;
+    private Instant timestamp;    // first occurrence
+    private Instant lastSeen;     // latest repeat folded into this alert by AlertService
+    private long count;           // occurrences, 0 on alerts written before deduplication
     private boolean resolved;
+    private List<String> logIds;  // contributing log entries, set by correlation rules
+
+    // Position in LOW < MEDIUM < HIGH < CRITICAL, -1 for missing or unknown severities
+    public static int severityRank(String severity) {
+        return severity == null ? -1 : SEVERITY_ORDER.indexOf(severity.toUpperCase());
+    }
 
-    public static Alert createBruteForceAlert(String ip, int attemptCount) {
+    public static Alert createBruteForceAlert(String ip, int attemptCount, int windowMinutes) {
         return Alert.builder()
                 .alertType("BRUTE_FORCE")
-                .description(attemptCount + " failed logins from " + ip + " in 5 minutes")
+                .description(attemptCount + " failed logins from " + ip + " in " + windowMinutes + " minutes")
                 .severity("HIGH")
                 .sourceIp(ip)
                 .timestamp(Instant.now())
                 .resolved(false)
                 .build();
     }
-}
\ No newline at end of file
+}
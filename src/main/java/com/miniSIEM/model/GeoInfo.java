@@ -0,0 +1,15 @@
+package com.miniSIEM.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Country and network of a log's IP, resolved at ingest; instances are shared between entries, treat as read-only
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoInfo {
+    private String country; // ISO 3166 alpha-2
+    private Long asn;
+    private String asOrg;
+}
@@ -0,0 +1,27 @@
+package com.miniSIEM.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// A log shipper's credential for the ingest endpoints; only a keyed hash of the secret is stored
+@Document(collection = "ingest_keys")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestKey {
+    @Id private String id;          // public key id, sent along with the secret
+    private String name;
+    private String secretHash;      // Base64 HMAC-SHA256 of the secret
+    private long eventsPerMinute;   // quota, 0 = unlimited
+    private String createdBy;
+    private Instant createdAt;
+    private boolean revoked;
+    private Instant revokedAt;
+}
@@ -1,13 +1,22 @@
 package com.miniSIEM.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.WildcardIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 @Document(collection = "logs")
+@CompoundIndex(name = "geo_country_timestamp", def = "{'geo.country': 1, 'timestamp': -1}")
+@CompoundIndex(name = "geo_asn_timestamp", def = "{'geo.asn': 1, 'timestamp': -1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,4 +28,24 @@ public class LogEntry {
     private String logLevel;
     private String message;
     private String ip;
+
+    @Indexed
+    private List<String> tags;
+
+    // Set from the local GeoIP database at ingest, null when the IP is not in it
+    private GeoInfo geo;
+
+    // Structured fields extracted from the message by the source's parse patterns, null when none matched
+    @WildcardIndexed
+    private Map<String, String> fields;
+
+    // Domain names found in the raw message at ingest, before sanitization could break them up;
+    // only for ingest listeners, neither stored nor returned
+    @Transient
+    @JsonIgnore
+    private List<String> domains;
+
+    public boolean hasTag(LogTag tag) {
+        return tags != null && tags.contains(tag.name());
+    }
 }
\ No newline at end of file
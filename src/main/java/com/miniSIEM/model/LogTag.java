@@ -0,0 +1,21 @@
+package com.miniSIEM.model;
+
+// Message categories assigned at ingest by LogClassifier (at most 64, one bit each)
+public enum LogTag {
+    LOGIN,
+    AUTH_FAILURE,
+    AUTH_SUCCESS,
+    ACCOUNT_LOCKOUT,
+    ACCOUNT_CHANGE,
+    PRIVILEGE_ESCALATION,
+    SQLI_PROBE,
+    XSS_PROBE,
+    PATH_TRAVERSAL,
+    COMMAND_INJECTION,
+    MALWARE,
+    NETWORK_SCAN,
+    DENIAL_OF_SERVICE,
+    DATA_EXFILTRATION,
+    CONFIG_CHANGE,
+    ACCESS_DENIED
+}
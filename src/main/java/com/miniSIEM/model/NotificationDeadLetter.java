@@ -0,0 +1,27 @@
+package com.miniSIEM.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+// A notification batch that could not be delivered, kept for inspection and manual redelivery
+@Document(collection = "notification_dead_letters")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDeadLetter {
+    @Id private String id;
+    private String channel;
+    private List<Alert> alerts;
+    private int attempts;
+    private String error;
+    @Indexed private Instant failedAt;
+}
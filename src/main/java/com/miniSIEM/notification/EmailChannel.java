@@ -0,0 +1,93 @@
+package com.miniSIEM.notification;
+
+import com.miniSIEM.model.Alert;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sends each batch as one plain-text digest email over SMTP. The default batch window is long,
+ * so a burst of alerts produces a single message rather than one per alert.
+ */
+@Component
+@Slf4j
+public class EmailChannel implements NotificationChannel {
+
+    private final SmtpClient smtpClient;
+    private final String from;
+    private final List<String> recipients;
+    private final Settings settings;
+
+    public EmailChannel(@Value("${app.alerts.email.enabled:false}") boolean enabled,
+                        @Value("${app.alerts.email.smtp-host:localhost}") String smtpHost,
+                        @Value("${app.alerts.email.smtp-port:587}") int smtpPort,
+                        @Value("${app.alerts.email.starttls:true}") boolean startTls,
+                        @Value("${app.alerts.email.username:}") String username,
+                        @Value("${app.alerts.email.password:}") String password,
+                        @Value("${app.alerts.email.from:mini-siem@localhost}") String from,
+                        @Value("${app.alerts.email.to:}") String to,
+                        @Value("${app.alerts.email.min-severity:HIGH}") String minSeverity,
+                        @Value("${app.alerts.email.batch-size:200}") int batchSize,
+                        @Value("${app.alerts.email.batch-window-ms:60000}") long batchWindowMillis,
+                        @Value("${app.alerts.email.timeout-ms:10000}") int timeoutMillis) {
+        this.smtpClient = new SmtpClient(smtpHost, smtpPort, startTls, username, password, timeoutMillis);
+        this.from = from;
+        this.recipients = Arrays.stream(to.split(","))
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .toList();
+        if (enabled && recipients.isEmpty()) {
+            log.warn("Email notifications are enabled but app.alerts.email.to is empty, disabling them");
+        }
+        // One worker: digests are meant to be few and large
+        this.settings = new Settings(enabled && !recipients.isEmpty(), minSeverity, 1, batchSize,
+                Duration.ofMillis(batchWindowMillis));
+    }
+
+    @Override
+    public String getName() {
+        return "email";
+    }
+
+    @Override
+    public Settings getSettings() {
+        return settings;
+    }
+
+    @Override
+    public void send(List<Alert> alerts) throws IOException {
+        smtpClient.send(from, recipients, subject(alerts), body(alerts));
+    }
+
+    static String subject(List<Alert> alerts) {
+        String highest = alerts.stream()
+                .map(Alert::getSeverity)
+                .max(Comparator.comparingInt(Alert::severityRank))
+                .orElse("UNKNOWN");
+        return alerts.size() == 1
+                ? "[Mini-SIEM] " + highest + ": " + alerts.get(0).getAlertType()
+                : "[Mini-SIEM] " + alerts.size() + " new alerts, highest severity " + highest;
+    }
+
+    static String body(List<Alert> alerts) {
+        StringBuilder body = new StringBuilder();
+        body.append(alerts.size()).append(alerts.size() == 1 ? " new alert" : " new alerts").append(":\n\n");
+        alerts.stream()
+                .sorted(Comparator.comparingInt((Alert alert) -> Alert.severityRank(alert.getSeverity())).reversed())
+                .forEach(alert -> {
+                    body.append('[').append(alert.getSeverity()).append("] ").append(alert.getAlertType());
+                    body.append("  ").append(alert.getTimestamp());
+                    if (alert.getSourceIp() != null) body.append("  ip=").append(alert.getSourceIp());
+                    body.append('\n');
+                    body.append("  ").append(alert.getDescription()).append('\n');
+                    body.append("  id: ").append(alert.getId()).append("\n\n");
+                });
+        return body.toString();
+    }
+}
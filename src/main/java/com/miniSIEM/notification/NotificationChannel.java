@@ -0,0 +1,35 @@
+package com.miniSIEM.notification;
+
+import com.miniSIEM.model.Alert;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * An outbound destination for alert notifications. {@link NotificationDispatcher} owns the
+ * queueing, batching and retries; a channel only turns one batch into one delivery.
+ */
+public interface NotificationChannel {
+
+    /**
+     * @param minSeverity  alerts below this severity are not queued for the channel
+     * @param workers      threads delivering batches concurrently
+     * @param batchSize    most alerts sent in one delivery
+     * @param batchWindow  how long a worker waits for more alerts to join a batch before sending it
+     */
+    record Settings(boolean enabled, String minSeverity, int workers, int batchSize, Duration batchWindow) {
+    }
+
+    String getName();
+
+    Settings getSettings();
+
+    /**
+     * Delivers the batch, blocking until the receiver has accepted it.
+     *
+     * @throws PermanentDeliveryException if retrying cannot help, e.g. the receiver rejected the request
+     * @throws IOException                on any failure worth retrying
+     */
+    void send(List<Alert> alerts) throws IOException;
+}
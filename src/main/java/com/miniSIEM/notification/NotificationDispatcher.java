@@ -0,0 +1,275 @@
+package com.miniSIEM.notification;
+
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.NotificationDeadLetter;
+import com.miniSIEM.repository.NotificationDeadLetterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers new alerts to the enabled {@link NotificationChannel}s without ever blocking the code
+ * that raised them. Every channel has its own bounded queue and worker threads, so a slow or dead
+ * receiver only backs up its own queue; when that is full, further alerts for it are dropped and
+ * counted (they are still in the alert store). Workers coalesce whatever arrives within the
+ * channel's batch window into one delivery, retry failed deliveries with exponential backoff and
+ * jitter, and move batches that still fail to the dead-letter collection for manual redelivery.
+ */
+@Service
+@Slf4j
+public class NotificationDispatcher {
+
+    private final List<Destination> destinations = new ArrayList<>();
+    private final NotificationDeadLetterRepository deadLetterRepository;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final class Destination {
+        final NotificationChannel channel;
+        final NotificationChannel.Settings settings;
+        final int minSeverityRank;
+        final BlockingQueue<Alert> queue;
+        final ExecutorService workers;
+        final LongAdder sentAlerts = new LongAdder();
+        final LongAdder deliveries = new LongAdder();
+        final LongAdder failedAttempts = new LongAdder();
+        final LongAdder deadLettered = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        volatile boolean running = true;
+        volatile boolean dropLogged;
+
+        Destination(NotificationChannel channel, int queueCapacity) {
+            this.channel = channel;
+            this.settings = channel.getSettings();
+            this.minSeverityRank = Math.max(0, Alert.severityRank(settings.minSeverity()));
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.workers = Executors.newFixedThreadPool(settings.workers(),
+                    new CustomizableThreadFactory("notify-" + channel.getName() + "-"));
+        }
+
+        void offer(Alert alert) {
+            if (Alert.severityRank(alert.getSeverity()) < minSeverityRank) return;
+            if (queue.offer(alert)) {
+                dropLogged = false;
+                return;
+            }
+            dropped.increment();
+            if (!dropLogged) {
+                dropLogged = true;
+                log.warn("Notification queue for {} is full ({}), dropping alerts until it drains",
+                        channel.getName(), queue.size());
+            }
+        }
+
+        void work() {
+            long windowNanos = settings.batchWindow().toNanos();
+            while (running) {
+                List<Alert> batch = new ArrayList<>(settings.batchSize());
+                try {
+                    Alert first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    long deadline = System.nanoTime() + windowNanos;
+                    while (batch.size() < settings.batchSize()) {
+                        if (queue.drainTo(batch, settings.batchSize() - batch.size()) > 0) continue;
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) break;
+                        Alert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) break;
+                        batch.add(next);
+                    }
+                } catch (InterruptedException e) {
+                    // Shutting down: keep what was already collected for redelivery
+                    if (!batch.isEmpty()) deadLetter(this, batch, 0, "Dispatcher shut down before delivery");
+                    return;
+                }
+                deliver(this, batch);
+            }
+        }
+    }
+
+    public NotificationDispatcher(List<NotificationChannel> channels,
+                                  NotificationDeadLetterRepository deadLetterRepository,
+                                  @Value("${app.alerts.notifications.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${app.alerts.notifications.max-attempts:6}") int maxAttempts,
+                                  @Value("${app.alerts.notifications.initial-backoff-ms:1000}") long initialBackoffMillis,
+                                  @Value("${app.alerts.notifications.max-backoff-ms:60000}") long maxBackoffMillis) {
+        this.deadLetterRepository = deadLetterRepository;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        for (NotificationChannel channel : channels) {
+            if (channel.getSettings().enabled()) {
+                destinations.add(new Destination(channel, queueCapacity));
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        for (Destination destination : destinations) {
+            for (int i = 0; i < destination.settings.workers(); i++) {
+                destination.workers.execute(destination::work);
+            }
+            NotificationChannel.Settings settings = destination.settings;
+            log.info("Alert notifications enabled for {}: {} workers, batches of up to {} within {} ms, min severity {}",
+                    destination.channel.getName(), settings.workers(), settings.batchSize(),
+                    settings.batchWindow().toMillis(), settings.minSeverity());
+        }
+    }
+
+    /**
+     * Queues the alert for every enabled channel whose minimum severity it meets. Never blocks.
+     */
+    public void enqueue(Alert alert) {
+        for (Destination destination : destinations) {
+            destination.offer(alert);
+        }
+    }
+
+    public Page<NotificationDeadLetter> findDeadLetters(int page, int size) {
+        return deadLetterRepository.findAll(PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "failedAt")));
+    }
+
+    /**
+     * Puts a dead-lettered batch back on its channel's queue and removes it from the store.
+     *
+     * @return the number of alerts requeued
+     */
+    public int redeliver(String deadLetterId) {
+        NotificationDeadLetter deadLetter = deadLetterRepository.findById(deadLetterId)
+                .orElseThrow(() -> new IllegalArgumentException("Dead letter not found: " + deadLetterId));
+        Destination destination = destinations.stream()
+                .filter(candidate -> candidate.channel.getName().equals(deadLetter.getChannel()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Channel " + deadLetter.getChannel() + " is not enabled"));
+        if (destination.queue.remainingCapacity() < deadLetter.getAlerts().size()) {
+            throw new IllegalStateException("Notification queue for " + deadLetter.getChannel()
+                    + " is full, try again later");
+        }
+        deadLetterRepository.deleteById(deadLetterId);
+        deadLetter.getAlerts().forEach(destination.queue::offer);
+        log.info("Requeued {} alerts from dead letter {} for {}", deadLetter.getAlerts().size(), deadLetterId,
+                deadLetter.getChannel());
+        return deadLetter.getAlerts().size();
+    }
+
+    public List<Map<String, Object>> getStatus() {
+        List<Map<String, Object>> status = new ArrayList<>();
+        for (Destination destination : destinations) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("channel", destination.channel.getName());
+            entry.put("queued", destination.queue.size());
+            entry.put("queueCapacity", destination.queue.size() + destination.queue.remainingCapacity());
+            entry.put("sentAlerts", destination.sentAlerts.sum());
+            entry.put("deliveries", destination.deliveries.sum());
+            entry.put("failedAttempts", destination.failedAttempts.sum());
+            entry.put("deadLettered", destination.deadLettered.sum());
+            entry.put("dropped", destination.dropped.sum());
+            status.add(entry);
+        }
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Destination destination : destinations) {
+            destination.running = false;
+            destination.workers.shutdown();
+        }
+        for (Destination destination : destinations) {
+            try {
+                if (!destination.workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                    destination.workers.shutdownNow();
+                    destination.workers.awaitTermination(5, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                destination.workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            // Keep what never left the queue, so it can be redelivered after the restart
+            List<Alert> pending = new ArrayList<>();
+            destination.queue.drainTo(pending);
+            if (!pending.isEmpty()) {
+                deadLetter(destination, pending, 0, "Dispatcher shut down before delivery");
+            }
+        }
+    }
+
+    private void deliver(Destination destination, List<Alert> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                destination.channel.send(batch);
+                destination.sentAlerts.add(batch.size());
+                destination.deliveries.increment();
+                return;
+            } catch (PermanentDeliveryException e) {
+                destination.failedAttempts.increment();
+                deadLetter(destination, batch, attempt, e.getMessage());
+                return;
+            } catch (IOException | RuntimeException e) {
+                destination.failedAttempts.increment();
+                if (attempt >= maxAttempts || !destination.running) {
+                    deadLetter(destination, batch, attempt, e.getMessage());
+                    return;
+                }
+                long backoff = backoffMillis(attempt);
+                log.debug("Delivery of {} alerts to {} failed (attempt {}), retrying in {} ms: {}",
+                        batch.size(), destination.channel.getName(), attempt, backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    deadLetter(destination, batch, attempt, e.getMessage());
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Exponential with "equal jitter": half the delay fixed, half random, so retries from many workers spread out
+    private long backoffMillis(int attempt) {
+        long delay = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 30));
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private void deadLetter(Destination destination, List<Alert> batch, int attempts, String error) {
+        destination.deadLettered.add(batch.size());
+        log.error("Giving up on delivering {} alerts to {} after {} attempts: {}", batch.size(),
+                destination.channel.getName(), attempts, error);
+        try {
+            deadLetterRepository.save(NotificationDeadLetter.builder()
+                    .channel(destination.channel.getName())
+                    .alerts(batch)
+                    .attempts(attempts)
+                    .error(error)
+                    .failedAt(Instant.now())
+                    .build());
+        } catch (RuntimeException e) {
+            log.error("Could not store dead letter for {} alerts to {}: {}", batch.size(),
+                    destination.channel.getName(), e.getMessage());
+        }
+    }
+}
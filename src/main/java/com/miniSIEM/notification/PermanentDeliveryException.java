@@ -0,0 +1,11 @@
+package com.miniSIEM.notification;
+
+import java.io.IOException;
+
+// A delivery failure that retrying will not fix; the batch goes straight to the dead-letter store
+public class PermanentDeliveryException extends IOException {
+
+    public PermanentDeliveryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,169 @@
+package com.miniSIEM.notification;
+
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Just enough SMTP to hand one plain-text message to a relay: EHLO, optional STARTTLS and
+ * AUTH PLAIN, then MAIL/RCPT/DATA. 4xx replies are reported as retryable, 5xx as permanent.
+ * Credentials are never sent over an unencrypted connection.
+ */
+final class SmtpClient {
+
+    private final String host;
+    private final int port;
+    private final boolean startTls;
+    private final String username;
+    private final String password;
+    private final int timeoutMillis;
+
+    SmtpClient(String host, int port, boolean startTls, String username, String password, int timeoutMillis) {
+        this.host = host;
+        this.port = port;
+        this.startTls = startTls;
+        this.username = username;
+        this.password = password;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    void send(String from, List<String> recipients, String subject, String body) throws IOException {
+        try (Socket plain = new Socket()) {
+            plain.connect(new InetSocketAddress(host, port), timeoutMillis);
+            plain.setSoTimeout(timeoutMillis);
+            Connection connection = new Connection(plain);
+
+            connection.expect(220);
+            List<String> extensions = connection.ehlo();
+
+            boolean encrypted = false;
+            if (startTls && extensions.stream().anyMatch(line -> line.equalsIgnoreCase("STARTTLS"))) {
+                connection.command("STARTTLS", 220);
+                SSLSocket tls = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault())
+                        .createSocket(plain, host, port, true);
+                tls.startHandshake();
+                connection = new Connection(tls);
+                connection.ehlo();
+                encrypted = true;
+            }
+
+            if (username != null && !username.isEmpty()) {
+                if (!encrypted) {
+                    throw new PermanentDeliveryException("SMTP server " + host
+                            + " does not offer STARTTLS, refusing to send credentials");
+                }
+                String token = Base64.getEncoder().encodeToString(
+                        ("\0" + username + "\0" + password).getBytes(StandardCharsets.UTF_8));
+                connection.command("AUTH PLAIN " + token, 235);
+            }
+
+            connection.command("MAIL FROM:<" + from + ">", 250);
+            for (String recipient : recipients) {
+                connection.command("RCPT TO:<" + recipient + ">", 250, 251);
+            }
+            connection.command("DATA", 354);
+            connection.writeData(message(from, recipients, subject, body));
+            connection.expect(250);
+            connection.command("QUIT", 221);
+        }
+    }
+
+    private static String message(String from, List<String> recipients, String subject, String body) {
+        StringBuilder message = new StringBuilder();
+        message.append("From: ").append(from).append("\r\n");
+        message.append("To: ").append(String.join(", ", recipients)).append("\r\n");
+        message.append("Subject: ").append(subject.replaceAll("[\r\n]", " ")).append("\r\n");
+        message.append("Date: ").append(DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now())).append("\r\n");
+        message.append("Message-ID: <").append(UUID.randomUUID()).append("@mini-siem>\r\n");
+        message.append("MIME-Version: 1.0\r\n");
+        message.append("Content-Type: text/plain; charset=UTF-8\r\n");
+        message.append("Content-Transfer-Encoding: 8bit\r\n");
+        message.append("\r\n");
+        for (String line : body.split("\r?\n", -1)) {
+            // Dot-stuffing, so a line holding a single '.' cannot end the message early
+            if (line.startsWith(".")) message.append('.');
+            message.append(line).append("\r\n");
+        }
+        return message.toString();
+    }
+
+    // Resolved on first use only, the lookup can be slow
+    private static final class LocalName {
+        static final String NAME = resolve();
+
+        private static String resolve() {
+            try {
+                return InetAddress.getLocalHost().getCanonicalHostName();
+            } catch (IOException e) {
+                return "localhost";
+            }
+        }
+    }
+
+    private static final class Connection {
+        private final BufferedReader in;
+        private final OutputStream out;
+
+        Connection(Socket socket) throws IOException {
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = socket.getOutputStream();
+        }
+
+        List<String> ehlo() throws IOException {
+            write("EHLO " + LocalName.NAME + "\r\n");
+            List<String> lines = expect(250);
+            return lines.subList(Math.min(1, lines.size()), lines.size());
+        }
+
+        void command(String command, int... accepted) throws IOException {
+            write(command + "\r\n");
+            expect(accepted);
+        }
+
+        void writeData(String message) throws IOException {
+            write(message + ".\r\n");
+        }
+
+        // Reads one possibly multi-line reply and returns its text lines
+        List<String> expect(int... accepted) throws IOException {
+            List<String> lines = new ArrayList<>();
+            String line;
+            int code;
+            do {
+                line = in.readLine();
+                if (line == null) throw new IOException("SMTP connection closed unexpectedly");
+                if (line.length() < 3) throw new IOException("Malformed SMTP reply: " + line);
+                try {
+                    code = Integer.parseInt(line.substring(0, 3));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed SMTP reply: " + line);
+                }
+                lines.add(line.length() > 4 ? line.substring(4) : "");
+            } while (line.length() > 3 && line.charAt(3) == '-');
+
+            for (int expected : accepted) {
+                if (code == expected) return lines;
+            }
+            if (code >= 500) throw new PermanentDeliveryException("SMTP server rejected: " + line);
+            throw new IOException("SMTP server replied: " + line);
+        }
+
+        private void write(String text) throws IOException {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+}
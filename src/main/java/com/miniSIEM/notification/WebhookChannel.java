@@ -0,0 +1,92 @@
+package com.miniSIEM.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniSIEM.model.Alert;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Posts each batch as one JSON document ({@code source}, {@code sentAt}, {@code count},
+ * {@code alerts}) to the configured URL. 2xx is success; 408, 429 and 5xx are retried, any other
+ * status is treated as a permanent rejection.
+ */
+@Component
+public class WebhookChannel implements NotificationChannel {
+
+    private final ObjectMapper objectMapper;
+    private final URI url;
+    private final Duration timeout;
+    private final Settings settings;
+    private final HttpClient httpClient;
+
+    public WebhookChannel(ObjectMapper objectMapper,
+                          @Value("${app.alerts.webhook.enabled:false}") boolean enabled,
+                          @Value("${app.alerts.webhook.url:}") String url,
+                          @Value("${app.alerts.webhook.min-severity:LOW}") String minSeverity,
+                          @Value("${app.alerts.webhook.workers:2}") int workers,
+                          @Value("${app.alerts.webhook.batch-size:50}") int batchSize,
+                          @Value("${app.alerts.webhook.batch-window-ms:1000}") long batchWindowMillis,
+                          @Value("${app.alerts.webhook.timeout-ms:5000}") long timeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.url = url.isBlank() ? null : URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.settings = new Settings(enabled && this.url != null, minSeverity, workers, batchSize,
+                Duration.ofMillis(batchWindowMillis));
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public Settings getSettings() {
+        return settings;
+    }
+
+    @Override
+    public void send(List<Alert> alerts) throws IOException {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("source", "Mini-SIEM");
+        payload.put("sentAt", Instant.now());
+        payload.put("count", alerts.size());
+        payload.put("alerts", alerts);
+
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(payload)))
+                .build();
+
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Webhook delivery interrupted");
+        }
+
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) return;
+        if (status == 408 || status == 429 || status >= 500) {
+            throw new IOException("Webhook returned HTTP " + status);
+        }
+        throw new PermanentDeliveryException("Webhook rejected the request with HTTP " + status);
+    }
+}
@@ -0,0 +1,421 @@
+package com.miniSIEM.realtime;
+
+import com.miniSIEM.model.LogEntry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The dashboard's live log feed. Viewers subscribe with a {@link LiveLogFilter}; viewers with the
+ * same filter share a subscription, which batches its matching entries into {@code newLogs}
+ * frames serialized once for all of them. Subscriptions are indexed by the levels they ask for,
+ * or failing that by their sources, so an entry is only tested against subscriptions that could
+ * want it plus the few filtering on neither.
+ * <p>
+ * A subscription sends one frame per interval, or sooner once a frame's worth of entries has
+ * arrived, so a bulk ingest becomes a handful of frames instead of one per entry. Early frames are
+ * rate-limited; when entries arrive faster than that, each frame carries a uniform sample of them
+ * (reservoir sampling) and says how many were left out. The feed is a view of activity, not a
+ * delivery guarantee; everything is still queryable.
+ * <p>
+ * Every saved log is numbered and kept in a bounded replay ring, and each {@code newLogs} frame
+ * carries the number of the last entry its subscription has seen as the event id. A viewer that
+ * reconnects with {@code Last-Event-ID} first gets what it missed from the ring, filtered and
+ * batched like a live frame, then continues live; if its position has already left the ring, or
+ * comes from before a restart, it is sent a {@code gap} event and whatever the ring still holds.
+ * Subscriptions that see nothing for a while are moved forward by empty {@code checkpoint}
+ * events, so a narrow filter does not fall out of the ring while idle.
+ */
+@Service
+public class LiveLogFeed {
+
+    private record Pending(long seq, LogEntry entry) {
+    }
+
+    // A newLogs frame, or a checkpoint when entries is null, for the viewers it was built for
+    private record Frame(List<RealtimeClient> targets, String id, List<LogEntry> entries, long skipped) {
+    }
+
+    private static final Subscription[] NONE = new Subscription[0];
+
+    private record Index(Map<String, Subscription[]> byLevel, Map<String, Subscription[]> bySource,
+                         Subscription[] unindexed, Subscription[] all) {
+    }
+
+    private final class Subscription {
+        final LiveLogFilter filter;
+        final Set<RealtimeClient> clients = ConcurrentHashMap.newKeySet();
+
+        // Guarded by this
+        final List<Pending> buffer = new ArrayList<>();
+        // Frames built under the lock and sent after it is released, in order, by one drain at a time
+        final ArrayDeque<Frame> outbox = new ArrayDeque<>();
+        final AtomicInteger drains = new AtomicInteger();
+        long seen;
+        long lastFlushNanos = System.nanoTime() - minFrameGapNanos;
+        // Last entry offered, and last one accounted for in a frame or checkpoint
+        long lastSeq;
+        long sentThrough;
+
+        Subscription(LiveLogFilter filter, long position) {
+            this.filter = filter;
+            this.lastSeq = position;
+            this.sentThrough = position;
+        }
+
+        synchronized void offer(long seq, LogEntry logEntry) {
+            seen++;
+            lastSeq = seq;
+            if (buffer.size() < maxEvents) {
+                buffer.add(new Pending(seq, logEntry));
+                if (buffer.size() == maxEvents) {
+                    long now = System.nanoTime();
+                    if (now - lastFlushNanos >= minFrameGapNanos) flushLocked(now);
+                }
+                return;
+            }
+            // Too soon for another frame: every entry seen since the last one gets the same
+            // chance of being in the next
+            long slot = ThreadLocalRandom.current().nextLong(seen);
+            if (slot < maxEvents) buffer.set((int) slot, new Pending(seq, logEntry));
+        }
+
+        synchronized void flush() {
+            if (!buffer.isEmpty()) flushLocked(System.nanoTime());
+        }
+
+        // Everything up to position has been offered; with nothing pending it is all accounted for
+        synchronized void checkpoint(long position) {
+            if (!buffer.isEmpty() || position <= sentThrough) return;
+            sentThrough = position;
+            outbox.add(new Frame(List.copyOf(clients), eventId(position), null, 0));
+        }
+
+        // Called with the ring locked, so nothing is offered meanwhile; the replay reaches the
+        // client before it can receive a live frame, as frames only go to the viewers they were
+        // built for
+        synchronized void join(RealtimeClient client, String lastEventId) {
+            if (lastEventId != null) replay(client, filter, lastEventId, sentThrough);
+            clients.add(client);
+        }
+
+        private void flushLocked(long now) {
+            long skipped = seen - buffer.size();
+            if (skipped > 0) buffer.sort(Comparator.comparingLong(Pending::seq));
+
+            List<LogEntry> entries = new ArrayList<>(buffer.size());
+            for (Pending pending : buffer) {
+                entries.add(pending.entry());
+            }
+            buffer.clear();
+            seen = 0;
+            lastFlushNanos = now;
+            sentThrough = lastSeq;
+            outbox.add(new Frame(List.copyOf(clients), eventId(lastSeq), entries, skipped));
+        }
+
+        synchronized Frame nextFrame() {
+            return outbox.poll();
+        }
+
+        // Serializes and sends the queued frames outside every lock. A caller that finds another
+        // drain running leaves its frames to it instead of waiting.
+        void drain() {
+            if (drains.getAndIncrement() != 0) return;
+            int missed = 1;
+            do {
+                Frame frame;
+                while ((frame = nextFrame()) != null) {
+                    send(frame);
+                }
+                missed = drains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void send(Frame frame) {
+            if (frame.entries() == null) {
+                hub.checkpoint(frame.targets(), frame.id());
+                return;
+            }
+            List<Map<String, Object>> events = new ArrayList<>(frame.entries().size());
+            for (LogEntry logEntry : frame.entries()) {
+                events.add(summary(logEntry));
+            }
+            hub.send(frame.targets(), "newLogs", frame.id(), newLogsFrame(events, frame.skipped()));
+            frames.increment();
+            omitted.add(frame.skipped());
+        }
+    }
+
+    private final RealtimeHub hub;
+    private final int maxEvents;
+    private final long minFrameGapNanos;
+
+    // Guarded by itself; also held while entries are numbered and offered, so every subscription
+    // sees them in order. Entry n sits in slot n % length.
+    private final LogEntry[] ring;
+    private long lastSeq;
+    // Event ids from before a restart cannot be resumed from
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+
+    // Guarded by itself; the index is rebuilt from it on every change and read without locking
+    private final Map<LiveLogFilter, Subscription> subscriptions = new HashMap<>();
+    private final Map<RealtimeClient, Subscription> clientSubscriptions = new ConcurrentHashMap<>();
+    private volatile Index index = new Index(Map.of(), Map.of(), NONE, NONE);
+
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder omitted = new LongAdder();
+    private final LongAdder resumes = new LongAdder();
+    private final LongAdder gaps = new LongAdder();
+
+    public LiveLogFeed(RealtimeHub hub,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.realtime.batch.max-events:100}") int maxEvents,
+                       @Value("${app.realtime.batch.max-frames-per-second:10}") int maxFramesPerSecond,
+                       @Value("${app.realtime.replay.capacity:5000}") int replayCapacity) {
+        this.hub = hub;
+        this.maxEvents = Math.max(1, maxEvents);
+        this.minFrameGapNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxFramesPerSecond);
+        this.ring = new LogEntry[Math.max(1, replayCapacity)];
+
+        FunctionCounter.builder("siem.realtime.events.omitted", omitted, LongAdder::sum)
+                .description("Saved logs sampled out of live feed frames under load")
+                .register(meterRegistry);
+        FunctionCounter.builder("siem.realtime.resumes", resumes, LongAdder::sum)
+                .description("Live feed reconnects resumed from Last-Event-ID")
+                .register(meterRegistry);
+        FunctionCounter.builder("siem.realtime.resume.gaps", gaps, LongAdder::sum)
+                .description("Resumes whose position had already left the replay ring")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Turns the current request into this viewer's event stream, receiving the saved logs that
+     * match the filter. With the id of the last event the viewer received, it first catches up on
+     * what it missed.
+     */
+    public void subscribe(HttpServletRequest request, HttpServletResponse response, String username,
+                          LiveLogFilter filter, String lastEventId) throws IOException {
+        RealtimeClient client = hub.subscribe(request, response, username, this::unsubscribe);
+        synchronized (ring) {
+            synchronized (subscriptions) {
+                Subscription subscription = subscriptions.get(filter);
+                if (subscription == null) {
+                    subscription = new Subscription(filter, lastSeq);
+                    subscriptions.put(filter, subscription);
+                    reindex();
+                }
+                clientSubscriptions.put(client, subscription);
+                subscription.join(client, lastEventId);
+            }
+        }
+        // It may already have gone away while being set up
+        if (client.isClosed()) unsubscribe(client);
+    }
+
+    public void add(List<LogEntry> logEntries) {
+        Index current;
+        synchronized (ring) {
+            // Recorded even without viewers, for the ones about to reconnect
+            current = index;
+            for (LogEntry logEntry : logEntries) {
+                long seq = ++lastSeq;
+                ring[(int) (seq % ring.length)] = logEntry;
+                if (current.all().length == 0) continue;
+
+                String level = logEntry.getLogLevel();
+                if (level != null && !current.byLevel().isEmpty()) {
+                    offer(current.byLevel().get(level.toUpperCase(Locale.ROOT)), seq, logEntry);
+                }
+                String source = logEntry.getSource();
+                if (source != null && !current.bySource().isEmpty()) {
+                    offer(current.bySource().get(source.toLowerCase(Locale.ROOT)), seq, logEntry);
+                }
+                offer(current.unindexed(), seq, logEntry);
+            }
+        }
+        for (Subscription subscription : current.all()) {
+            subscription.drain();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.realtime.batch.interval-ms:250}")
+    public void flush() {
+        for (Subscription subscription : index.all()) {
+            subscription.flush();
+            subscription.drain();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.realtime.heartbeat-interval-ms:15000}")
+    public void checkpoint() {
+        long position;
+        synchronized (ring) {
+            position = lastSeq;
+        }
+        for (Subscription subscription : index.all()) {
+            subscription.checkpoint(position);
+            subscription.drain();
+        }
+    }
+
+    public long getFrameCount() {
+        return frames.sum();
+    }
+
+    public long getOmittedCount() {
+        return omitted.sum();
+    }
+
+    public Map<String, Object> getStatus() {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Subscription subscription : index.all()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("filter", subscription.filter.toMap());
+            entry.put("viewers", subscription.clients.size());
+            entries.add(entry);
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("frames", frames.sum());
+        status.put("omittedEvents", omitted.sum());
+        status.put("resumes", resumes.sum());
+        status.put("resumeGaps", gaps.sum());
+        synchronized (ring) {
+            status.put("position", eventId(lastSeq));
+            status.put("replayable", Math.min(lastSeq, ring.length));
+        }
+        status.put("subscriptions", entries);
+        return status;
+    }
+
+    private static void offer(Subscription[] candidates, long seq, LogEntry logEntry) {
+        if (candidates == null) return;
+        for (Subscription subscription : candidates) {
+            if (subscription.filter.matches(logEntry)) subscription.offer(seq, logEntry);
+        }
+    }
+
+    // Sends the entries after lastEventId, up to through, that match the filter: the most recent
+    // frame's worth of them, with the rest counted as omitted. Called with the ring locked.
+    private void replay(RealtimeClient client, LiveLogFilter filter, String lastEventId, long through) {
+        resumes.increment();
+        List<RealtimeClient> target = List.of(client);
+        long oldest = Math.max(1, lastSeq - ring.length + 1);
+        long after = parseEventId(lastEventId);
+        if (after < oldest - 1 || after > lastSeq) {
+            gaps.increment();
+            hub.send(target, "gap", Map.of("lastEventId", lastEventId));
+            after = oldest - 1;
+        }
+
+        ArrayDeque<LogEntry> matched = new ArrayDeque<>(Math.min(maxEvents, ring.length));
+        long skipped = 0;
+        for (long seq = after + 1; seq <= through; seq++) {
+            LogEntry logEntry = ring[(int) (seq % ring.length)];
+            if (!filter.matches(logEntry)) continue;
+            if (matched.size() == maxEvents) {
+                matched.poll();
+                skipped++;
+            }
+            matched.add(logEntry);
+        }
+        if (matched.isEmpty()) {
+            hub.checkpoint(target, eventId(through));
+            return;
+        }
+        List<Map<String, Object>> events = new ArrayList<>(matched.size());
+        for (LogEntry logEntry : matched) {
+            events.add(summary(logEntry));
+        }
+        hub.send(target, "newLogs", eventId(through), newLogsFrame(events, skipped));
+    }
+
+    private String eventId(long seq) {
+        return streamId + "-" + seq;
+    }
+
+    // -1 for ids this stream did not issue
+    private long parseEventId(String eventId) {
+        String prefix = streamId + "-";
+        if (!eventId.startsWith(prefix)) return -1;
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static Map<String, Object> newLogsFrame(List<Map<String, Object>> events, long omitted) {
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("events", events);
+        frame.put("omitted", omitted);
+        return frame;
+    }
+
+    private void unsubscribe(RealtimeClient client) {
+        synchronized (subscriptions) {
+            Subscription subscription = clientSubscriptions.remove(client);
+            if (subscription == null) return;
+            subscription.clients.remove(client);
+            if (subscription.clients.isEmpty()) {
+                subscriptions.remove(subscription.filter);
+                reindex();
+            }
+        }
+    }
+
+    // Each subscription is filed under exactly one key set, so no entry reaches it twice
+    private void reindex() {
+        Map<String, List<Subscription>> byLevel = new HashMap<>();
+        Map<String, List<Subscription>> bySource = new HashMap<>();
+        List<Subscription> unindexed = new ArrayList<>();
+        for (Subscription subscription : subscriptions.values()) {
+            LiveLogFilter filter = subscription.filter;
+            if (!filter.getLevels().isEmpty()) {
+                filter.getLevels().forEach(level -> byLevel.computeIfAbsent(level, k -> new ArrayList<>()).add(subscription));
+            } else if (!filter.getSources().isEmpty()) {
+                filter.getSources().forEach(source -> bySource.computeIfAbsent(source, k -> new ArrayList<>()).add(subscription));
+            } else {
+                unindexed.add(subscription);
+            }
+        }
+        index = new Index(toArrays(byLevel), toArrays(bySource), unindexed.toArray(NONE),
+                subscriptions.values().toArray(NONE));
+    }
+
+    private static Map<String, Subscription[]> toArrays(Map<String, List<Subscription>> lists) {
+        Map<String, Subscription[]> arrays = new HashMap<>();
+        lists.forEach((key, list) -> arrays.put(key, list.toArray(NONE)));
+        return arrays;
+    }
+
+    static Map<String, Object> summary(LogEntry logEntry) {
+        Map<String, Object> logData = new HashMap<>();
+        logData.put("timestamp", logEntry.getTimestamp());
+        logData.put("level", logEntry.getLogLevel());
+        logData.put("source", logEntry.getSource());
+        logData.put("message", logEntry.getMessage());
+        logData.put("ip", logEntry.getIp());
+        return logData;
+    }
+}
@@ -0,0 +1,189 @@
+package com.miniSIEM.realtime;
+
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.util.IpKeys;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * What one live feed viewer asked to see: any of the given levels, any of the given sources, an
+ * address inside any of the given IPs/CIDRs, and the keyword in the message (case-insensitive).
+ * An empty criterion matches everything. Filters are immutable and compare equal by their
+ * normalized form, so viewers with the same filter share one subscription.
+ */
+public final class LiveLogFilter {
+
+    public static final LiveLogFilter ALL = of(null, null, null, null);
+
+    private static final int MAX_VALUES = 32;
+    private static final int MAX_KEYWORD_LENGTH = 200;
+
+    private final Set<String> levels;
+    private final Set<String> sources;
+    private final Set<String> ips;
+    // IPv4 as (network, mask) pairs, IPv6 as (high, low, highMask, lowMask) quadruples
+    private final long[] ipv4Ranges;
+    private final long[] ipv6Ranges;
+    private final String keyword;
+    private final String key;
+
+    private LiveLogFilter(Set<String> levels, Set<String> sources, Set<String> ips, long[] ipv4Ranges,
+                          long[] ipv6Ranges, String keyword) {
+        this.levels = levels;
+        this.sources = sources;
+        this.ips = ips;
+        this.ipv4Ranges = ipv4Ranges;
+        this.ipv6Ranges = ipv6Ranges;
+        this.keyword = keyword;
+        this.key = "levels=" + levels + "&sources=" + sources + "&ips=" + ips + "&keyword=" + keyword;
+    }
+
+    /**
+     * @throws IllegalArgumentException for malformed addresses or too many values
+     */
+    public static LiveLogFilter of(Collection<String> levels, Collection<String> sources, Collection<String> ips,
+                                   String keyword) {
+        Set<String> normalizedIps = normalize(ips, "ips", false);
+        List<Long> ipv4 = new ArrayList<>();
+        List<Long> ipv6 = new ArrayList<>();
+        long[] buffer = new long[2];
+        for (String ip : normalizedIps) {
+            int slash = ip.indexOf('/');
+            String address = slash >= 0 ? ip.substring(0, slash) : ip;
+            long v4 = IpKeys.parseIpv4(address);
+            if (v4 >= 0) {
+                int prefix = prefixLength(ip, slash, 32);
+                long mask = prefix == 0 ? 0 : (0xFFFFFFFFL << (32 - prefix)) & 0xFFFFFFFFL;
+                ipv4.add(v4 & mask);
+                ipv4.add(mask);
+            } else if (IpKeys.parseIpv6(address, buffer)) {
+                int prefix = prefixLength(ip, slash, 128);
+                long highMask = prefix == 0 ? 0 : prefix >= 64 ? -1L : -1L << (64 - prefix);
+                long lowMask = prefix <= 64 ? 0 : prefix == 128 ? -1L : -1L << (128 - prefix);
+                ipv6.add(buffer[0] & highMask);
+                ipv6.add(buffer[1] & lowMask);
+                ipv6.add(highMask);
+                ipv6.add(lowMask);
+            } else {
+                throw new IllegalArgumentException("Not an IP address or CIDR: " + ip);
+            }
+        }
+
+        String normalizedKeyword = keyword == null || keyword.isBlank() ? null : keyword.trim();
+        if (normalizedKeyword != null && normalizedKeyword.length() > MAX_KEYWORD_LENGTH) {
+            throw new IllegalArgumentException("Keyword is longer than " + MAX_KEYWORD_LENGTH + " characters");
+        }
+        return new LiveLogFilter(normalize(levels, "levels", true),
+                normalize(sources, "sources", false), normalizedIps,
+                ipv4.stream().mapToLong(Long::longValue).toArray(),
+                ipv6.stream().mapToLong(Long::longValue).toArray(), normalizedKeyword);
+    }
+
+    public boolean matches(LogEntry logEntry) {
+        if (!levels.isEmpty() && (logEntry.getLogLevel() == null
+                || !levels.contains(logEntry.getLogLevel().toUpperCase(Locale.ROOT)))) return false;
+        if (!sources.isEmpty() && (logEntry.getSource() == null
+                || !sources.contains(logEntry.getSource().toLowerCase(Locale.ROOT)))) return false;
+        if (!ips.isEmpty() && !matchesIp(logEntry.getIp())) return false;
+        return keyword == null || containsIgnoreCase(logEntry.getMessage(), keyword);
+    }
+
+    // Upper-case level names; empty means any level
+    public Set<String> getLevels() {
+        return levels;
+    }
+
+    // Lower-case source names; empty means any source
+    public Set<String> getSources() {
+        return sources;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("levels", levels);
+        map.put("sources", sources);
+        map.put("ips", ips);
+        map.put("keyword", keyword);
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof LiveLogFilter filter && key.equals(filter.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    private boolean matchesIp(String ip) {
+        if (ip == null) return false;
+        long v4 = IpKeys.parseIpv4(ip);
+        if (v4 >= 0) {
+            for (int i = 0; i < ipv4Ranges.length; i += 2) {
+                if ((v4 & ipv4Ranges[i + 1]) == ipv4Ranges[i]) return true;
+            }
+            return false;
+        }
+        if (ipv6Ranges.length == 0) return false;
+        long[] address = new long[2];
+        if (!IpKeys.parseIpv6(ip, address)) return false;
+        for (int i = 0; i < ipv6Ranges.length; i += 4) {
+            if ((address[0] & ipv6Ranges[i + 2]) == ipv6Ranges[i]
+                    && (address[1] & ipv6Ranges[i + 3]) == ipv6Ranges[i + 1]) return true;
+        }
+        return false;
+    }
+
+    private static boolean containsIgnoreCase(String text, String keyword) {
+        if (text == null) return false;
+        int last = text.length() - keyword.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, keyword, 0, keyword.length())) return true;
+        }
+        return false;
+    }
+
+    private static int prefixLength(String cidr, int slash, int max) {
+        if (slash < 0) return max;
+        try {
+            int prefix = Integer.parseInt(cidr.substring(slash + 1));
+            if (prefix >= 0 && prefix <= max) return prefix;
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid prefix length in " + cidr);
+    }
+
+    private static Set<String> normalize(Collection<String> values, String name, boolean upper) {
+        TreeSet<String> normalized = new TreeSet<>();
+        if (values == null) return Collections.unmodifiableSortedSet(normalized);
+        for (String value : values) {
+            if (value == null) continue;
+            // Accepts both repeated parameters and comma-separated lists
+            for (String part : value.split(",")) {
+                String trimmed = part.trim();
+                if (trimmed.isEmpty()) continue;
+                normalized.add(upper ? trimmed.toUpperCase(Locale.ROOT) : trimmed.toLowerCase(Locale.ROOT));
+            }
+        }
+        if (normalized.size() > MAX_VALUES) {
+            throw new IllegalArgumentException("At most " + MAX_VALUES + " " + name + " can be given");
+        }
+        return Collections.unmodifiableSortedSet(normalized);
+    }
+}
@@ -0,0 +1,195 @@
+package com.miniSIEM.realtime;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * One connected stream viewer: a bounded queue of ready-to-send frames in front of a servlet
+ * output stream in non-blocking mode. Producers only ever touch the queue; frames are written by
+ * the hub's writer threads, or by the container when a previously full socket becomes writable,
+ * and only while the stream reports it is ready, so a stalled viewer never holds a thread.
+ */
+final class RealtimeClient implements WriteListener, AsyncListener {
+
+    private final RealtimeHub hub;
+    private final String username;
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final Executor writers;
+    private final int capacity;
+    private final RealtimeHub.SlowConsumerPolicy policy;
+    private final Consumer<RealtimeClient> onClose;
+    private final long connectedAt = System.currentTimeMillis();
+
+    // Guarded by itself; held only for queue operations
+    private final ArrayDeque<byte[]> queue = new ArrayDeque<>();
+    private boolean scheduled;
+    private boolean closed;
+
+    // Serializes the output stream between writer threads and container callbacks
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private boolean unflushed;
+
+    RealtimeClient(RealtimeHub hub, String username, AsyncContext asyncContext, ServletOutputStream out,
+                   Executor writers, int capacity, RealtimeHub.SlowConsumerPolicy policy,
+                   Consumer<RealtimeClient> onClose) {
+        this.hub = hub;
+        this.username = username;
+        this.asyncContext = asyncContext;
+        this.out = out;
+        this.writers = writers;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.onClose = onClose;
+    }
+
+    String getUsername() {
+        return username;
+    }
+
+    long getConnectedAt() {
+        return connectedAt;
+    }
+
+    int getQueued() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Queues a frame without blocking. When the queue is full the policy decides: the oldest
+     * frame gives way, or the client is disconnected.
+     */
+    void enqueue(byte[] frame) {
+        synchronized (queue) {
+            if (closed) return;
+            if (queue.size() >= capacity) {
+                if (policy == RealtimeHub.SlowConsumerPolicy.DISCONNECT) {
+                    hub.recordDropped(queue.size() + 1);
+                    closeLocked();
+                    hub.recordSlowDisconnect(this);
+                    return;
+                }
+                queue.poll();
+                hub.recordDropped(1);
+            }
+            queue.add(frame);
+            if (scheduled) return;
+            scheduled = true;
+        }
+        try {
+            writers.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    boolean isClosed() {
+        synchronized (queue) {
+            return closed;
+        }
+    }
+
+    void close() {
+        synchronized (queue) {
+            if (closed) return;
+            closeLocked();
+        }
+    }
+
+    private void closeLocked() {
+        closed = true;
+        queue.clear();
+        hub.remove(this);
+        // Off the queue lock, so onClose may take its owner's locks in any order
+        try {
+            writers.execute(() -> {
+                onClose.accept(this);
+                complete();
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down, the container ends the request itself
+        }
+    }
+
+    @Override
+    public void onWritePossible() {
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        close();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    private byte[] poll() {
+        synchronized (queue) {
+            scheduled = false;
+            return closed ? null : queue.poll();
+        }
+    }
+
+    // Writes until the queue is empty or the socket pushes back; in the latter case the container
+    // calls onWritePossible once it can take more
+    private void drain() {
+        writeLock.lock();
+        try {
+            while (out.isReady()) {
+                byte[] frame = poll();
+                if (frame == null) {
+                    if (!unflushed) return;
+                    unflushed = false;
+                    out.flush();
+                    continue;
+                }
+                out.write(frame);
+                unflushed = true;
+            }
+        } catch (IOException | IllegalStateException e) {
+            close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void complete() {
+        writeLock.lock();
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
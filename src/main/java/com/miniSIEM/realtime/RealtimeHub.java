@@ -0,0 +1,227 @@
+package com.miniSIEM.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Fans server-sent events out to the dashboard's live viewers. Each event is serialized to its
+ * wire form once, however many viewers there are, and the same bytes are queued for every client.
+ * Publishing only touches those bounded per-client queues; a small writer pool drains them
+ * through non-blocking servlet output, so one slow or stalled viewer cannot hold up the others or
+ * the ingest path. A client whose queue is full is handled by the slow-consumer policy: drop its
+ * oldest queued events, or disconnect it (the browser's EventSource reconnects on its own).
+ * Frames may carry an event id, which the browser sends back as {@code Last-Event-ID} when it
+ * reconnects; see {@link LiveLogFeed} for how the live feed resumes from it.
+ */
+@Service
+@Slf4j
+public class RealtimeHub {
+
+    public enum SlowConsumerPolicy { DROP_OLDEST, DISCONNECT }
+
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectMapper objectMapper;
+    private final int queueCapacity;
+    private final SlowConsumerPolicy policy;
+    private final long connectionTimeoutMillis;
+    private final ExecutorService writers;
+    private final Set<RealtimeClient> clients = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder slowDisconnects = new LongAdder();
+
+    public RealtimeHub(ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.realtime.client-queue-capacity:1024}") int queueCapacity,
+                       @Value("${app.realtime.slow-consumer-policy:DROP_OLDEST}") SlowConsumerPolicy policy,
+                       @Value("${app.realtime.writer-threads:2}") int writerThreads,
+                       @Value("${app.realtime.connection-timeout-ms:0}") long connectionTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.policy = policy;
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+        this.writers = Executors.newFixedThreadPool(Math.max(1, writerThreads),
+                new CustomizableThreadFactory("realtime-writer-"));
+
+        Gauge.builder("siem.realtime.clients", clients, Set::size)
+                .description("Connected live stream viewers")
+                .register(meterRegistry);
+        FunctionCounter.builder("siem.realtime.events.dropped", dropped, LongAdder::sum)
+                .description("Events discarded from full per-client queues")
+                .register(meterRegistry);
+        FunctionCounter.builder("siem.realtime.slow.disconnects", slowDisconnects, LongAdder::sum)
+                .description("Viewers disconnected for falling behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Turns the current request into an event stream for this viewer. The request stays open
+     * after the handler returns; it ends when the viewer goes away, times out or is disconnected,
+     * and {@code onClose} is then called once.
+     */
+    RealtimeClient subscribe(HttpServletRequest request, HttpServletResponse response, String username,
+                             Consumer<RealtimeClient> onClose) throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+        // Keeps reverse proxies from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(connectionTimeoutMillis);
+        ServletOutputStream out = response.getOutputStream();
+
+        RealtimeClient client = new RealtimeClient(this, username, asyncContext, out, writers,
+                queueCapacity, policy, onClose);
+        asyncContext.addListener(client);
+        // Non-blocking mode from here on; nothing may be written before the listener is set
+        out.setWriteListener(client);
+        client.enqueue(frame("connected", null, "Real-time feed connected".getBytes(StandardCharsets.UTF_8)));
+        clients.add(client);
+        // It may already have gone away while being set up
+        if (client.isClosed()) clients.remove(client);
+        return client;
+    }
+
+    /**
+     * Sends an event to every connected viewer. The payload is serialized to JSON once; this
+     * never blocks on a viewer.
+     */
+    public void broadcast(String event, Object data) {
+        send(clients, event, data);
+    }
+
+    // Same as broadcast, for a subset of the viewers
+    void send(Collection<RealtimeClient> targets, String event, Object data) {
+        send(targets, event, null, data);
+    }
+
+    // With an id, the frame also moves the viewers' resume position
+    void send(Collection<RealtimeClient> targets, String event, String id, Object data) {
+        if (targets.isEmpty()) return;
+        byte[] frame;
+        try {
+            frame = frame(event, id, objectMapper.writeValueAsBytes(data));
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize {} event: {}", event, e.getMessage());
+            return;
+        }
+        published.increment();
+        for (RealtimeClient client : targets) {
+            client.enqueue(frame);
+        }
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    public Map<String, Object> getStatus() {
+        List<Map<String, Object>> viewers = new ArrayList<>();
+        for (RealtimeClient client : clients) {
+            Map<String, Object> viewer = new LinkedHashMap<>();
+            viewer.put("username", client.getUsername());
+            viewer.put("connectedAt", client.getConnectedAt());
+            viewer.put("queued", client.getQueued());
+            viewers.add(viewer);
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("clients", viewers.size());
+        status.put("queueCapacity", queueCapacity);
+        status.put("slowConsumerPolicy", policy);
+        status.put("publishedEvents", published.sum());
+        status.put("droppedEvents", dropped.sum());
+        status.put("slowDisconnects", slowDisconnects.sum());
+        status.put("viewers", viewers);
+        return status;
+    }
+
+    /**
+     * Moves the viewers' resume position without sending anything to show: an empty
+     * {@code checkpoint} event whose id the page keeps for its own reconnects, as the browser only
+     * dispatches frames that carry a data line.
+     */
+    void checkpoint(Collection<RealtimeClient> targets, String id) {
+        if (targets.isEmpty()) return;
+        byte[] frame = ("id: " + id + "\nevent: checkpoint\ndata: \n\n").getBytes(StandardCharsets.UTF_8);
+        for (RealtimeClient client : targets) {
+            client.enqueue(frame);
+        }
+    }
+
+    // A comment line keeps idle connections open through proxies and surfaces dead sockets
+    @Scheduled(fixedDelayString = "${app.realtime.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (RealtimeClient client : clients) {
+            client.enqueue(HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (RealtimeClient client : clients) {
+            client.close();
+        }
+        writers.shutdown();
+        try {
+            writers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void remove(RealtimeClient client) {
+        clients.remove(client);
+    }
+
+    void recordDropped(int events) {
+        dropped.add(events);
+    }
+
+    void recordSlowDisconnect(RealtimeClient client) {
+        slowDisconnects.increment();
+        log.warn("Disconnecting real-time viewer {}: {} events behind", client.getUsername(), queueCapacity);
+    }
+
+    static byte[] frame(String event, String id, byte[] data) {
+        String idLine = id == null ? "" : "id: " + id + "\n";
+        byte[] head = (idLine + "event: " + event + "\ndata: ").getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[head.length + data.length + 2];
+        System.arraycopy(head, 0, frame, 0, head.length);
+        System.arraycopy(data, 0, frame, head.length, data.length);
+        frame[frame.length - 2] = '\n';
+        frame[frame.length - 1] = '\n';
+        return frame;
+    }
+}
@@ -4,7 +4,7 @@ import com.miniSIEM.model.Alert;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
 
-public interface AlertRepository extends MongoRepository<Alert, String> {
+public interface AlertRepository extends MongoRepository<Alert, String>, AlertRepositoryCustom {
     List<Alert> findBySourceIpAndResolvedFalse(String ip);
     List<Alert> findByResolvedFalse();
-}
\ No newline at end of file
+}
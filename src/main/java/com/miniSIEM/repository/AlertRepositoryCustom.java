@@ -0,0 +1,27 @@
+package com.miniSIEM.repository;
+
+import com.miniSIEM.model.Alert;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface AlertRepositoryCustom {
+
+    // Newest first; null filters are ignored
+    Page<Alert> findAlerts(Boolean resolved, Collection<String> severities, String alertType,
+                           Instant from, Instant to, Pageable pageable);
+
+    // Unresolved alerts that repeated since the cutoff, for rebuilding the open-alert index
+    List<Alert> findOpenSince(Instant cutoff, int limit);
+
+    /**
+     * One unordered bulk write: {@code upserts} are written whole (new alerts, safe to retry),
+     * {@code updates} only get their counters, repeat fields and resolution set.
+     */
+    void writeBatch(List<Alert> upserts, List<Alert> updates);
+
+    boolean markResolved(String id);
+}
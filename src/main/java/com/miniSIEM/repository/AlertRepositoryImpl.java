@@ -0,0 +1,77 @@
+package com.miniSIEM.repository;
+
+import com.miniSIEM.model.Alert;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class AlertRepositoryImpl implements AlertRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Page<Alert> findAlerts(Boolean resolved, Collection<String> severities, String alertType,
+                                  Instant from, Instant to, Pageable pageable) {
+        Criteria criteria = new Criteria();
+        if (resolved != null) criteria.and("resolved").is(resolved);
+        if (severities != null && !severities.isEmpty()) criteria.and("severity").in(severities);
+        if (alertType != null && !alertType.isBlank()) criteria.and("alertType").is(alertType);
+        if (from != null || to != null) {
+            Criteria timestamp = criteria.and("timestamp");
+            if (from != null) timestamp.gte(from);
+            if (to != null) timestamp.lt(to);
+        }
+
+        Query query = new Query(criteria).with(pageable).with(Sort.by(Sort.Direction.DESC, "timestamp"));
+        List<Alert> alerts = mongoTemplate.find(query, Alert.class);
+        return PageableExecutionUtils.getPage(alerts, pageable,
+                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Alert.class));
+    }
+
+    @Override
+    public List<Alert> findOpenSince(Instant cutoff, int limit) {
+        Query query = new Query(Criteria.where("resolved").is(false)
+                .orOperator(Criteria.where("lastSeen").gte(cutoff), Criteria.where("timestamp").gte(cutoff)))
+                .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+                .limit(limit);
+        return mongoTemplate.find(query, Alert.class);
+    }
+
+    @Override
+    public void writeBatch(List<Alert> upserts, List<Alert> updates) {
+        if (upserts.isEmpty() && updates.isEmpty()) return;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Alert.class);
+        for (Alert alert : upserts) {
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(alert.getId())), alert,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        for (Alert alert : updates) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(alert.getId())), new Update()
+                    .set("count", alert.getCount())
+                    .set("lastSeen", alert.getLastSeen())
+                    .set("severity", alert.getSeverity())
+                    .set("logIds", alert.getLogIds())
+                    .set("resolved", alert.isResolved()));
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public boolean markResolved(String id) {
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+                Update.update("resolved", true), Alert.class).getMatchedCount() > 0;
+    }
+}
@@ -0,0 +1,13 @@
+package com.miniSIEM.repository;
+
+import com.miniSIEM.model.IngestKey;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IngestKeyRepository extends MongoRepository<IngestKey, String> {
+
+    List<IngestKey> findByRevokedFalse();
+}
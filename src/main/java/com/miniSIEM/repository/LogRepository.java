@@ -10,7 +10,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
-public interface LogRepository extends MongoRepository<LogEntry, String> {
+public interface LogRepository extends MongoRepository<LogEntry, String>, LogRepositoryCustom {
 
     // Find logs by IP address with pagination
     List<LogEntry> findByIp(String ip, Pageable pageable);
@@ -0,0 +1,42 @@
+package com.miniSIEM.repository;
+
+import com.miniSIEM.dto.LogSummary;
+import com.miniSIEM.model.LogEntry;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface LogRepositoryCustom {
+
+    // Projected list view: only the requested fields leave Mongo, message truncated server-side
+    List<LogSummary> findSummaries(String ip, String logLevel, String source, String country, Long asn,
+                                   Map<String, String> parsedFields, Set<String> fields, int messageLength,
+                                   Pageable pageable);
+
+    // Full entries matching any combination of the optional filters, including GeoIP and parsed message fields
+    List<LogEntry> findFiltered(String ip, String logLevel, String source, String country, Long asn,
+                                Map<String, String> parsedFields, Pageable pageable);
+
+    // Cursor over [from, to), newest first; caller must close the stream
+    Stream<LogEntry> streamLogs(String ip, String logLevel, String source, String keyword,
+                                Instant from, Instant to);
+
+    // Cursor over every entry in [from, to), oldest first, for replaying in event order; caller must close the stream
+    Stream<LogEntry> streamRange(Instant from, Instant to);
+
+    // Classifier tag frequencies since the given instant, most frequent first
+    List<Map<String, Object>> countTagsSince(Instant since);
+
+    // Entry counts per value of a top-level field (e.g. "source", "logLevel") across the collection
+    Map<String, Long> countAllBy(String field);
+
+    // Entry counts per minute since the given instant, keyed by minutes since the epoch
+    Map<Long, Long> countPerMinuteSince(Instant since);
+
+    // Top countries or ASNs (groupBy "country" or "asn") since the given instant, optionally within one country
+    List<Map<String, Object>> countGeoSince(String groupBy, String country, Instant since, int limit);
+}
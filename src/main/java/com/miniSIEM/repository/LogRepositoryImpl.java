@@ -0,0 +1,176 @@
+package com.miniSIEM.repository;
+
+import com.miniSIEM.dto.LogSummary;
+import com.miniSIEM.model.LogEntry;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class LogRepositoryImpl implements LogRepositoryCustom {
+
+    private static final int STREAM_BATCH_SIZE = 2000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<LogSummary> findSummaries(String ip, String logLevel, String source, String country, Long asn,
+                                          Map<String, String> parsedFields, Set<String> fields, int messageLength,
+                                          Pageable pageable) {
+        Criteria criteria = filterCriteria(ip, logLevel, source, country, asn, parsedFields);
+
+        ProjectionOperation projection = Aggregation.project();
+        for (String field : fields) {
+            if (field.equals("message")) {
+                projection = projection
+                        .and(StringOperators.valueOf("message").substringCP(0, messageLength)).as("message")
+                        .and(StringOperators.valueOf("message").lengthCP()).as("messageLength");
+            } else {
+                projection = projection.andInclude(field);
+            }
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.sort(pageable.getSort()),
+                Aggregation.skip(pageable.getOffset()),
+                Aggregation.limit(pageable.getPageSize()),
+                projection
+        );
+
+        return mongoTemplate.aggregate(aggregation, LogEntry.class, LogSummary.class).getMappedResults();
+    }
+
+    @Override
+    public List<LogEntry> findFiltered(String ip, String logLevel, String source, String country, Long asn,
+                                       Map<String, String> parsedFields, Pageable pageable) {
+        Query query = new Query(filterCriteria(ip, logLevel, source, country, asn, parsedFields)).with(pageable);
+        return mongoTemplate.find(query, LogEntry.class);
+    }
+
+    @Override
+    public Stream<LogEntry> streamLogs(String ip, String logLevel, String source, String keyword,
+                                       Instant from, Instant to) {
+        Criteria criteria = filterCriteria(ip, logLevel, source, null, null, Map.of())
+                .and("timestamp").gte(from).lt(to);
+        if (keyword != null && !keyword.isBlank()) {
+            criteria.and("message").regex(Pattern.quote(keyword), "i");
+        }
+
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "timestamp"));
+        return mongoTemplate.stream(query, LogEntry.class);
+    }
+
+    @Override
+    public Stream<LogEntry> streamRange(Instant from, Instant to) {
+        Query query = new Query(Criteria.where("timestamp").gte(from).lt(to))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp"))
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, LogEntry.class);
+    }
+
+    @Override
+    public List<Map<String, Object>> countTagsSince(Instant since) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("timestamp").gte(since).and("tags").exists(true)),
+                Aggregation.unwind("tags"),
+                Aggregation.group("tags").count().as("count"),
+                Aggregation.sort(Sort.Direction.DESC, "count")
+        );
+
+        return mongoTemplate.aggregate(aggregation, LogEntry.class, Document.class).getMappedResults().stream()
+                .map(document -> Map.<String, Object>of(
+                        "tag", document.getString("_id"),
+                        "count", ((Number) document.get("count")).longValue()))
+                .toList();
+    }
+
+    @Override
+    public List<Map<String, Object>> countGeoSince(String groupBy, String country, Instant since, int limit) {
+        Criteria criteria = Criteria.where("timestamp").gte(since);
+        if (country != null) criteria.and("geo.country").is(country);
+        criteria.and("geo." + groupBy).ne(null);
+
+        GroupOperation group = Aggregation.group("geo." + groupBy).count().as("count");
+        if (groupBy.equals("asn")) group = group.first("geo.asOrg").as("asOrg");
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                group,
+                Aggregation.sort(Sort.Direction.DESC, "count"),
+                Aggregation.limit(limit)
+        );
+
+        return mongoTemplate.aggregate(aggregation, LogEntry.class, Document.class).getMappedResults().stream()
+                .map(document -> {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put(groupBy, document.get("_id"));
+                    if (document.containsKey("asOrg")) entry.put("asOrg", document.get("asOrg"));
+                    entry.put("count", ((Number) document.get("count")).longValue());
+                    return entry;
+                })
+                .toList();
+    }
+
+    @Override
+    public Map<String, Long> countAllBy(String field) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group(field).count().as("count")
+        );
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Document document : mongoTemplate.aggregate(aggregation, LogEntry.class, Document.class)) {
+            Object value = document.get("_id");
+            if (value != null) counts.put(value.toString(), ((Number) document.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<Long, Long> countPerMinuteSince(Instant since) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("timestamp").gte(since)),
+                Aggregation.project().and(ArithmeticOperators.Floor.floorValueOf(
+                        ArithmeticOperators.Divide.valueOf(ConvertOperators.ToLong.toLong("$timestamp"))
+                                .divideBy(60_000))).as("minute"),
+                Aggregation.group("minute").count().as("count")
+        );
+
+        Map<Long, Long> counts = new HashMap<>();
+        for (Document document : mongoTemplate.aggregate(aggregation, LogEntry.class, Document.class)) {
+            counts.put(((Number) document.get("_id")).longValue(), ((Number) document.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    private Criteria filterCriteria(String ip, String logLevel, String source, String country, Long asn,
+                                    Map<String, String> parsedFields) {
+        Criteria criteria = new Criteria();
+        if (ip != null) criteria.and("ip").is(ip);
+        if (logLevel != null) criteria.and("logLevel").is(logLevel);
+        if (source != null) criteria.and("source").is(source);
+        if (country != null) criteria.and("geo.country").is(country);
+        if (asn != null) criteria.and("geo.asn").is(asn);
+        parsedFields.forEach((name, value) -> criteria.and("fields." + name).is(value));
+        return criteria;
+    }
+}
@@ -0,0 +1,7 @@
+package com.miniSIEM.repository;
+
+import com.miniSIEM.model.NotificationDeadLetter;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface NotificationDeadLetterRepository extends MongoRepository<NotificationDeadLetter, String> {
+}
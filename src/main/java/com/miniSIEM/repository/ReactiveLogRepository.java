@@ -0,0 +1,29 @@
+package com.miniSIEM.repository;
+
+import com.miniSIEM.model.LogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+public interface ReactiveLogRepository extends ReactiveMongoRepository<LogEntry, String>, ReactiveLogRepositoryCustom {
+
+    // Same optional-filter query as LogRepository.findByFilters, streamed from the cursor
+    @Query("{ " +
+            "$and: [ " +
+            "  { $or: [ { 'ip': ?0 }, { $expr: { $eq: [?0, null] } } ] }, " +
+            "  { $or: [ { 'logLevel': ?1 }, { $expr: { $eq: [?1, null] } } ] }, " +
+            "  { $or: [ { 'source': ?2 }, { $expr: { $eq: [?2, null] } } ] } " +
+            "] }")
+    Flux<LogEntry> findByFilters(@Param("ip") String ip,
+                                 @Param("logLevel") String logLevel,
+                                 @Param("source") String source,
+                                 Pageable pageable);
+
+    // Export: everything since a point in time, oldest first
+    @Query(value = "{ 'timestamp': { $gte: ?0 } }", sort = "{ 'timestamp': 1 }")
+    Flux<LogEntry> streamSince(Instant since);
+}
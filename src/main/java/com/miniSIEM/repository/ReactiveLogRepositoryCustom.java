@@ -0,0 +1,12 @@
+package com.miniSIEM.repository;
+
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.Map;
+
+public interface ReactiveLogRepositoryCustom {
+
+    // Hourly counts grouped inside Mongo instead of loading every log into memory
+    Flux<Map<String, Object>> hourlyTrends(Instant since);
+}
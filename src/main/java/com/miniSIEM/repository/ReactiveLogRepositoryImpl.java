@@ -0,0 +1,40 @@
+package com.miniSIEM.repository;
+
+import com.miniSIEM.model.LogEntry;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ReactiveLogRepositoryImpl implements ReactiveLogRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Map<String, Object>> hourlyTrends(Instant since) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("timestamp").gte(since)),
+                Aggregation.project()
+                        .and(DateOperators.dateOf("timestamp").toString("%Y-%m-%dT%H:00:00Z")).as("hour"),
+                Aggregation.group("hour").count().as("count"),
+                Aggregation.sort(Sort.Direction.ASC, "_id")
+        );
+
+        return reactiveMongoTemplate.aggregate(aggregation, LogEntry.class, Document.class)
+                .map(document -> {
+                    Map<String, Object> trend = new HashMap<>();
+                    trend.put("timestamp", document.getString("_id"));
+                    trend.put("count", ((Number) document.get("count")).longValue());
+                    return trend;
+                });
+    }
+}
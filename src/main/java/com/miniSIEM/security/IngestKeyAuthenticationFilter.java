@@ -0,0 +1,58 @@
+package com.miniSIEM.security;
+
+import com.miniSIEM.service.IngestKeyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates log shippers by the {@code X-API-Key} header, on the ingest endpoints only; there
+ * the key grants {@code ROLE_INGEST} and nothing else.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IngestKeyAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-API-Key";
+
+    private static final List<SimpleGrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_INGEST"));
+
+    private final IngestKeyService ingestKeyService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String credential = request.getHeader(HEADER);
+        if (credential != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            IngestKeyPrincipal principal = ingestKeyService.authenticate(credential.trim());
+            if (principal != null) {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(principal, null, AUTHORITIES));
+            } else {
+                log.warn("Rejected ingest key from {}", request.getRemoteAddr());
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !"POST".equals(request.getMethod()) || !(path.equals("/api/logs") || path.equals("/api/logs/bulk"));
+    }
+}
@@ -0,0 +1,10 @@
+package com.miniSIEM.security;
+
+// The authenticated principal of a request signed with an ingest key
+public record IngestKeyPrincipal(String keyId, String name) {
+
+    @Override
+    public String toString() {
+        return "ingest-key:" + name;
+    }
+}
@@ -1,6 +1,8 @@
 package com.miniSIEM.security;
 
 import com.miniSIEM.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,6 +13,7 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -25,6 +28,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     @Lazy
     private final UserService userService;
+    private final VerifiedTokenCache tokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -33,26 +37,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        // Check if Authorization header exists and starts with "Bearer " and no authentication exists yet
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-        // Check if Authorization header exists and starts with "Bearer "
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                log.error("Error extracting username from JWT: {}", e.getMessage());
-            }
-        }
-
-        // If username is extracted and no authentication exists in SecurityContext
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            UserDetails userDetails = userService.loadUserByUsername(username);
-
-            // Validate token
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            UserDetails userDetails = authenticate(authorizationHeader.substring(7));
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -63,13 +53,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                log.debug("Authentication successful for user: {}", username);
+                log.debug("Authentication successful for user: {}", userDetails.getUsername());
             }
         }
 
         filterChain.doFilter(request, response);
     }
 
+    // Verifies the token once and loads its user, unless the pair is already cached
+    private UserDetails authenticate(String jwt) {
+        UserDetails cached = tokenCache.get(jwt);
+        if (cached != null) return cached;
+
+        Claims claims;
+        try {
+            claims = jwtUtil.parseToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Invalid JWT: {}", e.getMessage());
+            return null;
+        }
+        if (claims.getSubject() == null || claims.getExpiration() == null) return null;
+
+        long generation = tokenCache.generation();
+        UserDetails userDetails;
+        try {
+            userDetails = userService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            log.warn("JWT for unknown user: {}", claims.getSubject());
+            return null;
+        }
+        tokenCache.put(jwt, userDetails, claims.getExpiration().getTime(), generation);
+        return userDetails;
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
@@ -79,4 +95,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 path.equals("/health") ||
                 path.startsWith("/public/");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.miniSIEM.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers, for a short while, which user a verified JWT belongs to, so repeat requests with the
+ * same token skip signature verification and the user lookup. An entry lives for the configured
+ * TTL and never past the token's own expiry. Changing or deleting a user drops that user's entries,
+ * and a lookup that raced with such a change is not cached, so roles and account state are never
+ * older than the TTL plus the change itself.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${app.security.token-cache.max-size:10000}") int maxSize,
+                              @Value("${app.security.token-cache.ttl-ms:30000}") long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+
+        FunctionCounter.builder("siem.auth.token.cache.hits", hits, LongAdder::sum)
+                .description("Requests authenticated from the verified token cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("siem.auth.token.cache.misses", misses, LongAdder::sum)
+                .description("Requests that verified their token and loaded the user")
+                .register(meterRegistry);
+    }
+
+    public UserDetails get(String token) {
+        Entry entry = entries.get(token);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            hits.increment();
+            return entry.userDetails();
+        }
+        if (entry != null) entries.remove(token, entry);
+        misses.increment();
+        return null;
+    }
+
+    // Taken before loading the user and handed back to put
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches a user loaded for a verified token. Nothing is cached if a user changed since
+     * {@code loadedAt} was taken, or if the cache is full of live entries.
+     */
+    public void put(String token, UserDetails userDetails, long tokenExpiresAt, long loadedAt) {
+        long now = System.currentTimeMillis();
+        if (ttlMillis <= 0 || maxSize <= 0) return;
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (entries.size() >= maxSize) return;
+        }
+        entries.put(token, new Entry(userDetails, Math.min(now + ttlMillis, tokenExpiresAt)));
+        // A change that landed meanwhile may have missed the entry just added
+        if (generation.get() != loadedAt) entries.remove(token);
+    }
+
+    public void invalidate(String username) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> entry.userDetails().getUsername().equals(username));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -1,4 +1,319 @@
 package com.miniSIEM.service;
 
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.notification.NotificationDispatcher;
+import com.miniSIEM.repository.AlertRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single write path for alerts. Open alerts are indexed in memory by (type, source IP), or by
+ * rule id for alerts without an IP, so a detector firing again for the same offender only bumps
+ * the existing alert's count and last-seen time instead of costing a lookup and an insert. New
+ * and changed alerts are written in unordered bulk batches by a scheduled flush; ids are assigned
+ * up front so callers and the flush never wait on each other. New alerts are also handed to the
+ * {@link NotificationDispatcher}, which never blocks. When the index is full the least recently
+ * seen entries make room, so a wide attack does not turn every repeat into a new alert.
+ */
+@Service
+@Slf4j
 public class AlertService {
+
+    // Share of the index dropped at once when it is full, so the scan for the stalest is rare
+    private static final int EVICTION_DIVISOR = 100;
+
+    private final AlertRepository alertRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final long dedupeWindowMillis;
+    private final int maxOpenAlerts;
+    private final int flushBatchSize;
+    private final int maxLogIds;
+
+    private final Map<String, OpenAlert> openAlerts = new ConcurrentHashMap<>();
+    private final Map<String, OpenAlert> openAlertsById = new ConcurrentHashMap<>();
+    private final Queue<OpenAlert> dirty = new ConcurrentLinkedQueue<>();
+    private final Object evictionLock = new Object();
+
+    private volatile boolean limitLogged;
+
+    // The document plus its write state; all fields guarded by the instance lock
+    private static final class OpenAlert {
+        final String key;
+        final Alert alert;
+        boolean persisted;
+        boolean dirty;
+        boolean closed;
+
+        OpenAlert(String key, Alert alert) {
+            this.key = key;
+            this.alert = alert;
+        }
+    }
+
+    public AlertService(AlertRepository alertRepository,
+                        NotificationDispatcher notificationDispatcher,
+                        @Value("${app.alerts.dedupe-window-minutes:1440}") int dedupeWindowMinutes,
+                        @Value("${app.alerts.max-open:100000}") int maxOpenAlerts,
+                        @Value("${app.alerts.flush-batch-size:500}") int flushBatchSize,
+                        @Value("${app.alerts.max-log-ids:50}") int maxLogIds) {
+        this.alertRepository = alertRepository;
+        this.notificationDispatcher = notificationDispatcher;
+        this.dedupeWindowMillis = TimeUnit.MINUTES.toMillis(dedupeWindowMinutes);
+        this.maxOpenAlerts = maxOpenAlerts;
+        this.flushBatchSize = flushBatchSize;
+        this.maxLogIds = maxLogIds;
+    }
+
+    @PostConstruct
+    public void loadOpenAlerts() {
+        Instant cutoff = Instant.now().minusMillis(dedupeWindowMillis);
+        try {
+            for (Alert alert : alertRepository.findOpenSince(cutoff, maxOpenAlerts)) {
+                OpenAlert open = new OpenAlert(dedupeKey(alert), alert);
+                open.persisted = true;
+                if (alert.getCount() == 0) alert.setCount(1);
+                if (alert.getLastSeen() == null) alert.setLastSeen(alert.getTimestamp());
+                if (openAlerts.putIfAbsent(open.key, open) == null) {
+                    openAlertsById.put(alert.getId(), open);
+                }
+            }
+            log.info("Indexed {} open alerts", openAlerts.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not load open alerts, repeats of existing alerts will open new ones: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records one occurrence. A repeat of an alert that is still open and was last seen within the
+     * dedupe window is folded into it; otherwise a new alert is queued.
+     *
+     * @return the id of the alert the occurrence was recorded on
+     */
+    public String raise(Alert alert) {
+        Instant seen = alert.getTimestamp() != null ? alert.getTimestamp() : Instant.now();
+        String key = dedupeKey(alert);
+
+        while (true) {
+            OpenAlert open = openAlerts.get(key);
+            if (open != null) {
+                synchronized (open) {
+                    if (!open.closed && seen.toEpochMilli() - open.alert.getLastSeen().toEpochMilli() < dedupeWindowMillis) {
+                        merge(open.alert, alert, seen);
+                        markDirty(open);
+                        return open.alert.getId();
+                    }
+                    if (!open.closed) close(open);
+                }
+                continue;
+            }
+
+            Alert created = alert.toBuilder()
+                    .id(new ObjectId().toHexString())
+                    .timestamp(seen)
+                    .lastSeen(seen)
+                    .count(Math.max(1, alert.getCount()))
+                    .logIds(alert.getLogIds() != null ? new ArrayList<>(alert.getLogIds()) : null)
+                    .build();
+            OpenAlert fresh = new OpenAlert(key, created);
+
+            if (openAlerts.size() >= maxOpenAlerts) {
+                evictStalest();
+            }
+            if (openAlerts.putIfAbsent(key, fresh) != null) {
+                continue;
+            }
+            openAlertsById.put(created.getId(), fresh);
+            Alert notification;
+            synchronized (fresh) {
+                markDirty(fresh);
+                notification = snapshot(created);
+            }
+            // Only new alerts are announced; repeats just bump the count of the open one
+            notificationDispatcher.enqueue(notification);
+            return created.getId();
+        }
+    }
+
+    public Page<Alert> findAlerts(Boolean resolved, Collection<String> severities, String alertType,
+                                  Instant from, Instant to, int page, int size) {
+        return alertRepository.findAlerts(resolved, severities, alertType, from, to, PageRequest.of(page, size));
+    }
+
+    public Optional<Alert> resolve(String id) {
+        OpenAlert open = openAlertsById.get(id);
+        if (open != null) {
+            Alert snapshot;
+            synchronized (open) {
+                open.alert.setResolved(true);
+                if (!open.closed) close(open);
+                markDirty(open);
+                snapshot = snapshot(open.alert);
+            }
+            flush();
+            return Optional.of(snapshot);
+        }
+        flush(); // it may have been evicted from the index before its first write
+        if (!alertRepository.markResolved(id)) return Optional.empty();
+        return alertRepository.findById(id);
+    }
+
+    public int getOpenAlertCount() {
+        return openAlerts.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.alerts.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        while (!dirty.isEmpty()) {
+            List<OpenAlert> batch = new ArrayList<>(flushBatchSize);
+            List<Alert> upserts = new ArrayList<>();
+            List<Alert> updates = new ArrayList<>();
+            OpenAlert open;
+            while (batch.size() < flushBatchSize && (open = dirty.poll()) != null) {
+                synchronized (open) {
+                    open.dirty = false;
+                    (open.persisted ? updates : upserts).add(snapshot(open.alert));
+                }
+                batch.add(open);
+            }
+
+            try {
+                alertRepository.writeBatch(upserts, updates);
+            } catch (RuntimeException e) {
+                // Upserts make the retry safe even if part of the batch was applied
+                log.error("Alert flush of {} alerts failed, retrying next cycle: {}", batch.size(), e.getMessage());
+                for (OpenAlert failed : batch) {
+                    synchronized (failed) {
+                        markDirty(failed);
+                    }
+                }
+                return;
+            }
+            for (OpenAlert written : batch) {
+                synchronized (written) {
+                    written.persisted = true;
+                }
+            }
+        }
+    }
+
+    // Drops index entries that have not repeated within the dedupe window; they stay open in Mongo
+    @Scheduled(fixedRate = 60_000)
+    public void evictStale() {
+        long cutoff = System.currentTimeMillis() - dedupeWindowMillis;
+        for (OpenAlert open : openAlerts.values()) {
+            synchronized (open) {
+                if (!open.closed && open.alert.getLastSeen().toEpochMilli() < cutoff) close(open);
+            }
+        }
+        if (openAlerts.size() < maxOpenAlerts) limitLogged = false;
+    }
+
+    /**
+     * Drops the least recently seen entries from a full index; like stale ones they stay open in
+     * Mongo, and a later repeat opens a new alert.
+     */
+    private void evictStalest() {
+        synchronized (evictionLock) {
+            if (openAlerts.size() < maxOpenAlerts) return; // another caller made room
+            if (!limitLogged) {
+                limitLogged = true;
+                log.warn("Open alert index is full ({}), evicting the least recently seen alerts", maxOpenAlerts);
+            }
+
+            int count = Math.max(1, maxOpenAlerts / EVICTION_DIVISOR);
+            // Most recently seen of the candidates at the head, so it is the one to give way
+            PriorityQueue<StaleCandidate> stalest = new PriorityQueue<>(count + 1,
+                    Comparator.comparingLong(StaleCandidate::lastSeen).reversed());
+            for (OpenAlert open : openAlerts.values()) {
+                long lastSeen;
+                synchronized (open) {
+                    if (open.closed) continue;
+                    lastSeen = open.alert.getLastSeen().toEpochMilli();
+                }
+                stalest.add(new StaleCandidate(open, lastSeen));
+                if (stalest.size() > count) stalest.poll();
+            }
+            for (StaleCandidate candidate : stalest) {
+                synchronized (candidate.open()) {
+                    // Skipped if it repeated meanwhile
+                    if (!candidate.open().closed
+                            && candidate.open().alert.getLastSeen().toEpochMilli() == candidate.lastSeen()) {
+                        close(candidate.open());
+                    }
+                }
+            }
+        }
+    }
+
+    private record StaleCandidate(OpenAlert open, long lastSeen) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Caller holds the OpenAlert lock
+    private void close(OpenAlert open) {
+        open.closed = true;
+        openAlerts.remove(open.key, open);
+        openAlertsById.remove(open.alert.getId(), open);
+    }
+
+    // Caller holds the OpenAlert lock
+    private void markDirty(OpenAlert open) {
+        if (!open.dirty) {
+            open.dirty = true;
+            dirty.add(open);
+        }
+    }
+
+    private void merge(Alert existing, Alert repeat, Instant seen) {
+        existing.setCount(existing.getCount() + Math.max(1, repeat.getCount()));
+        if (seen.isAfter(existing.getLastSeen())) existing.setLastSeen(seen);
+        if (Alert.severityRank(repeat.getSeverity()) > Alert.severityRank(existing.getSeverity())) {
+            existing.setSeverity(repeat.getSeverity());
+        }
+        if (repeat.getLogIds() != null) {
+            List<String> logIds = existing.getLogIds() != null ? existing.getLogIds() : new ArrayList<>();
+            for (String logId : repeat.getLogIds()) {
+                if (logIds.size() >= maxLogIds) break;
+                if (!logIds.contains(logId)) logIds.add(logId);
+            }
+            existing.setLogIds(logIds);
+        }
+    }
+
+    // Copy handed to the writer, so Mongo serialization never races with merges
+    private static Alert snapshot(Alert alert) {
+        return alert.toBuilder()
+                .logIds(alert.getLogIds() != null ? new ArrayList<>(alert.getLogIds()) : null)
+                .build();
+    }
+
+    private static String dedupeKey(Alert alert) {
+        String subject = alert.getSourceIp() != null ? alert.getSourceIp()
+                : alert.getRuleId() != null ? alert.getRuleId() : "";
+        return alert.getAlertType() + '|' + subject;
+    }
 }
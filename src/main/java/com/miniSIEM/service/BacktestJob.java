@@ -0,0 +1,132 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.dto.BacktestRequest;
+import com.miniSIEM.dto.BacktestStatus;
+import com.miniSIEM.model.Alert;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory state of one backtest. Chunks finish on fork/join workers in any order and report
+ * their alerts here; readers take consistent snapshots through the job's monitor.
+ */
+class BacktestJob {
+
+    @Getter
+    private final String id;
+    @Getter
+    private final String owner;
+    @Getter
+    private final BacktestRequest request;
+    @Getter
+    private final int chunksTotal;
+    private final int maxAlerts;
+    private final Instant submittedAt = Instant.now();
+
+    private final AtomicInteger chunksDone = new AtomicInteger();
+    private final LongAdder eventsReplayed = new LongAdder();
+    private final List<Alert> alerts = new ArrayList<>();
+    private final Map<String, Long> alertsByType = new TreeMap<>();
+    private final Map<String, Long> alertsPerDay = new TreeMap<>();
+    private long alertCount;
+    private boolean sorted = true;
+
+    @Getter
+    private volatile SearchJob.State state = SearchJob.State.QUEUED;
+    private volatile Instant startedAt;
+    @Getter
+    private volatile Instant finishedAt;
+    private volatile String error;
+    @Getter
+    private volatile Future<?> future;
+
+    BacktestJob(String id, String owner, BacktestRequest request, int chunksTotal, int maxAlerts) {
+        this.id = id;
+        this.owner = owner;
+        this.request = request;
+        this.chunksTotal = chunksTotal;
+        this.maxAlerts = maxAlerts;
+    }
+
+    void addEvents(long count) {
+        eventsReplayed.add(count);
+    }
+
+    synchronized void chunkDone(List<Alert> found) {
+        for (Alert alert : found) {
+            alertCount++;
+            alertsByType.merge(alert.getAlertType(), 1L, Long::sum);
+            alertsPerDay.merge(alert.getTimestamp().atOffset(ZoneOffset.UTC).toLocalDate().toString(), 1L, Long::sum);
+            if (alerts.size() < maxAlerts) {
+                alerts.add(alert);
+                sorted = false;
+            }
+        }
+        chunksDone.incrementAndGet();
+    }
+
+    synchronized List<Alert> page(int offset, int limit) {
+        if (!sorted) {
+            alerts.sort(Comparator.comparing(Alert::getTimestamp));
+            sorted = true;
+        }
+        if (offset >= alerts.size()) return List.of();
+        return new ArrayList<>(alerts.subList(offset, Math.min(alerts.size(), offset + limit)));
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        state = SearchJob.State.RUNNING;
+    }
+
+    void finish(SearchJob.State finalState, String errorMessage) {
+        state = finalState;
+        error = errorMessage;
+        finishedAt = Instant.now();
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    boolean isCancelled() {
+        return state == SearchJob.State.CANCELLED;
+    }
+
+    synchronized BacktestStatus toStatus() {
+        long events = eventsReplayed.sum();
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long elapsed = startedAt == null ? 0 : Duration.between(startedAt, end).toMillis();
+        return BacktestStatus.builder()
+                .id(id)
+                .owner(owner)
+                .state(state.name())
+                .from(request.getFrom())
+                .to(request.getTo())
+                .chunksTotal(chunksTotal)
+                .chunksDone(chunksDone.get())
+                .eventsReplayed(events)
+                .alertCount(alertCount)
+                .truncated(alertCount > alerts.size())
+                .alertsByType(new TreeMap<>(alertsByType))
+                .alertsPerDay(new TreeMap<>(alertsPerDay))
+                .elapsedMillis(elapsed)
+                .eventsPerSecond(elapsed == 0 ? 0 : events * 1000.0 / elapsed)
+                .submittedAt(submittedAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .build();
+    }
+}
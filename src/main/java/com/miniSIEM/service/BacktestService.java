@@ -0,0 +1,282 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.detection.RuleEngine;
+import com.miniSIEM.dto.BacktestRequest;
+import com.miniSIEM.dto.BacktestStatus;
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.repository.LogRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Replays stored logs through the detectors to show what they would have alerted on. The range is
+ * split into chunks replayed in parallel on a fork/join pool; every chunk gets its own dry-run
+ * detector instances ({@link ReplayDetector}) that run on event time and collect alerts instead
+ * of raising them, so production alerts and live detector state are never touched. A chunk first
+ * replays a warm-up period before its start without reporting, so windows and sequences that
+ * straddle a chunk boundary are still detected.
+ */
+@Service
+@Slf4j
+public class BacktestService {
+
+    static final Set<String> DETECTORS = Set.of("rules", "brute-force", "ioc");
+
+    private static final long ADVANCE_INTERVAL_MILLIS = 10_000;
+    private static final int PROGRESS_EVENTS = 10_000;
+
+    private final LogRepository logRepository;
+    private final RuleEngine ruleEngine;
+    private final BruteForceDetector bruteForceDetector;
+    private final ThreatIntelService threatIntelService;
+    private final ForkJoinPool pool;
+    private final ThreadPoolExecutor coordinator;
+    private final Map<String, BacktestJob> jobs = new ConcurrentHashMap<>();
+
+    private final Duration chunkSize;
+    private final Duration warmup;
+    private final Duration maxRange;
+    private final int maxAlerts;
+    private final Duration jobRetention;
+
+    public BacktestService(LogRepository logRepository,
+                           RuleEngine ruleEngine,
+                           BruteForceDetector bruteForceDetector,
+                           ThreatIntelService threatIntelService,
+                           @Value("${app.backtest.parallelism:0}") int parallelism,
+                           @Value("${app.backtest.max-concurrent:1}") int maxConcurrent,
+                           @Value("${app.backtest.queue-capacity:5}") int queueCapacity,
+                           @Value("${app.backtest.chunk-hours:6}") int chunkHours,
+                           @Value("${app.backtest.warmup-minutes:60}") int warmupMinutes,
+                           @Value("${app.backtest.max-range-days:90}") int maxRangeDays,
+                           @Value("${app.backtest.max-alerts:10000}") int maxAlerts,
+                           @Value("${app.backtest.retention-minutes:120}") int retentionMinutes) {
+        this.logRepository = logRepository;
+        this.ruleEngine = ruleEngine;
+        this.bruteForceDetector = bruteForceDetector;
+        this.threatIntelService = threatIntelService;
+        this.chunkSize = Duration.ofHours(chunkHours);
+        this.warmup = Duration.ofMinutes(warmupMinutes);
+        this.maxRange = Duration.ofDays(maxRangeDays);
+        this.maxAlerts = maxAlerts;
+        this.jobRetention = Duration.ofMinutes(retentionMinutes);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.coordinator = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("backtest-"));
+    }
+
+    public BacktestStatus submit(BacktestRequest request, String username) {
+        Instant to = request.getTo() != null ? request.getTo() : Instant.now();
+        request.setTo(to);
+        if (!request.getFrom().isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (Duration.between(request.getFrom(), to).compareTo(maxRange) > 0) {
+            throw new IllegalArgumentException("Backtest range is limited to " + maxRange.toDays() + " days");
+        }
+        if (request.getDetectors() == null || request.getDetectors().isEmpty()
+                || !DETECTORS.containsAll(request.getDetectors())) {
+            throw new IllegalArgumentException("detectors must be a non-empty subset of " + DETECTORS);
+        }
+        if (request.getRules() == null) request.setRules(List.of());
+        // Fail fast on candidate rules or overrides that do not compile
+        createDetectors(request, alert -> { }, request.getFrom().toEpochMilli());
+
+        int chunks = (int) Math.max(1,
+                (Duration.between(request.getFrom(), to).toMillis() + chunkSize.toMillis() - 1) / chunkSize.toMillis());
+        BacktestJob job = new BacktestJob(UUID.randomUUID().toString(), username, request, chunks, maxAlerts);
+        jobs.put(job.getId(), job);
+
+        try {
+            job.setFuture(coordinator.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new IllegalStateException("Backtest queue is full, try again later");
+        }
+
+        log.info("Backtest {} submitted by {}: {} to {} in {} chunks", job.getId(), username,
+                request.getFrom(), to, chunks);
+        return job.toStatus();
+    }
+
+    public BacktestStatus getStatus(String id, String username, boolean admin) {
+        return getJob(id, username, admin).toStatus();
+    }
+
+    public List<Alert> getAlerts(String id, String username, boolean admin, int offset, int limit) {
+        if (offset < 0) offset = 0;
+        if (limit < 1 || limit > 1000) limit = 100;
+        return getJob(id, username, admin).page(offset, limit);
+    }
+
+    public BacktestStatus cancel(String id, String username, boolean admin) {
+        BacktestJob job = getJob(id, username, admin);
+        synchronized (job) {
+            if (!job.getState().isFinished()) {
+                job.finish(SearchJob.State.CANCELLED, null);
+                if (job.getFuture() != null) {
+                    job.getFuture().cancel(false);
+                    coordinator.remove((Runnable) job.getFuture());
+                }
+                log.info("Backtest {} cancelled by {}", id, username);
+            }
+        }
+        return job.toStatus();
+    }
+
+    @Scheduled(fixedRate = 60_000)
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        Iterator<BacktestJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            BacktestJob job = iterator.next();
+            if (job.getState().isFinished() && job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private void run(BacktestJob job) {
+        synchronized (job) {
+            if (job.isCancelled()) return;
+            job.start();
+        }
+        try {
+            BacktestRequest request = job.getRequest();
+            pool.invoke(new ChunkTask(job, request.getFrom(), request.getTo()));
+            synchronized (job) {
+                if (!job.isCancelled()) {
+                    job.finish(SearchJob.State.COMPLETED, null);
+                }
+            }
+            BacktestStatus status = job.toStatus();
+            log.info("Backtest {} finished: {} events, {} alerts, {} events/s", job.getId(),
+                    status.getEventsReplayed(), status.getAlertCount(), Math.round(status.getEventsPerSecond()));
+        } catch (Exception e) {
+            log.error("Backtest {} failed: {}", job.getId(), e.getMessage());
+            synchronized (job) {
+                if (!job.isCancelled()) {
+                    job.finish(SearchJob.State.FAILED, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Halves the range until it is one chunk, so idle workers steal whole sub-ranges
+    private final class ChunkTask extends RecursiveAction {
+        private final BacktestJob job;
+        private final Instant from;
+        private final Instant to;
+
+        ChunkTask(BacktestJob job, Instant from, Instant to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            long chunks = (Duration.between(from, to).toMillis() + chunkSize.toMillis() - 1) / chunkSize.toMillis();
+            if (chunks <= 1) {
+                replayChunk(job, from, to);
+                return;
+            }
+            Instant middle = from.plus(chunkSize.multipliedBy(chunks / 2));
+            invokeAll(new ChunkTask(job, from, middle), new ChunkTask(job, middle, to));
+        }
+    }
+
+    private void replayChunk(BacktestJob job, Instant from, Instant to) {
+        if (job.isCancelled()) return;
+
+        long chunkStart = from.toEpochMilli();
+        Instant replayFrom = from.minus(warmup);
+        List<Alert> found = new ArrayList<>();
+        // Alerts fired during warm-up belong to the previous chunk
+        Consumer<Alert> sink = alert -> {
+            if (alert.getTimestamp().toEpochMilli() >= chunkStart) found.add(alert);
+        };
+        List<ReplayDetector> detectors = createDetectors(job.getRequest(), sink, replayFrom.toEpochMilli());
+
+        long events = 0;
+        long nextAdvance = replayFrom.toEpochMilli() + ADVANCE_INTERVAL_MILLIS;
+        try (Stream<LogEntry> cursor = logRepository.streamRange(replayFrom, to)) {
+            Iterator<LogEntry> iterator = cursor.iterator();
+            while (iterator.hasNext()) {
+                LogEntry logEntry = iterator.next();
+                if (logEntry.getTimestamp() == null) continue;
+                long eventTime = logEntry.getTimestamp().toEpochMilli();
+
+                if (eventTime >= nextAdvance) {
+                    for (ReplayDetector detector : detectors) {
+                        detector.advanceTo(eventTime);
+                    }
+                    nextAdvance = eventTime + ADVANCE_INTERVAL_MILLIS;
+                }
+                for (ReplayDetector detector : detectors) {
+                    detector.process(logEntry, eventTime);
+                }
+
+                if (eventTime >= chunkStart && ++events == PROGRESS_EVENTS) {
+                    job.addEvents(events);
+                    events = 0;
+                    if (job.isCancelled()) return;
+                }
+            }
+        }
+        job.addEvents(events);
+        job.chunkDone(found);
+    }
+
+    private List<ReplayDetector> createDetectors(BacktestRequest request, Consumer<Alert> sink, long startMillis) {
+        List<ReplayDetector> detectors = new ArrayList<>();
+        if (request.getDetectors().contains("rules")) {
+            detectors.add(ruleEngine.replay(request.getRules(), sink, startMillis));
+        }
+        if (request.getDetectors().contains("brute-force")) {
+            detectors.add(bruteForceDetector.replay(sink, startMillis,
+                    request.getBruteForceThreshold(), request.getBruteForceWindowMinutes()));
+        }
+        if (request.getDetectors().contains("ioc")) {
+            detectors.add(threatIntelService.replay(sink));
+        }
+        return detectors;
+    }
+
+    private BacktestJob getJob(String id, String username, boolean admin) {
+        BacktestJob job = jobs.get(id);
+        if (job == null || (!admin && !job.getOwner().equals(username))) {
+            throw new IllegalArgumentException("Backtest not found: " + id);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,290 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.dto.BaselineInfo;
+import com.miniSIEM.dto.VolumeAnomaly;
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.util.SeasonalEwma;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Learns how many events each source, each level and the system as a whole normally produce per
+ * bucket, per hour of the week, and flags buckets that deviate: spikes (z-score above the
+ * threshold) and silences (a normally busy series going quiet). Ingest only bumps a counter;
+ * the baselines are updated once per bucket, so the cost per event is O(1) and memory is fixed
+ * per series.
+ */
+@Service
+@Slf4j
+public class BaselineService implements LogIngestListener {
+
+    public static final String TOTAL_SERIES = "all";
+
+    private static final double STATUS_BAND_Z = 2.0;
+
+    private final AlertService alertService;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    private final double alpha;
+    private final double seasonalAlpha;
+    private final int seasonalWarmup;
+    private final int warmupBuckets;
+    private final double spikeZ;
+    private final long spikeMinCount;
+    private final double silenceMinExpected;
+    private final int silenceBuckets;
+    private final int maxAnomalyBuckets;
+    private final int maxSeries;
+    private final long idleEvictionMillis;
+
+    private volatile boolean seriesLimitLogged;
+
+    private final class Series {
+        final String name;
+        final boolean level;
+        final AtomicLong currentCount = new AtomicLong();
+        final SeasonalEwma baseline = new SeasonalEwma(alpha, seasonalAlpha, seasonalWarmup);
+
+        volatile long lastEventMillis = System.currentTimeMillis();
+        volatile long lastCount;
+        volatile double lastZScore;
+        volatile VolumeAnomaly anomaly;
+        int zeroBuckets;
+        int anomalyBuckets;
+        String acceptedShift;  // anomaly type that outlasted max-anomaly-buckets, not re-raised until it ends
+
+        Series(String name, boolean level) {
+            this.name = name;
+            this.level = level;
+        }
+    }
+
+    public BaselineService(AlertService alertService,
+                           @Value("${app.baselines.alpha:0.05}") double alpha,
+                           @Value("${app.baselines.seasonal-alpha:0.03}") double seasonalAlpha,
+                           @Value("${app.baselines.seasonal-warmup-buckets:60}") int seasonalWarmup,
+                           @Value("${app.baselines.warmup-buckets:60}") int warmupBuckets,
+                           @Value("${app.baselines.spike-z:4.0}") double spikeZ,
+                           @Value("${app.baselines.spike-min-count:20}") long spikeMinCount,
+                           @Value("${app.baselines.silence-min-expected:5.0}") double silenceMinExpected,
+                           @Value("${app.baselines.silence-buckets:3}") int silenceBuckets,
+                           @Value("${app.baselines.max-anomaly-buckets:60}") int maxAnomalyBuckets,
+                           @Value("${app.baselines.max-series:5000}") int maxSeries,
+                           @Value("${app.baselines.idle-eviction-days:8}") int idleEvictionDays) {
+        this.alertService = alertService;
+        this.alpha = alpha;
+        this.seasonalAlpha = seasonalAlpha;
+        this.seasonalWarmup = seasonalWarmup;
+        this.warmupBuckets = warmupBuckets;
+        this.spikeZ = spikeZ;
+        this.spikeMinCount = spikeMinCount;
+        this.silenceMinExpected = silenceMinExpected;
+        this.silenceBuckets = silenceBuckets;
+        this.maxAnomalyBuckets = maxAnomalyBuckets;
+        this.maxSeries = maxSeries;
+        this.idleEvictionMillis = TimeUnit.DAYS.toMillis(idleEvictionDays);
+        series.put(TOTAL_SERIES, new Series(TOTAL_SERIES, false));
+    }
+
+    @Override
+    public void onLogIngested(LogEntry logEntry) {
+        long now = System.currentTimeMillis();
+        record(TOTAL_SERIES, false, now);
+        if (logEntry.getSource() != null) {
+            record("source:" + logEntry.getSource(), false, now);
+        }
+        if (logEntry.getLogLevel() != null) {
+            record("level:" + logEntry.getLogLevel().toUpperCase(), true, now);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.baselines.bucket-seconds:60}", initialDelayString = "${app.baselines.bucket-seconds:60}",
+            timeUnit = TimeUnit.SECONDS)
+    public void closeBucket() {
+        long now = System.currentTimeMillis();
+        int slot = hourOfWeek(Instant.ofEpochMilli(now));
+
+        for (Series current : series.values()) {
+            long count = current.currentCount.getAndSet(0);
+            synchronized (current) {
+                evaluate(current, count, slot, now);
+            }
+        }
+
+        series.values().removeIf(current -> !current.name.equals(TOTAL_SERIES)
+                && current.anomaly == null && now - current.lastEventMillis > idleEvictionMillis);
+    }
+
+    public List<VolumeAnomaly> getActiveAnomalies() {
+        List<VolumeAnomaly> anomalies = new ArrayList<>();
+        for (Series current : series.values()) {
+            VolumeAnomaly anomaly = current.anomaly;
+            if (anomaly != null) anomalies.add(anomaly);
+        }
+        anomalies.sort(Comparator.comparingDouble((VolumeAnomaly anomaly) -> Math.abs(anomaly.getZScore())).reversed());
+        return anomalies;
+    }
+
+    /**
+     * LEARNING until the overall baseline is warm, ALERT while a high-severity anomaly is active,
+     * otherwise BUSY / QUIET when total volume sits outside its usual band for this hour of the week.
+     */
+    public String getSystemStatus() {
+        Series total = series.get(TOTAL_SERIES);
+        if (total.baseline.getSamples() < warmupBuckets) return "LEARNING";
+        if (getActiveAnomalies().stream().anyMatch(anomaly -> "HIGH".equals(anomaly.getSeverity()))) return "ALERT";
+        if (total.lastZScore >= STATUS_BAND_Z) return "BUSY";
+        if (total.lastZScore <= -STATUS_BAND_Z) return "QUIET";
+        return "NORMAL";
+    }
+
+    public List<BaselineInfo> getBaselines() {
+        int slot = hourOfWeek(Instant.now());
+        List<BaselineInfo> baselines = new ArrayList<>();
+        for (Series current : series.values()) {
+            synchronized (current) {
+                VolumeAnomaly anomaly = current.anomaly;
+                baselines.add(BaselineInfo.builder()
+                        .series(current.name)
+                        .lastCount(current.lastCount)
+                        .expected(current.baseline.expectedMean(slot))
+                        .stdDev(current.baseline.expectedStdDev(slot))
+                        .lastZScore(current.lastZScore)
+                        .samples(current.baseline.getSamples())
+                        .seasonal(current.baseline.isSeasonal(slot))
+                        .anomaly(anomaly == null ? null : anomaly.getType())
+                        .build());
+            }
+        }
+        baselines.sort(Comparator.comparing(BaselineInfo::getSeries));
+        return baselines;
+    }
+
+    private void record(String name, boolean level, long now) {
+        Series current = series.get(name);
+        if (current == null) {
+            if (series.size() >= maxSeries) {
+                if (!seriesLimitLogged) {
+                    seriesLimitLogged = true;
+                    log.warn("Baseline series limit ({}) reached, new sources are not baselined", maxSeries);
+                }
+                return;
+            }
+            current = series.computeIfAbsent(name, key -> new Series(key, level));
+        }
+        current.currentCount.incrementAndGet();
+        current.lastEventMillis = now;
+    }
+
+    private void evaluate(Series current, long count, int slot, long now) {
+        SeasonalEwma baseline = current.baseline;
+        double expected = baseline.expectedMean(slot);
+        double stdDev = baseline.expectedStdDev(slot);
+        double z = (count - expected) / stdDev;
+        boolean warm = baseline.getSamples() >= warmupBuckets;
+
+        current.lastCount = count;
+        current.lastZScore = z;
+        current.zeroBuckets = count == 0 ? current.zeroBuckets + 1 : 0;
+
+        // Hysteresis: a spike is over once volume is back well inside the band, a silence once events return
+        boolean spikeOver = z < spikeZ / 2;
+        boolean silenceOver = count > 0;
+        if ("SPIKE".equals(current.acceptedShift) && spikeOver || "SILENCE".equals(current.acceptedShift) && silenceOver) {
+            current.acceptedShift = null;
+        }
+
+        VolumeAnomaly active = current.anomaly;
+        if (active != null) {
+            boolean spike = "SPIKE".equals(active.getType());
+            if (spike ? spikeOver : silenceOver) {
+                log.info("Volume anomaly on {} cleared ({} -> {} events, expected {})",
+                        current.name, active.getType(), count, String.format("%.1f", expected));
+                current.anomaly = null;
+            } else if (++current.anomalyBuckets >= maxAnomalyBuckets) {
+                // Lasting this long it is the new normal: stop reporting it and let the baseline catch up
+                log.info("Volume anomaly on {} persisted for {} buckets, accepting it into the baseline",
+                        current.name, current.anomalyBuckets);
+                current.anomaly = null;
+                current.acceptedShift = active.getType();
+            } else {
+                active.setObserved(count);
+                active.setZScore(z);
+                return; // baseline frozen so the burst or outage is not learned as normal
+            }
+        } else if (warm) {
+            if (z >= spikeZ && count >= spikeMinCount && !"SPIKE".equals(current.acceptedShift)) {
+                raise(current, "SPIKE", count, expected, z, now);
+                return;
+            }
+            if (current.zeroBuckets >= silenceBuckets && expected >= silenceMinExpected
+                    && !"SILENCE".equals(current.acceptedShift)) {
+                raise(current, "SILENCE", count, expected, z, now);
+                return;
+            }
+        }
+
+        // Cap what an unusually busy bucket can teach the baseline, so it does not mask the next burst
+        double learned = warm && current.acceptedShift == null ? Math.min(count, expected + spikeZ * stdDev) : count;
+        baseline.update(learned, slot);
+    }
+
+    private void raise(Series current, String type, long count, double expected, double z, long now) {
+        String severity = severityFor(current, type);
+        VolumeAnomaly anomaly = VolumeAnomaly.builder()
+                .series(current.name)
+                .type(type)
+                .severity(severity)
+                .observed(count)
+                .expected(expected)
+                .zScore(z)
+                .since(Instant.ofEpochMilli(now))
+                .build();
+        current.anomaly = anomaly;
+        current.anomalyBuckets = 0;
+
+        String description = "SPIKE".equals(type)
+                ? String.format("Volume spike on %s: %d events in the last bucket, expected %.1f (z=%.1f)",
+                        current.name, count, expected, z)
+                : String.format("%s went silent for %d buckets, expected %.1f events per bucket",
+                        current.name, current.zeroBuckets, expected);
+        alertService.raise(Alert.builder()
+                .alertType("SPIKE".equals(type) ? "VOLUME_SPIKE" : "VOLUME_SILENCE")
+                .ruleId("baseline:" + current.name)
+                .description(description)
+                .severity(severity)
+                .timestamp(Instant.ofEpochMilli(now))
+                .resolved(false)
+                .build());
+        log.warn(description);
+    }
+
+    // Error spikes and ingestion stopping altogether matter most; other swings are worth a look
+    private static String severityFor(Series current, String type) {
+        if ("SPIKE".equals(type)) {
+            return current.level && (current.name.endsWith(":ERROR") || current.name.endsWith(":FATAL")) ? "HIGH" : "MEDIUM";
+        }
+        return current.name.equals(TOTAL_SERIES) ? "HIGH" : "MEDIUM";
+    }
+
+    private int hourOfWeek(Instant instant) {
+        ZonedDateTime time = instant.atZone(zone);
+        return (time.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue()) * 24 + time.getHour();
+    }
+}
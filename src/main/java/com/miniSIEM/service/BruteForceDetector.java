@@ -2,54 +2,189 @@ package com.miniSIEM.service;
 
 import com.miniSIEM.model.Alert;
 import com.miniSIEM.model.LogEntry;
-import com.miniSIEM.repository.AlertRepository;
-import com.miniSIEM.repository.LogRepository;
-import lombok.RequiredArgsConstructor;
+import com.miniSIEM.model.LogTag;
+import com.miniSIEM.util.ConcurrentLongObjectMap;
+import com.miniSIEM.util.IpKeys;
+import com.miniSIEM.util.TimingWheel;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+/**
+ * Streaming brute-force detection: every ingested failed login updates a per-IP window in memory
+ * and an alert fires as soon as the threshold is crossed. Idle windows are expired by a timing
+ * wheel, so the cost is proportional to new events rather than to stored error volume.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class BruteForceDetector {
-    private final LogRepository logRepository;
-    private final AlertRepository alertRepository;
+public class BruteForceDetector implements LogIngestListener {
+
+    // Every tracked IP holds threshold timestamps, and backtests take both settings from the request
+    static final int MAX_THRESHOLD = 1_000;
+    static final int MAX_WINDOW_MINUTES = 1_440;
+
+    private final Consumer<Alert> alertSink;
     private final IpWhitelistService ipWhitelist;
 
-    private final int BRUTE_FORCE_THRESHOLD = 5;
-    private final int TIME_WINDOW_MINUTES = 5;
+    private final int threshold;
+    private final int windowMinutes;
+    private final long windowMillis;
+
+    private final ConcurrentLongObjectMap<IpWindow> windows = new ConcurrentLongObjectMap<>(64);
+    private final TimingWheel expiryWheel;
+
+    /**
+     * Timestamps of the last BRUTE_FORCE_THRESHOLD failures from one IP. The threshold is crossed
+     * exactly when the oldest of them is still inside the window, so no per-event list is kept.
+     */
+    private final class IpWindow {
+        final String ip;
+        final long[] recent = new long[threshold];
+        int next;
+        int size;
+        long lastSeen;
+        boolean alerted;
+        boolean removed;
+
+        IpWindow(String ip) {
+            this.ip = ip;
+        }
+
+        // Returns the number of failures currently inside the window
+        int record(long now) {
+            recent[next] = now;
+            next = (next + 1) % recent.length;
+            if (size < recent.length) size++;
+            lastSeen = now;
+
+            int inWindow = 0;
+            for (int i = 0; i < size; i++) {
+                if (now - recent[i] < windowMillis) inWindow++;
+            }
+            return inWindow;
+        }
+    }
+
+    @Autowired
+    public BruteForceDetector(AlertService alertService, IpWhitelistService ipWhitelist,
+                              @Value("${app.brute-force.threshold:5}") int threshold,
+                              @Value("${app.brute-force.window-minutes:5}") int windowMinutes) {
+        this(alert -> {
+            alertService.raise(alert);
+            log.warn("Brute force alert generated for IP: {}", alert.getSourceIp());
+        }, ipWhitelist, threshold, windowMinutes, System.currentTimeMillis());
+    }
 
-    @Scheduled(fixedRate = 60_000)
-    public void scanForBruteForce() {
-        Instant cutoffTime = Instant.now().minus(TIME_WINDOW_MINUTES, ChronoUnit.MINUTES);
+    private BruteForceDetector(Consumer<Alert> alertSink, IpWhitelistService ipWhitelist,
+                               int threshold, int windowMinutes, long startMillis) {
+        if (threshold < 1 || threshold > MAX_THRESHOLD) {
+            throw new IllegalArgumentException("Brute force threshold must be between 1 and " + MAX_THRESHOLD);
+        }
+        if (windowMinutes < 1 || windowMinutes > MAX_WINDOW_MINUTES) {
+            throw new IllegalArgumentException("Brute force window must be between 1 and "
+                    + MAX_WINDOW_MINUTES + " minutes");
+        }
+        this.alertSink = alertSink;
+        this.ipWhitelist = ipWhitelist;
+        this.threshold = threshold;
+        this.windowMinutes = windowMinutes;
+        this.windowMillis = TimeUnit.MINUTES.toMillis(windowMinutes);
+        this.expiryWheel = new TimingWheel(1_000, 512, startMillis);
+    }
 
-        List<LogEntry> failedLogins = logRepository.findRecentByLevel("ERROR", cutoffTime);
+    /**
+     * Independent detector for replaying stored logs from {@code startMillis} on, driven by event
+     * time through {@link ReplayDetector#process}; alerts only go to the sink. Null settings keep
+     * this detector's.
+     */
+    public ReplayDetector replay(Consumer<Alert> sink, long startMillis, Integer threshold, Integer windowMinutes) {
+        BruteForceDetector detector = new BruteForceDetector(sink, ipWhitelist,
+                threshold != null ? threshold : this.threshold,
+                windowMinutes != null ? windowMinutes : this.windowMinutes, startMillis);
+        return new ReplayDetector() {
+            @Override
+            public void process(LogEntry logEntry, long eventTime) {
+                detector.process(logEntry, eventTime);
+            }
 
+            @Override
+            public void advanceTo(long eventTime) {
+                detector.expireIdleWindows(eventTime);
+            }
+        };
+    }
+
+    // Relies on tags assigned by LogClassifier at ingest. Only explicit failure phrases count: an
+    // ERROR line from sshd or PAM is often not an authentication failure at all, and refused
+    // requests that are not logins are tagged ACCESS_DENIED instead
+    public static boolean isFailedLogin(LogEntry logEntry) {
+        return logEntry.hasTag(LogTag.AUTH_FAILURE);
+    }
 
-        Map<String, Long> ipAttempts = failedLogins.stream()
-                .filter(log -> log.getMessage().toLowerCase().contains("login"))
-                .collect(Collectors.groupingBy(
-                        LogEntry::getIp,
-                        Collectors.counting()
-                ));
+    @Override
+    public void onLogIngested(LogEntry logEntry) {
+        process(logEntry, System.currentTimeMillis());
+    }
+
+    private void process(LogEntry logEntry, long now) {
+        String ip = logEntry.getIp();
+        if (ip == null || ip.isEmpty() || !isFailedLogin(logEntry) || !ipWhitelist.isAllowed(ip)) return;
+
+        long key = IpKeys.toKey(ip);
+
+        while (true) {
+            IpWindow window = windows.computeIfAbsent(key, k -> {
+                IpWindow created = new IpWindow(ip);
+                expiryWheel.schedule(k, now + windowMillis);
+                return created;
+            });
+
+            int attempts;
+            synchronized (window) {
+                if (window.removed) continue; // lost a race with expiry, start a fresh window
+                attempts = window.record(now);
+                if (attempts < threshold || window.alerted) return;
+                window.alerted = true;
+            }
+
+            raiseAlert(ip, attempts, now);
+            return;
+        }
+    }
+
+    @Scheduled(fixedRate = 1_000)
+    public void expireIdleWindows() {
+        expireIdleWindows(System.currentTimeMillis());
+    }
+
+    private void expireIdleWindows(long now) {
+        expiryWheel.advance(now, key -> {
+            IpWindow window = windows.get(key);
+            if (window == null) return;
+            synchronized (window) {
+                if (now - window.lastSeen >= windowMillis) {
+                    window.removed = true;
+                    windows.remove(key, window);
+                } else {
+                    expiryWheel.schedule(key, window.lastSeen + windowMillis);
+                }
+            }
+        });
+    }
+
+    public int getTrackedIpCount() {
+        return windows.size();
+    }
 
-        ipAttempts.entrySet().stream()
-                .filter(entry -> entry.getValue() >= BRUTE_FORCE_THRESHOLD)
-                .filter(entry -> ipWhitelist.isAllowed(entry.getKey()))
-                .forEach(entry -> {
-                    String ip = entry.getKey();
-                    if (alertRepository.findBySourceIpAndResolvedFalse(ip).isEmpty()) {
-                        Alert alert = Alert.createBruteForceAlert(ip, entry.getValue().intValue());
-                        alertRepository.save(alert);
-                        log.warn("Brute force alert generated for IP: {}", ip);
-                    }
-                });
+    private void raiseAlert(String ip, int attempts, long now) {
+        Alert alert = Alert.createBruteForceAlert(ip, attempts, windowMinutes);
+        alert.setTimestamp(Instant.ofEpochMilli(now));
+        alertSink.accept(alert);
     }
-}
\ No newline at end of file
+}
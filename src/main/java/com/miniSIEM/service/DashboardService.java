@@ -1,21 +1,23 @@
 package com.miniSIEM.service;
 
+import com.miniSIEM.dto.BaselineInfo;
 import com.miniSIEM.dto.DashboardStats;
 import com.miniSIEM.dto.LogActivity;
 import com.miniSIEM.dto.ThreatInfo;
+import com.miniSIEM.dto.TopTalker;
+import com.miniSIEM.dto.VolumeAnomaly;
 import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.realtime.LiveLogFeed;
+import com.miniSIEM.realtime.RealtimeHub;
 import com.miniSIEM.repository.LogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,51 +25,25 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DashboardService {
 
-    private final LogRepository logRepository;
-    private final Map<SseEmitter, String> realTimeClients = new ConcurrentHashMap<>();
+    private static final int THREAT_WINDOW_HOURS = 1;
+    private static final int THREAT_LIMIT = 10;
+    private static final int FAILED_LOGIN_THREAT_THRESHOLD = 5;
+    private static final int ERROR_THREAT_THRESHOLD = 10;
+    private static final int TRAFFIC_THREAT_MIN_EVENTS = 100;
+    private static final double TRAFFIC_THREAT_SHARE_PERCENT = 25.0;
 
+    private final LogRepository logRepository;
+    private final TopTalkerService topTalkerService;
+    private final IpWhitelistService ipWhitelist;
+    private final BaselineService baselineService;
+    private final GeoIpService geoIpService;
+    private final DashboardStatsTracker statsTracker;
+    private final RealtimeHub realtimeHub;
+    private final LiveLogFeed liveLogFeed;
+
+    // Served from counters kept up to date at ingest, see DashboardStatsTracker
     public DashboardStats getDashboardStats() {
-        Instant now = Instant.now();
-        Instant last24h = now.minus(24, ChronoUnit.HOURS);
-        Instant lastHour = now.minus(1, ChronoUnit.HOURS);
-
-        // Get basic counts
-        long totalLogs = logRepository.count();
-        long logsLast24h = logRepository.countByTimestampAfter(last24h);
-        long logsLastHour = logRepository.countByTimestampAfter(lastHour);
-
-        // Calculate logs per minute
-        double logsPerMinute = logsLastHour / 60.0;
-
-        // Get logs by level
-        Map<String, Long> logsByLevel = new HashMap<>();
-        logsByLevel.put("ERROR", logRepository.countByLogLevel("ERROR"));
-        logsByLevel.put("WARN", logRepository.countByLogLevel("WARN"));
-        logsByLevel.put("INFO", logRepository.countByLogLevel("INFO"));
-        logsByLevel.put("DEBUG", logRepository.countByLogLevel("DEBUG"));
-
-        // Get logs by source (simplified)
-        Map<String, Long> logsBySource = getTopSourcesAsMap(5);
-
-        // Mock threat detection (we'll implement real detection later)
-        long activeThreats = detectActiveThreats();
-        long criticalAlerts = logsByLevel.get("ERROR");
-
-        // System status
-        String systemStatus = determineSystemStatus(logsPerMinute, activeThreats);
-
-        return DashboardStats.builder()
-                .totalLogs(totalLogs)
-                .logsLast24h(logsLast24h)
-                .logsLastHour(logsLastHour)
-                .activeThreats(activeThreats)
-                .criticalAlerts(criticalAlerts)
-                .logsByLevel(logsByLevel)
-                .logsBySource(logsBySource)
-                .logsPerMinute(logsPerMinute)
-                .systemStatus(systemStatus)
-                .lastUpdated(now)
-                .build();
+        return statsTracker.getStats();
     }
 
     public List<LogActivity> getRecentActivity(int hours) {
@@ -97,30 +73,72 @@ public class DashboardService {
 
     public Map<String, Object> getThreatSummary() {
         Map<String, Object> summary = new HashMap<>();
-
-        // Mock threat detection - we'll implement real detection later
-        List<ThreatInfo> threats = Arrays.asList(
-                ThreatInfo.builder()
-                        .id("T001")
+        Duration window = Duration.ofHours(THREAT_WINDOW_HOURS);
+        List<ThreatInfo> threats = new ArrayList<>();
+
+        // Top-talker counts are Space-Saving upper bounds; a one-off IP that took over an evicted
+        // counter can look heavy, so threats are judged on the guaranteed count only
+
+        // Repeated failed logins from a single IP
+        topTalkerService.getTopTalkers(TopTalkerService.Category.FAILED_LOGIN, window, THREAT_LIMIT).stream()
+                .filter(talker -> guaranteedCount(talker) >= FAILED_LOGIN_THREAT_THRESHOLD)
+                .filter(talker -> ipWhitelist.isAllowed(talker.getIp()))
+                .forEach(talker -> threats.add(ThreatInfo.builder()
+                        .id("FAILED_LOGIN-" + talker.getIp())
                         .type("Brute Force Attack")
-                        .severity("HIGH")
-                        .description("Multiple failed login attempts detected")
-                        .sourceIp("192.168.1.100")
-                        .detectedAt(Instant.now().minus(2, ChronoUnit.HOURS))
+                        .severity(guaranteedCount(talker) >= FAILED_LOGIN_THREAT_THRESHOLD * 4 ? "HIGH" : "MEDIUM")
+                        .description(describeCount(talker) + " failed login attempts in the last hour")
+                        .sourceIp(talker.getIp())
+                        .detectedAt(talker.getFirstSeen())
                         .status("ACTIVE")
-                        .riskScore(85)
-                        .build(),
-                ThreatInfo.builder()
-                        .id("T002")
+                        .riskScore(riskScore(guaranteedCount(talker), FAILED_LOGIN_THREAT_THRESHOLD))
+                        .build()));
+
+        // Error bursts concentrated on a single IP
+        topTalkerService.getTopTalkers(TopTalkerService.Category.ERROR, window, THREAT_LIMIT).stream()
+                .filter(talker -> guaranteedCount(talker) >= ERROR_THREAT_THRESHOLD)
+                .filter(talker -> ipWhitelist.isAllowed(talker.getIp()))
+                .forEach(talker -> threats.add(ThreatInfo.builder()
+                        .id("ERROR-" + talker.getIp())
+                        .type("Error Burst")
+                        .severity("MEDIUM")
+                        .description(describeCount(talker) + " error events in the last hour")
+                        .sourceIp(talker.getIp())
+                        .detectedAt(talker.getFirstSeen())
+                        .status("INVESTIGATING")
+                        .riskScore(riskScore(guaranteedCount(talker), ERROR_THREAT_THRESHOLD))
+                        .build()));
+
+        // Single IP dominating overall traffic
+        topTalkerService.getTopTalkers(TopTalkerService.Category.ALL, window, THREAT_LIMIT).stream()
+                .filter(talker -> guaranteedCount(talker) >= TRAFFIC_THREAT_MIN_EVENTS)
+                .filter(talker -> guaranteedShare(talker) >= TRAFFIC_THREAT_SHARE_PERCENT)
+                .filter(talker -> ipWhitelist.isAllowed(talker.getIp()))
+                .forEach(talker -> threats.add(ThreatInfo.builder()
+                        .id("TRAFFIC-" + talker.getIp())
                         .type("Unusual Traffic Pattern")
                         .severity("MEDIUM")
-                        .description("Abnormal request volume from single IP")
-                        .sourceIp("10.0.1.50")
-                        .detectedAt(Instant.now().minus(30, ChronoUnit.MINUTES))
+                        .description(String.format("%.1f%% of all events in the last hour (%s events)",
+                                guaranteedShare(talker), describeCount(talker)))
+                        .sourceIp(talker.getIp())
+                        .detectedAt(talker.getFirstSeen())
                         .status("INVESTIGATING")
-                        .riskScore(65)
-                        .build()
-        );
+                        .riskScore((int) Math.min(100, guaranteedShare(talker)))
+                        .build()));
+
+        // Sources or levels deviating from their usual volume for this hour of the week
+        baselineService.getActiveAnomalies().forEach(anomaly -> threats.add(ThreatInfo.builder()
+                .id(anomaly.getType() + "-" + anomaly.getSeries())
+                .type("SPIKE".equals(anomaly.getType()) ? "Volume Spike" : "Log Source Silent")
+                .severity(anomaly.getSeverity())
+                .description(String.format("%s: %d events in the last bucket, expected %.1f",
+                        anomaly.getSeries(), anomaly.getObserved(), anomaly.getExpected()))
+                .detectedAt(anomaly.getSince())
+                .status("ACTIVE")
+                .riskScore((int) Math.min(100, 50 + 5 * Math.abs(anomaly.getZScore())))
+                .build()));
+
+        threats.sort(Comparator.comparingInt(ThreatInfo::getRiskScore).reversed());
 
         summary.put("threats", threats);
         summary.put("totalThreats", threats.size());
@@ -130,27 +148,51 @@ public class DashboardService {
         return summary;
     }
 
-    public List<Map<String, Object>> getTopSources(int limit) {
-        // Get aggregated source data
-        List<LogEntry> allLogs = logRepository.findAll();
+    public String getSystemStatus() {
+        return baselineService.getSystemStatus();
+    }
 
-        Map<String, Long> sourceCounts = allLogs.stream()
-                .collect(Collectors.groupingBy(LogEntry::getSource, Collectors.counting()));
+    public List<VolumeAnomaly> getActiveAnomalies() {
+        return baselineService.getActiveAnomalies();
+    }
 
-        return sourceCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(limit)
-                .map(entry -> {
-                    Map<String, Object> sourceInfo = new HashMap<>();
-                    sourceInfo.put("source", entry.getKey());
-                    sourceInfo.put("count", entry.getValue());
-                    sourceInfo.put("percentage", (entry.getValue() * 100.0) / allLogs.size());
-                    return sourceInfo;
-                })
-                .collect(Collectors.toList());
+    public List<BaselineInfo> getBaselines() {
+        return baselineService.getBaselines();
+    }
+
+    public List<TopTalker> getTopIps(String category, String window, int limit) {
+        return topTalkerService.getTopTalkers(
+                TopTalkerService.Category.valueOf(category.toUpperCase()),
+                topTalkerService.parseWindow(window),
+                limit);
+    }
+
+    public List<Map<String, Object>> getTagCounts(int hours) {
+        if (hours < 1 || hours > 168) hours = 24;
+        return logRepository.countTagsSince(Instant.now().minus(hours, ChronoUnit.HOURS));
+    }
+
+    // Top countries or ASNs over the last hours from the ingest-time GeoIP enrichment, optionally within one country
+    public List<Map<String, Object>> getTopGeo(String groupBy, String country, int hours, int limit) {
+        if (hours < 1 || hours > 168) hours = 24;
+        if (limit < 1 || limit > 100) limit = 10;
+        return logRepository.countGeoSince(groupBy,
+                country == null || country.isBlank() ? null : country.trim().toUpperCase(),
+                Instant.now().minus(hours, ChronoUnit.HOURS), limit);
+    }
+
+    public Map<String, Object> getGeoIpStatus() {
+        return geoIpService.getStatus();
+    }
+
+    public List<Map<String, Object>> getTopSources(int limit) {
+        return statsTracker.getTopSources(limit);
     }
 
     public List<Map<String, Object>> getLogTrends(int hours) {
+        // The last day is kept per minute in memory
+        if (hours <= 24) return statsTracker.getHourlyTrends(hours);
+
         Instant since = Instant.now().minus(hours, ChronoUnit.HOURS);
         List<LogEntry> logs = logRepository.findByTimestampAfter(since);
 
@@ -172,53 +214,9 @@ public class DashboardService {
                 .collect(Collectors.toList());
     }
 
-    public void addRealTimeClient(SseEmitter emitter, String username) {
-        realTimeClients.put(emitter, username);
-
-        emitter.onCompletion(() -> realTimeClients.remove(emitter));
-        emitter.onTimeout(() -> realTimeClients.remove(emitter));
-        emitter.onError(e -> {
-            log.error("SSE error for user {}: {}", username, e.getMessage());
-            realTimeClients.remove(emitter);
-        });
-
-        // Send initial connection message
-        try {
-            emitter.send(SseEmitter.event()
-                    .name("connected")
-                    .data("Real-time feed connected"));
-        } catch (IOException e) {
-            log.error("Failed to send initial SSE message", e);
-            realTimeClients.remove(emitter);
-        }
-    }
-
-    @Async
-    public void broadcastNewLog(LogEntry logEntry) {
-        if (realTimeClients.isEmpty()) return;
-
-        Map<String, Object> logData = new HashMap<>();
-        logData.put("timestamp", logEntry.getTimestamp());
-        logData.put("level", logEntry.getLogLevel());
-        logData.put("source", logEntry.getSource());
-        logData.put("message", logEntry.getMessage());
-        logData.put("ip", logEntry.getIp());
-
-        List<SseEmitter> deadEmitters = new ArrayList<>();
-
-        realTimeClients.forEach((emitter, username) -> {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("newLog")
-                        .data(logData));
-            } catch (IOException e) {
-                log.debug("SSE client disconnected: {}", username);
-                deadEmitters.add(emitter);
-            }
-        });
-
-        // Remove dead connections
-        deadEmitters.forEach(realTimeClients::remove);
+    // Live feed entries are filtered per subscription and coalesced into batched frames, see LiveLogFeed
+    public void broadcastNewLogs(List<LogEntry> logEntries) {
+        liveLogFeed.add(logEntries);
     }
 
     public byte[] exportData(String format, String dateRange) {
@@ -246,36 +244,29 @@ public class DashboardService {
         health.put("uptime", System.currentTimeMillis());
         health.put("memory", getMemoryInfo());
         health.put("database", "CONNECTED");
-        health.put("activeConnections", realTimeClients.size());
+        health.put("activeConnections", realtimeHub.getClientCount());
 
         return health;
     }
 
     // Helper methods
-    private Map<String, Long> getTopSourcesAsMap(int limit) {
-        return getTopSources(limit).stream()
-                .collect(Collectors.toMap(
-                        map -> (String) map.get("source"),
-                        map -> (Long) map.get("count"),
-                        (a, b) -> a,
-                        LinkedHashMap::new
-                ));
+    private int riskScore(long count, int threshold) {
+        // 50 at the threshold, approaching 100 as the count grows
+        return (int) Math.min(100, 50 + 50 * (count - threshold) / (double) (count + threshold));
     }
 
-    private long detectActiveThreats() {
-        // Simple threat detection - count error logs in last hour
-        Instant lastHour = Instant.now().minus(1, ChronoUnit.HOURS);
-        List<LogEntry> errorLogs = logRepository.findRecentByLevel("ERROR", lastHour);
+    private static long guaranteedCount(TopTalker talker) {
+        return talker.getCount() - talker.getError();
+    }
 
-        // If more than 10 errors in an hour, consider it a threat
-        return errorLogs.size() > 10 ? 1 : 0;
+    private static double guaranteedShare(TopTalker talker) {
+        return talker.getCount() == 0 ? 0 : talker.getPercentage() * guaranteedCount(talker) / talker.getCount();
     }
 
-    private String determineSystemStatus(double logsPerMinute, long activeThreats) {
-        if (activeThreats > 0) return "ALERT";
-        if (logsPerMinute > 100) return "BUSY";
-        if (logsPerMinute < 1) return "QUIET";
-        return "NORMAL";
+    // "12", or "12 (≤ 15)" when the summary could not count every event
+    private static String describeCount(TopTalker talker) {
+        long guaranteed = guaranteedCount(talker);
+        return talker.getError() == 0 ? String.valueOf(guaranteed) : guaranteed + " (≤ " + talker.getCount() + ")";
     }
 
     private List<LogEntry> getLogsForDateRange(String dateRange) {
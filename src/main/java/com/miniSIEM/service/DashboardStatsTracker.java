@@ -0,0 +1,250 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.dto.DashboardStats;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.realtime.RealtimeHub;
+import com.miniSIEM.repository.LogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the dashboard's headline numbers as in-memory counters updated per ingested entry: totals
+ * by level and source, and per-minute counts for the last 24 hours. The counters are seeded from
+ * the database at startup and re-seeded periodically, which also corrects drift from retention
+ * deletes. At a fixed cadence the fields that changed since the last push go to every live viewer
+ * as one {@code statsDelta} event, so open dashboards cost one computation, not queries per viewer.
+ */
+@Service
+@Slf4j
+public class DashboardStatsTracker implements LogIngestListener {
+
+    private static final List<String> LEVELS = List.of("ERROR", "WARN", "INFO", "DEBUG");
+    private static final int TOP_SOURCES = 5;
+    private static final int MAX_SOURCES = 10_000;
+    private static final int WINDOW_MINUTES = 24 * 60;
+
+    private static final class Counters {
+        final LongAdder total = new LongAdder();
+        final Map<String, LongAdder> byLevel = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> bySource = new ConcurrentHashMap<>();
+        // Ring of per-minute counts; each slot remembers which minute it holds
+        final AtomicLongArray minuteCounts = new AtomicLongArray(WINDOW_MINUTES);
+        final AtomicLongArray minuteStamps = new AtomicLongArray(WINDOW_MINUTES);
+
+        void addLevel(String level, long count) {
+            if (level != null) byLevel.computeIfAbsent(level, k -> new LongAdder()).add(count);
+        }
+
+        void addSource(String source, long count) {
+            if (source == null) return;
+            LongAdder adder = bySource.get(source);
+            if (adder == null) {
+                // Sources are free text; past the cap, new ones only show up in the totals
+                if (bySource.size() >= MAX_SOURCES) return;
+                adder = bySource.computeIfAbsent(source, k -> new LongAdder());
+            }
+            adder.add(count);
+        }
+
+        void addMinute(long minute, long count) {
+            int slot = (int) Math.floorMod(minute, (long) WINDOW_MINUTES);
+            long stamp = minuteStamps.get(slot);
+            if (stamp != minute) {
+                // Slot still holds an older minute: recycle it; older entries than the slot are out of the window
+                if (minute < stamp) return;
+                synchronized (this) {
+                    if (minuteStamps.get(slot) < minute) {
+                        minuteCounts.set(slot, 0);
+                        minuteStamps.set(slot, minute);
+                    }
+                }
+                if (minuteStamps.get(slot) != minute) return;
+            }
+            minuteCounts.addAndGet(slot, count);
+        }
+
+        long countMinutes(long fromMinute, long toMinute) {
+            long sum = 0;
+            for (int slot = 0; slot < WINDOW_MINUTES; slot++) {
+                long stamp = minuteStamps.get(slot);
+                if (stamp >= fromMinute && stamp <= toMinute) sum += minuteCounts.get(slot);
+            }
+            return sum;
+        }
+
+        static long count(Map<String, LongAdder> counts, String key) {
+            LongAdder adder = counts.get(key);
+            return adder == null ? 0 : adder.sum();
+        }
+    }
+
+    private final LogRepository logRepository;
+    private final BaselineService baselineService;
+    private final RealtimeHub realtimeHub;
+
+    private volatile Counters counters = new Counters();
+    private Map<String, Object> lastPushed = Map.of();
+
+    public DashboardStatsTracker(LogRepository logRepository, BaselineService baselineService, RealtimeHub realtimeHub) {
+        this.logRepository = logRepository;
+        this.baselineService = baselineService;
+        this.realtimeHub = realtimeHub;
+    }
+
+    @Override
+    public void onLogIngested(LogEntry logEntry) {
+        Counters current = counters;
+        current.total.increment();
+        current.addLevel(logEntry.getLogLevel(), 1);
+        current.addSource(logEntry.getSource(), 1);
+        Instant timestamp = logEntry.getTimestamp() != null ? logEntry.getTimestamp() : Instant.now();
+        current.addMinute(minuteOf(timestamp), 1);
+    }
+
+    /**
+     * Replaces the counters with fresh ones computed by the database. Entries ingested while the
+     * queries run may be missed or counted twice until the next reconciliation.
+     */
+    @Scheduled(fixedDelayString = "${app.realtime.stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        try {
+            long started = System.currentTimeMillis();
+            Instant since = Instant.now().minus(WINDOW_MINUTES, ChronoUnit.MINUTES);
+            Counters fresh = new Counters();
+            fresh.total.add(logRepository.count());
+            logRepository.countAllBy("logLevel").forEach(fresh::addLevel);
+            logRepository.countAllBy("source").forEach(fresh::addSource);
+            logRepository.countPerMinuteSince(since).forEach(fresh::addMinute);
+            counters = fresh;
+            log.debug("Dashboard counters reconciled in {} ms: {} logs", System.currentTimeMillis() - started,
+                    fresh.total.sum());
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile dashboard counters, keeping the current ones: {}", e.getMessage());
+        }
+    }
+
+    public DashboardStats getStats() {
+        Counters current = counters;
+        long nowMinute = minuteOf(Instant.now());
+        long logsLastHour = current.countMinutes(nowMinute - 59, nowMinute);
+
+        Map<String, Long> logsByLevel = new HashMap<>();
+        for (String level : LEVELS) {
+            logsByLevel.put(level, Counters.count(current.byLevel, level));
+        }
+
+        Map<String, Long> logsBySource = new LinkedHashMap<>();
+        for (Map<String, Object> source : getTopSources(TOP_SOURCES)) {
+            logsBySource.put((String) source.get("source"), (Long) source.get("count"));
+        }
+
+        return DashboardStats.builder()
+                .totalLogs(current.total.sum())
+                .logsLast24h(current.countMinutes(nowMinute - WINDOW_MINUTES + 1, nowMinute))
+                .logsLastHour(logsLastHour)
+                .activeThreats(baselineService.getActiveAnomalies().size())
+                .criticalAlerts(logsByLevel.get("ERROR"))
+                .logsByLevel(logsByLevel)
+                .logsBySource(logsBySource)
+                .logsPerMinute(logsLastHour / 60.0)
+                .systemStatus(baselineService.getSystemStatus())
+                .lastUpdated(Instant.now())
+                .build();
+    }
+
+    public List<Map<String, Object>> getTopSources(int limit) {
+        Counters current = counters;
+        long total = current.total.sum();
+        List<Map.Entry<String, Long>> sources = new ArrayList<>();
+        current.bySource.forEach((source, count) -> sources.add(Map.entry(source, count.sum())));
+        sources.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (Map.Entry<String, Long> source : sources.subList(0, Math.min(limit, sources.size()))) {
+            Map<String, Object> sourceInfo = new HashMap<>();
+            sourceInfo.put("source", source.getKey());
+            sourceInfo.put("count", source.getValue());
+            sourceInfo.put("percentage", total == 0 ? 0.0 : source.getValue() * 100.0 / total);
+            top.add(sourceInfo);
+        }
+        return top;
+    }
+
+    /**
+     * Entry counts per hour for the last {@code hours} hours (at most 24), oldest first; hours
+     * without entries are left out.
+     */
+    public List<Map<String, Object>> getHourlyTrends(int hours) {
+        Counters current = counters;
+        Instant now = Instant.now();
+        long fromMinute = minuteOf(now.minus(Math.min(hours, 24), ChronoUnit.HOURS));
+        long toMinute = minuteOf(now);
+
+        Map<Long, Long> byHour = new HashMap<>();
+        for (int slot = 0; slot < WINDOW_MINUTES; slot++) {
+            long stamp = current.minuteStamps.get(slot);
+            long count = current.minuteCounts.get(slot);
+            if (stamp >= fromMinute && stamp <= toMinute && count > 0) {
+                byHour.merge(Math.floorDiv(stamp, 60L), count, Long::sum);
+            }
+        }
+
+        List<Map<String, Object>> trends = new ArrayList<>();
+        byHour.forEach((hour, count) -> {
+            Map<String, Object> trend = new HashMap<>();
+            trend.put("timestamp", Instant.ofEpochSecond(hour * 3600).toString());
+            trend.put("count", count);
+            trends.add(trend);
+        });
+        trends.sort(Comparator.comparing(trend -> (String) trend.get("timestamp")));
+        return trends;
+    }
+
+    // Only what changed since the previous push is sent; the dashboard loads the full stats once on open
+    @Scheduled(fixedDelayString = "${app.realtime.stats.interval-ms:5000}")
+    public synchronized void pushDelta() {
+        if (realtimeHub.getClientCount() == 0) return;
+        Map<String, Object> current = toMap(getStats());
+        Map<String, Object> delta = new LinkedHashMap<>();
+        current.forEach((field, value) -> {
+            if (!field.equals("lastUpdated") && !Objects.equals(value, lastPushed.get(field))) delta.put(field, value);
+        });
+        if (delta.isEmpty()) return;
+        delta.put("lastUpdated", current.get("lastUpdated"));
+        realtimeHub.broadcast("statsDelta", delta);
+        lastPushed = current;
+    }
+
+    private static Map<String, Object> toMap(DashboardStats stats) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("totalLogs", stats.getTotalLogs());
+        map.put("logsLast24h", stats.getLogsLast24h());
+        map.put("logsLastHour", stats.getLogsLastHour());
+        map.put("activeThreats", stats.getActiveThreats());
+        map.put("criticalAlerts", stats.getCriticalAlerts());
+        map.put("logsByLevel", stats.getLogsByLevel());
+        map.put("logsBySource", stats.getLogsBySource());
+        map.put("logsPerMinute", stats.getLogsPerMinute());
+        map.put("systemStatus", stats.getSystemStatus());
+        map.put("lastUpdated", stats.getLastUpdated());
+        return map;
+    }
+
+    private static long minuteOf(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), 60_000L);
+    }
+}
@@ -0,0 +1,134 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.GeoInfo;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.util.GeoIpDatabase;
+import com.miniSIEM.util.IpKeys;
+import com.miniSIEM.util.LongLruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves log IPs to country and ASN at ingest from a local, offline database. The configured
+ * file is either a compiled {@link GeoIpDatabase} ({@code .bin}) or an iptoasn-style TSV, which is
+ * compiled to a {@code .bin} beside it whenever the TSV is newer. Results, including misses, are
+ * kept in a per-IP LRU cache, since a handful of addresses produce most of the traffic. IPv6 and
+ * non-IP values are not resolved.
+ */
+@Service
+@Slf4j
+public class GeoIpService {
+
+    // Cached for addresses the database has no range for
+    private static final GeoInfo NOT_FOUND = new GeoInfo();
+
+    private record Loaded(GeoIpDatabase database, Path file, FileTime modified) {
+    }
+
+    private final boolean enabled;
+    private final Path sourceFile;
+    private final LongLruCache<GeoInfo> cache;
+
+    private volatile Loaded loaded;
+
+    public GeoIpService(@Value("${app.geoip.enabled:true}") boolean enabled,
+                        @Value("${app.geoip.file:geoip/ip2asn-v4.tsv}") String sourceFile,
+                        @Value("${app.geoip.cache-size:100000}") int cacheSize) {
+        this.enabled = enabled;
+        this.sourceFile = Paths.get(sourceFile);
+        this.cache = new LongLruCache<>(cacheSize);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("GeoIP enrichment disabled");
+            return;
+        }
+        reloadIfChanged();
+        if (loaded == null) {
+            log.info("No GeoIP database at {}, logs will not be enriched until one is added",
+                    sourceFile.toAbsolutePath());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.geoip.reload-interval-ms:300000}")
+    public synchronized void reloadIfChanged() {
+        if (!enabled || !Files.isRegularFile(sourceFile)) return;
+        try {
+            Path databaseFile = sourceFile;
+            if (!sourceFile.getFileName().toString().endsWith(".bin")) {
+                databaseFile = sourceFile.resolveSibling(sourceFile.getFileName() + ".bin");
+                if (!Files.exists(databaseFile)
+                        || Files.getLastModifiedTime(sourceFile).compareTo(Files.getLastModifiedTime(databaseFile)) > 0) {
+                    long started = System.currentTimeMillis();
+                    int ranges = GeoIpDatabase.compile(sourceFile, databaseFile);
+                    log.info("Compiled GeoIP database {} ({} ranges) in {} ms", databaseFile, ranges,
+                            System.currentTimeMillis() - started);
+                }
+            }
+
+            FileTime modified = Files.getLastModifiedTime(databaseFile);
+            Loaded current = loaded;
+            if (current != null && current.file().equals(databaseFile) && current.modified().equals(modified)) return;
+
+            GeoIpDatabase database = GeoIpDatabase.open(databaseFile);
+            loaded = new Loaded(database, databaseFile, modified);
+            cache.clear();
+            log.info("Loaded GeoIP database {}: {} ranges, {} KB mapped", databaseFile, database.rangeCount(),
+                    database.sizeInBytes() / 1024);
+        } catch (IOException | RuntimeException e) {
+            // Keep serving the previous database
+            log.error("Failed to load GeoIP database {}: {}", sourceFile, e.getMessage());
+        }
+    }
+
+    public void enrich(LogEntry logEntry) {
+        // Always overwritten, so clients cannot supply their own location
+        logEntry.setGeo(lookup(logEntry.getIp()));
+    }
+
+    /**
+     * @return country and ASN of the address, or null if it is not an IPv4 address or not in the database
+     */
+    public GeoInfo lookup(String ip) {
+        Loaded current = loaded;
+        if (current == null) return null;
+        long key = IpKeys.parseIpv4(ip);
+        if (key < 0) return null;
+
+        GeoInfo cached = cache.get(key);
+        if (cached == null) {
+            GeoIpDatabase database = current.database();
+            int range = database.find(key);
+            cached = range < 0 ? NOT_FOUND
+                    : new GeoInfo(database.country(range), database.asn(range), database.asOrg(range));
+            // Not cached if a reload swapped the database meanwhile
+            if (loaded == current) cache.put(key, cached);
+        }
+        return cached == NOT_FOUND ? null : cached;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        Loaded current = loaded;
+        status.put("enabled", enabled);
+        status.put("file", current != null ? current.file().toString() : null);
+        status.put("ranges", current != null ? current.database().rangeCount() : 0);
+        status.put("cachedIps", cache.size());
+        status.put("cacheHits", cache.hits());
+        status.put("cacheMisses", cache.misses());
+        return status;
+    }
+}
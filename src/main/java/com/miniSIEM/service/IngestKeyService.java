@@ -0,0 +1,222 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.IngestKey;
+import com.miniSIEM.repository.IngestKeyRepository;
+import com.miniSIEM.security.IngestKeyPrincipal;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Credentials for log shippers: a public key id and a random 256-bit secret, presented together
+ * as {@code <id>.<secret>}. Only an HMAC of the secret under a server-side pepper is stored, and
+ * the active keys are held in memory, so checking a request is one HMAC and a constant-time
+ * compare, with no database or BCrypt. A secret this long needs no slow hash; the pepper keeps a
+ * copy of the collection from being enough to test guesses offline.
+ * <p>
+ * Each key has an events-per-minute quota over fixed one-minute windows. Revoking a key takes
+ * effect at once on this instance and at the next reload on others.
+ */
+@Service
+@Slf4j
+public class IngestKeyService {
+
+    private static final String KEY_ID_PREFIX = "ik_";
+    private static final int SECRET_BYTES = 32;
+    private static final String PEPPER_LABEL = "miniSIEM ingest-key pepper v1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    public record CreatedKey(IngestKey key, String credential) {
+    }
+
+    // One key's hash and quota window; the window is guarded by the object itself
+    private static final class ActiveKey {
+        final IngestKeyPrincipal principal;
+        final byte[] secretHash;
+        final long eventsPerMinute;
+        long windowMinute;
+        long used;
+
+        ActiveKey(IngestKey key) {
+            this.principal = new IngestKeyPrincipal(key.getId(), key.getName());
+            this.secretHash = Base64.getDecoder().decode(key.getSecretHash());
+            this.eventsPerMinute = key.getEventsPerMinute();
+        }
+
+        synchronized boolean tryAcquire(long events, long minute) {
+            if (eventsPerMinute <= 0) return true;
+            if (minute != windowMinute) {
+                windowMinute = minute;
+                used = 0;
+            }
+            if (used + events > eventsPerMinute) return false;
+            used += events;
+            return true;
+        }
+    }
+
+    private final IngestKeyRepository ingestKeyRepository;
+    private final SecretKeySpec pepper;
+    private final long defaultEventsPerMinute;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Mac> macs;
+
+    // Replaced wholesale on reload, so a lookup never sees a half-built map
+    private volatile Map<String, ActiveKey> activeKeys = Map.of();
+
+    public IngestKeyService(IngestKeyRepository ingestKeyRepository,
+                            @Value("${app.security.ingest-keys.pepper}") String pepper,
+                            @Value("${app.security.ingest-keys.default-events-per-minute:60000}") long defaultEventsPerMinute) {
+        this.ingestKeyRepository = ingestKeyRepository;
+        this.pepper = derivePepper(pepper);
+        this.defaultEventsPerMinute = defaultEventsPerMinute;
+        this.macs = ThreadLocal.withInitial(() -> newMac(this.pepper));
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.security.ingest-keys.reload-interval-ms:60000}",
+            initialDelayString = "${app.security.ingest-keys.reload-interval-ms:60000}")
+    public synchronized void reload() {
+        try {
+            Map<String, ActiveKey> loaded = new HashMap<>();
+            for (IngestKey key : ingestKeyRepository.findByRevokedFalse()) {
+                // Unchanged keys keep their current quota window
+                ActiveKey current = activeKeys.get(key.getId());
+                loaded.put(key.getId(), current != null && current.eventsPerMinute == key.getEventsPerMinute()
+                        ? current : new ActiveKey(key));
+            }
+            activeKeys = Map.copyOf(loaded);
+            log.debug("Loaded {} active ingest keys", loaded.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not load ingest keys, keeping the current ones: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The key a presented {@code <id>.<secret>} credential belongs to, or null if it is unknown,
+     * revoked or the secret does not match.
+     */
+    public IngestKeyPrincipal authenticate(String credential) {
+        if (credential == null) return null;
+        int dot = credential.indexOf('.');
+        if (dot <= 0) return null;
+        ActiveKey key = activeKeys.get(credential.substring(0, dot));
+        if (key == null) return null;
+        byte[] presented = hash(credential.substring(dot + 1));
+        return MessageDigest.isEqual(presented, key.secretHash) ? key.principal : null;
+    }
+
+    // Counts events against the key's quota for the current minute; false when they would exceed it
+    public boolean tryAcquire(String keyId, int events) {
+        ActiveKey key = activeKeys.get(keyId);
+        if (key == null) return false;
+        return key.tryAcquire(events, System.currentTimeMillis() / 60_000L);
+    }
+
+    /**
+     * Creates a key; the returned credential is the only time the secret is available.
+     *
+     * @throws IllegalArgumentException for a missing name or a negative quota
+     */
+    public synchronized CreatedKey create(String name, Long eventsPerMinute, String createdBy) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Key name is required");
+        }
+        long quota = eventsPerMinute != null ? eventsPerMinute : defaultEventsPerMinute;
+        if (quota < 0) {
+            throw new IllegalArgumentException("eventsPerMinute must not be negative");
+        }
+
+        String secret = randomToken(SECRET_BYTES);
+        IngestKey key = ingestKeyRepository.save(IngestKey.builder()
+                .id(KEY_ID_PREFIX + randomToken(9))
+                .name(name.trim())
+                .secretHash(Base64.getEncoder().encodeToString(hash(secret)))
+                .eventsPerMinute(quota)
+                .createdBy(createdBy)
+                .createdAt(Instant.now())
+                .build());
+
+        Map<String, ActiveKey> updated = new HashMap<>(activeKeys);
+        updated.put(key.getId(), new ActiveKey(key));
+        activeKeys = Map.copyOf(updated);
+        log.info("Ingest key {} ({}) created by {}", key.getId(), key.getName(), createdBy);
+        return new CreatedKey(key, key.getId() + "." + secret);
+    }
+
+    // False if there is no such key
+    public synchronized boolean revoke(String id, String revokedBy) {
+        IngestKey key = ingestKeyRepository.findById(id).orElse(null);
+        if (key == null) return false;
+        if (!key.isRevoked()) {
+            key.setRevoked(true);
+            key.setRevokedAt(Instant.now());
+            ingestKeyRepository.save(key);
+        }
+        Map<String, ActiveKey> updated = new HashMap<>(activeKeys);
+        updated.remove(id);
+        activeKeys = Map.copyOf(updated);
+        log.info("Ingest key {} ({}) revoked by {}", id, key.getName(), revokedBy);
+        return true;
+    }
+
+    // Keys without their secret hashes, for listing
+    public List<Map<String, Object>> getKeys() {
+        return ingestKeyRepository.findAll().stream()
+                .map(key -> {
+                    Map<String, Object> info = new LinkedHashMap<>();
+                    info.put("id", key.getId());
+                    info.put("name", key.getName());
+                    info.put("eventsPerMinute", key.getEventsPerMinute());
+                    info.put("createdBy", key.getCreatedBy());
+                    info.put("createdAt", key.getCreatedAt());
+                    info.put("revoked", key.isRevoked());
+                    info.put("revokedAt", key.getRevokedAt());
+                    return info;
+                })
+                .toList();
+    }
+
+    // The configured value may be shared with other uses (by default it is the JWT secret), so the
+    // HMAC key is derived from it under a fixed label rather than used as is
+    private static SecretKeySpec derivePepper(String configured) {
+        Mac mac = newMac(new SecretKeySpec(configured.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] derived = mac.doFinal(PEPPER_LABEL.getBytes(StandardCharsets.UTF_8));
+        return new SecretKeySpec(derived, "HmacSHA256");
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private byte[] hash(String secret) {
+        return macs.get().doFinal(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String randomToken(int bytes) {
+        byte[] buffer = new byte[bytes];
+        random.nextBytes(buffer);
+        return ENCODER.encodeToString(buffer);
+    }
+}
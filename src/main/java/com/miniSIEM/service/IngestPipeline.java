@@ -0,0 +1,68 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.LogEntry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands saved log entries to every {@link LogIngestListener} on a bounded pool of ingest workers,
+ * so detections run in parallel across events without holding up the HTTP request.
+ * When the queue is full the submitting thread runs the work itself, which throttles ingest.
+ */
+@Service
+@Slf4j
+public class IngestPipeline {
+
+    private final List<LogIngestListener> listeners;
+    private final ThreadPoolExecutor workers;
+
+    public IngestPipeline(List<LogIngestListener> listeners,
+                          @Value("${app.ingest.worker-threads:4}") int workerThreads,
+                          @Value("${app.ingest.queue-capacity:10000}") int queueCapacity) {
+        this.listeners = listeners;
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("ingest-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        log.info("Ingest pipeline started with {} workers and {} listeners", workerThreads, listeners.size());
+    }
+
+    public void publish(LogEntry logEntry) {
+        workers.execute(() -> dispatch(logEntry));
+    }
+
+    public void publish(List<LogEntry> logEntries) {
+        logEntries.forEach(this::publish);
+    }
+
+    public int getQueueDepth() {
+        return workers.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Ingest pipeline did not drain within 10s, {} entries dropped", workers.getQueue().size());
+            workers.shutdownNow();
+        }
+    }
+
+    private void dispatch(LogEntry logEntry) {
+        for (LogIngestListener listener : listeners) {
+            try {
+                listener.onLogIngested(logEntry);
+            } catch (Exception e) {
+                log.error("Ingest listener {} failed for log {}: {}",
+                        listener.getClass().getSimpleName(), logEntry.getId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -1,16 +1,223 @@
 package com.miniSIEM.service;
 
+import com.miniSIEM.util.CidrTrie;
+import com.miniSIEM.util.IpKeys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+/**
+ * Allowlist of addresses and CIDR ranges exempt from detection (internal hosts, sanctioned
+ * scanners, cloud ranges). Entries come from a plain-text file, one IP or CIDR per line with
+ * {@code #} comments, and are hot-reloaded when the file changes or edited through the admin API.
+ * Lookups go through immutable per-family {@link CidrTrie}s that are swapped atomically on reload.
+ */
 @Service
+@Slf4j
 public class IpWhitelistService {
-    private final Set<String> whitelistedIps = Set.of(
-            "10.0.0.1",
-            "192.168.1.1"
-    );
 
+    private static final String DEFAULT_ENTRIES = "allowlist/default.txt";
+
+    private record Snapshot(CidrTrie ipv4, CidrTrie ipv6, List<String> entries) {
+    }
+
+    private final Path allowlistFile;
+    private final ThreadLocal<long[]> ipv6Buffer = ThreadLocal.withInitial(() -> new long[2]);
+
+    private volatile Snapshot snapshot = new Snapshot(CidrTrie.builder().build(), CidrTrie.builder().build(), List.of());
+    private volatile List<String> lastLoadErrors = List.of();
+    private volatile String fileFingerprint = "";
+
+    public IpWhitelistService(@Value("${app.allowlist.file:config/ip-allowlist.txt}") String allowlistFile) {
+        this.allowlistFile = Paths.get(allowlistFile);
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    // True when detections should consider this IP, i.e. it is not allowlisted
     public boolean isAllowed(String ip) {
-        return !whitelistedIps.contains(ip);
+        return !isWhitelisted(ip);
+    }
+
+    public boolean isWhitelisted(String ip) {
+        long ipv4 = IpKeys.parseIpv4(ip);
+        if (ipv4 >= 0) {
+            return snapshot.ipv4().containsIpv4(ipv4);
+        }
+        long[] ipv6 = ipv6Buffer.get();
+        return IpKeys.parseIpv6(ip, ipv6) && snapshot.ipv6().containsIpv6(ipv6[0], ipv6[1]);
+    }
+
+    // Primitive lookups for callers that already hold parsed addresses
+    public boolean isWhitelistedIpv4(long address) {
+        return snapshot.ipv4().containsIpv4(address);
+    }
+
+    public boolean isWhitelistedIpv6(long high, long low) {
+        return snapshot.ipv6().containsIpv6(high, low);
+    }
+
+    @Scheduled(fixedDelayString = "${app.allowlist.reload-interval-ms:10000}")
+    public void reloadIfChanged() {
+        if (!fingerprint().equals(fileFingerprint)) {
+            log.info("Allowlist file {} changed, reloading", allowlistFile.toAbsolutePath());
+            reload();
+        }
+    }
+
+    public synchronized Map<String, Object> reload() {
+        // Taken before reading, so changes made meanwhile trigger another reload; stored only once
+        // the file has been read, so a failed read is retried
+        String fingerprint = fingerprint();
+        List<String> lines;
+        try {
+            lines = Files.exists(allowlistFile) ? Files.readAllLines(allowlistFile) : readDefaults();
+        } catch (IOException e) {
+            log.error("Failed to read allowlist {}: {}", allowlistFile, e.getMessage());
+            lastLoadErrors = List.of(allowlistFile + ": " + e.getMessage());
+            return getStatus();
+        }
+
+        List<String> errors = new ArrayList<>();
+        snapshot = compile(lines, errors);
+        lastLoadErrors = List.copyOf(errors);
+        fileFingerprint = fingerprint;
+
+        errors.forEach(error -> log.error("Allowlist entry rejected: {}", error));
+        log.info("Loaded IP allowlist: {} IPv4 and {} IPv6 prefixes ({} errors)",
+                snapshot.ipv4().prefixCount(), snapshot.ipv6().prefixCount(), errors.size());
+        return getStatus();
+    }
+
+    public synchronized Map<String, Object> replaceEntries(Collection<String> entries) {
+        return write(new LinkedHashSet<>(entries));
+    }
+
+    public synchronized Map<String, Object> addEntries(Collection<String> entries) {
+        Set<String> updated = new LinkedHashSet<>(snapshot.entries());
+        updated.addAll(entries);
+        return write(updated);
+    }
+
+    public synchronized Map<String, Object> removeEntry(String entry) {
+        Set<String> updated = new LinkedHashSet<>(snapshot.entries());
+        if (!updated.remove(entry.trim())) {
+            throw new IllegalArgumentException("Allowlist entry not found: " + entry);
+        }
+        return write(updated);
+    }
+
+    public List<String> getEntries() {
+        return snapshot.entries();
+    }
+
+    public Map<String, Object> getStatus() {
+        Snapshot current = snapshot;
+        Map<String, Object> status = new HashMap<>();
+        status.put("file", allowlistFile.toAbsolutePath().toString());
+        status.put("entries", current.entries().size());
+        status.put("ipv4Prefixes", current.ipv4().prefixCount());
+        status.put("ipv6Prefixes", current.ipv6().prefixCount());
+        status.put("trieNodes", current.ipv4().nodeCount() + current.ipv6().nodeCount());
+        status.put("errors", lastLoadErrors);
+        return status;
+    }
+
+    // Validates everything first so a bad admin edit never leaves a half-written file
+    private Map<String, Object> write(Set<String> entries) {
+        List<String> errors = new ArrayList<>();
+        Snapshot updated = compile(entries, errors);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid allowlist entries: " + String.join("; ", errors));
+        }
+
+        try {
+            if (allowlistFile.getParent() != null) {
+                Files.createDirectories(allowlistFile.getParent());
+            }
+            Path temp = allowlistFile.resolveSibling(allowlistFile.getFileName() + ".tmp");
+            Files.write(temp, updated.entries());
+            Files.move(temp, allowlistFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write allowlist " + allowlistFile, e);
+        }
+
+        snapshot = updated;
+        lastLoadErrors = List.of();
+        fileFingerprint = fingerprint();
+        log.info("IP allowlist updated: {} entries", updated.entries().size());
+        return getStatus();
+    }
+
+    private static Snapshot compile(Collection<String> lines, List<String> errors) {
+        CidrTrie.Builder ipv4 = CidrTrie.builder();
+        CidrTrie.Builder ipv6 = CidrTrie.builder();
+        List<String> entries = new ArrayList<>();
+        long[] buffer = new long[2];
+
+        for (String line : lines) {
+            int comment = line.indexOf('#');
+            String entry = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (entry.isEmpty()) continue;
+
+            int slash = entry.indexOf('/');
+            String address = slash >= 0 ? entry.substring(0, slash) : entry;
+            try {
+                long v4 = IpKeys.parseIpv4(address);
+                if (v4 >= 0) {
+                    ipv4.addIpv4(v4, slash >= 0 ? Integer.parseInt(entry.substring(slash + 1)) : 32);
+                } else if (IpKeys.parseIpv6(address, buffer)) {
+                    ipv6.addIpv6(buffer[0], buffer[1], slash >= 0 ? Integer.parseInt(entry.substring(slash + 1)) : 128);
+                } else {
+                    errors.add(entry + ": not an IP address or CIDR");
+                    continue;
+                }
+                entries.add(entry);
+            } catch (IllegalArgumentException e) {
+                errors.add(entry + ": " + e.getMessage());
+            }
+        }
+        return new Snapshot(ipv4.build(), ipv6.build(), List.copyOf(entries));
+    }
+
+    private List<String> readDefaults() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(DEFAULT_ENTRIES).getInputStream(), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+
+    private String fingerprint() {
+        try {
+            return Files.exists(allowlistFile)
+                    ? Files.getLastModifiedTime(allowlistFile).toMillis() + ":" + Files.size(allowlistFile)
+                    : "";
+        } catch (IOException e) {
+            return "";
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package com.miniSIEM.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.model.LogTag;
+import com.miniSIEM.util.AhoCorasick;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tags each incoming log with every {@link LogTag} whose keywords appear in its message. All
+ * keyword lists are compiled into a single Aho-Corasick automaton, so classification is one
+ * pass over the message regardless of how many keywords or categories are configured.
+ */
+@Service
+@Slf4j
+public class LogClassifier {
+
+    private static final LogTag[] TAGS = LogTag.values();
+
+    private final AhoCorasick automaton;
+    private final Map<LogTag, LongAdder> tagCounts = new EnumMap<>(LogTag.class);
+
+    public LogClassifier(ResourceLoader resourceLoader,
+                         @Value("${app.classification.keywords:classpath:classification/keywords.yml}") String location)
+            throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        Map<String, List<String>> keywords;
+        try (InputStream in = resource.getInputStream()) {
+            keywords = new YAMLMapper().readValue(in, new TypeReference<Map<String, List<String>>>() {});
+        }
+
+        AhoCorasick.Builder builder = AhoCorasick.builder();
+        int keywordCount = 0;
+        for (Map.Entry<String, List<String>> category : keywords.entrySet()) {
+            LogTag tag;
+            try {
+                tag = LogTag.valueOf(category.getKey().trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping unknown classification category '{}' in {}", category.getKey(), location);
+                continue;
+            }
+            if (category.getValue() == null) continue;
+            for (String keyword : category.getValue()) {
+                if (keyword == null || keyword.isEmpty()) continue;
+                builder.add(keyword, tag.ordinal());
+                keywordCount++;
+            }
+        }
+        this.automaton = builder.build();
+
+        for (LogTag tag : TAGS) {
+            tagCounts.put(tag, new LongAdder());
+        }
+        log.info("Log classifier loaded {} keywords into {} automaton states from {}",
+                keywordCount, automaton.stateCount(), location);
+    }
+
+    /**
+     * Sets the entry's tags from its current message. Must run before sanitization, which strips
+     * exactly the payload fragments (script tags, SQL keywords) some categories look for.
+     */
+    public void classify(LogEntry logEntry) {
+        long mask = automaton.match(logEntry.getMessage());
+        if (mask == 0) {
+            logEntry.setTags(null);
+            return;
+        }
+
+        List<String> tags = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            LogTag tag = TAGS[Long.numberOfTrailingZeros(remaining)];
+            tags.add(tag.name());
+            tagCounts.get(tag).increment();
+        }
+        logEntry.setTags(tags);
+    }
+
+    // Tags assigned since startup, for a cheap in-memory view without querying Mongo
+    public Map<String, Long> getTagCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        tagCounts.forEach((tag, count) -> counts.put(tag.name(), count.sum()));
+        return counts;
+    }
+}
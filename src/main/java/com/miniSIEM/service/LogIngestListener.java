@@ -0,0 +1,12 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.LogEntry;
+
+/**
+ * Consumer of persisted log entries, invoked by {@link IngestPipeline} on its worker threads.
+ * Implementations must be thread-safe and should not block for long.
+ */
+public interface LogIngestListener {
+
+    void onLogIngested(LogEntry logEntry);
+}
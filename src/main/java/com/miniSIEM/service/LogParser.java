@@ -0,0 +1,190 @@
+package com.miniSIEM.service;
+
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.util.GrokPattern;
+import com.miniSIEM.util.LongLruCache;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Extracts structured fields (users, ports, paths, status codes...) from log messages at ingest,
+ * so queries and rules can filter on equality instead of scanning messages with regexes. Each
+ * source has an ordered list of grok-style patterns from the pattern library, compiled once at
+ * startup. A source's logs tend to repeat the same few formats, so the pattern that matched last
+ * is tried first, and message shapes that no pattern matched are remembered and skipped.
+ */
+@Service
+@Slf4j
+public class LogParser {
+
+    @Data
+    static class PatternLibrary {
+        private Map<String, String> definitions = new HashMap<>();
+        private Map<String, List<PatternDefinition>> sources = new HashMap<>();
+    }
+
+    @Data
+    static class PatternDefinition {
+        private String name;
+        private String pattern;
+    }
+
+    private static final class NamedPattern {
+        final String name;
+        final GrokPattern grok;
+        final LongAdder attempts = new LongAdder();
+        final LongAdder matches = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+
+        NamedPattern(String name, GrokPattern grok) {
+            this.name = name;
+            this.grok = grok;
+        }
+    }
+
+    private static final class SourceParser {
+        final NamedPattern[] patterns;
+        // Shapes of messages no pattern matched; values are unused
+        final LongLruCache<Boolean> failures;
+        final LongAdder skipped = new LongAdder();
+        volatile int lastMatched;
+
+        SourceParser(NamedPattern[] patterns, int failureCacheSize) {
+            this.patterns = patterns;
+            this.failures = new LongLruCache<>(failureCacheSize);
+        }
+    }
+
+    private final Map<String, SourceParser> parsers = new HashMap<>();
+
+    public LogParser(ResourceLoader resourceLoader,
+                     @Value("${app.parsing.patterns:classpath:parsing/patterns.yml}") String location,
+                     @Value("${app.parsing.failure-cache-size:10000}") int failureCacheSize) throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        PatternLibrary library;
+        try (InputStream in = resource.getInputStream()) {
+            library = new YAMLMapper().readValue(in, PatternLibrary.class);
+        }
+
+        int patternCount = 0;
+        for (Map.Entry<String, List<PatternDefinition>> source : library.getSources().entrySet()) {
+            List<NamedPattern> compiled = new ArrayList<>();
+            for (PatternDefinition definition : source.getValue()) {
+                try {
+                    compiled.add(new NamedPattern(definition.getName(),
+                            GrokPattern.compile(definition.getPattern(), library.getDefinitions())));
+                } catch (RuntimeException e) {
+                    log.warn("Skipping pattern '{}' for source '{}' in {}: {}", definition.getName(),
+                            source.getKey(), location, e.getMessage());
+                }
+            }
+            if (!compiled.isEmpty()) {
+                parsers.put(source.getKey().toLowerCase(Locale.ROOT),
+                        new SourceParser(compiled.toArray(new NamedPattern[0]), failureCacheSize));
+                patternCount += compiled.size();
+            }
+        }
+        log.info("Log parser compiled {} patterns for {} sources from {}", patternCount, parsers.size(), location);
+    }
+
+    /**
+     * Sets the entry's fields from its current message, or clears them if no pattern for its
+     * source matches. Runs on the raw message, before sanitization.
+     */
+    public void parse(LogEntry logEntry) {
+        logEntry.setFields(null);
+        String source = logEntry.getSource();
+        String message = logEntry.getMessage();
+        if (source == null || message == null) return;
+        SourceParser parser = parsers.get(source.toLowerCase(Locale.ROOT));
+        if (parser == null) return;
+
+        long shape = shapeKey(message);
+        if (parser.failures.get(shape) != null) {
+            parser.skipped.increment();
+            return;
+        }
+
+        NamedPattern[] patterns = parser.patterns;
+        int first = parser.lastMatched;
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < patterns.length; i++) {
+            int index = i == 0 ? first : (i <= first ? i - 1 : i);
+            NamedPattern pattern = patterns[index];
+
+            long started = System.nanoTime();
+            boolean matched = pattern.grok.extract(message, fields);
+            pattern.nanos.add(System.nanoTime() - started);
+            pattern.attempts.increment();
+
+            if (matched) {
+                pattern.matches.increment();
+                if (index != first) parser.lastMatched = index;
+                logEntry.setFields(fields);
+                return;
+            }
+        }
+        parser.failures.put(shape, Boolean.TRUE);
+    }
+
+    // Attempts, matches and CPU time per pattern since startup, costliest first
+    public List<Map<String, Object>> getPatternStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        parsers.forEach((source, parser) -> {
+            for (NamedPattern pattern : parser.patterns) {
+                long attempts = pattern.attempts.sum();
+                long nanos = pattern.nanos.sum();
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("source", source);
+                entry.put("pattern", pattern.name);
+                entry.put("fields", pattern.grok.getFieldNames());
+                entry.put("attempts", attempts);
+                entry.put("matches", pattern.matches.sum());
+                entry.put("cpuMillis", nanos / 1_000_000.0);
+                entry.put("avgMicros", attempts == 0 ? 0 : nanos / 1000.0 / attempts);
+                entry.put("skippedKnownFailures", parser.skipped.sum());
+                stats.add(entry);
+            }
+        });
+        stats.sort((a, b) -> Double.compare((double) b.get("cpuMillis"), (double) a.get("cpuMillis")));
+        return stats;
+    }
+
+    /**
+     * Hash of the message with every run of digits collapsed, so lines differing only in
+     * addresses, ports, pids or counters share a failure cache entry. Assumes no pattern tells
+     * such lines apart by their numbers alone.
+     */
+    static long shapeKey(String message) {
+        long hash = 0xcbf29ce484222325L;
+        boolean inDigits = false;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (inDigits) continue;
+                inDigits = true;
+                c = '0';
+            } else {
+                inDigits = false;
+            }
+            hash ^= c;
+            hash *= 0x100000001b3L;
+        }
+        return hash ^ (hash >>> 32);
+    }
+}
@@ -1,10 +1,13 @@
 package com.miniSIEM.service;
 
+import com.miniSIEM.dto.LogSummary;
 import com.miniSIEM.model.LogEntry;
 import com.miniSIEM.repository.LogRepository;
+import com.miniSIEM.util.DomainNames;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,14 +17,27 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class LogService {
     private final LogRepository logRepository;
+    private final IngestPipeline ingestPipeline;
+    private final LogClassifier logClassifier;
+    private final LogParser logParser;
+    private final GeoIpService geoIpService;
+
+    private static final Pattern FIELD_NAME = Pattern.compile("[A-Za-z0-9_]{1,64}");
+    private static final Set<String> SUMMARY_FIELDS = Set.of("timestamp", "source", "logLevel", "message", "ip");
+
+    @Value("${app.logs.summary-message-length:200}")
+    private int summaryMessageLength;
 
     // Lazy injection to avoid circular dependency
     @Autowired
@@ -40,9 +56,11 @@ public class LogService {
         LogEntry savedLog = logRepository.save(logEntry);
         log.debug("Log entry saved: {}", savedLog.getId());
 
+        ingestPipeline.publish(savedLog);
+
         // Broadcast to real-time dashboard clients
         if (dashboardService != null) {
-            dashboardService.broadcastNewLog(savedLog);
+            dashboardService.broadcastNewLogs(List.of(savedLog));
         }
 
         return savedLog;
@@ -65,21 +83,30 @@ public class LogService {
         List<LogEntry> savedLogs = logRepository.saveAll(logEntries);
         log.info("Bulk log insertion completed: {} entries saved", savedLogs.size());
 
-        // Broadcast each log for real-time updates
+        ingestPipeline.publish(savedLogs);
+
+        // Broadcast to real-time dashboard clients, coalesced into a few frames
         if (dashboardService != null) {
-            savedLogs.forEach(dashboardService::broadcastNewLog);
+            dashboardService.broadcastNewLogs(savedLogs);
         }
 
         return savedLogs;
     }
 
-    public List<LogEntry> findLogs(String ip, String logLevel, String source, int page, int size) {
+    public List<LogEntry> findLogs(String ip, String logLevel, String source, String country, Long asn,
+                                   Map<String, String> parsedFields, int page, int size) {
         // Validate pagination parameters
         if (page < 0) page = 0;
         if (size < 1 || size > 1000) size = 100; // Limit page size to prevent abuse
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
 
+        // Enrichment and parsed-field filters go through the criteria builder, backed by the geo.* and fields.$** indexes
+        if (country != null || asn != null || !parsedFields.isEmpty()) {
+            return logRepository.findFiltered(ip, logLevel, source, normalizeCountry(country), asn,
+                    validateFieldFilters(parsedFields), pageable);
+        }
+
         // If no filters provided, return paginated results
         if (ip == null && logLevel == null && source == null) {
             return logRepository.findAll(pageable).getContent();
@@ -102,6 +129,28 @@ public class LogService {
         return logRepository.findByFilters(ip, logLevel, source, pageable);
     }
 
+    public List<LogSummary> findLogSummaries(String ip, String logLevel, String source, String country, Long asn,
+                                             Map<String, String> parsedFields, String fields, int page, int size) {
+        if (page < 0) page = 0;
+        if (size < 1 || size > 1000) size = 100;
+
+        Set<String> projectedFields = SUMMARY_FIELDS;
+        if (fields != null && !fields.isBlank()) {
+            projectedFields = new LinkedHashSet<>();
+            for (String field : fields.split(",")) {
+                String trimmed = field.trim();
+                if (!SUMMARY_FIELDS.contains(trimmed)) {
+                    throw new IllegalArgumentException("Unknown field: " + trimmed);
+                }
+                projectedFields.add(trimmed);
+            }
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
+        return logRepository.findSummaries(ip, logLevel, source, normalizeCountry(country), asn,
+                validateFieldFilters(parsedFields), projectedFields, summaryMessageLength, pageable);
+    }
+
     public LogEntry findById(String id) {
         return logRepository.findById(id).orElse(null);
     }
@@ -115,6 +164,10 @@ public class LogService {
         return false;
     }
 
+    public List<Map<String, Object>> getParserStats() {
+        return logParser.getPatternStats();
+    }
+
     public Map<String, Object> getLogStatistics() {
         Map<String, Object> stats = new HashMap<>();
 
@@ -160,7 +213,14 @@ public class LogService {
             throw new IllegalArgumentException("Log level cannot be empty");
         }
 
-        // Sanitize inputs to prevent injection attacks
+        // Classify, parse and find domains in the raw message, sanitization would strip the payloads
+        // some tags look for and break up names containing SQL keywords
+        logClassifier.classify(logEntry);
+        logParser.parse(logEntry);
+        logEntry.setDomains(DomainNames.find(logEntry.getMessage()));
+
+        // Sanitize inputs to prevent injection attacks. Parsed fields are kept verbatim: they are
+        // stored and queried as BSON values, and stripping keywords would break filters on them
         logEntry.setMessage(sanitizeInput(logEntry.getMessage()));
         logEntry.setSource(sanitizeInput(logEntry.getSource()));
         logEntry.setLogLevel(sanitizeInput(logEntry.getLogLevel()));
@@ -169,6 +229,21 @@ public class LogService {
             logEntry.setIp(sanitizeInput(logEntry.getIp()));
             validateIpAddress(logEntry.getIp());
         }
+        geoIpService.enrich(logEntry);
+    }
+
+    // Names end up in a Mongo field path, so only what the pattern library can produce is accepted
+    private static Map<String, String> validateFieldFilters(Map<String, String> parsedFields) {
+        for (String name : parsedFields.keySet()) {
+            if (!FIELD_NAME.matcher(name).matches()) {
+                throw new IllegalArgumentException("Invalid field name: " + name);
+            }
+        }
+        return parsedFields;
+    }
+
+    private static String normalizeCountry(String country) {
+        return country == null || country.isBlank() ? null : country.trim().toUpperCase();
     }
 
     private String sanitizeInput(String input) {
@@ -0,0 +1,52 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.repository.ReactiveLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Non-blocking read path over the reactive Mongo driver. Results are pulled from the cursor
+ * only as fast as the HTTP response can take them, and no servlet thread is held meanwhile.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LogStreamService {
+
+    private static final int MAX_STREAM_SIZE = 100_000;
+
+    private final ReactiveLogRepository reactiveLogRepository;
+
+    public Flux<LogEntry> streamLogs(String ip, String logLevel, String source, int page, int size) {
+        if (page < 0) page = 0;
+        if (size < 1 || size > MAX_STREAM_SIZE) size = 1000; // streaming allows far larger pages than findLogs
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
+        return reactiveLogRepository.findByFilters(ip, logLevel, source, pageable);
+    }
+
+    public Flux<LogEntry> streamExport(String dateRange) {
+        Instant since = switch (dateRange) {
+            case "1h" -> Instant.now().minus(1, ChronoUnit.HOURS);
+            case "24h" -> Instant.now().minus(24, ChronoUnit.HOURS);
+            case "7d" -> Instant.now().minus(7, ChronoUnit.DAYS);
+            case "30d" -> Instant.now().minus(30, ChronoUnit.DAYS);
+            default -> Instant.now().minus(24, ChronoUnit.HOURS);
+        };
+        return reactiveLogRepository.streamSince(since);
+    }
+
+    public Flux<Map<String, Object>> streamTrends(int hours) {
+        return reactiveLogRepository.hourlyTrends(Instant.now().minus(hours, ChronoUnit.HOURS));
+    }
+}
@@ -0,0 +1,225 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.LogEntry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts failed logins per client IP and per username over fixed windows, so that once either
+ * passes its limit further attempts are turned away before the password is checked: a
+ * credential-stuffing run then costs a map lookup per attempt instead of a BCrypt hash. Counters
+ * are single CAS-updated words and need no locks; a limit reached holds until its window ends.
+ * <p>
+ * Failed and rejected attempts are also reported as the SIEM's own log entries, tagged like any
+ * other failed login, so brute-force detection and the dashboard see attacks on the SIEM itself.
+ * Detection counts entries, so each failed attempt is its own entry up to a cap per IP and
+ * username per interval, beyond which the rest are summed into one; rejected attempts are always
+ * summed. All are saved in one bulk write per interval.
+ */
+@Service
+@Slf4j
+public class LoginThrottle {
+
+    static final String SOURCE = "mini-siem-auth";
+    private static final int MAX_USERNAME_LENGTH = 64;
+    // Entries per IP and username per report, enough to cross any sensible brute-force threshold
+    static final int MAX_EVENTS_PER_KEY = 20;
+    // Past this many in one report, further failures are only reported as sums
+    private static final int MAX_EVENTS_PER_REPORT = 2_000;
+
+    // Window number in the high bits, failures in it in the low 20
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private record AttemptKey(String ip, String username) {
+    }
+
+    private static final class Attempts {
+        final LongAdder failed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+    }
+
+    private final LogService logService;
+    private final int maxFailuresPerIp;
+    private final int maxFailuresPerUsername;
+    private final long windowMillis;
+    private final int maxTracked;
+
+    private final Map<String, AtomicLong> ipFailures = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> usernameFailures = new ConcurrentHashMap<>();
+    private final Map<AttemptKey, Attempts> pendingEvents = new ConcurrentHashMap<>();
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    public LoginThrottle(LogService logService,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.security.login-throttle.max-failures-per-ip:20}") int maxFailuresPerIp,
+                         @Value("${app.security.login-throttle.max-failures-per-username:10}") int maxFailuresPerUsername,
+                         @Value("${app.security.login-throttle.window-minutes:15}") int windowMinutes,
+                         @Value("${app.security.login-throttle.max-tracked:100000}") int maxTracked) {
+        this.logService = logService;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.windowMillis = TimeUnit.MINUTES.toMillis(Math.max(1, windowMinutes));
+        this.maxTracked = maxTracked;
+
+        FunctionCounter.builder("siem.auth.login.rejected", rejected, LongAdder::sum)
+                .description("Login attempts turned away before the password check")
+                .register(meterRegistry);
+        FunctionCounter.builder("siem.auth.login.untracked", untracked, LongAdder::sum)
+                .description("Failed logins not counted because the throttle was tracking too many keys")
+                .register(meterRegistry);
+    }
+
+    /**
+     * True if the attempt should be refused without checking the password; the refusal is
+     * counted and reported.
+     */
+    public boolean rejects(String ip, String username) {
+        long window = window();
+        boolean limited = count(ipFailures, ip, window) >= maxFailuresPerIp
+                || count(usernameFailures, normalize(username), window) >= maxFailuresPerUsername;
+        if (limited) {
+            rejected.increment();
+            attempts(ip, username).rejected.increment();
+        }
+        return limited;
+    }
+
+    public void recordFailure(String ip, String username) {
+        long window = window();
+        increment(ipFailures, ip, window);
+        increment(usernameFailures, normalize(username), window);
+        attempts(ip, username).failed.increment();
+    }
+
+    // The account's own counter starts over; the IP's keeps counting
+    public void recordSuccess(String username) {
+        String key = normalize(username);
+        if (key != null) usernameFailures.remove(key);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.report-interval-ms:5000}")
+    public void report() {
+        if (pendingEvents.isEmpty()) return;
+        List<LogEntry> events = new ArrayList<>();
+        Instant now = Instant.now();
+        for (AttemptKey key : pendingEvents.keySet()) {
+            Attempts attempts = pendingEvents.remove(key);
+            if (attempts == null) continue;
+            long failed = attempts.failed.sum();
+            long refused = attempts.rejected.sum();
+            String user = key.username() != null ? key.username() : "";
+            String failure = "Failed login for user '" + user + "' from " + key.ip();
+            long single = Math.max(0, Math.min(failed,
+                    Math.min(MAX_EVENTS_PER_KEY, MAX_EVENTS_PER_REPORT - events.size())));
+            for (long i = 0; i < single; i++) {
+                events.add(event(now, key.ip(), failure));
+            }
+            long more = failed - single;
+            if (more > 0) {
+                events.add(event(now, key.ip(), failure + ": " + more + (more == 1 ? " more attempt" : " more attempts")));
+            }
+            if (refused > 0) {
+                events.add(event(now, key.ip(), "Failed login limit reached, rejected " + refused
+                        + (refused == 1 ? " attempt" : " attempts") + " for user '" + user + "' from " + key.ip()));
+            }
+        }
+        try {
+            logService.saveBulkLogs(events);
+        } catch (RuntimeException e) {
+            log.warn("Could not save {} login security events: {}", events.size(), e.getMessage());
+        }
+    }
+
+    // Drops windows that have ended, so counters do not outlive their purpose
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.purge-interval-ms:60000}")
+    public void purge() {
+        long window = window();
+        ipFailures.values().removeIf(counter -> counter.get() >>> COUNT_BITS != window);
+        usernameFailures.values().removeIf(counter -> counter.get() >>> COUNT_BITS != window);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        report();
+    }
+
+    private long window() {
+        return System.currentTimeMillis() / windowMillis;
+    }
+
+    private static int count(Map<String, AtomicLong> counters, String key, long window) {
+        if (key == null) return 0;
+        AtomicLong counter = counters.get(key);
+        if (counter == null) return 0;
+        long value = counter.get();
+        return value >>> COUNT_BITS == window ? (int) (value & COUNT_MASK) : 0;
+    }
+
+    private void increment(Map<String, AtomicLong> counters, String key, long window) {
+        if (key == null) return;
+        AtomicLong counter = counters.get(key);
+        if (counter == null) {
+            // Past the cap new keys go uncounted rather than growing the map without bound
+            if (counters.size() >= maxTracked) {
+                untracked.increment();
+                return;
+            }
+            counter = counters.computeIfAbsent(key, k -> new AtomicLong(window << COUNT_BITS));
+        }
+        while (true) {
+            long current = counter.get();
+            long next;
+            if (current >>> COUNT_BITS != window) {
+                next = (window << COUNT_BITS) | 1;
+            } else if ((current & COUNT_MASK) == COUNT_MASK) {
+                return;
+            } else {
+                next = current + 1;
+            }
+            if (counter.compareAndSet(current, next)) return;
+        }
+    }
+
+    private Attempts attempts(String ip, String username) {
+        String user = username == null ? null
+                : username.length() > MAX_USERNAME_LENGTH ? username.substring(0, MAX_USERNAME_LENGTH) : username;
+        AttemptKey key = new AttemptKey(ip, user);
+        Attempts attempts = pendingEvents.get(key);
+        if (attempts != null) return attempts;
+        // A flood of distinct usernames is folded into one entry per IP
+        if (pendingEvents.size() >= maxTracked) key = new AttemptKey(ip, "*");
+        return pendingEvents.computeIfAbsent(key, k -> new Attempts());
+    }
+
+    private static LogEntry event(Instant timestamp, String ip, String message) {
+        LogEntry entry = new LogEntry();
+        entry.setTimestamp(timestamp);
+        entry.setSource(SOURCE);
+        entry.setLogLevel("WARN");
+        entry.setIp(ip);
+        entry.setMessage(message);
+        return entry;
+    }
+
+    private static String normalize(String username) {
+        return username == null ? null : username.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,18 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.LogEntry;
+
+/**
+ * A private detector instance fed stored logs in timestamp order, with event time standing in
+ * for the wall clock. Used by backtests: it shares detection code with the live detector but none
+ * of its state, and hands alerts to a caller-supplied sink instead of the alert store.
+ * Not thread-safe; one replay per thread.
+ */
+public interface ReplayDetector {
+
+    void process(LogEntry logEntry, long eventTime);
+
+    // Called periodically with the latest event time so time-based state can expire
+    default void advanceTo(long eventTime) {
+    }
+}
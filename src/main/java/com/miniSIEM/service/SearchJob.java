@@ -0,0 +1,111 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.dto.SearchJobRequest;
+import com.miniSIEM.dto.SearchJobStatus;
+import com.miniSIEM.model.LogEntry;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * In-memory state of one asynchronous search. Hits are appended by the worker while
+ * readers page through them, so all access goes through the job's monitor.
+ */
+class SearchJob {
+
+    enum State {
+        QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED;
+
+        boolean isFinished() {
+            return this == COMPLETED || this == CANCELLED || this == FAILED;
+        }
+    }
+
+    @Getter
+    private final String id;
+    @Getter
+    private final String owner;
+    @Getter
+    private final SearchJobRequest request;
+    @Getter
+    private final int partitionsTotal;
+    private final Instant submittedAt = Instant.now();
+    private final List<LogEntry> hits = new ArrayList<>();
+
+    @Getter
+    private volatile State state = State.QUEUED;
+    private volatile int partitionsScanned;
+    private volatile boolean truncated;
+    private volatile Instant startedAt;
+    @Getter
+    private volatile Instant finishedAt;
+    private volatile String error;
+    @Getter
+    private volatile Future<?> future;
+
+    SearchJob(String id, String owner, SearchJobRequest request, int partitionsTotal) {
+        this.id = id;
+        this.owner = owner;
+        this.request = request;
+        this.partitionsTotal = partitionsTotal;
+    }
+
+    synchronized void addHit(LogEntry logEntry) {
+        hits.add(logEntry);
+    }
+
+    synchronized int hitCount() {
+        return hits.size();
+    }
+
+    synchronized List<LogEntry> page(int offset, int limit) {
+        if (offset >= hits.size()) return List.of();
+        return new ArrayList<>(hits.subList(offset, Math.min(hits.size(), offset + limit)));
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+    }
+
+    void partitionScanned() {
+        partitionsScanned++;
+    }
+
+    void markTruncated() {
+        truncated = true;
+    }
+
+    void finish(State finalState, String errorMessage) {
+        state = finalState;
+        error = errorMessage;
+        finishedAt = Instant.now();
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    boolean isCancelled() {
+        return state == State.CANCELLED;
+    }
+
+    SearchJobStatus toStatus() {
+        return SearchJobStatus.builder()
+                .id(id)
+                .owner(owner)
+                .state(state.name())
+                .partitionsTotal(partitionsTotal)
+                .partitionsScanned(partitionsScanned)
+                .hitsFound(hitCount())
+                .truncated(truncated)
+                .submittedAt(submittedAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .build();
+    }
+}
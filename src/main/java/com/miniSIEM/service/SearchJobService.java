@@ -0,0 +1,222 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.dto.SearchJobRequest;
+import com.miniSIEM.dto.SearchJobStatus;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.repository.LogRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class SearchJobService {
+
+    private final LogRepository logRepository;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, SearchJob> jobs = new ConcurrentHashMap<>();
+    // Only changed inside compute(), so a count dropped at zero cannot race with an increment
+    private final Map<String, Integer> activeJobsPerUser = new ConcurrentHashMap<>();
+
+    private final int maxJobsPerUser;
+    private final int maxHitsPerJob;
+    private final Duration partitionSize;
+    private final Duration jobRetention;
+
+    public SearchJobService(LogRepository logRepository,
+                            @Value("${app.search-jobs.worker-threads:4}") int workerThreads,
+                            @Value("${app.search-jobs.queue-capacity:50}") int queueCapacity,
+                            @Value("${app.search-jobs.max-jobs-per-user:2}") int maxJobsPerUser,
+                            @Value("${app.search-jobs.max-hits:50000}") int maxHitsPerJob,
+                            @Value("${app.search-jobs.partition-hours:24}") int partitionHours,
+                            @Value("${app.search-jobs.retention-minutes:60}") int retentionMinutes) {
+        this.logRepository = logRepository;
+        this.maxJobsPerUser = maxJobsPerUser;
+        this.maxHitsPerJob = maxHitsPerJob;
+        this.partitionSize = Duration.ofHours(partitionHours);
+        this.jobRetention = Duration.ofMinutes(retentionMinutes);
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("search-job-"));
+    }
+
+    public SearchJobStatus submit(SearchJobRequest request, String username) {
+        Instant to = request.getTo() != null ? request.getTo() : Instant.now();
+        request.setTo(to);
+        if (!request.getFrom().isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        if (!acquire(username)) {
+            throw new IllegalStateException("Too many concurrent search jobs for user " + username
+                    + " (limit " + maxJobsPerUser + ")");
+        }
+
+        int partitions = (int) Math.max(1,
+                (Duration.between(request.getFrom(), to).toMillis() + partitionSize.toMillis() - 1)
+                        / partitionSize.toMillis());
+        SearchJob job = new SearchJob(UUID.randomUUID().toString(), username, request, partitions);
+        jobs.put(job.getId(), job);
+
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            release(job);
+            throw new IllegalStateException("Search job queue is full, try again later");
+        }
+
+        log.info("Search job {} submitted by {} over {} partitions", job.getId(), username, partitions);
+        return job.toStatus();
+    }
+
+    public SearchJobStatus getStatus(String id, String username, boolean admin) {
+        return getJob(id, username, admin).toStatus();
+    }
+
+    public List<LogEntry> getResults(String id, String username, boolean admin, int offset, int limit) {
+        if (offset < 0) offset = 0;
+        if (limit < 1 || limit > 1000) limit = 100;
+        return getJob(id, username, admin).page(offset, limit);
+    }
+
+    public SearchJobStatus cancel(String id, String username, boolean admin) {
+        SearchJob job = getJob(id, username, admin);
+        synchronized (job) {
+            if (!job.getState().isFinished()) {
+                boolean wasQueued = job.getState() == SearchJob.State.QUEUED;
+                job.finish(SearchJob.State.CANCELLED, null);
+                if (job.getFuture() != null) {
+                    job.getFuture().cancel(true);
+                    executor.remove((Runnable) job.getFuture());
+                }
+                // A queued job never starts scanning, so its slot is released here instead of in run()
+                if (wasQueued) {
+                    release(job);
+                }
+                log.info("Search job {} cancelled by {}", id, username);
+            }
+        }
+        return job.toStatus();
+    }
+
+    @Scheduled(fixedRate = 60_000)
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        Iterator<SearchJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            SearchJob job = iterator.next();
+            if (job.getState().isFinished() && job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff)) {
+                iterator.remove();
+                log.debug("Evicted search job {}", job.getId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(SearchJob job) {
+        synchronized (job) {
+            if (job.isCancelled()) {
+                return;
+            }
+            job.start();
+        }
+
+        SearchJobRequest request = job.getRequest();
+        try {
+            // Newest partition first, so the most relevant hits show up earliest
+            Instant partitionEnd = request.getTo();
+            while (partitionEnd.isAfter(request.getFrom()) && !job.isCancelled()) {
+                Instant partitionStart = partitionEnd.minus(partitionSize);
+                if (partitionStart.isBefore(request.getFrom())) {
+                    partitionStart = request.getFrom();
+                }
+
+                if (!scanPartition(job, partitionStart, partitionEnd)) {
+                    break;
+                }
+                job.partitionScanned();
+                partitionEnd = partitionStart;
+            }
+
+            synchronized (job) {
+                if (!job.isCancelled()) {
+                    job.finish(SearchJob.State.COMPLETED, null);
+                }
+            }
+            log.info("Search job {} finished: {} hits", job.getId(), job.hitCount());
+        } catch (Exception e) {
+            log.error("Search job {} failed: {}", job.getId(), e.getMessage());
+            synchronized (job) {
+                if (!job.isCancelled()) {
+                    job.finish(SearchJob.State.FAILED, e.getMessage());
+                }
+            }
+        } finally {
+            release(job);
+        }
+    }
+
+    // Returns false when the job should stop scanning (cancelled or hit limit reached)
+    private boolean scanPartition(SearchJob job, Instant from, Instant to) {
+        SearchJobRequest request = job.getRequest();
+        try (Stream<LogEntry> cursor = logRepository.streamLogs(request.getIp(), request.getLogLevel(),
+                request.getSource(), request.getKeyword(), from, to)) {
+            Iterator<LogEntry> iterator = cursor.iterator();
+            while (iterator.hasNext()) {
+                if (job.isCancelled() || Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+                if (job.hitCount() >= maxHitsPerJob) {
+                    job.markTruncated();
+                    return false;
+                }
+                job.addHit(iterator.next());
+            }
+        }
+        return true;
+    }
+
+    // False if the user already runs as many jobs as allowed
+    private boolean acquire(String username) {
+        boolean[] acquired = new boolean[1];
+        activeJobsPerUser.compute(username, (user, count) -> {
+            int active = count != null ? count : 0;
+            if (active >= maxJobsPerUser) return count;
+            acquired[0] = true;
+            return active + 1;
+        });
+        return acquired[0];
+    }
+
+    private void release(SearchJob job) {
+        activeJobsPerUser.computeIfPresent(job.getOwner(), (user, count) -> count <= 1 ? null : count - 1);
+    }
+
+    private SearchJob getJob(String id, String username, boolean admin) {
+        SearchJob job = jobs.get(id);
+        if (job == null || (!admin && !job.getOwner().equals(username))) {
+            throw new IllegalArgumentException("Search job not found: " + id);
+        }
+        return job;
+    }
+}
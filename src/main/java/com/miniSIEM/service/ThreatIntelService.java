@@ -0,0 +1,340 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.util.DomainNames;
+import com.miniSIEM.util.IndicatorSet;
+import com.miniSIEM.util.IpKeys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Matches every ingested log against indicator-of-compromise feeds: the entry's IP, plus any
+ * domain names found in its message (and their parent domains). Feeds are plain-text files in
+ * the configured directory, one IP or domain per line; hosts-file and URL lines are accepted.
+ * Each feed is held off-heap in {@link IndicatorSet}s built beside the live ones and swapped in
+ * with a single reference write, so reloads neither block lookups nor churn the heap.
+ */
+@Service
+@Slf4j
+public class ThreatIntelService implements LogIngestListener {
+
+    private static final int MAX_PARENT_LOOKUPS = 8;
+
+    private record Feed(String name, IndicatorSet ips, IndicatorSet domains, Instant loadedAt) {
+    }
+
+    private final AlertService alertService;
+    private final IpWhitelistService ipWhitelist;
+    private final Path feedDirectory;
+    private final double falsePositiveRate;
+    private final long alertCooldownMillis;
+    private final ThreadLocal<long[]> ipv6Buffer = ThreadLocal.withInitial(() -> new long[2]);
+
+    // Last alert time per feed and indicator, so a chatty infected host does not flood the alert store
+    private final Map<String, Long> recentAlerts = new ConcurrentHashMap<>();
+    private final AlertEmitter liveEmitter;
+
+    private volatile List<Feed> feeds = List.of();
+    private volatile List<String> lastLoadErrors = List.of();
+    private volatile String directoryFingerprint = "";
+
+    public ThreatIntelService(AlertService alertService,
+                              IpWhitelistService ipWhitelist,
+                              @Value("${app.ioc.directory:ioc}") String feedDirectory,
+                              @Value("${app.ioc.false-positive-rate:0.001}") double falsePositiveRate,
+                              @Value("${app.ioc.alert-cooldown-minutes:10}") int alertCooldownMinutes) {
+        this.alertService = alertService;
+        this.ipWhitelist = ipWhitelist;
+        this.feedDirectory = Paths.get(feedDirectory);
+        this.falsePositiveRate = falsePositiveRate;
+        this.alertCooldownMillis = TimeUnit.MINUTES.toMillis(alertCooldownMinutes);
+        this.liveEmitter = new AlertEmitter(recentAlerts, alert -> {
+            alertService.raise(alert);
+            log.warn("IOC match: {}", alert.getDescription());
+        });
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    // Where matches go: the live alert store with the shared cooldowns, or a backtest's own sink
+    private record AlertEmitter(Map<String, Long> cooldowns, Consumer<Alert> sink) {
+    }
+
+    @Override
+    public void onLogIngested(LogEntry logEntry) {
+        match(logEntry, System.currentTimeMillis(), liveEmitter);
+    }
+
+    /**
+     * Matches stored logs against the currently loaded feeds, with cooldowns kept on event time
+     * and private to the replay; alerts only go to the sink.
+     */
+    public ReplayDetector replay(Consumer<Alert> sink) {
+        AlertEmitter emitter = new AlertEmitter(new HashMap<>(), sink);
+        return (logEntry, eventTime) -> match(logEntry, eventTime, emitter);
+    }
+
+    private void match(LogEntry logEntry, long now, AlertEmitter emitter) {
+        List<Feed> current = feeds;
+        if (current.isEmpty()) return;
+
+        String ip = logEntry.getIp();
+        long ipKey = ipKey(ip);
+        boolean checkIp = ipKey != -1 && ipWhitelist.isAllowed(ip);
+        List<String> domains = null;
+
+        for (Feed feed : current) {
+            if (checkIp && feed.ips().contains(ipKey)) {
+                raiseAlert(feed, "IP", ip, logEntry, now, emitter);
+            }
+            if (feed.domains().size() > 0) {
+                if (domains == null) domains = domainsOf(logEntry);
+                for (String domain : domains) {
+                    matchDomain(feed, domain, logEntry, now, emitter);
+                }
+            }
+        }
+    }
+
+    // Found in the raw message at ingest, since sanitization can break names up; stored logs being
+    // replayed only have the sanitized message to go on
+    private static List<String> domainsOf(LogEntry logEntry) {
+        return logEntry.getDomains() != null ? logEntry.getDomains() : DomainNames.find(logEntry.getMessage());
+    }
+
+    @Scheduled(fixedDelayString = "${app.ioc.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        String fingerprint = fingerprint();
+        if (!fingerprint.equals(directoryFingerprint)) {
+            log.info("IOC feed directory {} changed, reloading feeds", feedDirectory.toAbsolutePath());
+            reload();
+        }
+    }
+
+    @Scheduled(fixedRate = 60_000)
+    public void expireAlertCooldowns() {
+        long cutoff = System.currentTimeMillis() - alertCooldownMillis;
+        recentAlerts.values().removeIf(alertedAt -> alertedAt < cutoff);
+    }
+
+    public synchronized Map<String, Object> reload() {
+        // Taken before reading, so changes made meanwhile trigger another reload; stored only if
+        // every feed loaded, so one that failed to read is retried
+        String fingerprint = fingerprint();
+        List<String> errors = new ArrayList<>();
+        List<Feed> loaded = new ArrayList<>();
+
+        if (Files.isDirectory(feedDirectory)) {
+            try (Stream<Path> files = Files.list(feedDirectory)) {
+                for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                    try {
+                        loaded.add(loadFeed(file));
+                    } catch (IOException | IllegalArgumentException e) {
+                        errors.add(file.getFileName() + ": " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                errors.add(feedDirectory + ": " + e.getMessage());
+            }
+        }
+
+        feeds = List.copyOf(loaded);
+        lastLoadErrors = List.copyOf(errors);
+        directoryFingerprint = errors.isEmpty() ? fingerprint : "";
+
+        errors.forEach(error -> log.error("IOC feed load error: {}", error));
+        log.info("Loaded {} IOC feeds: {} IPs, {} domains, {} KB off-heap ({} errors)", loaded.size(),
+                loaded.stream().mapToLong(feed -> feed.ips().size()).sum(),
+                loaded.stream().mapToLong(feed -> feed.domains().size()).sum(),
+                loaded.stream().mapToLong(feed -> feed.ips().offHeapBytes() + feed.domains().offHeapBytes()).sum() / 1024,
+                errors.size());
+        return getStatus();
+    }
+
+    public Map<String, Object> getStatus() {
+        List<Map<String, Object>> feedStats = feeds.stream()
+                .map(feed -> {
+                    Map<String, Object> stats = new LinkedHashMap<>();
+                    stats.put("name", feed.name());
+                    stats.put("ips", feed.ips().size());
+                    stats.put("domains", feed.domains().size());
+                    stats.put("offHeapBytes", feed.ips().offHeapBytes() + feed.domains().offHeapBytes());
+                    stats.put("loadedAt", feed.loadedAt());
+                    return stats;
+                })
+                .toList();
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("directory", feedDirectory.toAbsolutePath().toString());
+        status.put("feeds", feedStats);
+        status.put("errors", lastLoadErrors);
+        return status;
+    }
+
+    // The name itself, then each parent domain down to (but excluding) the bare TLD
+    private void matchDomain(Feed feed, String domain, LogEntry logEntry, long now, AlertEmitter emitter) {
+        int end = domain.length();
+        int from = 0;
+        for (int lookups = 0; lookups < MAX_PARENT_LOOKUPS; lookups++) {
+            if (feed.domains().contains(IndicatorSet.domainKey(domain, from, end))) {
+                raiseAlert(feed, "Domain", domain.substring(from), logEntry, now, emitter);
+                return;
+            }
+            int dot = indexOfDot(domain, from, end);
+            if (dot < 0 || indexOfDot(domain, dot + 1, end) < 0) return;
+            from = dot + 1;
+        }
+    }
+
+    private void raiseAlert(Feed feed, String indicatorType, String indicator, LogEntry logEntry,
+                            long now, AlertEmitter emitter) {
+        String key = feed.name() + '|' + indicator;
+        // Checked and claimed in one step, so parallel ingest workers matching the same indicator
+        // raise it once
+        boolean[] due = new boolean[1];
+        emitter.cooldowns().compute(key, (k, previous) -> {
+            if (previous != null && now - previous < alertCooldownMillis) return previous;
+            due[0] = true;
+            return now;
+        });
+        if (!due[0]) return;
+
+        Alert alert = Alert.builder()
+                .alertType("IOC_MATCH")
+                .description(indicatorType + " " + indicator + " matched threat feed '" + feed.name()
+                        + "' (source: " + logEntry.getSource() + ")")
+                .severity("HIGH")
+                .sourceIp(logEntry.getIp())
+                .timestamp(Instant.ofEpochMilli(now))
+                .resolved(false)
+                .build();
+        emitter.sink().accept(alert);
+    }
+
+    private Feed loadFeed(Path file) throws IOException {
+        long[] ips = new long[1024];
+        long[] domains = new long[1024];
+        int ipCount = 0;
+        int domainCount = 0;
+        long[] ipv6 = new long[2];
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String indicator = parseIndicator(line);
+                if (indicator == null) continue;
+
+                long v4 = IpKeys.parseIpv4(indicator);
+                if (v4 >= 0 || IpKeys.parseIpv6(indicator, ipv6)) {
+                    if (ipCount == ips.length) ips = Arrays.copyOf(ips, ipCount * 2);
+                    ips[ipCount++] = v4 >= 0 ? v4 : ipv6Key(ipv6);
+                } else if (indicator.indexOf('.') > 0) {
+                    if (domainCount == domains.length) domains = Arrays.copyOf(domains, domainCount * 2);
+                    domains[domainCount++] = IndicatorSet.domainKey(indicator, 0, indicator.length());
+                }
+            }
+        }
+
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return new Feed(dot > 0 ? name.substring(0, dot) : name,
+                IndicatorSet.of(ips, ipCount, falsePositiveRate),
+                IndicatorSet.of(domains, domainCount, falsePositiveRate),
+                Instant.now());
+    }
+
+    // Accepts "1.2.3.4", "evil.example", "0.0.0.0 evil.example" (hosts files) and URLs
+    private static String parseIndicator(String line) {
+        int comment = line.indexOf('#');
+        String trimmed = (comment >= 0 ? line.substring(0, comment) : line).trim();
+        if (trimmed.isEmpty()) return null;
+
+        String[] tokens = trimmed.split("[\\s,;]+");
+        String token = tokens[0];
+        if (tokens.length > 1 && (token.equals("0.0.0.0") || token.equals("127.0.0.1"))) {
+            token = tokens[1];
+        }
+
+        int scheme = token.indexOf("://");
+        if (scheme >= 0) {
+            token = token.substring(scheme + 3);
+            int pathStart = indexOfAny(token, '/', '?', ':');
+            if (pathStart >= 0) token = token.substring(0, pathStart);
+        }
+        if (token.startsWith("*.")) token = token.substring(2);
+        if (token.endsWith(".")) token = token.substring(0, token.length() - 1);
+        return token.isEmpty() ? null : token;
+    }
+
+    private static int indexOfAny(String value, char a, char b, char c) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == a || ch == b || ch == c) return i;
+        }
+        return -1;
+    }
+
+    private long ipKey(String ip) {
+        if (ip == null || ip.isEmpty()) return -1;
+        long v4 = IpKeys.parseIpv4(ip);
+        if (v4 >= 0) return v4;
+        long[] buffer = ipv6Buffer.get();
+        return IpKeys.parseIpv6(ip, buffer) ? ipv6Key(buffer) : -1;
+    }
+
+    // Top bit set keeps IPv6 keys apart from IPv4 values, which never exceed 32 bits
+    private static long ipv6Key(long[] address) {
+        long hash = address[0] * 0x9E3779B97F4A7C15L + address[1];
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash | IpKeys.NON_IPV4_FLAG;
+    }
+
+    private static int indexOfDot(String text, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (text.charAt(i) == '.') return i;
+        }
+        return -1;
+    }
+
+    private String fingerprint() {
+        if (!Files.isDirectory(feedDirectory)) return "";
+        try (Stream<Path> files = Files.list(feedDirectory)) {
+            StringBuilder fingerprint = new StringBuilder();
+            for (Path file : files.sorted().toList()) {
+                fingerprint.append(file.getFileName()).append(':')
+                        .append(Files.getLastModifiedTime(file).toMillis()).append(':')
+                        .append(Files.size(file)).append(';');
+            }
+            return fingerprint.toString();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+}
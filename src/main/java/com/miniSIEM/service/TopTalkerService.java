@@ -0,0 +1,86 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.dto.TopTalker;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.util.SlidingTopK;
+import com.miniSIEM.util.SpaceSaving;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the heaviest-talking IPs per category at ingest time using fixed-memory
+ * Space-Saving summaries, so top-N queries never have to scan or group raw logs.
+ */
+@Service
+@Slf4j
+public class TopTalkerService implements LogIngestListener {
+
+    public enum Category {
+        ALL, ERROR, FAILED_LOGIN
+    }
+
+    private final Map<Category, SlidingTopK> trackers = new EnumMap<>(Category.class);
+
+    public TopTalkerService(@Value("${app.top-talkers.capacity:200}") int capacity,
+                            @Value("${app.top-talkers.bucket-minutes:5}") int bucketMinutes,
+                            @Value("${app.top-talkers.retention-hours:24}") int retentionHours) {
+        int buckets = (int) Math.max(1, Duration.ofHours(retentionHours).toMinutes() / bucketMinutes);
+        for (Category category : Category.values()) {
+            trackers.put(category, new SlidingTopK(capacity, Duration.ofMinutes(bucketMinutes), buckets));
+        }
+        log.info("Top talker tracking enabled: {} counters x {} buckets of {} min per category",
+                capacity, buckets, bucketMinutes);
+    }
+
+    @Override
+    public void onLogIngested(LogEntry logEntry) {
+        String ip = logEntry.getIp();
+        if (ip == null || ip.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        trackers.get(Category.ALL).record(ip, now);
+
+        if ("ERROR".equalsIgnoreCase(logEntry.getLogLevel())) {
+            trackers.get(Category.ERROR).record(ip, now);
+        }
+        if (BruteForceDetector.isFailedLogin(logEntry)) {
+            trackers.get(Category.FAILED_LOGIN).record(ip, now);
+        }
+    }
+
+    public List<TopTalker> getTopTalkers(Category category, Duration window, int limit) {
+        SpaceSaving summary = trackers.get(category).query(window, System.currentTimeMillis());
+        long total = summary.getTotal();
+
+        return summary.top(limit).stream()
+                .map(entry -> TopTalker.builder()
+                        .ip(entry.key())
+                        .category(category.name())
+                        .count(entry.count())
+                        .error(entry.error())
+                        .percentage(total == 0 ? 0 : (entry.count() * 100.0) / total)
+                        .firstSeen(Instant.ofEpochMilli(entry.firstSeen()))
+                        .build())
+                .toList();
+    }
+
+    public Duration parseWindow(String window) {
+        Duration parsed = switch (window) {
+            case "5m" -> Duration.ofMinutes(5);
+            case "15m" -> Duration.ofMinutes(15);
+            case "1h" -> Duration.ofHours(1);
+            case "6h" -> Duration.ofHours(6);
+            case "24h" -> Duration.ofHours(24);
+            default -> throw new IllegalArgumentException("Unsupported window: " + window);
+        };
+        Duration retention = trackers.get(Category.ALL).getRetention();
+        return parsed.compareTo(retention) > 0 ? retention : parsed;
+    }
+}
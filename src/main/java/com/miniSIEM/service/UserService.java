@@ -2,8 +2,16 @@ package com.miniSIEM.service;
 
 import com.miniSIEM.model.User;
 import com.miniSIEM.repository.UserRepository;
+import com.miniSIEM.security.VerifiedTokenCache;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -11,8 +19,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +32,11 @@ public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final VerifiedTokenCache tokenCache;
+    private final MongoTemplate mongoTemplate;
+
+    // Latest login per user not yet written; repeat logins before a flush overwrite each other
+    private final Map<String, Instant> pendingLastLogins = new ConcurrentHashMap<>();
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -59,12 +75,30 @@ public class UserService implements UserDetailsService {
         return userRepository.findAll();
     }
 
+    // Recorded in memory and written behind by flushLastLogins, off the login request
     public void updateLastLogin(String username) {
-        userRepository.findByUsername(username)
-                .ifPresent(user -> {
-                    user.setLastLoginAt(Instant.now());
-                    userRepository.save(user);
-                });
+        pendingLastLogins.put(username, Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.last-login-flush-interval-ms:5000}")
+    @PreDestroy
+    public void flushLastLogins() {
+        if (pendingLastLogins.isEmpty()) return;
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        Map<String, Instant> written = new HashMap<>(pendingLastLogins);
+        for (Map.Entry<String, Instant> login : written.entrySet()) {
+            updates.updateOne(Query.query(Criteria.where("username").is(login.getKey())),
+                    Update.update("lastLoginAt", login.getValue()));
+        }
+        try {
+            updates.execute();
+        } catch (RuntimeException e) {
+            // Left pending, so the next flush retries them
+            log.warn("Could not record last login for {} users: {}", written.size(), e.getMessage());
+            return;
+        }
+        // Only what was written is taken, a newer login stays for the next flush
+        written.forEach(pendingLastLogins::remove);
     }
 
     public User updateUser(String id, User updatedUser) {
@@ -73,13 +107,19 @@ public class UserService implements UserDetailsService {
                     user.setEmail(updatedUser.getEmail());
                     user.setRoles(updatedUser.getRoles());
                     user.setEnabled(updatedUser.isEnabled());
-                    return userRepository.save(user);
+                    User saved = userRepository.save(user);
+                    // Requests authenticated from cache would otherwise keep the old roles
+                    tokenCache.invalidate(saved.getUsername());
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("User not found: " + id));
     }
 
     public void deleteUser(String id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            userRepository.deleteById(id);
+            tokenCache.invalidate(user.getUsername());
+        });
     }
 
     public boolean existsByUsername(String username) {
@@ -0,0 +1,171 @@
+package com.miniSIEM.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Case-insensitive Aho-Corasick automaton mapping keywords to up to 64 categories. One pass over
+ * the text returns the bitmask of every category whose keyword occurs anywhere in it, without
+ * allocating. ASCII input runs on a precomputed dense transition table; other characters fall
+ * back to sparse goto/fail lookups.
+ */
+public final class AhoCorasick {
+
+    private static final int ASCII = 128;
+
+    private final int[] asciiDelta;      // [state * ASCII + c] -> next state, failures already resolved
+    private final char[][] sparseChars;  // per state: sorted non-ASCII transition chars
+    private final int[][] sparseTargets;
+    private final int[] fail;
+    private final long[] output;         // category mask including everything reachable via fail links
+
+    private AhoCorasick(int[] asciiDelta, char[][] sparseChars, int[][] sparseTargets, int[] fail, long[] output) {
+        this.asciiDelta = asciiDelta;
+        this.sparseChars = sparseChars;
+        this.sparseTargets = sparseTargets;
+        this.fail = fail;
+        this.output = output;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long match(CharSequence text) {
+        if (text == null) return 0;
+        int state = 0;
+        long mask = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (c < ASCII) {
+                state = asciiDelta[state * ASCII + c];
+            } else {
+                state = sparseStep(state, c);
+            }
+            mask |= output[state];
+        }
+        return mask;
+    }
+
+    public int stateCount() {
+        return fail.length;
+    }
+
+    private int sparseStep(int state, char c) {
+        while (true) {
+            int next = sparseGoto(state, c);
+            if (next >= 0) return next;
+            if (state == 0) return 0;
+            state = fail[state];
+        }
+    }
+
+    private int sparseGoto(int state, char c) {
+        char[] chars = sparseChars[state];
+        if (chars == null) return -1;
+        int index = Arrays.binarySearch(chars, c);
+        return index >= 0 ? sparseTargets[state][index] : -1;
+    }
+
+    public static final class Builder {
+        private final List<TreeMap<Character, Integer>> transitions = new ArrayList<>();
+        private final List<Long> outputs = new ArrayList<>();
+
+        private Builder() {
+            newState();
+        }
+
+        public Builder add(String keyword, int category) {
+            if (category < 0 || category >= 64) {
+                throw new IllegalArgumentException("Category must be in [0, 64): " + category);
+            }
+            if (keyword == null || keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keyword must not be empty");
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = Character.toLowerCase(keyword.charAt(i));
+                Integer next = transitions.get(state).get(c);
+                if (next == null) {
+                    next = newState();
+                    transitions.get(state).put(c, next);
+                }
+                state = next;
+            }
+            outputs.set(state, outputs.get(state) | (1L << category));
+            return this;
+        }
+
+        public AhoCorasick build() {
+            int states = transitions.size();
+            int[] fail = new int[states];
+            long[] output = new long[states];
+            for (int i = 0; i < states; i++) {
+                output[i] = outputs.get(i);
+            }
+
+            // Breadth-first: a state's fail link always points to a shallower, already finished state
+            int[] order = new int[states];
+            int ordered = 0;
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int child : transitions.get(0).values()) {
+                fail[child] = 0;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                order[ordered++] = state;
+                output[state] |= output[fail[state]];
+                transitions.get(state).forEach((c, child) -> {
+                    int f = fail[state];
+                    while (f != 0 && !transitions.get(f).containsKey(c)) {
+                        f = fail[f];
+                    }
+                    Integer target = transitions.get(f).get(c);
+                    fail[child] = target != null && target != child ? target : 0;
+                    queue.add(child);
+                });
+            }
+
+            int[] asciiDelta = new int[states * ASCII];
+            for (int c = 0; c < ASCII; c++) {
+                Integer next = transitions.get(0).get((char) c);
+                asciiDelta[c] = next != null ? next : 0;
+            }
+            for (int i = 0; i < ordered; i++) {
+                int state = order[i];
+                for (int c = 0; c < ASCII; c++) {
+                    Integer next = transitions.get(state).get((char) c);
+                    asciiDelta[state * ASCII + c] = next != null ? next : asciiDelta[fail[state] * ASCII + c];
+                }
+            }
+
+            char[][] sparseChars = new char[states][];
+            int[][] sparseTargets = new int[states][];
+            for (int state = 0; state < states; state++) {
+                TreeMap<Character, Integer> nonAscii = new TreeMap<>(transitions.get(state).tailMap((char) ASCII));
+                if (nonAscii.isEmpty()) continue;
+                sparseChars[state] = new char[nonAscii.size()];
+                sparseTargets[state] = new int[nonAscii.size()];
+                int i = 0;
+                for (var entry : nonAscii.entrySet()) {
+                    sparseChars[state][i] = entry.getKey();
+                    sparseTargets[state][i] = entry.getValue();
+                    i++;
+                }
+            }
+
+            return new AhoCorasick(asciiDelta, sparseChars, sparseTargets, fail, output);
+        }
+
+        private int newState() {
+            transitions.add(new TreeMap<>());
+            outputs.add(0L);
+            return transitions.size() - 1;
+        }
+    }
+}
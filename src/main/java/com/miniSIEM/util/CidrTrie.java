@@ -0,0 +1,152 @@
+package com.miniSIEM.util;
+
+import java.util.Arrays;
+
+/**
+ * Immutable binary radix trie over 128-bit keys answering "is this address inside any of the
+ * prefixes". IPv4 addresses are stored left-aligned in the high word, so one trie per address
+ * family serves both. Nodes live in flat int arrays; the first 16 levels are collapsed into a
+ * direct-indexed table, so a lookup is one table read plus at most one array step per remaining
+ * prefix bit (16 for IPv4, 112 for IPv6) regardless of how many prefixes are loaded.
+ */
+public final class CidrTrie {
+
+    private static final int STRIDE = 16;
+    private static final int COVERED = -1;
+
+    private final int[] strideTable;  // top 16 bits -> node at depth 16, COVERED, or 0 = no match
+    private final int[] children;   // [node * 2 + bit] -> child node, 0 = none (root is never a child)
+    private final long[] terminal;  // bitset of nodes that end a prefix
+    private final int nodeCount;
+    private final int prefixCount;
+
+    private CidrTrie(int[] children, long[] terminal, int nodeCount, int prefixCount) {
+        this.children = children;
+        this.terminal = terminal;
+        this.nodeCount = nodeCount;
+        this.prefixCount = prefixCount;
+        this.strideTable = new int[1 << STRIDE];
+        fillStride(0, 0, 0);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean containsIpv4(long address) {
+        return contains((address & 0xFFFFFFFFL) << 32, 0, 32);
+    }
+
+    public boolean containsIpv6(long high, long low) {
+        return contains(high, low, 128);
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int prefixCount() {
+        return prefixCount;
+    }
+
+    private boolean contains(long high, long low, int bits) {
+        int node = strideTable[(int) (high >>> (64 - STRIDE))];
+        if (node == COVERED) return true;
+        if (node == 0) return false;
+        for (int depth = STRIDE; ; depth++) {
+            if (isTerminal(node)) return true;
+            if (depth == bits) return false;
+            node = children[(node << 1) | bit(high, low, depth)];
+            if (node == 0) return false;
+        }
+    }
+
+    private boolean isTerminal(int node) {
+        return (terminal[node >>> 6] & (1L << node)) != 0;
+    }
+
+    private void fillStride(int node, int depth, int prefix) {
+        if (isTerminal(node)) {
+            int span = 1 << (STRIDE - depth);
+            Arrays.fill(strideTable, prefix * span, prefix * span + span, COVERED);
+        } else if (depth == STRIDE) {
+            strideTable[prefix] = node;
+        } else {
+            for (int bit = 0; bit < 2; bit++) {
+                int child = children[(node << 1) | bit];
+                if (child != 0) {
+                    fillStride(child, depth + 1, (prefix << 1) | bit);
+                }
+            }
+        }
+    }
+
+    private static int bit(long high, long low, int depth) {
+        return depth < 64
+                ? (int) (high >>> (63 - depth)) & 1
+                : (int) (low >>> (127 - depth)) & 1;
+    }
+
+    public static final class Builder {
+        private int[] children = new int[256];
+        private long[] terminal = new long[2];
+        private int nodeCount = 1;
+        private int prefixCount;
+
+        private Builder() {
+        }
+
+        public Builder addIpv4(long address, int prefixLength) {
+            if (prefixLength < 0 || prefixLength > 32) {
+                throw new IllegalArgumentException("IPv4 prefix length must be in [0, 32]: " + prefixLength);
+            }
+            return add((address & 0xFFFFFFFFL) << 32, 0, prefixLength);
+        }
+
+        public Builder addIpv6(long high, long low, int prefixLength) {
+            if (prefixLength < 0 || prefixLength > 128) {
+                throw new IllegalArgumentException("IPv6 prefix length must be in [0, 128]: " + prefixLength);
+            }
+            return add(high, low, prefixLength);
+        }
+
+        public CidrTrie build() {
+            return new CidrTrie(Arrays.copyOf(children, nodeCount * 2),
+                    Arrays.copyOf(terminal, (nodeCount + 63) >>> 6), nodeCount, prefixCount);
+        }
+
+        private Builder add(long high, long low, int prefixLength) {
+            int node = 0;
+            for (int depth = 0; depth < prefixLength; depth++) {
+                // Already covered by a shorter prefix, nothing below it can change a lookup
+                if (isTerminal(node)) return this;
+                int slot = (node << 1) | bit(high, low, depth);
+                if (children[slot] == 0) {
+                    int child = newNode(); // may grow the array, so not inlined into the store
+                    children[slot] = child;
+                }
+                node = children[slot];
+            }
+            if (!isTerminal(node)) {
+                terminal[node >>> 6] |= 1L << node;
+                prefixCount++;
+            }
+            return this;
+        }
+
+        private boolean isTerminal(int node) {
+            return (terminal[node >>> 6] & (1L << node)) != 0;
+        }
+
+        private int newNode() {
+            int node = nodeCount++;
+            if (node * 2 + 1 >= children.length) {
+                children = Arrays.copyOf(children, children.length * 2);
+            }
+            if ((node >>> 6) >= terminal.length) {
+                terminal = Arrays.copyOf(terminal, terminal.length * 2);
+            }
+            return node;
+        }
+    }
+}
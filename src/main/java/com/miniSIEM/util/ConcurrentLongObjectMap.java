@@ -0,0 +1,194 @@
+package com.miniSIEM.util;
+
+import java.util.function.BiConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * Concurrent map from primitive {@code long} keys to objects, so hot-path lookups never box keys.
+ * The key space is split across lock stripes; each stripe is an open-addressing table with
+ * linear probing and backward-shift deletion (no tombstones).
+ */
+public class ConcurrentLongObjectMap<V> {
+
+    private static final class Stripe<V> {
+        long[] keys;
+        Object[] values;
+        int size;
+
+        Stripe(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+    }
+
+    private final Stripe<V>[] stripes;
+    private final int stripeMask;
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongObjectMap(int concurrencyLevel) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1)) << 1;
+        this.stripes = (Stripe<V>[]) new Stripe<?>[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>(16);
+        }
+    }
+
+    public V get(long key) {
+        Stripe<V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            int index = find(stripe, key);
+            return index < 0 ? null : value(stripe, index);
+        }
+    }
+
+    public V computeIfAbsent(long key, LongFunction<V> factory) {
+        Stripe<V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            int index = find(stripe, key);
+            if (index >= 0) {
+                return value(stripe, index);
+            }
+            V value = factory.apply(key);
+            insert(stripe, key, value);
+            return value;
+        }
+    }
+
+    public boolean remove(long key, V expected) {
+        Stripe<V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            int index = find(stripe, key);
+            if (index < 0 || stripe.values[index] != expected) {
+                return false;
+            }
+            delete(stripe, index);
+            return true;
+        }
+    }
+
+    public V remove(long key) {
+        Stripe<V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            int index = find(stripe, key);
+            if (index < 0) return null;
+            V value = value(stripe, index);
+            delete(stripe, index);
+            return value;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.keys = new long[16];
+                stripe.values = new Object[16];
+                stripe.size = 0;
+            }
+        }
+    }
+
+    // Visits a point-in-time copy of each stripe so the callback may call back into the map
+    public void forEach(BiConsumer<Long, V> action) {
+        for (Stripe<V> stripe : stripes) {
+            long[] keys;
+            Object[] values;
+            synchronized (stripe) {
+                keys = stripe.keys.clone();
+                values = stripe.values.clone();
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    action.accept(keys[i], cast(values[i]));
+                }
+            }
+        }
+    }
+
+    private Stripe<V> stripeFor(long key) {
+        return stripes[(int) (mix(key) >>> 40) & stripeMask];
+    }
+
+    private static int find(Stripe<?> stripe, long key) {
+        int mask = stripe.keys.length - 1;
+        int index = (int) mix(key) & mask;
+        while (stripe.values[index] != null) {
+            if (stripe.keys[index] == key) return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static void insert(Stripe<?> stripe, long key, Object value) {
+        if ((stripe.size + 1) * 4 > stripe.keys.length * 3) {
+            resize(stripe);
+        }
+        int mask = stripe.keys.length - 1;
+        int index = (int) mix(key) & mask;
+        while (stripe.values[index] != null) {
+            index = (index + 1) & mask;
+        }
+        stripe.keys[index] = key;
+        stripe.values[index] = value;
+        stripe.size++;
+    }
+
+    private static void delete(Stripe<?> stripe, int index) {
+        int mask = stripe.keys.length - 1;
+        stripe.values[index] = null;
+        stripe.size--;
+
+        // Shift back following entries of the probe run so lookups never hit a false gap
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (stripe.values[next] != null) {
+            int home = (int) mix(stripe.keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                stripe.keys[gap] = stripe.keys[next];
+                stripe.values[gap] = stripe.values[next];
+                stripe.values[next] = null;
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private static void resize(Stripe<?> stripe) {
+        long[] oldKeys = stripe.keys;
+        Object[] oldValues = stripe.values;
+        stripe.keys = new long[oldKeys.length * 2];
+        stripe.values = new Object[oldValues.length * 2];
+        stripe.size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                insert(stripe, oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private V value(Stripe<V> stripe, int index) {
+        return cast(stripe.values[index]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V cast(Object value) {
+        return (V) value;
+    }
+}
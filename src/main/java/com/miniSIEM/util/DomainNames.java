@@ -0,0 +1,54 @@
+package com.miniSIEM.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds domain names in free text: runs of letters, digits, hyphens and dots, trimmed of
+ * surrounding punctuation, with at least one dot and a last label of two or more letters, which
+ * rules out IPs and version numbers.
+ */
+public final class DomainNames {
+
+    private DomainNames() {
+    }
+
+    // Lowercased, in order of appearance; an empty list when there are none
+    public static List<String> find(String text) {
+        if (text == null) return List.of();
+        List<String> names = null;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (!isDomainChar(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && isDomainChar(text.charAt(i))) i++;
+            int end = i;
+
+            // Trim sentence punctuation and hyphens around the token
+            while (start < end && !Character.isLetterOrDigit(text.charAt(start))) start++;
+            while (end > start && !Character.isLetterOrDigit(text.charAt(end - 1))) end--;
+            if (!hasAlphabeticTld(text, start, end)) continue;
+
+            if (names == null) names = new ArrayList<>(2);
+            names.add(text.substring(start, end).toLowerCase());
+        }
+        return names != null ? names : List.of();
+    }
+
+    private static boolean isDomainChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '.';
+    }
+
+    private static boolean hasAlphabeticTld(String text, int start, int end) {
+        int lastDot = text.lastIndexOf('.', end - 1);
+        if (lastDot <= start || end - lastDot - 1 < 2) return false;
+        for (int i = lastDot + 1; i < end; i++) {
+            if (!Character.isLetter(text.charAt(i))) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,214 @@
+package com.miniSIEM.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only IPv4 to country/ASN database, memory-mapped from a compact binary file so lookups
+ * touch no heap beyond the strings they return and the OS page cache is shared between restarts.
+ * The file holds sorted, non-overlapping ranges of fixed 16-byte records (start, end, country,
+ * ASN index) followed by an ASN table and a UTF-8 blob of organisation names; a lookup is a
+ * binary search over the range starts.
+ *
+ * <p>The binary file is produced by {@link #compile} from the tab-separated format published by
+ * iptoasn.com ({@code range_start range_end AS_number country_code AS_description}).
+ */
+public final class GeoIpDatabase {
+
+    private static final int MAGIC = 0x47454F31; // "GEO1"
+    private static final int HEADER_BYTES = 16;
+    private static final int RANGE_BYTES = 16;
+    private static final int ASN_BYTES = 12;
+
+    private final ByteBuffer buffer;
+    private final int rangeCount;
+    private final int asnTableOffset;
+    private final int namesOffset;
+
+    private GeoIpDatabase(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a GeoIP database file");
+        }
+        this.buffer = buffer;
+        this.rangeCount = buffer.getInt(4);
+        int asnCount = buffer.getInt(8);
+        int namesLength = buffer.getInt(12);
+        this.asnTableOffset = HEADER_BYTES + rangeCount * RANGE_BYTES;
+        this.namesOffset = asnTableOffset + asnCount * ASN_BYTES;
+        if (rangeCount < 0 || asnCount < 0 || (long) namesOffset + namesLength != buffer.capacity()) {
+            throw new IllegalArgumentException("Truncated or corrupt GeoIP database file");
+        }
+    }
+
+    public static GeoIpDatabase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new GeoIpDatabase(mapped);
+        }
+    }
+
+    /**
+     * @return the index of the range containing the address, or -1 if it is in none
+     */
+    public int find(long ipv4) {
+        int low = 0;
+        int high = rangeCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (rangeStart(mid) <= ipv4) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        // high is now the last range starting at or before the address
+        if (high < 0 || ipv4 > Integer.toUnsignedLong(buffer.getInt(rangeOffset(high) + 4))) return -1;
+        return high;
+    }
+
+    /**
+     * @return the ISO 3166 alpha-2 country code of the range, or null if unknown
+     */
+    public String country(int range) {
+        int offset = rangeOffset(range) + 8;
+        char first = (char) buffer.get(offset);
+        char second = (char) buffer.get(offset + 1);
+        return first == 0 ? null : new String(new char[]{first, second});
+    }
+
+    public long asn(int range) {
+        int asnIndex = buffer.getInt(rangeOffset(range) + 12);
+        return asnIndex < 0 ? 0 : Integer.toUnsignedLong(buffer.getInt(asnTableOffset + asnIndex * ASN_BYTES));
+    }
+
+    public String asOrg(int range) {
+        int asnIndex = buffer.getInt(rangeOffset(range) + 12);
+        if (asnIndex < 0) return null;
+        int entry = asnTableOffset + asnIndex * ASN_BYTES;
+        int length = buffer.getInt(entry + 8);
+        if (length == 0) return null;
+        byte[] name = new byte[length];
+        buffer.get(namesOffset + buffer.getInt(entry + 4), name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    public int rangeCount() {
+        return rangeCount;
+    }
+
+    public long sizeInBytes() {
+        return buffer.capacity();
+    }
+
+    private long rangeStart(int range) {
+        return Integer.toUnsignedLong(buffer.getInt(rangeOffset(range)));
+    }
+
+    private static int rangeOffset(int range) {
+        return HEADER_BYTES + range * RANGE_BYTES;
+    }
+
+    private record Range(long start, long end, String country, int asnIndex) {
+    }
+
+    /**
+     * Converts an iptoasn-style TSV file into the binary format, written beside the target and
+     * moved into place so a running reader never maps a half-written file. IPv6 lines and
+     * unrouted ranges (AS 0) are skipped; where ranges overlap the earlier-starting one is cut short.
+     *
+     * @return the number of ranges written
+     */
+    public static int compile(Path source, Path target) throws IOException {
+        List<Range> ranges = new ArrayList<>();
+        Map<Long, Integer> asnIndexes = new HashMap<>();
+        List<Long> asns = new ArrayList<>();
+        List<byte[]> names = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] columns = line.split("\t", 5);
+                if (columns.length < 4) continue;
+
+                long start = IpKeys.parseIpv4(columns[0].trim());
+                long end = IpKeys.parseIpv4(columns[1].trim());
+                if (start < 0 || end < start) continue;
+                long asn;
+                try {
+                    asn = Long.parseLong(columns[2].trim());
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (asn <= 0 || asn > 0xFFFFFFFFL) continue;
+
+                Integer asnIndex = asnIndexes.get(asn);
+                if (asnIndex == null) {
+                    asnIndex = asns.size();
+                    asnIndexes.put(asn, asnIndex);
+                    asns.add(asn);
+                    String name = columns.length > 4 ? columns[4].trim() : "";
+                    names.add(name.getBytes(StandardCharsets.UTF_8));
+                }
+                String country = columns[3].trim();
+                ranges.add(new Range(start, end, country.length() == 2 ? country.toUpperCase() : null, asnIndex));
+            }
+        }
+
+        ranges.sort(Comparator.comparingLong(Range::start));
+        int namesLength = names.stream().mapToInt(name -> name.length).sum();
+        long size = HEADER_BYTES + (long) ranges.size() * RANGE_BYTES + (long) asns.size() * ASN_BYTES + namesLength;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("GeoIP database would exceed 2 GB: " + source);
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) size);
+        out.putInt(MAGIC).putInt(0).putInt(asns.size()).putInt(namesLength);
+        int written = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            Range range = ranges.get(i);
+            long end = range.end();
+            if (i + 1 < ranges.size()) end = Math.min(end, ranges.get(i + 1).start() - 1);
+            if (end < range.start()) continue;
+            out.putInt((int) range.start()).putInt((int) end);
+            String country = range.country();
+            out.put(country == null ? 0 : (byte) country.charAt(0));
+            out.put(country == null ? 0 : (byte) country.charAt(1));
+            out.putShort((short) 0);
+            out.putInt(range.asnIndex());
+            written++;
+        }
+        int nameOffset = 0;
+        for (int i = 0; i < asns.size(); i++) {
+            out.putInt((int) (long) asns.get(i)).putInt(nameOffset).putInt(names.get(i).length);
+            nameOffset += names.get(i).length;
+        }
+        for (byte[] name : names) {
+            out.put(name);
+        }
+        out.putInt(4, written);
+
+        // Ranges dropped as fully overlapped leave the end of the buffer unused
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temp)) {
+            stream.write(out.array(), 0, out.position());
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+}
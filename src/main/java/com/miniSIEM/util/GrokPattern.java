@@ -0,0 +1,98 @@
+package com.miniSIEM.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Grok-style pattern: a regex in which {@code %{NAME}} splices in a named definition and
+ * {@code %{NAME:field}} additionally captures the matched text as {@code field}. Definitions may
+ * reference each other. The expansion is compiled once into a single {@link Pattern}; captures use
+ * generated group names, so field names are free to contain characters Java group names cannot.
+ */
+public final class GrokPattern {
+
+    private static final Pattern REFERENCE = Pattern.compile("%\\{([A-Za-z0-9_]+)(?::([A-Za-z0-9_]+))?}");
+    private static final int MAX_DEPTH = 16;
+
+    private final String source;
+    private final Pattern regex;
+    private final String[] fieldNames;
+    private final String[] groupNames;
+
+    private GrokPattern(String source, Pattern regex, String[] fieldNames) {
+        this.source = source;
+        this.regex = regex;
+        this.fieldNames = fieldNames;
+        this.groupNames = new String[fieldNames.length];
+        for (int i = 0; i < fieldNames.length; i++) {
+            groupNames[i] = groupName(i);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the pattern references an unknown or recursive definition,
+     *                                  or the expansion is not a valid regex
+     */
+    public static GrokPattern compile(String pattern, Map<String, String> definitions) {
+        List<String> fields = new ArrayList<>();
+        String expanded = expand(pattern, definitions, fields, 0);
+        return new GrokPattern(pattern, Pattern.compile(expanded), fields.toArray(new String[0]));
+    }
+
+    /**
+     * Finds the pattern anywhere in the input and puts every captured field into {@code into}.
+     *
+     * @return false, leaving {@code into} untouched, if the pattern does not match
+     */
+    public boolean extract(CharSequence input, Map<String, String> into) {
+        Matcher matcher = regex.matcher(input);
+        if (!matcher.find()) return false;
+        for (int i = 0; i < fieldNames.length; i++) {
+            String value = matcher.group(groupNames[i]);
+            if (value != null) into.put(fieldNames[i], value);
+        }
+        return true;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public List<String> getFieldNames() {
+        return List.of(fieldNames);
+    }
+
+    private static String expand(String pattern, Map<String, String> definitions, List<String> fields, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Pattern definitions nest too deeply or reference themselves: " + pattern);
+        }
+        Matcher reference = REFERENCE.matcher(pattern);
+        StringBuilder expanded = new StringBuilder();
+        while (reference.find()) {
+            String name = reference.group(1);
+            String definition = definitions.get(name);
+            if (definition == null) {
+                throw new IllegalArgumentException("Unknown pattern definition: " + name);
+            }
+            String inner = expand(definition, definitions, fields, depth + 1);
+            String field = reference.group(2);
+            String replacement;
+            if (field != null) {
+                replacement = "(?<" + groupName(fields.size()) + ">" + inner + ")";
+                fields.add(field);
+            } else {
+                replacement = "(?:" + inner + ")";
+            }
+            reference.appendReplacement(expanded, Matcher.quoteReplacement(replacement));
+        }
+        reference.appendTail(expanded);
+        return expanded.toString();
+    }
+
+    private static String groupName(int index) {
+        return "f" + index;
+    }
+}
@@ -0,0 +1,140 @@
+package com.miniSIEM.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel of primitive {@code long} keys (Varghese and Lauck). The innermost
+ * wheel has one slot per tick; each outer wheel's slot spans a full rotation of the wheel inside
+ * it and is cascaded inward when that rotation starts. Scheduling is O(1), every entry is moved
+ * at most once per level, and {@link #advance} only touches slots that are due, so it stays
+ * cheap with millions of pending keys and deadlines spread from seconds to days.
+ * A key fires on the first {@link #advance} past the end of the tick holding its deadline, so at
+ * most one tick late. Expired keys are not deduplicated: callers re-check their own state when a key fires.
+ */
+public class HierarchicalTimingWheel {
+
+    private static final int INNER_BITS = 8;   // 256 ticks
+    private static final int OUTER_BITS = 6;   // 64 slots per outer level
+    private static final int LEVELS = 4;       // 256 * 64^3 ticks in total
+
+    private static final class Slot {
+        long[] keys = new long[4];
+        long[] deadlines = new long[4];
+        int size;
+
+        void add(long key, long deadline) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                deadlines = Arrays.copyOf(deadlines, size * 2);
+            }
+            keys[size] = key;
+            deadlines[size] = deadline;
+            size++;
+        }
+    }
+
+    private final long tickMillis;
+    private final Slot[][] levels = new Slot[LEVELS][];
+    private final long horizonTicks;
+    private long currentTick;   // next tick to be processed
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            int slots = 1 << (level == 0 ? INNER_BITS : OUTER_BITS);
+            levels[level] = new Slot[slots];
+            for (int i = 0; i < slots; i++) {
+                levels[level][i] = new Slot();
+            }
+        }
+        this.horizonTicks = 1L << (INNER_BITS + OUTER_BITS * (LEVELS - 1));
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public synchronized void schedule(long key, long deadlineMillis) {
+        place(key, deadlineMillis);
+        size++;
+    }
+
+    public void advance(long nowMillis, LongConsumer onExpired) {
+        long targetTick = nowMillis / tickMillis;
+        long[] due = new long[16];
+        int dueCount = 0;
+
+        synchronized (this) {
+            for (; currentTick <= targetTick; currentTick++) {
+                cascade(currentTick);
+
+                Slot slot = levels[0][(int) (currentTick & ((1 << INNER_BITS) - 1))];
+                int kept = 0;
+                for (int i = 0; i < slot.size; i++) {
+                    if (slot.deadlines[i] <= nowMillis) {
+                        if (dueCount == due.length) {
+                            due = Arrays.copyOf(due, dueCount * 2);
+                        }
+                        due[dueCount++] = slot.keys[i];
+                    } else {
+                        slot.keys[kept] = slot.keys[i];
+                        slot.deadlines[kept] = slot.deadlines[i];
+                        kept++;
+                    }
+                }
+                size -= slot.size - kept;
+                slot.size = kept;
+            }
+        }
+
+        // Callbacks run outside the wheel lock so they can reschedule
+        for (int i = 0; i < dueCount; i++) {
+            onExpired.accept(due[i]);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // When a wheel completes a rotation, the next slot of the wheel outside it is redistributed inward
+    private void cascade(long tick) {
+        int outermost = 0;
+        while (outermost < LEVELS - 1 && (tick & ((1L << levelShift(outermost + 1)) - 1)) == 0) {
+            outermost++;
+        }
+        // Outermost first, so entries it hands down land in inner slots that are cascaded right after
+        for (int level = outermost; level >= 1; level--) {
+            Slot slot = levels[level][(int) ((tick >>> levelShift(level)) & ((1 << OUTER_BITS) - 1))];
+            int count = slot.size;
+            long[] keys = slot.keys;
+            long[] deadlines = slot.deadlines;
+            slot.keys = new long[4];
+            slot.deadlines = new long[4];
+            slot.size = 0;
+            for (int i = 0; i < count; i++) {
+                place(keys[i], deadlines[i]);
+            }
+        }
+    }
+
+    // Ticks spanned by one slot of the given level, as a power of two
+    private static int levelShift(int level) {
+        return level == 0 ? 0 : INNER_BITS + OUTER_BITS * (level - 1);
+    }
+
+    private void place(long key, long deadlineMillis) {
+        // First tick starting at or after the deadline, so the key is due whenever its slot is swept
+        long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick);
+        long delta = Math.min(tick - currentTick, horizonTicks - 1);
+        if (delta != tick - currentTick) {
+            tick = currentTick + delta; // beyond the horizon: parked at the edge, re-placed on cascade
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << levelShift(level + 1))) {
+            level++;
+        }
+        int mask = (1 << (level == 0 ? INNER_BITS : OUTER_BITS)) - 1;
+        levels[level][(int) ((tick >>> levelShift(level)) & mask)].add(key, deadlineMillis);
+    }
+}
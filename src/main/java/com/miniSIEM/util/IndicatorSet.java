@@ -0,0 +1,98 @@
+package com.miniSIEM.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Immutable set of 64-bit indicator keys held entirely off-heap: an {@link OffHeapBloomFilter}
+ * rejects almost every miss without touching the key array, and hits are confirmed by binary
+ * search over the sorted, de-duplicated keys. Costs about 8 bytes per key plus the filter
+ * (~1.8 bytes per key at a 0.1% false-positive rate).
+ */
+public final class IndicatorSet {
+
+    private static final IndicatorSet EMPTY = of(new long[0], 0, 0.01);
+
+    private final OffHeapBloomFilter bloom;
+    private final LongBuffer sortedKeys;
+    private final int size;
+
+    private IndicatorSet(OffHeapBloomFilter bloom, LongBuffer sortedKeys, int size) {
+        this.bloom = bloom;
+        this.sortedKeys = sortedKeys;
+        this.size = size;
+    }
+
+    public static IndicatorSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a set from the first {@code count} entries of {@code keys}; the array is sorted in place.
+     */
+    public static IndicatorSet of(long[] keys, int count, double falsePositiveRate) {
+        Arrays.parallelSort(keys, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[unique++] = keys[i];
+            }
+        }
+
+        OffHeapBloomFilter bloom = new OffHeapBloomFilter(unique, falsePositiveRate);
+        LongBuffer sorted = ByteBuffer.allocateDirect(Math.max(1, unique) * Long.BYTES)
+                .order(ByteOrder.nativeOrder()).asLongBuffer();
+        for (int i = 0; i < unique; i++) {
+            bloom.put(keys[i]);
+            sorted.put(i, keys[i]);
+        }
+        return new IndicatorSet(bloom, sorted, unique);
+    }
+
+    public boolean contains(long key) {
+        if (size == 0 || !bloom.mightContain(key)) return false;
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = sortedKeys.get(mid);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long offHeapBytes() {
+        return bloom.sizeInBytes() + (long) Math.max(1, size) * Long.BYTES;
+    }
+
+    /**
+     * 64-bit key of a domain name region, ASCII case-insensitive, so callers can look up
+     * substrings of a message without allocating. At a few million domains the chance of any
+     * key collision is below one in a million.
+     */
+    public static long domainKey(CharSequence text, int start, int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+            hash ^= c;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
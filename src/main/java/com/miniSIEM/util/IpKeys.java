@@ -0,0 +1,160 @@
+package com.miniSIEM.util;
+
+/**
+ * Maps IP strings to primitive keys without regex or intermediate allocations.
+ * IPv4 addresses become their unsigned 32-bit value; anything else (IPv6, hostnames)
+ * gets a 64-bit hash with the top bit set so it can never collide with an IPv4 key.
+ */
+public final class IpKeys {
+
+    public static final long NON_IPV4_FLAG = 1L << 63;
+
+    private IpKeys() {
+    }
+
+    public static long toKey(String ip) {
+        long ipv4 = parseIpv4(ip);
+        return ipv4 >= 0 ? ipv4 : hash64(ip) | NON_IPV4_FLAG;
+    }
+
+    public static boolean isIpv4Key(long key) {
+        return (key & NON_IPV4_FLAG) == 0;
+    }
+
+    /**
+     * @return the address as an unsigned 32-bit value, or -1 if {@code ip} is not a dotted-quad IPv4 address
+     */
+    public static long parseIpv4(String ip) {
+        if (ip == null) return -1;
+        return parseIpv4(ip, 0, ip.length());
+    }
+
+    private static long parseIpv4(String ip, int from, int to) {
+        int length = to - from;
+        if (length < 7 || length > 15) return -1;
+
+        long result = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+        for (int i = from; i < to; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) return -1;
+            } else if (c == '.') {
+                if (digits == 0 || ++dots > 3) return -1;
+                result = (result << 8) | octet;
+                octet = 0;
+                digits = 0;
+            } else {
+                return -1;
+            }
+        }
+        if (dots != 3 || digits == 0) return -1;
+        return (result << 8) | octet;
+    }
+
+    /**
+     * Parses an IPv6 address (with optional {@code ::} compression and dotted IPv4 tail) into two
+     * 64-bit halves stored in {@code out[0]} (high) and {@code out[1]} (low).
+     *
+     * @return false if {@code ip} is not a valid IPv6 address; {@code out} is then unspecified
+     */
+    public static boolean parseIpv6(String ip, long[] out) {
+        if (ip == null) return false;
+        int length = ip.length();
+        if (length < 2 || length > 45) return false;
+
+        // Groups are written straight into out, so a lookup allocates nothing
+        out[0] = 0;
+        out[1] = 0;
+        int count = 0;
+        int compressAt = -1;
+        int i = 0;
+        if (ip.startsWith("::")) {
+            compressAt = 0;
+            i = 2;
+            if (i == length) return finishIpv6(out, count, compressAt);
+        }
+
+        while (i < length) {
+            int start = i;
+            int value = 0;
+            while (i < length && i - start < 5) {
+                int digit = Character.digit(ip.charAt(i), 16);
+                if (digit < 0) break;
+                value = (value << 4) | digit;
+                i++;
+            }
+            if (i < length && ip.charAt(i) == '.') {
+                // Embedded IPv4 in the last 32 bits, e.g. ::ffff:192.0.2.1
+                long ipv4 = parseIpv4(ip, start, length);
+                if (ipv4 < 0 || count > 6) return false;
+                setGroup(out, count++, (int) (ipv4 >>> 16));
+                setGroup(out, count++, (int) (ipv4 & 0xFFFF));
+                return finishIpv6(out, count, compressAt);
+            }
+            int digits = i - start;
+            if (digits == 0 || digits > 4 || count == 8) return false;
+            setGroup(out, count++, value);
+
+            if (i == length) break;
+            if (ip.charAt(i) != ':') return false;
+            i++;
+            if (i < length && ip.charAt(i) == ':') {
+                if (compressAt >= 0) return false;
+                compressAt = count;
+                i++;
+                if (i == length) break;
+            } else if (i == length) {
+                return false; // trailing single colon
+            }
+        }
+        return finishIpv6(out, count, compressAt);
+    }
+
+    // Moves the groups after "::" to the end and zeroes the gap
+    private static boolean finishIpv6(long[] out, int count, int compressAt) {
+        if (compressAt < 0 ? count != 8 : count > 7) return false;
+        if (compressAt >= 0) {
+            int zeros = 8 - count;
+            for (int g = count - 1; g >= compressAt; g--) {
+                setGroup(out, g + zeros, group(out, g));
+            }
+            for (int g = compressAt; g < compressAt + zeros; g++) {
+                setGroup(out, g, 0);
+            }
+        }
+        return true;
+    }
+
+    // Group g of 8 (16 bits each), most significant first: groups 0-3 in out[0], 4-7 in out[1]
+    private static int group(long[] out, int g) {
+        return (int) (out[g >> 2] >>> ((3 - (g & 3)) << 4)) & 0xFFFF;
+    }
+
+    private static void setGroup(long[] out, int g, int value) {
+        int shift = (3 - (g & 3)) << 4;
+        out[g >> 2] = (out[g >> 2] & ~(0xFFFFL << shift)) | ((long) value << shift);
+    }
+
+    public static String ipv4ToString(long key) {
+        return ((key >>> 24) & 0xFF) + "." + ((key >>> 16) & 0xFF) + "." + ((key >>> 8) & 0xFF) + "." + (key & 0xFF);
+    }
+
+    // FNV-1a over the chars, then a murmur3 finalizer to spread the bits
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,91 @@
+package com.miniSIEM.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache keyed by primitive longs, split into independently locked stripes so
+ * concurrent ingest threads rarely contend. Each stripe evicts its own least recently used entry,
+ * so recency is approximate across the whole cache. Null values are not allowed; callers cache
+ * negative results with a sentinel.
+ */
+public final class LongLruCache<V> {
+
+    private static final int STRIPES = 16;
+
+    private final Stripe<V>[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private static final class Stripe<V> extends LinkedHashMap<Long, V> {
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public LongLruCache(int capacity) {
+        int perStripe = Math.max(1, (capacity + STRIPES - 1) / STRIPES);
+        this.stripes = (Stripe<V>[]) new Stripe<?>[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>(perStripe);
+        }
+    }
+
+    public V get(long key) {
+        Stripe<V> stripe = stripe(key);
+        V value;
+        synchronized (stripe) {
+            value = stripe.get(key);
+        }
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    public void put(long key, V value) {
+        Stripe<V> stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+    }
+
+    public void clear() {
+        for (Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private Stripe<V> stripe(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (mixed >>> 60)];
+    }
+}
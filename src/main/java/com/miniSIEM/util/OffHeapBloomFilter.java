@@ -0,0 +1,75 @@
+package com.miniSIEM.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Bloom filter over 64-bit keys whose bit array lives in direct (off-heap) memory, so even
+ * filters for millions of keys add nothing for the garbage collector to trace or copy. Sized up
+ * front from the expected key count and false-positive rate; memory is fixed at construction.
+ * Writes are not thread-safe: populate it fully before publishing it to readers.
+ */
+public final class OffHeapBloomFilter {
+
+    private static final long MAX_BITS = (long) Integer.MAX_VALUE * Byte.SIZE;
+
+    private final LongBuffer bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public OffHeapBloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedKeys);
+        long optimalBits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        long words = Math.max(1, (optimalBits + 63) / 64);
+        if (words * 64 > MAX_BITS) {
+            throw new IllegalArgumentException("Bloom filter for " + expectedKeys + " keys exceeds 2 GB");
+        }
+        this.bitCount = words * 64;
+        this.hashCount = (int) Math.max(1, Math.min(16, Math.round((double) bitCount / n * Math.log(2))));
+        this.bits = ByteBuffer.allocateDirect((int) (words * Long.BYTES)).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    public void put(long key) {
+        long hash = mix(key);
+        long h1 = hash >>> 32;
+        long h2 = hash & 0xFFFFFFFFL;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            bits.put(word, bits.get(word) | (1L << bit));
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long hash = mix(key);
+        long h1 = hash >>> 32;
+        long h2 = hash & 0xFFFFFFFFL;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return bitCount / Byte.SIZE;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    // murmur3 finalizer: keys such as raw IPv4 values are far from uniformly distributed
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
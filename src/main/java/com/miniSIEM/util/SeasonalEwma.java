@@ -0,0 +1,83 @@
+package com.miniSIEM.util;
+
+/**
+ * Exponentially weighted mean and variance of a count series, kept both overall and per
+ * hour-of-week slot so a Monday-morning peak is compared with previous Monday mornings rather
+ * than with the weekend. Memory is fixed (168 slots) regardless of how long the series runs.
+ * Slots fall back to the overall estimate until they have seen enough samples of their own.
+ * Not thread-safe; callers synchronize.
+ */
+public final class SeasonalEwma {
+
+    public static final int SLOTS = 7 * 24;
+
+    private final double alpha;
+    private final double seasonalAlpha;
+    private final int seasonalWarmup;
+
+    private double mean;
+    private double variance;
+    private long samples;
+
+    private final double[] slotMean = new double[SLOTS];
+    private final double[] slotVariance = new double[SLOTS];
+    private final int[] slotSamples = new int[SLOTS];
+
+    public SeasonalEwma(double alpha, double seasonalAlpha, int seasonalWarmup) {
+        if (alpha <= 0 || alpha >= 1 || seasonalAlpha <= 0 || seasonalAlpha >= 1) {
+            throw new IllegalArgumentException("Smoothing factors must be in (0, 1)");
+        }
+        this.alpha = alpha;
+        this.seasonalAlpha = seasonalAlpha;
+        this.seasonalWarmup = seasonalWarmup;
+    }
+
+    public void update(double value, int slot) {
+        if (samples == 0) {
+            mean = value;
+        } else {
+            double diff = value - mean;
+            double increment = alpha * diff;
+            mean += increment;
+            variance = (1 - alpha) * (variance + diff * increment);
+        }
+        samples++;
+
+        if (slotSamples[slot] == 0) {
+            slotMean[slot] = value;
+            slotVariance[slot] = variance;
+        } else {
+            double diff = value - slotMean[slot];
+            double increment = seasonalAlpha * diff;
+            slotMean[slot] += increment;
+            slotVariance[slot] = (1 - seasonalAlpha) * (slotVariance[slot] + diff * increment);
+        }
+        if (slotSamples[slot] < Integer.MAX_VALUE) slotSamples[slot]++;
+    }
+
+    public double expectedMean(int slot) {
+        return isSeasonal(slot) ? slotMean[slot] : mean;
+    }
+
+    /**
+     * Standard deviation with a Poisson floor: event counts are never less noisy than sqrt(mean),
+     * which keeps near-constant series from turning every small wobble into a huge z-score.
+     */
+    public double expectedStdDev(int slot) {
+        double expected = expectedMean(slot);
+        double spread = Math.sqrt(isSeasonal(slot) ? slotVariance[slot] : variance);
+        return Math.max(spread, Math.sqrt(Math.max(expected, 1.0)));
+    }
+
+    public double zScore(double value, int slot) {
+        return (value - expectedMean(slot)) / expectedStdDev(slot);
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public boolean isSeasonal(int slot) {
+        return slotSamples[slot] >= seasonalWarmup;
+    }
+}
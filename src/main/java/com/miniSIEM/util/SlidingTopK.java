@@ -0,0 +1,68 @@
+package com.miniSIEM.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sliding-window heavy hitters: a ring of fixed-width time buckets, each holding its own
+ * {@link SpaceSaving} summary. Memory is bounded by {@code buckets * capacity} counters no matter
+ * how many distinct keys are seen; queries merge the buckets that fall inside the window.
+ */
+public class SlidingTopK {
+
+    private static final class Slot {
+        long epoch = -1;
+        final SpaceSaving summary;
+
+        Slot(int capacity) {
+            this.summary = new SpaceSaving(capacity);
+        }
+    }
+
+    private final int capacity;
+    private final long bucketMillis;
+    private final Slot[] ring;
+
+    public SlidingTopK(int capacity, Duration bucketWidth, int buckets) {
+        this.capacity = capacity;
+        this.bucketMillis = bucketWidth.toMillis();
+        this.ring = new Slot[buckets];
+        for (int i = 0; i < buckets; i++) {
+            ring[i] = new Slot(capacity);
+        }
+    }
+
+    public void record(String key, long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        Slot slot = ring[(int) (epoch % ring.length)];
+        synchronized (slot) {
+            if (slot.epoch != epoch) {
+                if (slot.epoch > epoch) return; // older than the retained range
+                slot.summary.clear();
+                slot.epoch = epoch;
+            }
+            slot.summary.offer(key, 1, nowMillis);
+        }
+    }
+
+    public SpaceSaving query(Duration window, long nowMillis) {
+        long currentEpoch = nowMillis / bucketMillis;
+        int bucketCount = (int) Math.min(ring.length, Math.max(1, (window.toMillis() + bucketMillis - 1) / bucketMillis));
+        long oldestEpoch = currentEpoch - bucketCount + 1;
+
+        List<SpaceSaving> snapshots = new ArrayList<>(bucketCount);
+        for (Slot slot : ring) {
+            synchronized (slot) {
+                if (slot.epoch >= oldestEpoch && slot.epoch <= currentEpoch) {
+                    snapshots.add(SpaceSaving.merge(List.of(slot.summary), capacity));
+                }
+            }
+        }
+        return SpaceSaving.merge(snapshots, capacity);
+    }
+
+    public Duration getRetention() {
+        return Duration.ofMillis(bucketMillis * ring.length);
+    }
+}
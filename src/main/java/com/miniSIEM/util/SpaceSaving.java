@@ -0,0 +1,210 @@
+package com.miniSIEM.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitter summary (Metwally et al.) holding at most {@code capacity} counters.
+ * Any key whose true frequency exceeds total/capacity is guaranteed to be present, and each
+ * reported count overestimates the true count by at most its {@code error}.
+ * Counters are kept in an indexed min-heap so increments of any weight cost O(log capacity).
+ * Not thread-safe; callers synchronize.
+ */
+public class SpaceSaving {
+
+    public record Entry(String key, long count, long error, long firstSeen) {
+        public long guaranteedCount() {
+            return count - error;
+        }
+    }
+
+    private static final class Counter {
+        String key;
+        long count;
+        long error;
+        long firstSeen;
+        int heapIndex;
+    }
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final Counter[] heap;
+    private int size;
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    public void offer(String key, long weight, long timestamp) {
+        total += weight;
+
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += weight;
+            siftDown(counter.heapIndex);
+            return;
+        }
+
+        if (size < capacity) {
+            counter = new Counter();
+            counter.key = key;
+            counter.count = weight;
+            counter.firstSeen = timestamp;
+            counter.heapIndex = size;
+            heap[size++] = counter;
+            counters.put(key, counter);
+            siftUp(counter.heapIndex);
+            return;
+        }
+
+        // Replace the minimum counter; its count becomes the new key's error bound
+        counter = heap[0];
+        counters.remove(counter.key);
+        counter.key = key;
+        counter.error = counter.count;
+        counter.count += weight;
+        counter.firstSeen = timestamp;
+        counters.put(key, counter);
+        siftDown(0);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public long minCount() {
+        return size == 0 ? 0 : heap[0].count;
+    }
+
+    public Entry get(String key) {
+        Counter counter = counters.get(key);
+        return counter == null ? null : toEntry(counter);
+    }
+
+    public List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(toEntry(heap[i]));
+        }
+        return entries;
+    }
+
+    public List<Entry> top(int limit) {
+        return entries().stream()
+                .sorted(Comparator.comparingLong(Entry::count).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void clear() {
+        counters.clear();
+        for (int i = 0; i < size; i++) {
+            heap[i] = null;
+        }
+        size = 0;
+        total = 0;
+    }
+
+    /**
+     * Merges summaries into a new one of the given capacity. Counts of a key are summed over the
+     * summaries that track it; for every full summary that does not track it, that summary's minimum
+     * is added to the key's count and error bound since the key may have been evicted there.
+     */
+    public static SpaceSaving merge(Collection<SpaceSaving> summaries, int capacity) {
+        Map<String, long[]> merged = new HashMap<>();
+        long total = 0;
+        long fullMinSum = 0;
+
+        for (SpaceSaving summary : summaries) {
+            total += summary.total;
+            if (summary.isFull()) {
+                fullMinSum += summary.minCount();
+            }
+        }
+
+        for (SpaceSaving summary : summaries) {
+            long summaryMin = summary.isFull() ? summary.minCount() : 0;
+            for (int i = 0; i < summary.size; i++) {
+                Counter counter = summary.heap[i];
+                long[] acc = merged.computeIfAbsent(counter.key, k -> new long[]{0, 0, Long.MAX_VALUE, 0});
+                acc[0] += counter.count;
+                acc[1] += counter.error;
+                acc[2] = Math.min(acc[2], counter.firstSeen);
+                acc[3] += summaryMin;
+            }
+        }
+
+        // The missing error goes into the count as well, so counts stay upper bounds
+        for (long[] acc : merged.values()) {
+            long missingError = fullMinSum - acc[3];
+            acc[0] += missingError;
+            acc[1] += missingError;
+        }
+
+        SpaceSaving result = new SpaceSaving(capacity);
+        merged.entrySet().stream()
+                .sorted(Map.Entry.<String, long[]>comparingByValue(Comparator.comparingLong(acc -> acc[0])).reversed())
+                .limit(capacity)
+                .forEach(e -> {
+                    long[] acc = e.getValue();
+                    result.offer(e.getKey(), acc[0], acc[2]);
+                    result.counters.get(e.getKey()).error = acc[1];
+                });
+        result.total = total;
+        return result;
+    }
+
+    private Entry toEntry(Counter counter) {
+        return new Entry(counter.key, counter.count, counter.error, counter.firstSeen);
+    }
+
+    private void siftUp(int index) {
+        Counter counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= counter.count) break;
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter counter = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].count < heap[child].count) {
+                child = right;
+            }
+            if (counter.count <= heap[child].count) break;
+            place(heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter counter, int index) {
+        heap[index] = counter;
+        counter.heapIndex = index;
+    }
+}
@@ -0,0 +1,94 @@
+package com.miniSIEM.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hashed timing wheel of primitive {@code long} keys. Scheduling is O(1); {@link #advance} visits
+ * only the slots whose tick has passed, handing keys whose deadline is due to the callback and
+ * keeping later-round keys in place. Deadlines beyond one rotation are supported via those rounds.
+ * Expired keys are not deduplicated: callers re-check their own state when a key fires.
+ */
+public class TimingWheel {
+
+    private static final class Slot {
+        long[] keys = new long[8];
+        long[] deadlines = new long[8];
+        int size;
+
+        void add(long key, long deadline) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                deadlines = Arrays.copyOf(deadlines, size * 2);
+            }
+            keys[size] = key;
+            deadlines[size] = deadline;
+            size++;
+        }
+    }
+
+    private final long tickMillis;
+    private final Slot[] slots;
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, int slotCount, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public synchronized void schedule(long key, long deadlineMillis) {
+        // First tick starting at or after the deadline, so the key is due whenever its slot is swept
+        long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick);
+        slots[(int) (tick % slots.length)].add(key, deadlineMillis);
+    }
+
+    public void advance(long nowMillis, LongConsumer onExpired) {
+        long targetTick = nowMillis / tickMillis;
+        long[] due;
+        int dueCount;
+
+        synchronized (this) {
+            if (targetTick < currentTick) return;
+            due = new long[16];
+            dueCount = 0;
+
+            // Never sweep more than one full rotation per call
+            long fromTick = Math.max(currentTick, targetTick - slots.length + 1);
+            for (long tick = fromTick; tick <= targetTick; tick++) {
+                Slot slot = slots[(int) (tick % slots.length)];
+                int kept = 0;
+                for (int i = 0; i < slot.size; i++) {
+                    if (slot.deadlines[i] <= nowMillis) {
+                        if (dueCount == due.length) {
+                            due = Arrays.copyOf(due, dueCount * 2);
+                        }
+                        due[dueCount++] = slot.keys[i];
+                    } else {
+                        slot.keys[kept] = slot.keys[i];
+                        slot.deadlines[kept] = slot.deadlines[i];
+                        kept++;
+                    }
+                }
+                slot.size = kept;
+            }
+            currentTick = targetTick + 1;
+        }
+
+        // Callbacks run outside the wheel lock so they can reschedule
+        for (int i = 0; i < dueCount; i++) {
+            onExpired.accept(due[i]);
+        }
+    }
+
+    public synchronized int size() {
+        int size = 0;
+        for (Slot slot : slots) {
+            size += slot.size;
+        }
+        return size;
+    }
+}
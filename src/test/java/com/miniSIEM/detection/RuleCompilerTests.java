@@ -0,0 +1,75 @@
+package com.miniSIEM.detection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleCompilerTests {
+
+	private final RuleCompiler compiler = new RuleCompiler();
+
+	@Test
+	void missingSectionsAreRejectedAsInvalidRules() {
+		RuleDefinition noThreshold = thresholdRule();
+		noThreshold.setThreshold(null);
+		RuleDefinition noGroupBy = thresholdRule();
+		noGroupBy.getThreshold().setGroupBy(null);
+		RuleDefinition emptyChild = thresholdRule();
+		emptyChild.getCondition().setAll(Arrays.asList(tag("LOGIN"), null));
+
+		RuleDefinition.StepDefinition step = new RuleDefinition.StepDefinition();
+		step.setCondition(tag("LOGIN"));
+		RuleDefinition.SequenceDefinition sequence = new RuleDefinition.SequenceDefinition();
+		sequence.setSteps(Arrays.asList(step, null));
+		RuleDefinition emptyStep = new RuleDefinition();
+		emptyStep.setId("empty-step");
+		emptyStep.setSequence(sequence);
+
+		for (RuleDefinition definition : List.of(noThreshold, noGroupBy, emptyChild, emptyStep)) {
+			IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> compiler.compile(definition));
+			assertTrue(e.getMessage().startsWith("Invalid rule '" + definition.getId() + "'"));
+		}
+	}
+
+	@Test
+	void emptyValuesInOperatorListsAreRejectedAsInvalidRules() {
+		RuleDefinition nullInValue = fieldRule();
+		nullInValue.getCondition().setIn(Arrays.asList("sshd", null));
+		RuleDefinition nullNeedle = fieldRule();
+		nullNeedle.getCondition().setContainsAny(Arrays.asList("failed", null));
+		RuleDefinition blankNeedle = fieldRule();
+		blankNeedle.getCondition().setContainsAny(List.of("failed", " "));
+		RuleDefinition emptyList = fieldRule();
+		emptyList.getCondition().setIn(List.of());
+
+		for (RuleDefinition definition : List.of(nullInValue, nullNeedle, blankNeedle, emptyList)) {
+			IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> compiler.compile(definition));
+			assertTrue(e.getMessage().startsWith("Invalid rule 'field'"), e.getMessage());
+		}
+	}
+
+	private static RuleDefinition fieldRule() {
+		RuleDefinition definition = new RuleDefinition();
+		definition.setId("field");
+		definition.setCondition(new ConditionDefinition());
+		definition.getCondition().setField("message");
+		return definition;
+	}
+
+	private static RuleDefinition thresholdRule() {
+		RuleDefinition definition = new RuleDefinition();
+		definition.setId("threshold");
+		definition.setCondition(new ConditionDefinition());
+		definition.getCondition().setAll(List.of(tag("AUTH_FAILURE")));
+		return definition;
+	}
+
+	private static ConditionDefinition tag(String tag) {
+		ConditionDefinition condition = new ConditionDefinition();
+		condition.setTag(tag);
+		return condition;
+	}
+}
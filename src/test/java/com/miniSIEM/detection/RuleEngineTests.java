@@ -0,0 +1,96 @@
+package com.miniSIEM.detection;
+
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.service.AlertService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RuleEngineTests {
+
+	private static final String FAILURES_PER_IP = """
+			id: failures-per-ip
+			condition: { tag: AUTH_FAILURE }
+			threshold: { count: 3, window: 10m, groupBy: [ip] }
+			""";
+
+	@TempDir
+	Path rulesDirectory;
+
+	private final AlertService alertService = mock(AlertService.class);
+	private RuleEngine ruleEngine;
+
+	@BeforeEach
+	void setUp() {
+		ruleEngine = new RuleEngine(alertService, new SimpleMeterRegistry(), rulesDirectory.toString());
+	}
+
+	@Test
+	void changedRuleFilesAreReloaded() throws IOException {
+		ruleEngine.init();
+		assertFalse(hasRule("failures-per-ip"));
+
+		write("custom.yml", FAILURES_PER_IP, 1);
+		ruleEngine.reloadIfChanged();
+		assertTrue(hasRule("failures-per-ip"));
+
+		write("custom.yml", FAILURES_PER_IP + "enabled: false\n", 2);
+		ruleEngine.reloadIfChanged();
+		assertFalse(hasRule("failures-per-ip"));
+	}
+
+	@Test
+	void unchangedRulesKeepTheirWindowsAcrossAReload() throws IOException {
+		write("custom.yml", FAILURES_PER_IP, 1);
+		ruleEngine.init();
+		ruleEngine.onLogIngested(failure("10.0.0.1"));
+		ruleEngine.onLogIngested(failure("10.0.0.1"));
+
+		write("other.yml", "id: other\ncondition: { tag: MALWARE }\n", 2);
+		ruleEngine.reloadIfChanged();
+		assertTrue(hasRule("other"));
+		ruleEngine.onLogIngested(failure("10.0.0.1"));
+
+		verify(alertService).raise(argThat(alert -> "failures-per-ip".equals(alert.getRuleId())));
+	}
+
+	@Test
+	void aRuleThatDoesNotCompileIsReportedWithoutStoppingTheLoad() throws IOException {
+		write("custom.yml", FAILURES_PER_IP, 1);
+		write("broken.yml", "id: broken\ncondition: { field: source, in: [sshd, ~] }\n", 1);
+
+		Map<String, Object> result = ruleEngine.reload();
+
+		assertTrue(hasRule("failures-per-ip"));
+		assertFalse(hasRule("broken"));
+		assertEquals(1, ruleEngine.getLastLoadErrors().size());
+		assertTrue(ruleEngine.getLastLoadErrors().get(0).startsWith("Invalid rule 'broken'"));
+		assertEquals(ruleEngine.getLastLoadErrors(), result.get("errors"));
+	}
+
+	private boolean hasRule(String id) {
+		return ruleEngine.getRuleStats().stream().anyMatch(stats -> stats.getId().equals(id));
+	}
+
+	// Explicit modification times, so a rewrite within the clock's resolution is still noticed
+	private void write(String name, String content, long version) throws IOException {
+		Path file = rulesDirectory.resolve(name);
+		Files.writeString(file, content);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(1_700_000_000_000L + version * 1000));
+	}
+
+	private static LogEntry failure(String ip) {
+		return new LogEntry(null, null, "sshd", "WARN", "Failed password", ip, List.of("AUTH_FAILURE"), null, null, null);
+	}
+}
@@ -0,0 +1,157 @@
+package com.miniSIEM.detection;
+
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceRuleTests {
+
+	private static final long START = 1_760_000_000_000L;
+	private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+	private final RuleCompiler compiler = new RuleCompiler();
+	private int nextId;
+
+	@Test
+	void stepsMustHappenInOrderAndReachTheirCounts() {
+		CompiledRule rule = compiler.compile(bruteForceThenSuccess(1_000), START);
+
+		// A success before the failures does not start the sequence
+		assertNull(rule.evaluate(log("10.0.0.1", "AUTH_SUCCESS"), START));
+		assertEquals(0, rule.getActiveGroupCount());
+
+		assertNull(rule.evaluate(log("10.0.0.1", "AUTH_FAILURE"), START + 1));
+		assertNull(rule.evaluate(log("10.0.0.1", "AUTH_FAILURE"), START + 2));
+		assertNull(rule.evaluate(log("10.0.0.1", "AUTH_SUCCESS"), START + 3));
+		assertNull(rule.evaluate(log("10.0.0.1", "AUTH_FAILURE"), START + 4));
+		assertNull(rule.evaluate(log("10.0.0.2", "AUTH_SUCCESS"), START + 5));
+		Alert alert = rule.evaluate(log("10.0.0.1", "AUTH_SUCCESS"), START + 6);
+
+		assertNotNull(alert);
+		assertEquals("BRUTE_FORCE_THEN_SUCCESS", alert.getAlertType());
+		assertEquals("10.0.0.1", alert.getSourceIp());
+		// The three failures and the success that completed it, not the early success
+		assertEquals(List.of("log-2", "log-3", "log-5", "log-7"), alert.getLogIds());
+		assertTrue(alert.getDescription().contains("failures x3 -> success"));
+		assertEquals(0, rule.getActiveGroupCount());
+		assertEquals(1, rule.getAlerts().sum());
+	}
+
+	@Test
+	void partialMatchesExpireAfterTheTimeLimit() {
+		CompiledRule rule = compiler.compile(bruteForceThenSuccess(1_000), START);
+		for (int i = 0; i < 3; i++) {
+			rule.evaluate(log("10.0.0.1", "AUTH_FAILURE"), START + i);
+		}
+		assertEquals(1, rule.getActiveGroupCount());
+
+		rule.expireIdleGroups(START + 9 * MINUTE);
+		assertEquals(1, rule.getActiveGroupCount());
+		rule.expireIdleGroups(START + 10 * MINUTE + 1_000);
+
+		assertEquals(0, rule.getActiveGroupCount());
+		assertNull(rule.evaluate(log("10.0.0.1", "AUTH_SUCCESS"), START + 10 * MINUTE + 2_000));
+	}
+
+	@Test
+	void anExpiredPartialOnlyRestartsOnTheFirstStep() {
+		CompiledRule rule = compiler.compile(bruteForceThenSuccess(1_000), START);
+		for (int i = 0; i < 3; i++) {
+			rule.evaluate(log("10.0.0.1", "AUTH_FAILURE"), START + i);
+		}
+
+		// Past the limit but not yet swept: the old progress no longer counts
+		long later = START + 11 * MINUTE;
+		assertNull(rule.evaluate(log("10.0.0.1", "AUTH_SUCCESS"), later));
+		for (int i = 0; i < 2; i++) {
+			assertNull(rule.evaluate(log("10.0.0.1", "AUTH_FAILURE"), later + i));
+		}
+		assertNull(rule.evaluate(log("10.0.0.1", "AUTH_SUCCESS"), later + 2));
+		assertNull(rule.evaluate(log("10.0.0.1", "AUTH_FAILURE"), later + 3));
+		Alert alert = rule.evaluate(log("10.0.0.1", "AUTH_SUCCESS"), later + 4);
+
+		assertNotNull(alert);
+		assertEquals(List.of("log-5", "log-6", "log-8", "log-9"), alert.getLogIds());
+	}
+
+	@Test
+	void newSequencesPastMaxKeysAreDropped() {
+		CompiledRule rule = compiler.compile(bruteForceThenSuccess(2), START);
+
+		rule.evaluate(log("10.0.0.1", "AUTH_FAILURE"), START);
+		rule.evaluate(log("10.0.0.2", "AUTH_FAILURE"), START);
+		rule.evaluate(log("10.0.0.3", "AUTH_FAILURE"), START);
+		rule.evaluate(log("10.0.0.3", "AUTH_FAILURE"), START);
+
+		assertEquals(2, rule.getActiveGroupCount());
+		assertEquals(2, rule.getDroppedGroups().sum());
+
+		// A finished sequence frees its slot
+		rule.evaluate(log("10.0.0.1", "AUTH_FAILURE"), START + 1);
+		rule.evaluate(log("10.0.0.1", "AUTH_FAILURE"), START + 2);
+		assertNotNull(rule.evaluate(log("10.0.0.1", "AUTH_SUCCESS"), START + 3));
+		rule.evaluate(log("10.0.0.3", "AUTH_FAILURE"), START + 4);
+		assertEquals(2, rule.getActiveGroupCount());
+		assertEquals(2, rule.getDroppedGroups().sum());
+	}
+
+	@Test
+	void firstSeenStepsStaySilentWhileLearning() {
+		CompiledRule rule = compiler.compile(newAddressThenAdminAction(), START);
+
+		// Learned during the first hour, so never new afterwards
+		assertNull(rule.evaluate(log("10.0.0.1", "AUTH_SUCCESS"), START + 5 * MINUTE));
+		assertNull(rule.evaluate(log("10.0.0.1", "CONFIG_CHANGE"), START + 6 * MINUTE));
+		long learned = START + 61 * MINUTE;
+		assertNull(rule.evaluate(log("10.0.0.1", "AUTH_SUCCESS"), learned));
+		assertNull(rule.evaluate(log("10.0.0.1", "CONFIG_CHANGE"), learned + 1));
+
+		assertNull(rule.evaluate(log("10.0.0.2", "AUTH_SUCCESS"), learned + 2));
+		assertNotNull(rule.evaluate(log("10.0.0.2", "CONFIG_CHANGE"), learned + 3));
+		// Only the first login from an address starts a sequence
+		assertNull(rule.evaluate(log("10.0.0.2", "AUTH_SUCCESS"), learned + 4));
+		assertNull(rule.evaluate(log("10.0.0.2", "CONFIG_CHANGE"), learned + 5));
+	}
+
+	private LogEntry log(String ip, String tag) {
+		return new LogEntry("log-" + ++nextId, null, "sshd", "INFO", tag, ip, List.of(tag), null, null, null);
+	}
+
+	private static RuleDefinition bruteForceThenSuccess(int maxKeys) {
+		RuleDefinition.StepDefinition failures = step("failures", "AUTH_FAILURE");
+		failures.setCount(3);
+		return sequence("brute-force-then-success", maxKeys, failures, step("success", "AUTH_SUCCESS"));
+	}
+
+	private static RuleDefinition newAddressThenAdminAction() {
+		RuleDefinition.StepDefinition login = step("login", "AUTH_SUCCESS");
+		login.setFirstSeen(true);
+		login.setLearningPeriod("1h");
+		return sequence("new-ip-admin-action", 1_000, login, step("admin", "CONFIG_CHANGE"));
+	}
+
+	private static RuleDefinition sequence(String id, int maxKeys, RuleDefinition.StepDefinition... steps) {
+		RuleDefinition.SequenceDefinition sequence = new RuleDefinition.SequenceDefinition();
+		sequence.setWithin("10m");
+		sequence.setMaxKeys(maxKeys);
+		sequence.setSteps(List.of(steps));
+		RuleDefinition definition = new RuleDefinition();
+		definition.setId(id);
+		definition.setSequence(sequence);
+		return definition;
+	}
+
+	private static RuleDefinition.StepDefinition step(String name, String tag) {
+		ConditionDefinition condition = new ConditionDefinition();
+		condition.setTag(tag);
+		RuleDefinition.StepDefinition step = new RuleDefinition.StepDefinition();
+		step.setName(name);
+		step.setCondition(condition);
+		return step;
+	}
+}
@@ -0,0 +1,73 @@
+package com.miniSIEM.detection;
+
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThresholdRuleTests {
+
+	private static final long START = 1_760_000_000_000L;
+	private static final long SECOND = 1_000;
+
+	private final CompiledRule rule = new RuleCompiler().compile(failuresPerIp(3, "1m"), START);
+
+	@Test
+	void alertsWhenTheLastCountMatchesFallInsideTheWindow() {
+		assertNull(rule.evaluate(failure("10.0.0.1"), START));
+		assertNull(rule.evaluate(failure("10.0.0.1"), START + 30 * SECOND));
+		// Three matches, but spread over more than a minute
+		assertNull(rule.evaluate(failure("10.0.0.1"), START + 60 * SECOND));
+		assertNull(rule.evaluate(failure("10.0.0.2"), START + 61 * SECOND));
+		assertNull(rule.evaluate(success("10.0.0.1"), START + 62 * SECOND));
+
+		Alert alert = rule.evaluate(failure("10.0.0.1"), START + 70 * SECOND);
+
+		assertNotNull(alert);
+		assertEquals("FAILURES_PER_IP", alert.getAlertType());
+		assertEquals("failures-per-ip: 3 matching events for 10.0.0.1 within 1m", alert.getDescription());
+		assertEquals(5, rule.getMatches().sum());
+		assertEquals(2, rule.getActiveGroupCount());
+	}
+
+	@Test
+	void aGroupAlertsOnceUntilItGoesIdle() {
+		for (int i = 0; i < 3; i++) {
+			rule.evaluate(failure("10.0.0.1"), START + i * SECOND);
+		}
+		assertNull(rule.evaluate(failure("10.0.0.1"), START + 10 * SECOND));
+
+		rule.expireIdleGroups(START + 69 * SECOND);
+		assertEquals(1, rule.getActiveGroupCount());
+		rule.expireIdleGroups(START + 70 * SECOND);
+		assertEquals(0, rule.getActiveGroupCount());
+
+		long later = START + 80 * SECOND;
+		assertNull(rule.evaluate(failure("10.0.0.1"), later));
+		assertNull(rule.evaluate(failure("10.0.0.1"), later + 1));
+		assertNotNull(rule.evaluate(failure("10.0.0.1"), later + 2));
+		assertEquals(2, rule.getAlerts().sum());
+	}
+
+	static RuleDefinition failuresPerIp(int count, String window) {
+		ConditionDefinition condition = new ConditionDefinition();
+		condition.setTag("AUTH_FAILURE");
+		RuleDefinition definition = new RuleDefinition();
+		definition.setId("failures-per-ip");
+		definition.setCondition(condition);
+		definition.getThreshold().setCount(count);
+		definition.getThreshold().setWindow(window);
+		return definition;
+	}
+
+	private static LogEntry failure(String ip) {
+		return new LogEntry(null, null, "sshd", "WARN", "Failed password", ip, List.of("AUTH_FAILURE"), null, null, null);
+	}
+
+	private static LogEntry success(String ip) {
+		return new LogEntry(null, null, "sshd", "INFO", "Accepted password", ip, List.of("AUTH_SUCCESS"), null, null, null);
+	}
+}
@@ -0,0 +1,278 @@
+package com.miniSIEM.notification;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.NotificationDeadLetter;
+import com.miniSIEM.repository.NotificationDeadLetterRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+	private final NotificationDeadLetterRepository deadLetters = mock(NotificationDeadLetterRepository.class);
+	private final List<AutoCloseable> cleanup = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() throws Exception {
+		for (AutoCloseable closeable : cleanup) {
+			closeable.close();
+		}
+	}
+
+	@Test
+	void webhookCoalescesBurstIntoOnePayload() throws Exception {
+		StubHttpServer server = new StubHttpServer(request -> 200);
+		NotificationDispatcher dispatcher = dispatcher(webhook(server, 300), 100, 3);
+
+		for (int i = 0; i < 20; i++) {
+			dispatcher.enqueue(alert("HIGH", i));
+		}
+
+		await(() -> server.bodies.size() == 1);
+		Thread.sleep(400);
+		assertEquals(1, server.bodies.size());
+		JsonNode payload = objectMapper.readTree(server.bodies.get(0));
+		assertEquals(20, payload.get("count").asInt());
+		assertEquals("alert-0", payload.get("alerts").get(0).get("id").asText());
+		assertEquals(20L, dispatcher.getStatus().get(0).get("sentAlerts"));
+	}
+
+	@Test
+	void webhookRetriesTransientFailures() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		StubHttpServer server = new StubHttpServer(request -> calls.incrementAndGet() <= 2 ? 503 : 200);
+		NotificationDispatcher dispatcher = dispatcher(webhook(server, 0), 100, 5);
+
+		dispatcher.enqueue(alert("CRITICAL", 1));
+
+		await(() -> (long) dispatcher.getStatus().get(0).get("sentAlerts") == 1);
+		assertEquals(3, server.bodies.size());
+		assertEquals(2L, dispatcher.getStatus().get(0).get("failedAttempts"));
+		verify(deadLetters, never()).save(any());
+	}
+
+	@Test
+	void exhaustedAndPermanentFailuresAreDeadLettered() throws Exception {
+		StubHttpServer failing = new StubHttpServer(request -> 500);
+		NotificationDispatcher dispatcher = dispatcher(webhook(failing, 0), 100, 3);
+		dispatcher.enqueue(alert("HIGH", 1));
+
+		ArgumentCaptor<NotificationDeadLetter> captor = ArgumentCaptor.forClass(NotificationDeadLetter.class);
+		await(() -> mockingDetails(deadLetters).getInvocations().size() == 1);
+		verify(deadLetters).save(captor.capture());
+		assertEquals(3, failing.bodies.size());
+		assertEquals(3, captor.getValue().getAttempts());
+		assertEquals("webhook", captor.getValue().getChannel());
+		assertEquals("alert-1", captor.getValue().getAlerts().get(0).getId());
+
+		StubHttpServer rejecting = new StubHttpServer(request -> 400);
+		NotificationDispatcher rejected = dispatcher(webhook(rejecting, 0), 100, 3);
+		rejected.enqueue(alert("HIGH", 2));
+		await(() -> mockingDetails(deadLetters).getInvocations().size() == 2);
+		assertEquals(1, rejecting.bodies.size());
+	}
+
+	@Test
+	void enqueueNeverBlocksOnSlowReceiver() throws Exception {
+		StubHttpServer slow = new StubHttpServer(request -> {
+			Thread.sleep(2000);
+			return 200;
+		});
+		NotificationDispatcher dispatcher = dispatcher(webhook(slow, 0), 5, 1);
+
+		long started = System.nanoTime();
+		for (int i = 0; i < 1000; i++) {
+			dispatcher.enqueue(alert("HIGH", i));
+		}
+		long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+		assertTrue(elapsedMillis < 500, "enqueue took " + elapsedMillis + " ms");
+		long dropped = (long) dispatcher.getStatus().get(0).get("dropped");
+		assertTrue(dropped >= 1000 - 5 - 1 * 50, "dropped " + dropped);
+	}
+
+	@Test
+	void emailSendsOneDigestPerBatchAboveMinimumSeverity() throws Exception {
+		StubSmtpServer server = new StubSmtpServer();
+		EmailChannel email = new EmailChannel(true, "localhost", server.port(), true, "", "",
+				"siem@example.test", "soc@example.test, oncall@example.test", "HIGH", 100, 300, 5000);
+		NotificationDispatcher dispatcher = dispatcher(email, 100, 3);
+
+		dispatcher.enqueue(alert("HIGH", 1));
+		dispatcher.enqueue(alert("LOW", 2));
+		dispatcher.enqueue(alert("CRITICAL", 3));
+		dispatcher.enqueue(alert("HIGH", 4));
+
+		await(() -> server.messages.size() == 1);
+		Thread.sleep(400);
+		assertEquals(1, server.messages.size());
+		assertEquals(List.of("<soc@example.test>", "<oncall@example.test>"), server.recipients);
+
+		String message = server.messages.get(0);
+		assertTrue(message.contains("Subject: [Mini-SIEM] 3 new alerts, highest severity CRITICAL"), message);
+		assertTrue(message.contains("id: alert-1") && message.contains("id: alert-3") && message.contains("id: alert-4"));
+		assertFalse(message.contains("id: alert-2"));
+		// A CRITICAL alert is listed before the HIGH ones
+		assertTrue(message.indexOf("id: alert-3") < message.indexOf("id: alert-1"));
+	}
+
+	private NotificationDispatcher dispatcher(NotificationChannel channel, int queueCapacity, int maxAttempts) {
+		NotificationDispatcher dispatcher = new NotificationDispatcher(List.of(channel), deadLetters,
+				queueCapacity, maxAttempts, 10, 50);
+		dispatcher.start();
+		cleanup.add(0, dispatcher::shutdown);
+		return dispatcher;
+	}
+
+	private WebhookChannel webhook(StubHttpServer server, long batchWindowMillis) {
+		return new WebhookChannel(objectMapper, true, "http://localhost:" + server.port() + "/hook", "LOW",
+				1, 50, batchWindowMillis, 5000);
+	}
+
+	private static Alert alert(String severity, int number) {
+		return Alert.builder()
+				.id("alert-" + number)
+				.alertType("BRUTE_FORCE")
+				.description("alert number " + number)
+				.severity(severity)
+				.sourceIp("10.0.0." + number)
+				.timestamp(Instant.now())
+				.count(1)
+				.build();
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) fail("Condition not met within 10 s");
+			Thread.sleep(10);
+		}
+	}
+
+	private interface Responder {
+		int status(String body) throws Exception;
+	}
+
+	private final class StubHttpServer implements AutoCloseable {
+		final HttpServer server;
+		final List<String> bodies = new CopyOnWriteArrayList<>();
+
+		StubHttpServer(Responder responder) throws IOException {
+			server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			server.createContext("/hook", exchange -> {
+				String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+				bodies.add(body);
+				int status;
+				try {
+					status = responder.status(body);
+				} catch (Exception e) {
+					status = 500;
+				}
+				exchange.sendResponseHeaders(status, -1);
+				exchange.close();
+			});
+			server.start();
+			cleanup.add(this);
+		}
+
+		int port() {
+			return server.getAddress().getPort();
+		}
+
+		@Override
+		public void close() {
+			server.stop(0);
+		}
+	}
+
+	// Accepts every command and records each message and its recipients
+	private final class StubSmtpServer implements AutoCloseable {
+		final ServerSocket socket;
+		final List<String> messages = new CopyOnWriteArrayList<>();
+		final List<String> recipients = new CopyOnWriteArrayList<>();
+
+		StubSmtpServer() throws IOException {
+			socket = new ServerSocket(0);
+			Thread acceptor = new Thread(() -> {
+				while (!socket.isClosed()) {
+					try (Socket client = socket.accept()) {
+						converse(client);
+					} catch (IOException e) {
+						// closed
+					}
+				}
+			});
+			acceptor.setDaemon(true);
+			acceptor.start();
+			cleanup.add(this);
+		}
+
+		int port() {
+			return socket.getLocalPort();
+		}
+
+		private void converse(Socket client) throws IOException {
+			BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+			OutputStream out = client.getOutputStream();
+			reply(out, "220 stub ESMTP");
+			String line;
+			while ((line = in.readLine()) != null) {
+				String command = line.toUpperCase();
+				if (command.startsWith("EHLO")) {
+					reply(out, "250-stub\r\n250 8BITMIME");
+				} else if (command.startsWith("RCPT TO:")) {
+					recipients.add(line.substring(8));
+					reply(out, "250 OK");
+				} else if (command.equals("DATA")) {
+					reply(out, "354 go ahead");
+					StringBuilder message = new StringBuilder();
+					while (!(line = in.readLine()).equals(".")) {
+						message.append(line).append('\n');
+					}
+					messages.add(message.toString());
+					reply(out, "250 queued");
+				} else if (command.equals("QUIT")) {
+					reply(out, "221 bye");
+					return;
+				} else {
+					reply(out, "250 OK");
+				}
+			}
+		}
+
+		private void reply(OutputStream out, String text) throws IOException {
+			out.write((text + "\r\n").getBytes(StandardCharsets.UTF_8));
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			socket.close();
+		}
+	}
+}
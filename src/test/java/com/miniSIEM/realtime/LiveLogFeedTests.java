@@ -0,0 +1,287 @@
+package com.miniSIEM.realtime;
+
+import com.miniSIEM.model.LogEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LiveLogFeedTests {
+
+	private final RealtimeHub hub = mock(RealtimeHub.class);
+	private final LiveLogFeed feed = new LiveLogFeed(hub, new SimpleMeterRegistry(), 100, 10, 1000);
+
+	@Test
+	void bulkIngestBecomesAFullFrameAndASampledOne() throws Exception {
+		RealtimeClient viewer = subscribe(LiveLogFilter.ALL);
+
+		feed.add(entries(0, 1000));
+		feed.flush();
+
+		List<Map<String, Object>> frames = framesFor(viewer, 2);
+		assertEquals(0L, frames.get(0).get("omitted"));
+		assertEquals(messages(0, 100), messagesOf(frames.get(0)));
+
+		// The other 900 were sampled down to one frame, still in arrival order
+		assertEquals(800L, frames.get(1).get("omitted"));
+		List<String> sampled = messagesOf(frames.get(1));
+		assertEquals(100, sampled.size());
+		for (int i = 1; i < sampled.size(); i++) {
+			assertTrue(index(sampled.get(i - 1)) < index(sampled.get(i)));
+		}
+		assertTrue(index(sampled.get(0)) >= 100);
+		assertEquals(800, feed.getOmittedCount());
+	}
+
+	@Test
+	void quietTrafficIsSentWholeOnTheInterval() throws Exception {
+		RealtimeClient viewer = subscribe(LiveLogFilter.ALL);
+
+		feed.add(entries(0, 3));
+		feed.add(entries(3, 5));
+		verify(hub, never()).send(any(), any(), any(), any());
+		feed.flush();
+		feed.flush();
+
+		List<Map<String, Object>> frames = framesFor(viewer, 1);
+		assertEquals(0L, frames.get(0).get("omitted"));
+		assertEquals(messages(0, 5), messagesOf(frames.get(0)));
+	}
+
+	@Test
+	void framesAreSerializedWithoutHoldingUpIngest() throws Exception {
+		RealtimeClient viewer = subscribe(LiveLogFilter.ALL);
+		// While the first frame is being sent, another ingest thread still gets through
+		doAnswer(invocation -> {
+			CompletableFuture.runAsync(() -> feed.add(entries(100, 101))).get(5, TimeUnit.SECONDS);
+			return null;
+		}).doNothing().when(hub).send(any(), eq("newLogs"), any(), any());
+
+		feed.add(entries(0, 100));
+		feed.flush();
+
+		List<Map<String, Object>> frames = framesFor(viewer, 2);
+		assertEquals(messages(0, 100), messagesOf(frames.get(0)));
+		assertEquals(messages(100, 101), messagesOf(frames.get(1)));
+	}
+
+	@Test
+	void nothingIsBufferedWithoutViewers() {
+		feed.add(entries(0, 500));
+		feed.flush();
+
+		verify(hub, never()).send(any(), any(), any(), any());
+		assertEquals(0, feed.getFrameCount());
+	}
+
+	@Test
+	void eachSubscriptionReceivesOnlyWhatItsFilterMatches() throws Exception {
+		RealtimeClient errors = subscribe(LiveLogFilter.of(List.of("error"), null, null, null));
+		RealtimeClient moreErrors = subscribe(LiveLogFilter.of(List.of("ERROR"), null, null, null));
+		RealtimeClient sshd = subscribe(LiveLogFilter.of(null, List.of("SSHD"), null, null));
+		RealtimeClient internalFailures = subscribe(LiveLogFilter.of(null, null, List.of("10.0.0.0/8, 2001:db8::/32"), "FAILED"));
+		RealtimeClient everything = subscribe(LiveLogFilter.ALL);
+
+		feed.add(List.of(
+				entry("e1", "ERROR", "nginx", "203.0.113.9", "upstream timed out"),
+				entry("e2", "INFO", "sshd", "10.1.2.3", "Failed password for root"),
+				entry("e3", "WARN", "sshd", "203.0.113.9", "Accepted password for bob"),
+				entry("e4", "ERROR", "app", "2001:db8::17", "login failed"),
+				entry("e5", "INFO", "app", "192.168.1.1", "login failed")));
+		feed.flush();
+
+		assertEquals(List.of("e1", "e4"), idsOf(framesFor(errors, 1).get(0)));
+		// Same filter, same subscription: one frame went to both viewers
+		assertSame(targetsOf(errors).get(0), targetsOf(moreErrors).get(0));
+		assertEquals(List.of("e2", "e3"), idsOf(framesFor(sshd, 1).get(0)));
+		assertEquals(List.of("e2", "e4"), idsOf(framesFor(internalFailures, 1).get(0)));
+		assertEquals(List.of("e1", "e2", "e3", "e4", "e5"), idsOf(framesFor(everything, 1).get(0)));
+		assertEquals(4, ((List<?>) feed.getStatus().get("subscriptions")).size());
+	}
+
+	@Test
+	void closedViewersAreUnsubscribed() throws Exception {
+		ArgumentCaptor<Consumer<RealtimeClient>> onClose = ArgumentCaptor.captor();
+		RealtimeClient viewer = subscribe(LiveLogFilter.of(List.of("ERROR"), null, null, null));
+		verify(hub).subscribe(any(), any(), any(), onClose.capture());
+
+		onClose.getValue().accept(viewer);
+		feed.add(List.of(entry("e1", "ERROR", "app", null, "boom")));
+		feed.flush();
+
+		verify(hub, never()).send(any(), any(), any(), any());
+		assertEquals(List.of(), feed.getStatus().get("subscriptions"));
+	}
+
+	@Test
+	void reconnectingViewersCatchUpFromTheReplayRing() throws Exception {
+		RealtimeClient viewer = subscribe(LiveLogFilter.of(List.of("ERROR"), null, null, null));
+		feed.add(List.of(entry("e1", "ERROR", "app", null, "first")));
+		feed.flush();
+		String position = lastIdSentTo(viewer, "newLogs");
+		disconnect(viewer);
+
+		feed.add(List.of(
+				entry("e2", "INFO", "app", null, "not for this viewer"),
+				entry("e3", "ERROR", "app", null, "missed"),
+				entry("e4", "ERROR", "db", null, "missed too")));
+		RealtimeClient resumed = subscribe(LiveLogFilter.of(List.of("ERROR"), null, null, null), position);
+
+		assertEquals(List.of("e3", "e4"), idsOf(framesFor(resumed, 1).get(0)));
+		verify(hub, never()).send(any(), eq("gap"), any());
+		assertNotEquals(position, lastIdSentTo(resumed, "newLogs"));
+		assertEquals(1L, feed.getStatus().get("resumes"));
+	}
+
+	@Test
+	void positionsNoLongerInTheRingAreReportedAsAGap() throws Exception {
+		RealtimeClient viewer = subscribe(LiveLogFilter.ALL);
+		feed.add(entries(0, 1));
+		feed.flush();
+		String position = lastIdSentTo(viewer, "newLogs");
+		disconnect(viewer);
+
+		feed.add(entries(1, 1500));
+		RealtimeClient resumed = subscribe(LiveLogFilter.ALL, position);
+		RealtimeClient restarted = subscribe(LiveLogFilter.ALL, "abc-1");
+
+		verify(hub).send(eq(List.of(resumed)), eq("gap"), any());
+		verify(hub).send(eq(List.of(restarted)), eq("gap"), any());
+		// What the ring still holds, as one frame: the newest 100 of the last 1000
+		Map<String, Object> frame = framesFor(resumed, 1).get(0);
+		assertEquals(messages(1400, 1500), messagesOf(frame));
+		assertEquals(900L, frame.get("omitted"));
+		assertEquals(2L, feed.getStatus().get("resumeGaps"));
+	}
+
+	@Test
+	void idleSubscriptionsAreMovedForwardByCheckpoints() throws Exception {
+		RealtimeClient viewer = subscribe(LiveLogFilter.of(List.of("ERROR"), null, null, null));
+
+		feed.add(entries(0, 10));
+		feed.checkpoint();
+		feed.checkpoint();
+
+		ArgumentCaptor<String> ids = ArgumentCaptor.captor();
+		verify(hub).checkpoint(argThat(targets -> targets.contains(viewer)), ids.capture());
+		assertTrue(ids.getValue().endsWith("-10"));
+	}
+
+	@Test
+	void malformedFiltersAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> LiveLogFilter.of(null, null, List.of("10.0.0.0/33"), null));
+		assertThrows(IllegalArgumentException.class, () -> LiveLogFilter.of(null, null, List.of("not-an-ip"), null));
+		assertEquals(LiveLogFilter.of(List.of("warn,error"), null, null, " x "),
+				LiveLogFilter.of(List.of("ERROR", "WARN"), null, null, "x"));
+	}
+
+	private RealtimeClient subscribe(LiveLogFilter filter) throws Exception {
+		return subscribe(filter, null);
+	}
+
+	private RealtimeClient subscribe(LiveLogFilter filter, String lastEventId) throws Exception {
+		RealtimeClient client = new RealtimeClient(hub, "viewer", mock(AsyncContext.class),
+				mock(ServletOutputStream.class), Runnable::run, 16, RealtimeHub.SlowConsumerPolicy.DROP_OLDEST,
+				closed -> {
+				});
+		when(hub.subscribe(any(), any(), any(), any())).thenReturn(client);
+		feed.subscribe(null, null, "viewer", filter, lastEventId);
+		return client;
+	}
+
+	// As the hub reports a client going away
+	private void disconnect(RealtimeClient client) throws Exception {
+		ArgumentCaptor<Consumer<RealtimeClient>> onClose = ArgumentCaptor.captor();
+		verify(hub, atLeastOnce()).subscribe(any(), any(), any(), onClose.capture());
+		onClose.getValue().accept(client);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Map<String, Object>> framesFor(RealtimeClient client, int expected) {
+		ArgumentCaptor<Collection<RealtimeClient>> targets = ArgumentCaptor.captor();
+		ArgumentCaptor<Object> frames = ArgumentCaptor.forClass(Object.class);
+		verify(hub, atLeastOnce()).send(targets.capture(), eq("newLogs"), any(), frames.capture());
+		List<Map<String, Object>> matching = new ArrayList<>();
+		for (int i = 0; i < targets.getAllValues().size(); i++) {
+			if (targets.getAllValues().get(i).contains(client)) {
+				matching.add((Map<String, Object>) frames.getAllValues().get(i));
+			}
+		}
+		assertEquals(expected, matching.size());
+		return matching;
+	}
+
+	private String lastIdSentTo(RealtimeClient client, String event) {
+		ArgumentCaptor<Collection<RealtimeClient>> targets = ArgumentCaptor.captor();
+		ArgumentCaptor<String> ids = ArgumentCaptor.captor();
+		verify(hub, atLeastOnce()).send(targets.capture(), eq(event), ids.capture(), any());
+		String id = null;
+		for (int i = 0; i < targets.getAllValues().size(); i++) {
+			if (targets.getAllValues().get(i).contains(client)) id = ids.getAllValues().get(i);
+		}
+		assertNotNull(id);
+		return id;
+	}
+
+	private List<Collection<RealtimeClient>> targetsOf(RealtimeClient client) {
+		ArgumentCaptor<Collection<RealtimeClient>> targets = ArgumentCaptor.captor();
+		verify(hub, atLeastOnce()).send(targets.capture(), eq("newLogs"), any(), any());
+		return targets.getAllValues().stream().filter(collection -> collection.contains(client)).toList();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> messagesOf(Map<String, Object> frame) {
+		return ((List<Map<String, Object>>) frame.get("events")).stream()
+				.map(event -> (String) event.get("message"))
+				.toList();
+	}
+
+	// Test entries carry their id as the first word of the message
+	private static List<String> idsOf(Map<String, Object> frame) {
+		return messagesOf(frame).stream().map(message -> message.split(" ")[0]).toList();
+	}
+
+	private static LogEntry entry(String id, String level, String source, String ip, String message) {
+		LogEntry entry = new LogEntry();
+		entry.setLogLevel(level);
+		entry.setSource(source);
+		entry.setIp(ip);
+		entry.setMessage(id + " " + message);
+		return entry;
+	}
+
+	private static List<LogEntry> entries(int from, int to) {
+		List<LogEntry> entries = new ArrayList<>();
+		for (String message : messages(from, to)) {
+			LogEntry entry = new LogEntry();
+			entry.setMessage(message);
+			entry.setLogLevel("INFO");
+			entries.add(entry);
+		}
+		return entries;
+	}
+
+	private static List<String> messages(int from, int to) {
+		List<String> messages = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			messages.add("event " + i);
+		}
+		return messages;
+	}
+
+	private static int index(String message) {
+		return Integer.parseInt(message.substring("event ".length()));
+	}
+}
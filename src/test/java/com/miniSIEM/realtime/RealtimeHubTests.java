@@ -0,0 +1,194 @@
+package com.miniSIEM.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealtimeHubTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger serializations = new AtomicInteger();
+	private final ObjectMapper objectMapper = new ObjectMapper() {
+		@Override
+		public byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+			serializations.incrementAndGet();
+			return super.writeValueAsBytes(value);
+		}
+	};
+	private final List<RealtimeHub> hubs = new ArrayList<>();
+	private final List<RealtimeClient> closed = new CopyOnWriteArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		hubs.forEach(RealtimeHub::shutdown);
+	}
+
+	@Test
+	void eventIsSerializedOnceAndReachesEveryViewer() throws Exception {
+		RealtimeHub hub = hub(16, RealtimeHub.SlowConsumerPolicy.DROP_OLDEST);
+		List<Viewer> viewers = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			viewers.add(connect(hub, true));
+		}
+
+		hub.broadcast("newLog", Map.of("seq", 1));
+
+		assertEquals(1, serializations.get());
+		for (Viewer viewer : viewers) {
+			await(() -> viewer.text().contains("event: newLog\ndata: {\"seq\":1}\n\n"));
+			assertTrue(viewer.text().startsWith("event: connected\ndata: Real-time feed connected\n\n"));
+		}
+		assertEquals(3, hub.getClientCount());
+	}
+
+	@Test
+	void slowViewerLosesOldestEventsAndDropsAreCounted() throws Exception {
+		RealtimeHub hub = hub(4, RealtimeHub.SlowConsumerPolicy.DROP_OLDEST);
+		Viewer slow = connect(hub, false);
+		Viewer fast = connect(hub, true);
+
+		for (int i = 0; i < 10; i++) {
+			hub.broadcast("newLog", Map.of("seq", i));
+			String expected = "{\"seq\":" + i + "}";
+			await(() -> fast.text().contains(expected));
+		}
+
+		// Eleven frames including "connected" went to a queue of four
+		assertEquals(7L, hub.getStatus().get("droppedEvents"));
+		assertEquals(7.0, meterRegistry.get("siem.realtime.events.dropped").functionCounter().count());
+
+		slow.out.ready = true;
+		slow.out.listener.onWritePossible();
+		String text = slow.text();
+		assertFalse(text.contains("connected"));
+		assertFalse(text.contains("{\"seq\":5}"));
+		for (int i = 6; i < 10; i++) {
+			assertTrue(text.contains("{\"seq\":" + i + "}"), text);
+		}
+		assertEquals(2, hub.getClientCount());
+	}
+
+	@Test
+	void disconnectPolicyEndsTheSlowViewersStream() throws Exception {
+		RealtimeHub hub = hub(4, RealtimeHub.SlowConsumerPolicy.DISCONNECT);
+		Viewer slow = connect(hub, false);
+		Viewer fast = connect(hub, true);
+
+		for (int i = 0; i < 10; i++) {
+			hub.broadcast("newLog", Map.of("seq", i));
+			String expected = "{\"seq\":" + i + "}";
+			await(() -> fast.text().contains(expected));
+		}
+
+		await(() -> !slow.request.isAsyncStarted());
+		assertTrue(fast.request.isAsyncStarted());
+		assertEquals(1, hub.getClientCount());
+		assertEquals(1L, hub.getStatus().get("slowDisconnects"));
+		assertEquals(1, closed.size());
+	}
+
+	@Test
+	void checkpointsAreEmptyNamedEventsSoThePageSeesTheirId() throws Exception {
+		RealtimeHub hub = hub(16, RealtimeHub.SlowConsumerPolicy.DROP_OLDEST);
+		Viewer viewer = new Viewer(true);
+		RealtimeClient client = hub.subscribe(viewer.request, viewer.response, "viewer", closed::add);
+		viewer.out.listener.onWritePossible();
+
+		hub.checkpoint(List.of(client), "boot-42");
+
+		// Without a data line the browser would record the id but dispatch nothing
+		await(() -> viewer.text().contains("id: boot-42\nevent: checkpoint\ndata: \n\n"));
+	}
+
+	private RealtimeHub hub(int queueCapacity, RealtimeHub.SlowConsumerPolicy policy) {
+		RealtimeHub hub = new RealtimeHub(objectMapper, meterRegistry, queueCapacity, policy, 2, 0);
+		hubs.add(hub);
+		return hub;
+	}
+
+	private Viewer connect(RealtimeHub hub, boolean ready) throws Exception {
+		Viewer viewer = new Viewer(ready);
+		hub.subscribe(viewer.request, viewer.response, "viewer", closed::add);
+		if (ready) viewer.out.listener.onWritePossible();
+		return viewer;
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) fail("Condition not met in time");
+			Thread.sleep(10);
+		}
+	}
+
+	private static final class Viewer {
+		final MockHttpServletRequest request = new MockHttpServletRequest();
+		final StubOutputStream out = new StubOutputStream();
+		final HttpServletResponseWrapper response = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+			@Override
+			public ServletOutputStream getOutputStream() {
+				return out;
+			}
+		};
+
+		Viewer(boolean ready) {
+			request.setAsyncSupported(true);
+			out.ready = ready;
+		}
+
+		String text() {
+			synchronized (out.bytes) {
+				return out.bytes.toString(StandardCharsets.UTF_8);
+			}
+		}
+	}
+
+	// Non-blocking output whose readiness the test controls, like a socket that stops draining
+	private static final class StubOutputStream extends ServletOutputStream {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		volatile boolean ready;
+		volatile WriteListener listener;
+
+		@Override
+		public boolean isReady() {
+			return ready;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			this.listener = writeListener;
+		}
+
+		@Override
+		public void write(int b) {
+			synchronized (bytes) {
+				bytes.write(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			synchronized (bytes) {
+				bytes.write(b, off, len);
+			}
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.miniSIEM.repository;
+
+import com.miniSIEM.dto.LogSummary;
+import com.miniSIEM.model.LogEntry;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LogRepositoryImplTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final LogRepositoryImpl repository = new LogRepositoryImpl(mongoTemplate);
+
+	@Test
+	void summariesProjectOnlyTheRequestedFieldsAndTruncateTheMessageInMongo() {
+		ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+		when(mongoTemplate.aggregate(aggregation.capture(), eq(LogEntry.class), eq(LogSummary.class)))
+				.thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+		repository.findSummaries("10.0.0.1", null, null, null, null, Map.of(),
+				new LinkedHashSet<>(List.of("ip", "message")), 50,
+				PageRequest.of(2, 25, Sort.by(Sort.Direction.DESC, "timestamp")));
+
+		List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+		assertEquals(List.of("$match", "$sort", "$skip", "$limit", "$project"),
+				pipeline.stream().map(stage -> stage.keySet().iterator().next()).toList());
+		assertEquals(new Document("ip", "10.0.0.1"), pipeline.get(0).get("$match"));
+		assertEquals(50L, ((Number) pipeline.get(2).get("$skip")).longValue());
+		assertEquals(25L, ((Number) pipeline.get(3).get("$limit")).longValue());
+
+		Document projection = (Document) pipeline.get(4).get("$project");
+		assertEquals(List.of("ip", "message", "messageLength"), List.copyOf(projection.keySet()));
+		assertEquals(new Document("$substrCP", List.of("$message", 0, 50)), projection.get("message"));
+		assertEquals(new Document("$strLenCP", "$message"), projection.get("messageLength"));
+	}
+}
@@ -0,0 +1,80 @@
+package com.miniSIEM.security;
+
+import com.miniSIEM.model.User;
+import com.miniSIEM.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTests {
+
+	private final JwtUtil jwtUtil = new JwtUtil();
+	private final UserService userService = mock(UserService.class);
+	private final VerifiedTokenCache tokenCache = new VerifiedTokenCache(new SimpleMeterRegistry(), 100, 30_000);
+	private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, userService, tokenCache);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(jwtUtil, "secret", "aTestSecretThatIsLongEnoughForHmacSha256Keys");
+		ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+		jwtUtil.init();
+		when(userService.loadUserByUsername("alice")).thenReturn(User.builder()
+				.username("alice").roles(List.of(User.Role.ANALYST)).build());
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void repeatRequestsWithTheSameTokenLoadTheUserOnce() throws Exception {
+		String token = jwtUtil.generateToken("alice");
+
+		assertEquals("alice", authenticate(token).getName());
+		assertEquals("alice", authenticate(token).getName());
+
+		verify(userService, times(1)).loadUserByUsername("alice");
+	}
+
+	@Test
+	void changingAUserDropsItsCachedTokens() throws Exception {
+		String token = jwtUtil.generateToken("alice");
+		authenticate(token);
+
+		tokenCache.invalidate("alice");
+		authenticate(token);
+
+		verify(userService, times(2)).loadUserByUsername("alice");
+	}
+
+	@Test
+	void tamperedTokensAreRejectedWithoutALookup() throws Exception {
+		String token = jwtUtil.generateToken("alice");
+
+		assertNull(authenticate(token.substring(0, token.length() - 2) + "xx"));
+
+		verifyNoInteractions(userService);
+		assertEquals(0, tokenCache.size());
+	}
+
+	private Authentication authenticate(String token) throws Exception {
+		SecurityContextHolder.clearContext();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/stats");
+		request.addHeader("Authorization", "Bearer " + token);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+}
@@ -0,0 +1,147 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.notification.NotificationDispatcher;
+import com.miniSIEM.repository.AlertRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AlertServiceTests {
+
+	private final AlertRepository alertRepository = mock(AlertRepository.class);
+	private final NotificationDispatcher notificationDispatcher = mock(NotificationDispatcher.class);
+	private final AlertService alertService = new AlertService(alertRepository, notificationDispatcher, 10, 100, 500, 3);
+	private final Instant start = Instant.now();
+
+	@Test
+	void repeatsWithinTheWindowAreFoldedIntoTheOpenAlert() {
+		String id = alertService.raise(alert("10.0.0.1", "HIGH", start));
+		assertEquals(id, alertService.raise(alert("10.0.0.1", "HIGH", start.plus(Duration.ofMinutes(5)))));
+		assertNotEquals(id, alertService.raise(alert("10.0.0.2", "HIGH", start)));
+
+		alertService.flush();
+
+		List<Alert> written = upsertsOfFlush(0);
+		Alert folded = written.stream().filter(alert -> alert.getId().equals(id)).findFirst().orElseThrow();
+		assertEquals(2, folded.getCount());
+		assertEquals(start.plus(Duration.ofMinutes(5)), folded.getLastSeen());
+		assertEquals(2, written.size());
+		verify(notificationDispatcher, times(2)).enqueue(any());
+	}
+
+	@Test
+	void aRepeatAfterTheWindowOpensANewAlert() {
+		String first = alertService.raise(alert("10.0.0.1", "HIGH", start));
+		String second = alertService.raise(alert("10.0.0.1", "HIGH", start.plus(Duration.ofMinutes(11))));
+
+		assertNotEquals(first, second);
+		assertEquals(second, alertService.raise(alert("10.0.0.1", "HIGH", start.plus(Duration.ofMinutes(12)))));
+		verify(notificationDispatcher, times(2)).enqueue(any());
+	}
+
+	@Test
+	void repeatsRaiseTheSeverityAndAddLogIdsUpToTheCap() {
+		Alert low = alert("10.0.0.1", "LOW", start);
+		low.setLogIds(List.of("a", "b"));
+		Alert critical = alert("10.0.0.1", "CRITICAL", start.plusSeconds(1));
+		critical.setLogIds(List.of("b", "c", "d"));
+		Alert medium = alert("10.0.0.1", "MEDIUM", start.plusSeconds(2));
+
+		alertService.raise(low);
+		alertService.raise(critical);
+		alertService.raise(medium);
+		alertService.flush();
+
+		Alert written = upsertsOfFlush(0).get(0);
+		assertEquals("CRITICAL", written.getSeverity());
+		assertEquals(List.of("a", "b", "c"), written.getLogIds());
+		assertEquals(3, written.getCount());
+	}
+
+	@Test
+	void aFailedFlushIsRetriedAndLaterChangesAreUpdates() {
+		doThrow(new IllegalStateException("primary stepped down")).doNothing()
+				.when(alertRepository).writeBatch(anyList(), anyList());
+		String id = alertService.raise(alert("10.0.0.1", "HIGH", start));
+
+		alertService.flush();
+		alertService.flush();
+		alertService.raise(alert("10.0.0.1", "HIGH", start.plusSeconds(1)));
+		alertService.flush();
+
+		assertEquals(id, upsertsOfFlush(0).get(0).getId());
+		assertEquals(id, upsertsOfFlush(1).get(0).getId());
+		assertTrue(updatesOfFlush(2).stream().anyMatch(alert -> alert.getId().equals(id) && alert.getCount() == 2));
+		assertTrue(upsertsOfFlush(2).isEmpty());
+	}
+
+	@Test
+	void resolvingAnIndexedAlertClosesItAndOthersAreResolvedInMongo() {
+		String id = alertService.raise(alert("10.0.0.1", "HIGH", start));
+
+		Optional<Alert> resolved = alertService.resolve(id);
+		assertTrue(resolved.orElseThrow().isResolved());
+		assertTrue(upsertsOfFlush(0).get(0).isResolved());
+		assertNotEquals(id, alertService.raise(alert("10.0.0.1", "HIGH", start.plusSeconds(1))));
+		verify(alertRepository, never()).markResolved(id);
+
+		Alert stored = alert("10.0.0.9", "HIGH", start);
+		stored.setId("evicted");
+		stored.setResolved(true);
+		when(alertRepository.markResolved("evicted")).thenReturn(true);
+		when(alertRepository.findById("evicted")).thenReturn(Optional.of(stored));
+		assertSame(stored, alertService.resolve("evicted").orElseThrow());
+		assertTrue(alertService.resolve("unknown").isEmpty());
+	}
+
+	@Test
+	void aFullIndexMakesRoomByEvictingTheLeastRecentlySeen() {
+		AlertService small = new AlertService(alertRepository, notificationDispatcher, 10, 2, 500, 3);
+		String first = small.raise(alert("10.0.0.1", "HIGH", start));
+		String second = small.raise(alert("10.0.0.2", "HIGH", start.plusSeconds(1)));
+		small.raise(alert("10.0.0.1", "HIGH", start.plusSeconds(2)));
+
+		String third = small.raise(alert("10.0.0.3", "HIGH", start.plusSeconds(3)));
+
+		// 10.0.0.2 was seen least recently; the others still deduplicate
+		assertEquals(2, small.getOpenAlertCount());
+		assertEquals(first, small.raise(alert("10.0.0.1", "HIGH", start.plusSeconds(4))));
+		assertEquals(third, small.raise(alert("10.0.0.3", "HIGH", start.plusSeconds(4))));
+		verify(notificationDispatcher, times(3)).enqueue(any());
+		assertNotEquals(second, small.raise(alert("10.0.0.2", "HIGH", start.plusSeconds(5))));
+	}
+
+	private List<Alert> upsertsOfFlush(int flush) {
+		return captureFlushes(true).get(flush);
+	}
+
+	private List<Alert> updatesOfFlush(int flush) {
+		return captureFlushes(false).get(flush);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<List<Alert>> captureFlushes(boolean upserts) {
+		ArgumentCaptor<List<Alert>> upserted = ArgumentCaptor.forClass(List.class);
+		ArgumentCaptor<List<Alert>> updated = ArgumentCaptor.forClass(List.class);
+		verify(alertRepository, atLeastOnce()).writeBatch(upserted.capture(), updated.capture());
+		return upserts ? upserted.getAllValues() : updated.getAllValues();
+	}
+
+	private static Alert alert(String ip, String severity, Instant timestamp) {
+		return Alert.builder()
+				.alertType("BRUTE_FORCE")
+				.description("failed logins from " + ip)
+				.severity(severity)
+				.sourceIp(ip)
+				.timestamp(timestamp)
+				.build();
+	}
+}
@@ -0,0 +1,182 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.detection.ConditionDefinition;
+import com.miniSIEM.detection.RuleDefinition;
+import com.miniSIEM.detection.RuleEngine;
+import com.miniSIEM.dto.BacktestRequest;
+import com.miniSIEM.dto.BacktestStatus;
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.model.LogTag;
+import com.miniSIEM.repository.LogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BacktestServiceTests {
+
+	private static final Instant FROM = Instant.parse("2025-10-10T00:00:00Z");
+	private static final Instant TO = FROM.plus(Duration.ofHours(2));
+
+	@TempDir
+	Path feedDirectory;
+
+	private final AlertService alertService = mock(AlertService.class);
+	private final LogRepository logRepository = mock(LogRepository.class);
+	private final List<LogEntry> stored = new ArrayList<>();
+	private RuleEngine ruleEngine;
+	private BacktestService backtestService;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		// The stored logs, served in timestamp order over [from, to) like the Mongo cursor
+		when(logRepository.streamRange(any(), any())).thenAnswer(invocation -> {
+			Instant from = invocation.getArgument(0);
+			Instant to = invocation.getArgument(1);
+			return stored.stream()
+					.filter(entry -> !entry.getTimestamp().isBefore(from) && entry.getTimestamp().isBefore(to))
+					.sorted(Comparator.comparing(LogEntry::getTimestamp));
+		});
+
+		Files.writeString(feedDirectory.resolve("phishing.txt"), "dropbox-login.example\n");
+		IpWhitelistService allowlist = new IpWhitelistService("missing-allowlist.txt");
+		ThreatIntelService threatIntel = new ThreatIntelService(alertService, allowlist, feedDirectory.toString(), 0.001, 10);
+		threatIntel.init();
+		ruleEngine = new RuleEngine(alertService, new SimpleMeterRegistry(), feedDirectory.resolve("no-rules").toString());
+		ruleEngine.reload();
+
+		// One-hour chunks with a one-hour warm-up: the range is replayed as two chunks
+		backtestService = new BacktestService(logRepository, ruleEngine,
+				new BruteForceDetector(alertService, allowlist, 5, 5), threatIntel,
+				2, 1, 5, 1, 60, 90, 100, 120);
+	}
+
+	@AfterEach
+	void tearDown() {
+		backtestService.shutdown();
+	}
+
+	@Test
+	void aWindowStraddlingAChunkBoundaryIsDetectedOnce() throws InterruptedException {
+		// Three failures before the boundary, the fifth lands in the second chunk
+		for (int minute = 58; minute <= 62; minute++) {
+			failedLogin("10.0.0.1", FROM.plus(Duration.ofMinutes(minute)));
+		}
+
+		BacktestStatus status = run(request("brute-force"));
+
+		assertEquals(2, status.getChunksDone());
+		assertEquals(1, status.getAlertCount());
+		List<Alert> alerts = backtestService.getAlerts(status.getId(), "analyst", false, 0, 10);
+		assertEquals(FROM.plus(Duration.ofMinutes(62)), alerts.get(0).getTimestamp());
+	}
+
+	@Test
+	void alertsFiredDuringWarmUpBelongToThePreviousChunk() throws InterruptedException {
+		// Fires at 0:54 in the first chunk and again while the second chunk warms up
+		for (int minute = 50; minute <= 54; minute++) {
+			failedLogin("10.0.0.1", FROM.plus(Duration.ofMinutes(minute)));
+		}
+
+		BacktestStatus status = run(request("brute-force"));
+
+		assertEquals(1, status.getAlertCount());
+		assertEquals(5, status.getEventsReplayed());
+	}
+
+	@Test
+	void candidateRulesReplaceActiveRulesWithTheSameId() throws InterruptedException {
+		// The built-in error-storm rule needs 50 errors a minute
+		for (int second = 0; second < 3; second++) {
+			stored.add(new LogEntry(null, FROM.plusSeconds(600 + second), "orders-service", "ERROR",
+					"Payment gateway timeout", "10.0.0.5", List.of(), null, null, null));
+		}
+		assertEquals(0, run(request("rules")).getAlertCount());
+
+		RuleDefinition candidate = new RuleDefinition();
+		candidate.setId("error-storm");
+		candidate.setCondition(new ConditionDefinition());
+		candidate.getCondition().setField("logLevel");
+		candidate.getCondition().setEquals("ERROR");
+		candidate.getThreshold().setCount(3);
+		candidate.getThreshold().setWindow("1m");
+		candidate.getThreshold().setGroupBy(List.of("source"));
+		BacktestRequest request = request("rules");
+		request.setRules(List.of(candidate));
+
+		BacktestStatus status = run(request);
+
+		assertEquals(1, status.getAlertCount());
+		assertEquals(1L, status.getAlertsByType().get("ERROR_STORM"));
+		assertTrue(ruleEngine.getRuleStats().stream().allMatch(rule -> rule.getEvaluations() == 0));
+	}
+
+	@Test
+	void aBacktestNeverRaisesProductionAlerts() throws InterruptedException {
+		for (int minute = 10; minute < 15; minute++) {
+			failedLogin("10.0.0.1", FROM.plus(Duration.ofMinutes(minute)));
+		}
+		stored.add(new LogEntry(null, FROM.plus(Duration.ofMinutes(70)), "proxy", "INFO",
+				"CONNECT https://dropbox-login.example/", "10.0.0.7", List.of(), null, null, null));
+
+		BacktestStatus status = run(request("rules", "brute-force", "ioc"));
+
+		assertEquals("COMPLETED", status.getState());
+		assertEquals(1L, status.getAlertsByType().get("BRUTE_FORCE"));
+		assertEquals(1L, status.getAlertsByType().get("IOC_MATCH"));
+		verifyNoInteractions(alertService);
+	}
+
+	@Test
+	void bruteForceOverridesAreBounded() {
+		BacktestRequest hugeThreshold = request("brute-force");
+		hugeThreshold.setBruteForceThreshold(100_000_000);
+		BacktestRequest longWindow = request("brute-force");
+		longWindow.setBruteForceWindowMinutes(1_441);
+
+		for (BacktestRequest request : List.of(hugeThreshold, longWindow)) {
+			assertThrows(IllegalArgumentException.class, () -> backtestService.submit(request, "analyst"));
+		}
+		verifyNoInteractions(logRepository);
+	}
+
+	private BacktestStatus run(BacktestRequest request) throws InterruptedException {
+		String id = backtestService.submit(request, "analyst").getId();
+		long deadline = System.currentTimeMillis() + 10_000;
+		BacktestStatus status = backtestService.getStatus(id, "analyst", false);
+		while (!List.of("COMPLETED", "FAILED", "CANCELLED").contains(status.getState())) {
+			assertTrue(System.currentTimeMillis() < deadline, "backtest did not finish");
+			Thread.sleep(10);
+			status = backtestService.getStatus(id, "analyst", false);
+		}
+		assertEquals("COMPLETED", status.getState(), status.getError());
+		return status;
+	}
+
+	private static BacktestRequest request(String... detectors) {
+		BacktestRequest request = new BacktestRequest();
+		request.setFrom(FROM);
+		request.setTo(TO);
+		request.setDetectors(List.of(detectors));
+		return request;
+	}
+
+	private void failedLogin(String ip, Instant timestamp) {
+		stored.add(new LogEntry(null, timestamp, "sshd", "WARN", "Failed password for root from " + ip, ip,
+				List.of(LogTag.LOGIN.name(), LogTag.AUTH_FAILURE.name()), null, null, null));
+	}
+}
@@ -0,0 +1,124 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.dto.BaselineInfo;
+import com.miniSIEM.dto.VolumeAnomaly;
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BaselineServiceTests {
+
+	private final AlertService alertService = mock(AlertService.class);
+	// Warm after 5 buckets; slots never get enough history of their own, so the flat estimate is used
+	private final BaselineService baselines = new BaselineService(alertService, 0.2, 0.2, 1000, 5,
+			4.0, 20, 5.0, 3, 4, 100, 8);
+
+	@Test
+	void aSpikeStaysActiveUntilVolumeIsWellInsideTheBand() {
+		buckets(10, 10);
+
+		bucket(50);
+		VolumeAnomaly spike = anomaly();
+		assertEquals("SPIKE", spike.getType());
+		assertEquals("MEDIUM", spike.getSeverity());
+		assertEquals(10, spike.getExpected(), 1e-9);
+		// Only error spikes are high severity
+		assertEquals("BUSY", baselines.getSystemStatus());
+
+		// z = 3.2: below the spike threshold of 4 but not yet below half of it
+		bucket(20);
+		assertEquals(20, anomaly().getObserved());
+		// Frozen while the spike lasts
+		assertEquals(10, total().getExpected(), 1e-9);
+
+		bucket(12);
+		assertNull(anomaly());
+		assertEquals(10.4, total().getExpected(), 1e-9);
+
+		ArgumentCaptor<Alert> alerts = ArgumentCaptor.forClass(Alert.class);
+		verify(alertService, times(3)).raise(alerts.capture());
+		assertTrue(alerts.getAllValues().stream().allMatch(alert -> "VOLUME_SPIKE".equals(alert.getAlertType())));
+	}
+
+	@Test
+	void aBusySeriesGoingQuietIsASilence() {
+		buckets(10, 10);
+
+		bucket(0);
+		bucket(0);
+		assertNull(anomaly());
+		bucket(0);
+
+		VolumeAnomaly silence = anomaly();
+		assertEquals("SILENCE", silence.getType());
+		assertEquals("HIGH", silence.getSeverity());
+		assertEquals("ALERT", baselines.getSystemStatus());
+
+		bucket(1);
+		assertNull(anomaly());
+	}
+
+	@Test
+	void noAnomaliesWhileLearning() {
+		buckets(3, 10);
+		bucket(500);
+
+		assertNull(anomaly());
+		assertEquals("LEARNING", baselines.getSystemStatus());
+		verifyNoInteractions(alertService);
+	}
+
+	@Test
+	void aLastingShiftIsAcceptedAsTheNewNormal() {
+		buckets(10, 10);
+		bucket(50);
+		for (int i = 0; i < 3; i++) {
+			bucket(50);
+			assertNotNull(anomaly());
+			assertEquals(10, total().getExpected(), 1e-9);
+		}
+
+		// The fourth bucket past the start reaches max-anomaly-buckets: the level is learned from then on
+		bucket(50);
+		assertNull(anomaly());
+		assertEquals(18, total().getExpected(), 1e-9);
+		buckets(30, 50);
+
+		assertNull(anomaly());
+		assertEquals(50, total().getExpected(), 1);
+		verify(alertService, times(3)).raise(any());
+	}
+
+	private void buckets(int buckets, int events) {
+		for (int i = 0; i < buckets; i++) {
+			bucket(events);
+		}
+	}
+
+	private void bucket(int events) {
+		for (int i = 0; i < events; i++) {
+			LogEntry entry = new LogEntry();
+			entry.setSource("orders-service");
+			entry.setLogLevel("INFO");
+			baselines.onLogIngested(entry);
+		}
+		baselines.closeBucket();
+	}
+
+	private VolumeAnomaly anomaly() {
+		return baselines.getActiveAnomalies().stream()
+				.filter(anomaly -> anomaly.getSeries().equals(BaselineService.TOTAL_SERIES))
+				.findFirst().orElse(null);
+	}
+
+	private BaselineInfo total() {
+		List<BaselineInfo> all = baselines.getBaselines();
+		return all.stream().filter(info -> info.getSeries().equals(BaselineService.TOTAL_SERIES)).findFirst().orElseThrow();
+	}
+}
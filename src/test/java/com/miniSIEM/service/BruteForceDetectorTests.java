@@ -0,0 +1,64 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.model.LogTag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BruteForceDetectorTests {
+
+	private final LogClassifier classifier;
+	private final List<Alert> alerts = new ArrayList<>();
+	private final ReplayDetector detector;
+
+	BruteForceDetectorTests() throws IOException {
+		classifier = new LogClassifier(new DefaultResourceLoader(), "classpath:classification/keywords.yml");
+		detector = new BruteForceDetector(null, new IpWhitelistService("missing-allowlist.txt"), 5, 5)
+				.replay(alerts::add, 0, null, null);
+	}
+
+	@Test
+	void failedLoginsRaiseAnAlert() {
+		for (int i = 0; i < 5; i++) {
+			detector.process(entry("WARN", "Failed password for root from 203.0.113.9 port 4022 ssh2"), i * 1000L);
+		}
+
+		assertEquals(1, alerts.size());
+		assertEquals("203.0.113.9", alerts.get(0).getSourceIp());
+	}
+
+	@Test
+	void refusedRequestsAreNotLoginAttempts() {
+		for (int i = 0; i < 10; i++) {
+			detector.process(entry("WARN", "GET /api/admin 401 Unauthorized: invalid token"), i * 1000L);
+			detector.process(entry("INFO", "Access denied to /srv/reports for 203.0.113.9"), i * 1000L);
+		}
+
+		assertTrue(alerts.isEmpty());
+	}
+
+	@Test
+	void errorsFromLoginServicesAreNotFailedLogins() {
+		LogEntry kex = entry("ERROR", "sshd[812]: error: kex_exchange_identification: Connection closed by remote host");
+		assertTrue(kex.hasTag(LogTag.LOGIN));
+		for (int i = 0; i < 10; i++) {
+			detector.process(kex, i * 1000L);
+			detector.process(entry("ERROR", "pam_unix(sshd:session): error retrieving information about user"), i * 1000L);
+		}
+
+		assertTrue(alerts.isEmpty());
+	}
+
+	private LogEntry entry(String level, String message) {
+		LogEntry entry = new LogEntry(null, null, "test", level, message, "203.0.113.9", null, null, null, null);
+		classifier.classify(entry);
+		return entry;
+	}
+}
@@ -0,0 +1,48 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.dto.ThreatInfo;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.model.LogTag;
+import com.miniSIEM.realtime.LiveLogFeed;
+import com.miniSIEM.realtime.RealtimeHub;
+import com.miniSIEM.repository.LogRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DashboardServiceTests {
+
+	// Two counters, so every new IP takes over the smallest one
+	private final TopTalkerService topTalkers = new TopTalkerService(2, 5, 24);
+	private final DashboardService dashboardService = new DashboardService(mock(LogRepository.class), topTalkers,
+			new IpWhitelistService("missing-allowlist.txt"), mock(BaselineService.class), mock(GeoIpService.class),
+			mock(DashboardStatsTracker.class), mock(RealtimeHub.class), mock(LiveLogFeed.class));
+
+	@Test
+	void threatsAreJudgedOnTheGuaranteedCount() {
+		failedLogins("10.0.0.1", 10);
+		failedLogins("10.0.0.2", 12);
+		// Inherits 10.0.0.1's counter: an upper bound of 11 from a single attempt
+		failedLogins("10.0.0.3", 1);
+
+		@SuppressWarnings("unchecked")
+		List<ThreatInfo> threats = (List<ThreatInfo>) dashboardService.getThreatSummary().get("threats");
+
+		assertEquals(List.of("FAILED_LOGIN-10.0.0.2"), threats.stream().map(ThreatInfo::getId).toList());
+		assertEquals("12 failed login attempts in the last hour", threats.get(0).getDescription());
+		assertEquals("MEDIUM", threats.get(0).getSeverity());
+	}
+
+	private void failedLogins(String ip, int attempts) {
+		for (int i = 0; i < attempts; i++) {
+			LogEntry entry = new LogEntry();
+			entry.setIp(ip);
+			entry.setLogLevel("WARN");
+			entry.setTags(List.of(LogTag.LOGIN.name(), LogTag.AUTH_FAILURE.name()));
+			topTalkers.onLogIngested(entry);
+		}
+	}
+}
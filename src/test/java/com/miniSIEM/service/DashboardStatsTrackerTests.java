@@ -0,0 +1,97 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.dto.DashboardStats;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.realtime.RealtimeHub;
+import com.miniSIEM.repository.LogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DashboardStatsTrackerTests {
+
+	private final LogRepository logRepository = mock(LogRepository.class);
+	private final BaselineService baselineService = mock(BaselineService.class);
+	private final RealtimeHub realtimeHub = mock(RealtimeHub.class);
+	private final DashboardStatsTracker tracker = new DashboardStatsTracker(logRepository, baselineService, realtimeHub);
+	private final long nowMinute = Math.floorDiv(Instant.now().toEpochMilli(), 60_000L);
+
+	@BeforeEach
+	void seed() {
+		when(baselineService.getSystemStatus()).thenReturn("NORMAL");
+		when(logRepository.count()).thenReturn(1000L);
+		when(logRepository.countAllBy("logLevel")).thenReturn(Map.of("ERROR", 40L, "INFO", 960L));
+		when(logRepository.countAllBy("source")).thenReturn(Map.of("nginx", 700L, "sshd", 300L));
+		// 10 in the last hour, 30 more earlier today, 500 too old to count
+		when(logRepository.countPerMinuteSince(any())).thenReturn(Map.of(
+				nowMinute - 5, 10L,
+				nowMinute - 300, 30L,
+				nowMinute - 2000, 500L));
+		tracker.reconcile();
+	}
+
+	@Test
+	void statsComeFromSeededCountersPlusIngestedEntries() {
+		tracker.onLogIngested(entry("ERROR", "sshd", Instant.now()));
+		tracker.onLogIngested(entry("WARN", "app", Instant.now()));
+		tracker.onLogIngested(entry("INFO", "nginx", Instant.now().minus(2, ChronoUnit.DAYS)));
+
+		DashboardStats stats = tracker.getStats();
+		assertEquals(1003, stats.getTotalLogs());
+		assertEquals(12, stats.getLogsLastHour());
+		assertEquals(42, stats.getLogsLast24h());
+		assertEquals(0.2, stats.getLogsPerMinute(), 1e-9);
+		assertEquals(Map.of("ERROR", 41L, "WARN", 1L, "INFO", 961L, "DEBUG", 0L), stats.getLogsByLevel());
+		assertEquals(41, stats.getCriticalAlerts());
+		assertEquals(List.of("nginx", "sshd", "app"), List.copyOf(stats.getLogsBySource().keySet()));
+		assertEquals(701 * 100.0 / 1003, (double) tracker.getTopSources(1).get(0).get("percentage"), 1e-9);
+
+		List<Map<String, Object>> trends = tracker.getHourlyTrends(24);
+		assertEquals(42L, trends.stream().mapToLong(trend -> (Long) trend.get("count")).sum());
+	}
+
+	@Test
+	void onlyChangedFieldsArePushed() {
+		when(realtimeHub.getClientCount()).thenReturn(2);
+
+		tracker.pushDelta();
+		tracker.pushDelta();
+		tracker.onLogIngested(entry("INFO", "nginx", Instant.now()));
+		tracker.pushDelta();
+
+		ArgumentCaptor<Object> deltas = ArgumentCaptor.forClass(Object.class);
+		verify(realtimeHub, times(2)).broadcast(eq("statsDelta"), deltas.capture());
+		@SuppressWarnings("unchecked")
+		Map<String, Object> delta = (Map<String, Object>) deltas.getAllValues().get(1);
+		assertEquals(1001L, delta.get("totalLogs"));
+		assertEquals(11L, delta.get("logsLastHour"));
+		assertTrue(delta.containsKey("logsByLevel"));
+		assertTrue(delta.containsKey("lastUpdated"));
+		assertFalse(delta.containsKey("systemStatus"));
+		assertFalse(delta.containsKey("criticalAlerts"));
+	}
+
+	@Test
+	void nothingIsComputedWithoutViewers() {
+		tracker.pushDelta();
+
+		verify(realtimeHub, never()).broadcast(any(), any());
+		verify(baselineService, never()).getActiveAnomalies();
+	}
+
+	private static LogEntry entry(String level, String source, Instant timestamp) {
+		LogEntry entry = new LogEntry();
+		entry.setLogLevel(level);
+		entry.setSource(source);
+		entry.setTimestamp(timestamp);
+		return entry;
+	}
+}
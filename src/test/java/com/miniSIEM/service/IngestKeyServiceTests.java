@@ -0,0 +1,92 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.IngestKey;
+import com.miniSIEM.repository.IngestKeyRepository;
+import com.miniSIEM.security.IngestKeyPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IngestKeyServiceTests {
+
+	private final IngestKeyRepository repository = mock(IngestKeyRepository.class);
+	private final IngestKeyService service = new IngestKeyService(repository, "test-pepper", 1000);
+
+	@BeforeEach
+	void setUp() {
+		when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void onlyTheIssuedSecretAuthenticates() {
+		IngestKeyService.CreatedKey created = service.create("nginx-shipper", null, "admin");
+		String credential = created.credential();
+		String keyId = created.key().getId();
+
+		IngestKeyPrincipal principal = service.authenticate(credential);
+		assertEquals(keyId, principal.keyId());
+		assertEquals("nginx-shipper", principal.name());
+		assertNotEquals(credential.substring(keyId.length() + 1), created.key().getSecretHash());
+
+		assertNull(service.authenticate(credential + "x"));
+		assertNull(service.authenticate(keyId));
+		assertNull(service.authenticate("ik_unknown." + credential.substring(keyId.length() + 1)));
+	}
+
+	@Test
+	void storedHashesOnlyVerifyUnderTheSamePepper() {
+		IngestKeyService.CreatedKey created = service.create("shipper", null, "admin");
+		when(repository.findByRevokedFalse()).thenReturn(List.of(created.key()));
+		IngestKeyService samePepper = new IngestKeyService(repository, "test-pepper", 1000);
+		IngestKeyService otherPepper = new IngestKeyService(repository, "other-pepper", 1000);
+
+		samePepper.reload();
+		otherPepper.reload();
+
+		// The same stored key and the same presented secret, hashed under each service's pepper
+		assertNotNull(samePepper.authenticate(created.credential()));
+		assertNull(otherPepper.authenticate(created.credential()));
+	}
+
+	@Test
+	void revokedKeysStopAuthenticating() {
+		IngestKeyService.CreatedKey created = service.create("shipper", null, "admin");
+		when(repository.findById(created.key().getId())).thenReturn(Optional.of(created.key()));
+
+		assertTrue(service.revoke(created.key().getId(), "admin"));
+
+		assertNull(service.authenticate(created.credential()));
+		assertTrue(created.key().isRevoked());
+		assertFalse(service.revoke("ik_missing", "admin"));
+	}
+
+	@Test
+	void quotasAreCountedInEvents() {
+		String keyId = service.create("shipper", 100L, "admin").key().getId();
+
+		assertTrue(service.tryAcquire(keyId, 60));
+		assertTrue(service.tryAcquire(keyId, 40));
+		assertFalse(service.tryAcquire(keyId, 1));
+		assertTrue(service.tryAcquire(service.create("unlimited", 0L, "admin").key().getId(), 1_000_000));
+		assertThrows(IllegalArgumentException.class, () -> service.create("bad", -1L, "admin"));
+	}
+
+	@Test
+	void reloadKeepsQuotaWindowsAndDropsKeysRevokedElsewhere() {
+		IngestKeyService.CreatedKey kept = service.create("kept", 10L, "admin");
+		IngestKeyService.CreatedKey revoked = service.create("revoked", 10L, "admin");
+		assertTrue(service.tryAcquire(kept.key().getId(), 10));
+		when(repository.findByRevokedFalse()).thenReturn(List.of(kept.key()));
+
+		service.reload();
+
+		assertFalse(service.tryAcquire(kept.key().getId(), 1));
+		assertNotNull(service.authenticate(kept.credential()));
+		assertNull(service.authenticate(revoked.credential()));
+	}
+}
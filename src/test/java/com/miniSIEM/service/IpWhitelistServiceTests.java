@@ -0,0 +1,55 @@
+package com.miniSIEM.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IpWhitelistServiceTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void entriesMatchBothAddressFamilies() throws IOException {
+		Path file = directory.resolve("allowlist.txt");
+		Files.write(file, List.of("10.0.0.0/8  # internal", "2001:db8::/32", "::ffff:192.0.2.1", "fe80::1:2:3:4"));
+		IpWhitelistService allowlist = new IpWhitelistService(file.toString());
+		allowlist.init();
+
+		assertTrue(allowlist.isWhitelisted("10.20.30.40"));
+		assertFalse(allowlist.isWhitelisted("11.0.0.1"));
+		assertTrue(allowlist.isWhitelisted("2001:db8:0:0:0:0:0:1"));
+		assertTrue(allowlist.isWhitelisted("2001:DB8:ffff::"));
+		assertFalse(allowlist.isWhitelisted("2001:db9::1"));
+		assertTrue(allowlist.isWhitelisted("0:0:0:0:0:ffff:c000:201"));
+		assertTrue(allowlist.isWhitelisted("fe80:0:0:0:1:2:3:4"));
+		assertFalse(allowlist.isWhitelisted("fe80::1:2:3:5"));
+		assertFalse(allowlist.isWhitelisted("fe80::1::5"));
+		assertFalse(allowlist.isWhitelisted("not-an-ip"));
+	}
+
+	@Test
+	void aFileThatFailedToReadIsRetriedWithoutAChange() throws IOException {
+		// Not valid UTF-8, then fixed in place with the same size and modification time
+		Path file = directory.resolve("allowlist.txt");
+		Files.write(file, new byte[] {'1', '0', '.', '0', '.', '0', '.', (byte) 0xFF, '\n'});
+		FileTime modified = Files.getLastModifiedTime(file);
+		IpWhitelistService allowlist = new IpWhitelistService(file.toString());
+		allowlist.init();
+		assertEquals(1, ((List<?>) allowlist.getStatus().get("errors")).size());
+
+		Files.writeString(file, "10.0.0.1\n");
+		Files.setLastModifiedTime(file, modified);
+		allowlist.reloadIfChanged();
+
+		assertTrue(allowlist.isWhitelisted("10.0.0.1"));
+		assertTrue(((List<?>) allowlist.getStatus().get("errors")).isEmpty());
+	}
+}
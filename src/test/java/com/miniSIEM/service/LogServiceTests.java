@@ -0,0 +1,63 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.repository.LogRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LogServiceTests {
+
+	@Test
+	void parsedFieldsAreStoredVerbatim() throws IOException {
+		LogRepository logRepository = mock(LogRepository.class);
+		when(logRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		DefaultResourceLoader loader = new DefaultResourceLoader();
+		LogService logService = new LogService(logRepository, mock(IngestPipeline.class),
+				new LogClassifier(loader, "classpath:classification/keywords.yml"),
+				new LogParser(loader, "classpath:parsing/patterns.yml", 100), new GeoIpService(false, "", 1));
+
+		LogEntry entry = new LogEntry();
+		entry.setSource("nginx");
+		entry.setLogLevel("INFO");
+		entry.setMessage("10.0.0.1 - updater [10/Oct/2025:13:55:36 +0000] \"GET /api/users/delete HTTP/1.1\" 200 512");
+		LogEntry saved = logService.saveLog(entry);
+
+		assertEquals("/api/users/delete", saved.getFields().get("path"));
+		assertEquals("updater", saved.getFields().get("remote_user"));
+		assertFalse(saved.getMessage().contains("delete"));
+	}
+
+	@Test
+	void summariesAcceptOnlyKnownFields() {
+		LogRepository logRepository = mock(LogRepository.class);
+		LogService logService = new LogService(logRepository, mock(IngestPipeline.class), null, null, null);
+
+		logService.findLogSummaries(null, "ERROR", null, null, null, Map.of(), " ip,message ", -1, 5000);
+		logService.findLogSummaries(null, null, null, null, null, Map.of(), null, 0, 10);
+
+		ArgumentCaptor<Set<String>> fields = ArgumentCaptor.captor();
+		ArgumentCaptor<Pageable> pages = ArgumentCaptor.captor();
+		verify(logRepository, times(2)).findSummaries(any(), any(), any(), any(), any(), any(),
+				fields.capture(), anyInt(), pages.capture());
+		assertEquals(List.of("ip", "message"), List.copyOf(fields.getAllValues().get(0)));
+		// Out-of-range paging falls back to the defaults
+		assertEquals(PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "timestamp")), pages.getAllValues().get(0));
+		assertEquals(Set.of("timestamp", "source", "logLevel", "message", "ip"), fields.getAllValues().get(1));
+
+		assertThrows(IllegalArgumentException.class, () ->
+				logService.findLogSummaries(null, null, null, null, null, Map.of(), "ip,fields", 0, 10));
+		verifyNoMoreInteractions(logRepository);
+	}
+}
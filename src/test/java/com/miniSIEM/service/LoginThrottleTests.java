@@ -0,0 +1,97 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LoginThrottleTests {
+
+	private final LogService logService = mock(LogService.class);
+	private final LoginThrottle throttle = new LoginThrottle(logService, new SimpleMeterRegistry(), 5, 3, 15, 1000);
+
+	@Test
+	void anIpPastItsLimitIsRejectedWhateverTheUsername() {
+		for (int i = 0; i < 5; i++) {
+			assertFalse(throttle.rejects("203.0.113.9", "user" + i));
+			throttle.recordFailure("203.0.113.9", "user" + i);
+		}
+
+		assertTrue(throttle.rejects("203.0.113.9", "someone-else"));
+		assertFalse(throttle.rejects("198.51.100.1", "someone-else"));
+	}
+
+	@Test
+	void aUsernamePastItsLimitIsRejectedFromAnyIpUntilItLogsIn() {
+		throttle.recordFailure("10.0.0.1", "alice");
+		throttle.recordFailure("10.0.0.2", "Alice");
+		throttle.recordFailure("10.0.0.3", "ALICE ");
+
+		assertTrue(throttle.rejects("10.0.0.4", "alice"));
+		throttle.recordSuccess("alice");
+		assertFalse(throttle.rejects("10.0.0.4", "alice"));
+	}
+
+	@Test
+	void eachFailureIsReportedSoBruteForceDetectionFires() throws IOException {
+		throttle.recordFailure("203.0.113.9", "root");
+		throttle.recordFailure("203.0.113.9", "root");
+		throttle.recordFailure("203.0.113.9", "admin");
+		for (int i = 0; i < 3; i++) {
+			throttle.recordFailure("203.0.113.9", "x" + i);
+		}
+		assertTrue(throttle.rejects("203.0.113.9", "root"));
+
+		throttle.report();
+		throttle.report();
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<LogEntry>> saved = ArgumentCaptor.forClass(List.class);
+		verify(logService, times(1)).saveBulkLogs(saved.capture());
+		List<LogEntry> events = saved.getValue();
+		List<String> messages = events.stream().map(LogEntry::getMessage).toList();
+		assertEquals(7, messages.size());
+		assertEquals(2, messages.stream().filter("Failed login for user 'root' from 203.0.113.9"::equals).count());
+		assertTrue(messages.contains("Failed login limit reached, rejected 1 attempt for user 'root' from 203.0.113.9"));
+		assertTrue(events.stream().allMatch(entry -> "203.0.113.9".equals(entry.getIp())
+				&& LoginThrottle.SOURCE.equals(entry.getSource())));
+
+		// The entries go through ingest like any other failed logins
+		LogClassifier classifier = new LogClassifier(new DefaultResourceLoader(), "classpath:classification/keywords.yml");
+		List<Alert> alerts = new ArrayList<>();
+		ReplayDetector detector = new BruteForceDetector(null, new IpWhitelistService("missing-allowlist.txt"), 5, 5)
+				.replay(alerts::add, 0, null, null);
+		for (LogEntry event : events) {
+			classifier.classify(event);
+			detector.process(event, 1000);
+		}
+		assertEquals(1, alerts.size());
+		assertEquals("203.0.113.9", alerts.get(0).getSourceIp());
+	}
+
+	@Test
+	void failuresPastThePerKeyCapAreSummed() {
+		LoginThrottle lenient = new LoginThrottle(logService, new SimpleMeterRegistry(), 1000, 1000, 15, 1000);
+		for (int i = 0; i < LoginThrottle.MAX_EVENTS_PER_KEY + 5; i++) {
+			lenient.recordFailure("203.0.113.9", "root");
+		}
+
+		lenient.report();
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<LogEntry>> saved = ArgumentCaptor.forClass(List.class);
+		verify(logService).saveBulkLogs(saved.capture());
+		List<String> messages = saved.getValue().stream().map(LogEntry::getMessage).toList();
+		assertEquals(LoginThrottle.MAX_EVENTS_PER_KEY + 1, messages.size());
+		assertEquals("Failed login for user 'root' from 203.0.113.9: 5 more attempts", messages.get(messages.size() - 1));
+	}
+}
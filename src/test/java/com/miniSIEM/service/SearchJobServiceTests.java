@@ -0,0 +1,148 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.dto.SearchJobRequest;
+import com.miniSIEM.dto.SearchJobStatus;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.repository.LogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SearchJobServiceTests {
+
+	private static final Instant TO = Instant.parse("2025-10-10T00:00:00Z");
+
+	private final LogRepository logRepository = mock(LogRepository.class);
+	// Holds every scan open until the test lets it finish
+	private final CountDownLatch scansMayFinish = new CountDownLatch(1);
+	private SearchJobService searchJobService;
+
+	@AfterEach
+	void tearDown() {
+		scansMayFinish.countDown();
+		if (searchJobService != null) searchJobService.shutdown();
+	}
+
+	@Test
+	void thePerUserLimitHoldsUntilAJobFinishes() throws InterruptedException {
+		blockScans();
+		searchJobService = service(1);
+		String first = searchJobService.submit(request(1), "alice").getId();
+		await(first, "alice", "RUNNING");
+		String second = searchJobService.submit(request(1), "alice").getId();
+
+		assertThrows(IllegalStateException.class, () -> searchJobService.submit(request(1), "alice"));
+		// The worker and the queue are both taken; the rejected job gives its slot back
+		assertThrows(IllegalStateException.class, () -> searchJobService.submit(request(1), "bob"));
+
+		scansMayFinish.countDown();
+		awaitFinished(first, "alice");
+		awaitFinished(second, "alice");
+		awaitFinished(searchJobService.submit(request(1), "bob").getId(), "bob");
+		awaitFinished(searchJobService.submit(request(1), "bob").getId(), "bob");
+		awaitFinished(searchJobService.submit(request(1), "alice").getId(), "alice");
+		awaitFinished(searchJobService.submit(request(1), "alice").getId(), "alice");
+	}
+
+	@Test
+	void cancellingAQueuedJobReleasesItsSlot() throws InterruptedException {
+		blockScans();
+		searchJobService = service(1);
+		await(searchJobService.submit(request(1), "alice").getId(), "alice", "RUNNING");
+		String queued = searchJobService.submit(request(1), "alice").getId();
+
+		assertEquals("CANCELLED", searchJobService.cancel(queued, "alice", false).getState());
+
+		assertEquals("QUEUED", searchJobService.submit(request(1), "alice").getState());
+	}
+
+	@Test
+	void concurrentSubmissionsNeverExceedTheLimit() throws InterruptedException {
+		blockScans();
+		searchJobService = service(50);
+		AtomicInteger accepted = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService submitters = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 32; i++) {
+			submitters.execute(() -> {
+				try {
+					start.await();
+					searchJobService.submit(request(1), "alice");
+					accepted.incrementAndGet();
+				} catch (IllegalStateException | InterruptedException e) {
+					// Over the limit
+				}
+			});
+		}
+		start.countDown();
+		submitters.shutdown();
+		assertTrue(submitters.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(2, accepted.get());
+	}
+
+	@Test
+	void partitionsAreScannedNewestFirst() throws InterruptedException {
+		List<Instant> partitionEnds = Collections.synchronizedList(new ArrayList<>());
+		when(logRepository.streamLogs(any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+			partitionEnds.add(invocation.getArgument(5));
+			return Stream.of(new LogEntry());
+		});
+		searchJobService = service(1);
+
+		SearchJobStatus status = awaitFinished(searchJobService.submit(request(50), "alice").getId(), "alice");
+
+		assertEquals("COMPLETED", status.getState());
+		assertEquals(3, status.getPartitionsTotal());
+		assertEquals(3, status.getPartitionsScanned());
+		assertEquals(3, status.getHitsFound());
+		assertEquals(List.of(TO, TO.minus(Duration.ofHours(24)), TO.minus(Duration.ofHours(48))), partitionEnds);
+	}
+
+	private SearchJobService service(int queueCapacity) {
+		return new SearchJobService(logRepository, 1, queueCapacity, 2, 100, 24, 60);
+	}
+
+	private void blockScans() {
+		when(logRepository.streamLogs(any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+			scansMayFinish.await();
+			return Stream.empty();
+		});
+	}
+
+	private SearchJobStatus awaitFinished(String id, String username) throws InterruptedException {
+		return await(id, username, "COMPLETED", "FAILED", "CANCELLED");
+	}
+
+	private SearchJobStatus await(String id, String username, String... states) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		SearchJobStatus status = searchJobService.getStatus(id, username, false);
+		while (!List.of(states).contains(status.getState())) {
+			assertTrue(System.currentTimeMillis() < deadline, "search job did not reach " + List.of(states));
+			Thread.sleep(10);
+			status = searchJobService.getStatus(id, username, false);
+		}
+		return status;
+	}
+
+	private static SearchJobRequest request(int hours) {
+		SearchJobRequest request = new SearchJobRequest();
+		request.setFrom(TO.minus(Duration.ofHours(hours)));
+		request.setTo(TO);
+		return request;
+	}
+}
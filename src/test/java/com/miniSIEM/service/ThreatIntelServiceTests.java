@@ -0,0 +1,111 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.Alert;
+import com.miniSIEM.model.LogEntry;
+import com.miniSIEM.repository.LogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ThreatIntelServiceTests {
+
+	@TempDir
+	Path feedDirectory;
+
+	@Test
+	void domainsAreMatchedAsTheyWereBeforeSanitization() throws IOException {
+		Files.writeString(feedDirectory.resolve("phishing.txt"), "dropbox-login.example\nwindowsupdate-cdn.example\n");
+		AlertService alertService = mock(AlertService.class);
+		ThreatIntelService threatIntel = new ThreatIntelService(alertService,
+				new IpWhitelistService("missing-allowlist.txt"), feedDirectory.toString(), 0.001, 10);
+		threatIntel.init();
+
+		LogRepository logRepository = mock(LogRepository.class);
+		when(logRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		DefaultResourceLoader loader = new DefaultResourceLoader();
+		LogService logService = new LogService(logRepository, mock(IngestPipeline.class),
+				new LogClassifier(loader, "classpath:classification/keywords.yml"),
+				new LogParser(loader, "classpath:parsing/patterns.yml", 100), new GeoIpService(false, "", 1));
+
+		LogEntry entry = new LogEntry();
+		entry.setSource("proxy");
+		entry.setLogLevel("INFO");
+		entry.setIp("10.0.0.7");
+		entry.setMessage("CONNECT https://Dropbox-Login.example/, then cdn.windowsupdate-cdn.example.");
+		threatIntel.onLogIngested(logService.saveLog(entry));
+
+		// Stored as sanitized, matched as sent
+		assertFalse(entry.getMessage().contains("Dropbox"));
+		ArgumentCaptor<Alert> alerts = ArgumentCaptor.forClass(Alert.class);
+		verify(alertService, times(2)).raise(alerts.capture());
+		List<String> descriptions = alerts.getAllValues().stream().map(Alert::getDescription).toList();
+		assertTrue(descriptions.get(0).startsWith("Domain dropbox-login.example matched threat feed 'phishing'"));
+		assertTrue(descriptions.get(1).startsWith("Domain windowsupdate-cdn.example matched threat feed 'phishing'"));
+	}
+
+	@Test
+	void parallelMatchesOfOneIndicatorRaiseOneAlert() throws Exception {
+		Files.writeString(feedDirectory.resolve("botnet.txt"), "203.0.113.9\n");
+		AlertService alertService = mock(AlertService.class);
+		ThreatIntelService threatIntel = new ThreatIntelService(alertService,
+				new IpWhitelistService("missing-allowlist.txt"), feedDirectory.toString(), 0.001, 10);
+		threatIntel.init();
+
+		ExecutorService workers = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> done = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			done.add(workers.submit(() -> {
+				start.await();
+				for (int j = 0; j < 1_000; j++) {
+					LogEntry entry = new LogEntry();
+					entry.setIp("203.0.113.9");
+					entry.setMessage("connection accepted");
+					threatIntel.onLogIngested(entry);
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : done) {
+			future.get();
+		}
+		workers.shutdown();
+
+		verify(alertService, times(1)).raise(any());
+	}
+
+	@Test
+	void aFeedThatFailedToLoadIsRetriedWithoutAChange() throws IOException {
+		// Not valid UTF-8, then fixed in place with the same size and modification time
+		Path feed = feedDirectory.resolve("phishing.txt");
+		Files.write(feed, new byte[] {'e', 'v', 'i', 'l', '.', 'e', 'x', 'a', 'm', 'p', 'l', (byte) 0xFF, '\n'});
+		FileTime modified = Files.getLastModifiedTime(feed);
+		ThreatIntelService threatIntel = new ThreatIntelService(mock(AlertService.class),
+				new IpWhitelistService("missing-allowlist.txt"), feedDirectory.toString(), 0.001, 10);
+		threatIntel.init();
+		assertEquals(1, ((List<?>) threatIntel.getStatus().get("errors")).size());
+
+		Files.writeString(feed, "evil.example\n");
+		Files.setLastModifiedTime(feed, modified);
+		threatIntel.reloadIfChanged();
+
+		assertTrue(((List<?>) threatIntel.getStatus().get("errors")).isEmpty());
+		assertEquals(1, ((List<?>) threatIntel.getStatus().get("feeds")).size());
+	}
+}
@@ -0,0 +1,37 @@
+package com.miniSIEM.service;
+
+import com.miniSIEM.model.User;
+import com.miniSIEM.repository.UserRepository;
+import com.miniSIEM.security.VerifiedTokenCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.mockito.Mockito.*;
+
+class UserServiceTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final BulkOperations updates = mock(BulkOperations.class);
+	private final UserService userService = new UserService(mock(UserRepository.class), mock(PasswordEncoder.class),
+			mock(VerifiedTokenCache.class), mongoTemplate);
+
+	@Test
+	void lastLoginsAreKeptWhenTheWriteFails() {
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)).thenReturn(updates);
+		when(updates.execute()).thenThrow(new RuntimeException("connection reset")).thenReturn(null);
+		userService.updateLastLogin("alice");
+		userService.updateLastLogin("bob");
+
+		userService.flushLastLogins();
+		userService.flushLastLogins();
+		userService.flushLastLogins();
+
+		// Both written twice: once in the failed batch, once in the retry; nothing left for the third flush
+		verify(updates, times(4)).updateOne(any(Query.class), any(Update.class));
+		verify(updates, times(2)).execute();
+	}
+}
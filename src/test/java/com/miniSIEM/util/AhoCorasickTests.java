@@ -0,0 +1,50 @@
+package com.miniSIEM.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickTests {
+
+	@Test
+	void matchesOverlappingKeywordsCaseInsensitively() {
+		AhoCorasick automaton = AhoCorasick.builder()
+				.add("login", 0)
+				.add("failed login", 1)
+				.add("union select", 2)
+				.add("gin", 3)
+				.build();
+
+		assertEquals(0b1011, automaton.match("FAILED LOGIN for admin"));
+		assertEquals(0b0100, automaton.match("id=1 UNION SELECT password"));
+		assertEquals(0, automaton.match("all good"));
+		assertEquals(0, automaton.match(null));
+	}
+
+	@Test
+	void agreesWithNaiveSearch() {
+		String[] keywords = {"ab", "abc", "bca", "caa", "b", "ßx", "aab"};
+		AhoCorasick.Builder builder = AhoCorasick.builder();
+		for (int i = 0; i < keywords.length; i++) {
+			builder.add(keywords[i], i);
+		}
+		AhoCorasick automaton = builder.build();
+
+		Random random = new Random(7);
+		String alphabet = "abcABCßx ";
+		for (int run = 0; run < 2000; run++) {
+			StringBuilder text = new StringBuilder();
+			for (int i = random.nextInt(20); i > 0; i--) {
+				text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			String lower = text.toString().toLowerCase();
+			long expected = 0;
+			for (int i = 0; i < keywords.length; i++) {
+				if (lower.contains(keywords[i])) expected |= 1L << i;
+			}
+			assertEquals(expected, automaton.match(text), text::toString);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.miniSIEM.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CidrTrieTests {
+
+	@Test
+	void matchesAddressesInsideIpv4Prefixes() {
+		CidrTrie trie = CidrTrie.builder()
+				.addIpv4(IpKeys.parseIpv4("10.0.0.0"), 8)
+				.addIpv4(IpKeys.parseIpv4("192.168.1.1"), 32)
+				.addIpv4(IpKeys.parseIpv4("172.16.5.0"), 24)
+				.build();
+
+		assertTrue(trie.containsIpv4(IpKeys.parseIpv4("10.255.3.4")));
+		assertTrue(trie.containsIpv4(IpKeys.parseIpv4("192.168.1.1")));
+		assertFalse(trie.containsIpv4(IpKeys.parseIpv4("192.168.1.2")));
+		assertTrue(trie.containsIpv4(IpKeys.parseIpv4("172.16.5.200")));
+		assertFalse(trie.containsIpv4(IpKeys.parseIpv4("172.16.6.1")));
+		assertFalse(trie.containsIpv4(IpKeys.parseIpv4("11.0.0.1")));
+	}
+
+	@Test
+	void agreesWithMaskComparison() {
+		Random random = new Random(3);
+		long[] networks = new long[500];
+		int[] lengths = new int[500];
+		CidrTrie.Builder builder = CidrTrie.builder();
+		for (int i = 0; i < networks.length; i++) {
+			networks[i] = random.nextInt() & 0xFFFFFFFFL;
+			lengths[i] = 8 + random.nextInt(25);
+			builder.addIpv4(networks[i], lengths[i]);
+		}
+		CidrTrie trie = builder.build();
+
+		for (int run = 0; run < 20000; run++) {
+			long address = run % 2 == 0 ? random.nextInt() & 0xFFFFFFFFL
+					: networks[run % networks.length] ^ (random.nextInt(256));
+			boolean expected = false;
+			for (int i = 0; i < networks.length; i++) {
+				long mask = (0xFFFFFFFFL << (32 - lengths[i])) & 0xFFFFFFFFL;
+				if ((address & mask) == (networks[i] & mask)) expected = true;
+			}
+			assertEquals(expected, trie.containsIpv4(address));
+		}
+	}
+
+	@Test
+	void parsesAndMatchesIpv6() {
+		long[] address = new long[2];
+		assertTrue(IpKeys.parseIpv6("2001:db8::", address));
+		CidrTrie trie = CidrTrie.builder().addIpv6(address[0], address[1], 32).build();
+
+		assertTrue(IpKeys.parseIpv6("2001:0db8:85a3::8a2e:370:7334", address));
+		assertTrue(trie.containsIpv6(address[0], address[1]));
+		assertTrue(IpKeys.parseIpv6("2001:db9::1", address));
+		assertFalse(trie.containsIpv6(address[0], address[1]));
+
+		assertTrue(IpKeys.parseIpv6("::ffff:192.0.2.1", address));
+		assertEquals(0, address[0]);
+		assertEquals(0x0000FFFFC0000201L, address[1]);
+		assertTrue(IpKeys.parseIpv6("::1", address));
+		assertEquals(1, address[1]);
+
+		assertFalse(IpKeys.parseIpv6("1::2::3", address));
+		assertFalse(IpKeys.parseIpv6("1:2:3:4:5:6:7:8:9", address));
+		assertFalse(IpKeys.parseIpv6("12345::", address));
+		assertFalse(IpKeys.parseIpv6("10.0.0.1", address));
+	}
+}
@@ -0,0 +1,122 @@
+package com.miniSIEM.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentLongObjectMapTests {
+
+	@Test
+	void removingInsideACollisionRunKeepsTheDisplacedKeysReachable() {
+		ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>(1);
+		// Four keys sharing a home slot, then one whose home slot the run has already taken
+		List<Long> run = keysWithHome(5, 4);
+		long neighbour = keysWithHome(6, 1).get(0);
+		for (long key : run) {
+			map.computeIfAbsent(key, k -> "v" + k);
+		}
+		map.computeIfAbsent(neighbour, k -> "v" + k);
+
+		assertEquals("v" + run.get(1), map.remove(run.get(1)));
+		assertNull(map.get(run.get(1)));
+		for (long key : List.of(run.get(0), run.get(2), run.get(3), neighbour)) {
+			assertEquals("v" + key, map.get(key));
+		}
+
+		// Removal by identity, as callers hand back the instance they looked up
+		assertFalse(map.remove(run.get(3), "v" + run.get(3)));
+		assertTrue(map.remove(run.get(0), map.get(run.get(0))));
+		for (long key : List.of(run.get(2), run.get(3), neighbour)) {
+			assertEquals("v" + key, map.get(key));
+		}
+		assertEquals(3, map.size());
+	}
+
+	@Test
+	void behavesLikeAHashMapThroughResizesAndRemovals() {
+		ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>(4);
+		Map<Long, Long> expected = new HashMap<>();
+		Random random = new Random(7);
+
+		for (int i = 0; i < 200_000; i++) {
+			long key = random.nextInt(5_000);
+			if (random.nextBoolean()) {
+				map.computeIfAbsent(key, k -> k * 10);
+				expected.putIfAbsent(key, key * 10);
+			} else {
+				assertEquals(expected.remove(key), map.remove(key));
+			}
+		}
+
+		assertEquals(expected.size(), map.size());
+		for (long key = 0; key < 5_000; key++) {
+			assertEquals(expected.get(key), map.get(key));
+		}
+		Map<Long, Long> visited = new HashMap<>();
+		map.forEach(visited::put);
+		assertEquals(expected, visited);
+	}
+
+	@Test
+	void concurrentInsertsAndRemovesLoseNothing() throws Exception {
+		ConcurrentLongObjectMap<Object> map = new ConcurrentLongObjectMap<>(8);
+		int threads = 8;
+		int perThread = 20_000;
+		ExecutorService workers = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> done = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			long base = (long) t * perThread;
+			done.add(workers.submit(() -> {
+				start.await();
+				for (long key = base; key < base + perThread; key++) {
+					map.computeIfAbsent(key, k -> new Object());
+					// Every thread also races for the same shared keys
+					map.computeIfAbsent(-(key % 100) - 1, k -> new Object());
+				}
+				for (long key = base; key < base + perThread; key += 2) {
+					assertNotNull(map.remove(key));
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : done) {
+			future.get();
+		}
+		workers.shutdown();
+
+		assertEquals(threads * perThread / 2 + 100, map.size());
+		for (long key = 0; key < (long) threads * perThread; key++) {
+			assertEquals(key % 2 == 1, map.get(key) != null);
+		}
+	}
+
+	// Keys that land in stripe 0 of a two-stripe map with this home slot in a 16-slot table
+	private static List<Long> keysWithHome(int home, int count) {
+		List<Long> keys = new ArrayList<>();
+		for (long key = 1; keys.size() < count; key++) {
+			long mixed = mix(key);
+			if (((mixed >>> 40) & 1) == 0 && (mixed & 15) == home) keys.add(key);
+		}
+		return keys;
+	}
+
+	// Same finalizer as the map
+	private static long mix(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		return key;
+	}
+}
@@ -0,0 +1,70 @@
+package com.miniSIEM.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoIpDatabaseTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void resolvesRangesFromCompiledTsv() throws Exception {
+		Path source = directory.resolve("ip2asn-v4.tsv");
+		Files.writeString(source, String.join("\n",
+				"# comment",
+				"8.8.8.0\t8.8.8.255\t15169\tUS\tGOOGLE",
+				"1.0.0.0\t1.0.0.255\t13335\tUS\tCLOUDFLARENET",
+				"2.0.0.0\t2.0.0.255\t0\tNone\tNot routed",
+				"5.1.0.0\t5.1.255.255\t3320\tde\tDTAG Internet Service Provider Operations",
+				"200.0.0.0\t255.255.255.255\t64512\tNone\tÄ private",
+				"2001:db8::\t2001:db8::ffff\t64496\tNL\tDOC",
+				"not a line"));
+		Path target = directory.resolve("ip2asn-v4.tsv.bin");
+
+		assertEquals(4, GeoIpDatabase.compile(source, target));
+		GeoIpDatabase database = GeoIpDatabase.open(target);
+
+		int range = database.find(IpKeys.parseIpv4("1.0.0.1"));
+		assertEquals("US", database.country(range));
+		assertEquals(13335, database.asn(range));
+		assertEquals("CLOUDFLARENET", database.asOrg(range));
+
+		range = database.find(IpKeys.parseIpv4("5.1.255.255"));
+		assertEquals("DE", database.country(range));
+		assertEquals(3320, database.asn(range));
+
+		// Unsigned range ends and names outside ASCII
+		range = database.find(IpKeys.parseIpv4("255.255.255.255"));
+		assertNull(database.country(range));
+		assertEquals(64512, database.asn(range));
+		assertEquals("Ä private", database.asOrg(range));
+
+		assertEquals(-1, database.find(IpKeys.parseIpv4("0.255.255.255")));
+		assertEquals(-1, database.find(IpKeys.parseIpv4("1.0.1.0")));
+		assertEquals(-1, database.find(IpKeys.parseIpv4("2.0.0.1"))); // AS 0 is skipped
+		assertEquals(-1, database.find(IpKeys.parseIpv4("8.8.9.0")));
+	}
+
+	@Test
+	void overlappingRangesAreCutAtTheNextStart() throws Exception {
+		Path source = directory.resolve("overlap.tsv");
+		Files.writeString(source, String.join("\n",
+				"10.0.0.0\t10.0.255.255\t100\tFR\tWIDE",
+				"10.0.1.0\t10.0.1.255\t200\tBE\tNARROW",
+				"10.0.1.0\t10.0.1.127\t300\tNL\tINSIDE"));
+		Path target = directory.resolve("overlap.bin");
+
+		GeoIpDatabase.compile(source, target);
+		GeoIpDatabase database = GeoIpDatabase.open(target);
+
+		assertEquals(100, database.asn(database.find(IpKeys.parseIpv4("10.0.0.255"))));
+		assertEquals(300, database.asn(database.find(IpKeys.parseIpv4("10.0.1.100"))));
+		assertEquals(-1, database.find(IpKeys.parseIpv4("10.0.2.0")));
+	}
+}
@@ -0,0 +1,48 @@
+package com.miniSIEM.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrokPatternTests {
+
+	private static final Map<String, String> DEFINITIONS = Map.of(
+			"INT", "\\d+",
+			"USER", "[a-z_][a-z0-9_-]*",
+			"IPV4", "(?:\\d{1,3}\\.){3}\\d{1,3}",
+			"IP", "%{IPV4}",
+			"LOOP", "a%{LOOP}");
+
+	@Test
+	void capturesNamedFieldsThroughNestedDefinitions() {
+		GrokPattern pattern = GrokPattern.compile(
+				"Failed password for (?:invalid user )?%{USER:user} from %{IP:src_ip} port %{INT:src_port}", DEFINITIONS);
+		assertEquals(List.of("user", "src_ip", "src_port"), pattern.getFieldNames());
+
+		Map<String, String> fields = new HashMap<>();
+		assertTrue(pattern.extract("sshd[42]: Failed password for invalid user oracle from 10.1.2.3 port 51234 ssh2", fields));
+		assertEquals(Map.of("user", "oracle", "src_ip", "10.1.2.3", "src_port", "51234"), fields);
+	}
+
+	@Test
+	void leavesFieldsUntouchedOnMismatchAndSkipsUnmatchedOptionalGroups() {
+		GrokPattern pattern = GrokPattern.compile("user %{USER:user}(?: port %{INT:port})?", DEFINITIONS);
+
+		Map<String, String> fields = new HashMap<>();
+		assertFalse(pattern.extract("nothing to see", fields));
+		assertTrue(fields.isEmpty());
+
+		assertTrue(pattern.extract("user root logged in", fields));
+		assertEquals(Map.of("user", "root"), fields);
+	}
+
+	@Test
+	void rejectsUnknownAndRecursiveDefinitions() {
+		assertThrows(IllegalArgumentException.class, () -> GrokPattern.compile("%{NOPE:x}", DEFINITIONS));
+		assertThrows(IllegalArgumentException.class, () -> GrokPattern.compile("%{LOOP}", DEFINITIONS));
+	}
+}
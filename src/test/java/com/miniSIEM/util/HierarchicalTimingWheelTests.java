@@ -0,0 +1,65 @@
+package com.miniSIEM.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTests {
+
+	@Test
+	void firesKeysOnceTheirDeadlinePasses() {
+		HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1000, 0);
+		wheel.schedule(1, 1500);
+		wheel.schedule(2, 5000);
+		List<Long> fired = new ArrayList<>();
+
+		wheel.advance(1000, fired::add);
+		assertTrue(fired.isEmpty());
+		wheel.advance(2000, fired::add);
+		assertEquals(List.of(1L), fired);
+		wheel.advance(10_000, fired::add);
+		assertEquals(List.of(1L, 2L), fired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void neverFiresEarlyOrLateAcrossAllLevels() {
+		Random random = new Random(11);
+		HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(10, 0);
+		Map<Long, Long> deadlines = new HashMap<>();
+		long now = 0;
+		long nextKey = 0;
+
+		for (int step = 0; step < 3000; step++) {
+			for (int i = 0; i < 20; i++) {
+				// Spread from the current tick to well past the innermost wheels
+				long delay = switch (random.nextInt(4)) {
+					case 0 -> random.nextInt(3_000);
+					case 1 -> random.nextInt(200_000);
+					case 2 -> random.nextInt(20_000_000);
+					default -> random.nextInt(2_000_000_000);
+				};
+				deadlines.put(nextKey, now + delay);
+				wheel.schedule(nextKey++, now + delay);
+			}
+			now += random.nextInt(step % 100 == 0 ? 5_000_000 : 2_000);
+			long current = now;
+			wheel.advance(now, key -> {
+				Long deadline = deadlines.remove(key);
+				assertNotNull(deadline, "fired twice or unknown: " + key);
+				assertTrue(deadline <= current, "fired early");
+			});
+			for (long deadline : deadlines.values()) {
+				// Granularity is one tick: a key may only be pending if it fell due within the last tick
+				assertTrue(deadline > now - 10, "missed a due key");
+			}
+			assertEquals(deadlines.size(), wheel.size());
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.miniSIEM.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndicatorSetTests {
+
+	@Test
+	void confirmsMembershipExactly() {
+		Random random = new Random(11);
+		long[] keys = new long[20000];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = random.nextLong() >>> random.nextInt(40);
+		}
+		keys[1] = keys[0]; // duplicates are collapsed
+
+		Set<Long> expected = new HashSet<>();
+		for (long key : keys) expected.add(key);
+
+		IndicatorSet set = IndicatorSet.of(keys.clone(), keys.length, 0.01);
+		for (long key : keys) {
+			assertTrue(set.contains(key));
+		}
+		for (int i = 0; i < 100000; i++) {
+			long probe = random.nextLong();
+			assertEquals(expected.contains(probe), set.contains(probe));
+		}
+		assertEquals(expected.size(), set.size());
+	}
+
+	@Test
+	void domainKeysIgnoreCaseAndSupportSubranges() {
+		String message = "lookup for WWW.Evil.Example failed";
+		long full = IndicatorSet.domainKey("www.evil.example", 0, 16);
+		assertEquals(full, IndicatorSet.domainKey(message, 11, 27));
+		assertEquals(IndicatorSet.domainKey("evil.example", 0, 12), IndicatorSet.domainKey(message, 15, 27));
+		assertFalse(IndicatorSet.empty().contains(full));
+	}
+}
@@ -0,0 +1,63 @@
+package com.miniSIEM.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeasonalEwmaTests {
+
+	@Test
+	void slotsUseTheOverallEstimateUntilTheyHaveHistory() {
+		SeasonalEwma ewma = new SeasonalEwma(0.5, 0.5, 3);
+		for (int i = 0; i < 5; i++) {
+			ewma.update(10, 1);
+		}
+		ewma.update(100, 0);
+		ewma.update(100, 0);
+
+		// Slot 0 has two samples of three: still the overall mean, pulled up by its own two
+		assertFalse(ewma.isSeasonal(0));
+		assertEquals(77.5, ewma.expectedMean(0), 1e-9);
+		assertEquals(ewma.expectedMean(0), ewma.expectedMean(2), 1e-9);
+
+		ewma.update(100, 0);
+
+		assertTrue(ewma.isSeasonal(0));
+		assertEquals(100, ewma.expectedMean(0), 1e-9);
+		assertEquals(10, ewma.expectedMean(1), 1e-9);
+		assertFalse(ewma.isSeasonal(2));
+		assertEquals(8, ewma.getSamples());
+	}
+
+	@Test
+	void spreadIsNeverBelowThePoissonNoiseOfTheMean() {
+		SeasonalEwma busy = new SeasonalEwma(0.1, 0.1, 1);
+		SeasonalEwma sparse = new SeasonalEwma(0.1, 0.1, 1);
+		for (int i = 0; i < 50; i++) {
+			busy.update(100, 0);
+			sparse.update(0.25, 0);
+		}
+
+		// Constant series have no variance of their own
+		assertEquals(10, busy.expectedStdDev(0), 1e-9);
+		assertEquals(1.0, busy.zScore(110, 0), 1e-9);
+		assertEquals(1, sparse.expectedStdDev(0), 1e-9);
+	}
+
+	@Test
+	void varianceFollowsANoisySeries() {
+		SeasonalEwma ewma = new SeasonalEwma(0.1, 0.1, 1000);
+		for (int i = 0; i < 500; i++) {
+			ewma.update(i % 2 == 0 ? 50 : 150, 0);
+		}
+
+		assertEquals(100, ewma.expectedMean(0), 10);
+		assertTrue(ewma.expectedStdDev(0) > 40, "std dev " + ewma.expectedStdDev(0));
+	}
+
+	@Test
+	void smoothingFactorsMustBeFractions() {
+		assertThrows(IllegalArgumentException.class, () -> new SeasonalEwma(0, 0.5, 1));
+		assertThrows(IllegalArgumentException.class, () -> new SeasonalEwma(0.5, 1, 1));
+	}
+}
@@ -0,0 +1,57 @@
+package com.miniSIEM.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingTests {
+
+	@Test
+	void heavyHittersSurviveEviction() {
+		SpaceSaving summary = new SpaceSaving(3);
+		for (int i = 0; i < 100; i++) {
+			summary.offer("10.0.0.1", 1, i);
+			summary.offer("noise-" + i, 1, i);
+		}
+
+		List<SpaceSaving.Entry> top = summary.top(1);
+		assertEquals("10.0.0.1", top.get(0).key());
+		assertTrue(top.get(0).guaranteedCount() <= 100);
+		assertTrue(top.get(0).count() >= 100);
+		assertEquals(200, summary.getTotal());
+		assertEquals(3, summary.size());
+	}
+
+	@Test
+	void mergeSumsCountsAcrossSummaries() {
+		SpaceSaving first = new SpaceSaving(10);
+		SpaceSaving second = new SpaceSaving(10);
+		first.offer("a", 5, 1);
+		first.offer("b", 2, 2);
+		second.offer("a", 3, 0);
+
+		SpaceSaving merged = SpaceSaving.merge(List.of(first, second), 10);
+
+		assertEquals(8, merged.get("a").count());
+		assertEquals(0, merged.get("a").firstSeen());
+		assertEquals(10, merged.getTotal());
+	}
+
+	@Test
+	void keysMissingFromAFullSummaryKeepAnUpperBoundCount() {
+		SpaceSaving full = new SpaceSaving(2);
+		full.offer("x", 4, 0);
+		full.offer("y", 3, 0);
+		SpaceSaving other = new SpaceSaving(10);
+		other.offer("a", 1, 0);
+
+		SpaceSaving.Entry a = SpaceSaving.merge(List.of(full, other), 10).get("a");
+
+		// "a" may have been evicted from the full summary with up to its minimum of 3
+		assertEquals(4, a.count());
+		assertEquals(3, a.error());
+		assertEquals(1, a.guaranteedCount());
+	}
+}
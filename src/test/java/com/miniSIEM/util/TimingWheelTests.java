@@ -0,0 +1,63 @@
+package com.miniSIEM.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTests {
+
+	@Test
+	void keysFireOnceTheTickContainingTheirDeadlineIsReached() {
+		TimingWheel wheel = new TimingWheel(1000, 8, 0);
+		wheel.schedule(1, 2000);
+		wheel.schedule(2, 1500);
+		List<Long> fired = new ArrayList<>();
+
+		wheel.advance(1999, fired::add);
+		assertTrue(fired.isEmpty());
+		wheel.advance(2000, fired::add);
+		assertEquals(List.of(1L, 2L), fired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void deadlinesBeyondOneRotationWaitForTheirRound() {
+		TimingWheel wheel = new TimingWheel(1000, 8, 0);
+		wheel.schedule(1, 10_000);
+		List<Long> fired = new ArrayList<>();
+
+		// Same slot as tick 2, but a later round
+		wheel.advance(2000, fired::add);
+		assertTrue(fired.isEmpty());
+		assertEquals(1, wheel.size());
+		wheel.advance(10_000, fired::add);
+		assertEquals(List.of(1L), fired);
+	}
+
+	@Test
+	void expiredKeysCanBeRescheduledFromTheCallback() {
+		TimingWheel wheel = new TimingWheel(1000, 8, 0);
+		wheel.schedule(1, 1000);
+		List<Long> fired = new ArrayList<>();
+
+		wheel.advance(1000, key -> {
+			fired.add(key);
+			wheel.schedule(key, 3000);
+		});
+		assertEquals(1, wheel.size());
+		wheel.advance(2999, fired::add);
+		assertEquals(List.of(1L), fired);
+		wheel.advance(3000, fired::add);
+		assertEquals(List.of(1L, 1L), fired);
+
+		// A deadline already passed is due with the next tick rather than lost
+		wheel.schedule(2, 500);
+		wheel.advance(3500, fired::add);
+		assertEquals(List.of(1L, 1L), fired);
+		wheel.advance(4000, fired::add);
+		assertEquals(List.of(1L, 1L, 2L), fired);
+	}
+}